@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.benchmark;
+
+import com.github.x3333.dagger.aop.InterceptorHandler;
+import com.github.x3333.dagger.aop.MethodInterceptor;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * {@link InterceptorHandler}s binding each {@link Hops hop annotation} to its {@link HopInterceptors interceptor}.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public final class HopHandlers {
+
+  private HopHandlers() {}
+
+  abstract static class PassThroughHandler implements InterceptorHandler {
+
+    private final Class<? extends Annotation> annotation;
+    private final Class<? extends MethodInterceptor> interceptor;
+
+    PassThroughHandler(final Class<? extends Annotation> annotation, final Class<? extends MethodInterceptor> interceptor) {
+      this.annotation = annotation;
+      this.interceptor = interceptor;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotation() {
+      return annotation;
+    }
+
+    @Override
+    public Class<? extends MethodInterceptor> methodInterceptorClass() {
+      return interceptor;
+    }
+
+    @Override
+    public boolean invocationEscapes() {
+      return false;
+    }
+
+  }
+
+  public static final class Hop1Handler extends PassThroughHandler {
+    public Hop1Handler() {
+      super(Hops.Hop1.class, HopInterceptors.Hop1Interceptor.class);
+    }
+  }
+
+  public static final class Hop2Handler extends PassThroughHandler {
+    public Hop2Handler() {
+      super(Hops.Hop2.class, HopInterceptors.Hop2Interceptor.class);
+    }
+  }
+
+  public static final class Hop3Handler extends PassThroughHandler {
+    public Hop3Handler() {
+      super(Hops.Hop3.class, HopInterceptors.Hop3Interceptor.class);
+    }
+  }
+
+  public static final class Hop4Handler extends PassThroughHandler {
+    public Hop4Handler() {
+      super(Hops.Hop4.class, HopInterceptors.Hop4Interceptor.class);
+    }
+  }
+
+  public static final class Hop5Handler extends PassThroughHandler {
+    public Hop5Handler() {
+      super(Hops.Hop5.class, HopInterceptors.Hop5Interceptor.class);
+    }
+  }
+
+  public static final class Hop6Handler extends PassThroughHandler {
+    public Hop6Handler() {
+      super(Hops.Hop6.class, HopInterceptors.Hop6Interceptor.class);
+    }
+  }
+
+  public static final class Hop7Handler extends PassThroughHandler {
+    public Hop7Handler() {
+      super(Hops.Hop7.class, HopInterceptors.Hop7Interceptor.class);
+    }
+  }
+
+  public static final class Hop8Handler extends PassThroughHandler {
+    public Hop8Handler() {
+      super(Hops.Hop8.class, HopInterceptors.Hop8Interceptor.class);
+    }
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.benchmark;
+
+import com.github.x3333.dagger.aop.DoubleMethodInterceptor;
+import com.github.x3333.dagger.aop.DoubleMethodInvocation;
+import com.github.x3333.dagger.aop.IntMethodInterceptor;
+import com.github.x3333.dagger.aop.IntMethodInvocation;
+import com.github.x3333.dagger.aop.LongMethodInterceptor;
+import com.github.x3333.dagger.aop.LongMethodInvocation;
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import javax.inject.Inject;
+
+/**
+ * Interceptors that only proceed the invocation, so benchmarks measure the generated code and nothing else.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public final class HopInterceptors {
+
+  private HopInterceptors() {}
+
+  public abstract static class PassThroughInterceptor
+      implements IntMethodInterceptor, LongMethodInterceptor, DoubleMethodInterceptor {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T invoke(final MethodInvocation invocation) throws Throwable {
+      return (T) invocation.proceed();
+    }
+
+    @Override
+    public int invokeInt(final IntMethodInvocation invocation) throws Throwable {
+      return invocation.proceedInt();
+    }
+
+    @Override
+    public long invokeLong(final LongMethodInvocation invocation) throws Throwable {
+      return invocation.proceedLong();
+    }
+
+    @Override
+    public double invokeDouble(final DoubleMethodInvocation invocation) throws Throwable {
+      return invocation.proceedDouble();
+    }
+
+  }
+
+  public static final class Hop1Interceptor extends PassThroughInterceptor {
+    @Inject
+    public Hop1Interceptor() {}
+  }
+
+  public static final class Hop2Interceptor extends PassThroughInterceptor {
+    @Inject
+    public Hop2Interceptor() {}
+  }
+
+  public static final class Hop3Interceptor extends PassThroughInterceptor {
+    @Inject
+    public Hop3Interceptor() {}
+  }
+
+  public static final class Hop4Interceptor extends PassThroughInterceptor {
+    @Inject
+    public Hop4Interceptor() {}
+  }
+
+  public static final class Hop5Interceptor extends PassThroughInterceptor {
+    @Inject
+    public Hop5Interceptor() {}
+  }
+
+  public static final class Hop6Interceptor extends PassThroughInterceptor {
+    @Inject
+    public Hop6Interceptor() {}
+  }
+
+  public static final class Hop7Interceptor extends PassThroughInterceptor {
+    @Inject
+    public Hop7Interceptor() {}
+  }
+
+  public static final class Hop8Interceptor extends PassThroughInterceptor {
+    @Inject
+    public Hop8Interceptor() {}
+  }
+
+}
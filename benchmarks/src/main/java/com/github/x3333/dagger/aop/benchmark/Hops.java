@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.benchmark;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Annotations used to stack pass-through interceptors on benchmark fixtures.
+ * 
+ * <p>
+ * Each annotation is bound to its own {@link HopInterceptors interceptor class}, so stacked interceptors have distinct receiver types
+ * like they would in production.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public final class Hops {
+
+  private Hops() {}
+
+  @Retention(RUNTIME)
+  @Target(ElementType.METHOD)
+  public @interface Hop1 {
+  }
+
+  @Retention(RUNTIME)
+  @Target(ElementType.METHOD)
+  public @interface Hop2 {
+  }
+
+  @Retention(RUNTIME)
+  @Target(ElementType.METHOD)
+  public @interface Hop3 {
+  }
+
+  @Retention(RUNTIME)
+  @Target(ElementType.METHOD)
+  public @interface Hop4 {
+  }
+
+  @Retention(RUNTIME)
+  @Target(ElementType.METHOD)
+  public @interface Hop5 {
+  }
+
+  @Retention(RUNTIME)
+  @Target(ElementType.METHOD)
+  public @interface Hop6 {
+  }
+
+  @Retention(RUNTIME)
+  @Target(ElementType.METHOD)
+  public @interface Hop7 {
+  }
+
+  @Retention(RUNTIME)
+  @Target(ElementType.METHOD)
+  public @interface Hop8 {
+  }
+
+}
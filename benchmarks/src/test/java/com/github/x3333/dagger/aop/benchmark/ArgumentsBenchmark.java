@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.benchmark;
+
+import com.github.x3333.dagger.aop.benchmark.di.DaggerBenchmarkComponent;
+import com.github.x3333.dagger.aop.benchmark.fixture.ArgumentsFixture;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one interceptor for methods with 0 to 6 arguments.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArgumentsBenchmark {
+
+  private ArgumentsFixture direct;
+  private ArgumentsFixture intercepted;
+
+  private int a = 1;
+  private long b = 2L;
+  private Object c = new Object();
+  private double d = 4.0d;
+  private boolean z = true;
+  private String f = "six";
+
+  @Setup
+  public void setUp() {
+    direct = new ArgumentsFixture() {};
+    intercepted = DaggerBenchmarkComponent.create().arguments();
+  }
+
+  @Benchmark
+  public int directArgs0() {
+    return direct.args0();
+  }
+
+  @Benchmark
+  public int interceptedArgs0() {
+    return intercepted.args0();
+  }
+
+  @Benchmark
+  public int directArgs1() {
+    return direct.args1(a);
+  }
+
+  @Benchmark
+  public int interceptedArgs1() {
+    return intercepted.args1(a);
+  }
+
+  @Benchmark
+  public int directArgs2() {
+    return direct.args2(a, b);
+  }
+
+  @Benchmark
+  public int interceptedArgs2() {
+    return intercepted.args2(a, b);
+  }
+
+  @Benchmark
+  public int directArgs3() {
+    return direct.args3(a, b, c);
+  }
+
+  @Benchmark
+  public int interceptedArgs3() {
+    return intercepted.args3(a, b, c);
+  }
+
+  @Benchmark
+  public int directArgs4() {
+    return direct.args4(a, b, c, d);
+  }
+
+  @Benchmark
+  public int interceptedArgs4() {
+    return intercepted.args4(a, b, c, d);
+  }
+
+  @Benchmark
+  public int directArgs5() {
+    return direct.args5(a, b, c, d, z);
+  }
+
+  @Benchmark
+  public int interceptedArgs5() {
+    return intercepted.args5(a, b, c, d, z);
+  }
+
+  @Benchmark
+  public int directArgs6() {
+    return direct.args6(a, b, c, d, z, f);
+  }
+
+  @Benchmark
+  public int interceptedArgs6() {
+    return intercepted.args6(a, b, c, d, z, f);
+  }
+
+}
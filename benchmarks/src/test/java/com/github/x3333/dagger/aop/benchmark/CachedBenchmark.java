@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.benchmark;
+
+import com.github.x3333.dagger.aop.benchmark.di.DaggerBenchmarkComponent;
+import com.github.x3333.dagger.aop.benchmark.fixture.CachedFixture;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of cache hits of the built-in <code>&#064;Cached</code> interceptor, all threads reading the same 512 keys.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class CachedBenchmark {
+
+  private static final int KEYS = 512;
+
+  private CachedFixture direct;
+  private CachedFixture cached;
+
+  @State(Scope.Thread)
+  public static class Keys {
+    int next;
+  }
+
+  @Setup
+  public void setUp() {
+    direct = new CachedFixture() {};
+    cached = DaggerBenchmarkComponent.create().cached();
+    for (int i = 0; i < KEYS; i++) {
+      cached.cached(i, "region");
+    }
+  }
+
+  @Benchmark
+  public long direct(final Keys keys) {
+    return direct.cached(keys.next++ & (KEYS - 1), "region");
+  }
+
+  @Benchmark
+  public long cached(final Keys keys) {
+    return cached.cached(keys.next++ & (KEYS - 1), "region");
+  }
+
+}
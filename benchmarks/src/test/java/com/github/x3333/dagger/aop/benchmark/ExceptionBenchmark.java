@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.benchmark;
+
+import com.github.x3333.dagger.aop.benchmark.di.DaggerBenchmarkComponent;
+import com.github.x3333.dagger.aop.benchmark.fixture.ExceptionFixture;
+import com.github.x3333.dagger.aop.benchmark.fixture.ExceptionFixture.FixtureException;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one interceptor for a method that returns normally and one that throws a checked exception.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExceptionBenchmark {
+
+  private ExceptionFixture direct;
+  private ExceptionFixture intercepted;
+  private int value = 42;
+
+  @Setup
+  public void setUp() {
+    direct = new ExceptionFixture() {};
+    intercepted = DaggerBenchmarkComponent.create().exceptions();
+  }
+
+  @Benchmark
+  public int directNonThrowing() throws FixtureException {
+    return direct.nonThrowing(value);
+  }
+
+  @Benchmark
+  public int interceptedNonThrowing() throws FixtureException {
+    return intercepted.nonThrowing(value);
+  }
+
+  @Benchmark
+  public int directThrowing() {
+    try {
+      return direct.throwing(value);
+    } catch (final FixtureException e) {
+      return -1;
+    }
+  }
+
+  @Benchmark
+  public int interceptedThrowing() {
+    try {
+      return intercepted.throwing(value);
+    } catch (final FixtureException e) {
+      return -1;
+    }
+  }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.benchmark;
+
+import com.github.x3333.dagger.aop.benchmark.di.DaggerBenchmarkComponent;
+import com.github.x3333.dagger.aop.benchmark.fixture.ReturnFixture;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one interceptor for void, reference and primitive return values.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReturnTypeBenchmark {
+
+  private ReturnFixture direct;
+  private ReturnFixture intercepted;
+
+  @Setup
+  public void setUp() {
+    direct = new ReturnFixture() {};
+    intercepted = DaggerBenchmarkComponent.create().returns();
+  }
+
+  @Benchmark
+  public void directVoid() {
+    direct.returnVoid();
+  }
+
+  @Benchmark
+  public void interceptedVoid() {
+    intercepted.returnVoid();
+  }
+
+  @Benchmark
+  public Object directReference() {
+    return direct.returnReference();
+  }
+
+  @Benchmark
+  public Object interceptedReference() {
+    return intercepted.returnReference();
+  }
+
+  @Benchmark
+  public int directInt() {
+    return direct.returnInt();
+  }
+
+  @Benchmark
+  public int interceptedInt() {
+    return intercepted.returnInt();
+  }
+
+  @Benchmark
+  public long directLong() {
+    return direct.returnLong();
+  }
+
+  @Benchmark
+  public long interceptedLong() {
+    return intercepted.returnLong();
+  }
+
+  @Benchmark
+  public double directDouble() {
+    return direct.returnDouble();
+  }
+
+  @Benchmark
+  public double interceptedDouble() {
+    return intercepted.returnDouble();
+  }
+
+}
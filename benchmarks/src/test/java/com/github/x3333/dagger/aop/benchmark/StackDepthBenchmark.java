@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.benchmark;
+
+import com.github.x3333.dagger.aop.benchmark.di.DaggerBenchmarkComponent;
+import com.github.x3333.dagger.aop.benchmark.fixture.StackFixture;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of 0, 1, 2, 4 and 8 stacked interceptors against a direct call to the same method body.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StackDepthBenchmark {
+
+  private StackFixture direct;
+  private StackFixture intercepted;
+  private long value = 42;
+
+  @Setup
+  public void setUp() {
+    direct = new StackFixture() {};
+    intercepted = DaggerBenchmarkComponent.create().stack();
+  }
+
+  @Benchmark
+  public long direct() {
+    return direct.depth1(value);
+  }
+
+  @Benchmark
+  public long depth0() {
+    return intercepted.depth0(value);
+  }
+
+  @Benchmark
+  public long depth1() {
+    return intercepted.depth1(value);
+  }
+
+  @Benchmark
+  public long depth2() {
+    return intercepted.depth2(value);
+  }
+
+  @Benchmark
+  public long depth4() {
+    return intercepted.depth4(value);
+  }
+
+  @Benchmark
+  public long depth8() {
+    return intercepted.depth8(value);
+  }
+
+}
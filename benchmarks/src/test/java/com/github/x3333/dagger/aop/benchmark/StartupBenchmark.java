@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.benchmark;
+
+import com.github.x3333.dagger.aop.benchmark.fixture.StackFixture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of loading and initializing the generated <code>Interceptor_*</code> classes of all fixtures, as paid at application startup.
+ * 
+ * <p>
+ * Each iteration loads the fixture classes again in a new {@link ClassLoader}, so no reflective data is cached between iterations.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = 1)
+@Measurement(iterations = 50, batchSize = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+  private static final String FIXTURE_PACKAGE = StackFixture.class.getPackage().getName() + ".";
+  private static final String[] INTERCEPTORS = { //
+      FIXTURE_PACKAGE + "Interceptor_StackFixture", //
+      FIXTURE_PACKAGE + "Interceptor_ReturnFixture", //
+      FIXTURE_PACKAGE + "Interceptor_ArgumentsFixture", //
+      FIXTURE_PACKAGE + "Interceptor_ExceptionFixture"};
+
+  private ClassLoader loader;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    loader = new FixtureClassLoader(StartupBenchmark.class.getClassLoader());
+  }
+
+  @Benchmark
+  public void initialize(final Blackhole blackhole) throws ClassNotFoundException {
+    for (final String interceptor : INTERCEPTORS) {
+      blackhole.consume(Class.forName(interceptor, true, loader));
+    }
+  }
+
+  /**
+   * Define the fixture classes again, delegating all other classes to the parent. Class files are read once and kept in memory, so
+   * iterations measure only defining and initializing the classes.
+   */
+  static final class FixtureClassLoader extends ClassLoader {
+
+    private static final Map<String, byte[]> CLASS_FILES = new ConcurrentHashMap<>();
+
+    FixtureClassLoader(final ClassLoader parent) {
+      super(parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+      if (!name.startsWith(FIXTURE_PACKAGE)) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> loaded = findLoadedClass(name);
+        if (loaded == null) {
+          loaded = findClass(name);
+        }
+        if (resolve) {
+          resolveClass(loaded);
+        }
+        return loaded;
+      }
+    }
+
+    @Override
+    protected Class<?> findClass(final String name) throws ClassNotFoundException {
+      byte[] classFile = CLASS_FILES.get(name);
+      if (classFile == null) {
+        classFile = readClassFile(name);
+        CLASS_FILES.put(name, classFile);
+      }
+      return defineClass(name, classFile, 0, classFile.length);
+    }
+
+    private byte[] readClassFile(final String name) throws ClassNotFoundException {
+      try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+        if (in == null) {
+          throw new ClassNotFoundException(name);
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+          out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+      } catch (final IOException e) {
+        throw new ClassNotFoundException(name, e);
+      }
+    }
+
+  }
+
+}
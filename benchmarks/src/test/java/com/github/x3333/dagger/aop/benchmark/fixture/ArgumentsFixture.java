@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.benchmark.fixture;
+
+import com.github.x3333.dagger.aop.benchmark.Hops.Hop1;
+
+/**
+ * One interceptor in front of methods with 0 to 6 arguments, mixing primitives and references.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public abstract class ArgumentsFixture {
+
+  @Hop1
+  public int args0() {
+    return 0;
+  }
+
+  @Hop1
+  public int args1(final int a) {
+    return a;
+  }
+
+  @Hop1
+  public int args2(final int a, final long b) {
+    return a + (int) b;
+  }
+
+  @Hop1
+  public int args3(final int a, final long b, final Object c) {
+    return a + (int) b + c.hashCode();
+  }
+
+  @Hop1
+  public int args4(final int a, final long b, final Object c, final double d) {
+    return a + (int) b + c.hashCode() + (int) d;
+  }
+
+  @Hop1
+  public int args5(final int a, final long b, final Object c, final double d, final boolean z) {
+    return a + (int) b + c.hashCode() + (int) d + (z ? 1 : 0);
+  }
+
+  @Hop1
+  public int args6(final int a, final long b, final Object c, final double d, final boolean z, final String f) {
+    return a + (int) b + c.hashCode() + (int) d + (z ? 1 : 0) + f.length();
+  }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.benchmark.fixture;
+
+import com.github.x3333.dagger.aop.benchmark.Hops.Hop1;
+
+/**
+ * One interceptor in front of a method that returns normally and one that throws a checked exception.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public abstract class ExceptionFixture {
+
+  /**
+   * Preallocated and stackless, so the benchmark measures exception propagation and not stack trace capture.
+   */
+  public static final FixtureException EXCEPTION = new FixtureException();
+
+  public static final class FixtureException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    FixtureException() {
+      super("fixture", null, false, false);
+    }
+
+  }
+
+  @Hop1
+  public int nonThrowing(final int value) throws FixtureException {
+    if (value < 0) {
+      throw EXCEPTION;
+    }
+    return value;
+  }
+
+  @Hop1
+  public int throwing(final int value) throws FixtureException {
+    if (value >= 0) {
+      throw EXCEPTION;
+    }
+    return value;
+  }
+
+}
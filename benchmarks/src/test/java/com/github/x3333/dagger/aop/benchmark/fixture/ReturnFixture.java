@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.benchmark.fixture;
+
+import com.github.x3333.dagger.aop.benchmark.Hops.Hop1;
+
+/**
+ * One interceptor in front of each kind of return value.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public abstract class ReturnFixture {
+
+  private final Object reference = new Object();
+  private int counter;
+
+  @Hop1
+  public void returnVoid() {
+    counter++;
+  }
+
+  @Hop1
+  public Object returnReference() {
+    return reference;
+  }
+
+  @Hop1
+  public int returnInt() {
+    return ++counter;
+  }
+
+  @Hop1
+  public long returnLong() {
+    return ++counter;
+  }
+
+  @Hop1
+  public double returnDouble() {
+    return ++counter;
+  }
+
+  public int getCounter() {
+    return counter;
+  }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.benchmark.fixture;
+
+import com.github.x3333.dagger.aop.benchmark.Hops.Hop1;
+import com.github.x3333.dagger.aop.benchmark.Hops.Hop2;
+import com.github.x3333.dagger.aop.benchmark.Hops.Hop3;
+import com.github.x3333.dagger.aop.benchmark.Hops.Hop4;
+import com.github.x3333.dagger.aop.benchmark.Hops.Hop5;
+import com.github.x3333.dagger.aop.benchmark.Hops.Hop6;
+import com.github.x3333.dagger.aop.benchmark.Hops.Hop7;
+import com.github.x3333.dagger.aop.benchmark.Hops.Hop8;
+
+/**
+ * Same method body behind 0, 1, 2, 4 and 8 stacked interceptors.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public abstract class StackFixture {
+
+  public long depth0(final long value) {
+    return value + 1;
+  }
+
+  @Hop1
+  public long depth1(final long value) {
+    return value + 1;
+  }
+
+  @Hop1
+  @Hop2
+  public long depth2(final long value) {
+    return value + 1;
+  }
+
+  @Hop1
+  @Hop2
+  @Hop3
+  @Hop4
+  public long depth4(final long value) {
+    return value + 1;
+  }
+
+  @Hop1
+  @Hop2
+  @Hop3
+  @Hop4
+  @Hop5
+  @Hop6
+  @Hop7
+  @Hop8
+  public long depth8(final long value) {
+    return value + 1;
+  }
+
+}
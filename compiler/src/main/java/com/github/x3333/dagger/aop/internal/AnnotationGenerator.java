@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.internal;
+
+import static com.github.x3333.dagger.aop.internal.Util.isVisibleFrom;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PROTECTED;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+import com.github.x3333.dagger.aop.AbstractAnnotation;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+
+import com.google.auto.common.AnnotationMirrors;
+import com.google.auto.common.MoreElements;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generate implementations of the interceptors annotations, so their instances are created from the values in the source code
+ * instead of by reflection.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class AnnotationGenerator {
+
+  private static final String IMPLEMENTATION_SUFFIX = "$Impl";
+
+  private AnnotationGenerator() {}
+
+  /**
+   * @param annotationName Name of the annotation in the interceptor class, its simple name, suffixed if annotations with the same
+   *        simple name from other packages are implemented too.
+   * @return Name of the annotation implementation, nested in the interceptor class.
+   */
+  static ClassName implementationName(final ClassName interceptorClassName, final String annotationName) {
+    return interceptorClassName.nestedClass(annotationName + IMPLEMENTATION_SUFFIX);
+  }
+
+  /**
+   * Check if the annotation can be implemented in the package <code>from</code>: the annotation and the classes and enums in its
+   * values must be visible, and it can't have annotation members.
+   */
+  static boolean isImplementable(final AnnotationMirror mirror, final PackageElement from) {
+    final TypeElement annotationElement = MoreElements.asType(mirror.getAnnotationType().asElement());
+    if (!isVisibleFrom(annotationElement, from)) {
+      return false;
+    }
+    for (final ExecutableElement member : ElementFilter.methodsIn(annotationElement.getEnclosedElements())) {
+      if (isAnnotationType(member.getReturnType())) {
+        return false;
+      }
+    }
+    for (final AnnotationValue value : AnnotationMirrors.getAnnotationValuesWithDefaults(mirror).values()) {
+      if (!isValueVisibleFrom(value.getValue(), from)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Generate the implementation of the annotation, a class with a field per member, set by its constructor in the order they are
+   * declared. Array members return a copy, as annotations returned by reflection.
+   */
+  static TypeSpec generateImplementation(final ClassName implementationName, final TypeElement annotationElement) {
+    final ClassName annotationName = ClassName.get(annotationElement);
+    final List<ExecutableElement> members = ElementFilter.methodsIn(annotationElement.getEnclosedElements());
+
+    final TypeSpec.Builder implementation = TypeSpec.classBuilder(implementationName.simpleName())//
+        .addModifiers(PRIVATE, STATIC, FINAL)//
+        .superclass(AbstractAnnotation.class)//
+        .addSuperinterface(annotationName);
+
+    final CodeBlock.Builder memberNames = CodeBlock.builder();
+    final MethodSpec.Builder constructor = MethodSpec.constructorBuilder();
+    final CodeBlock.Builder fields = CodeBlock.builder();
+    final CodeBlock.Builder memberValue = CodeBlock.builder().add("switch ($$index) {\n").indent();
+    for (int i = 0; i < members.size(); i++) {
+      final ExecutableElement member = members.get(i);
+      final TypeName type = TypeName.get(member.getReturnType());
+      final String name = member.getSimpleName().toString();
+
+      memberNames.add(", $S", name);
+      implementation.addField(type, name, PRIVATE, FINAL);
+      constructor.addParameter(type, name, FINAL);
+      fields.addStatement("this.$L = $L", name, name);
+      memberValue.add("case $L:\n", i).indent()//
+          .addStatement("return $L", name).unindent();
+      implementation.addMethod(MethodSpec.methodBuilder(name)//
+          .addAnnotation(Override.class)//
+          .addModifiers(PUBLIC)//
+          .returns(type)//
+          .addStatement(member.getReturnType().getKind() == TypeKind.ARRAY ? "return $L.clone()" : "return $L", name)//
+          .build());
+    }
+    implementation.addMethod(constructor//
+        .addStatement("super($T.class$L)", annotationName, memberNames.build())//
+        .addCode(fields.build())//
+        .build());
+
+    if (!members.isEmpty()) {
+      implementation.addMethod(MethodSpec.methodBuilder("memberValue")//
+          .addAnnotation(Override.class)//
+          .addModifiers(PROTECTED)//
+          .returns(Object.class)//
+          .addParameter(int.class, "$index", FINAL)//
+          .addCode(memberValue.add("default:\n").indent()//
+              .addStatement("return super.memberValue($$index)").unindent()//
+              .unindent().add("}\n").build())//
+          .build());
+    }
+    return implementation.build();
+  }
+
+  /**
+   * Create the instance of the annotation implementation, with the values of the <code>mirror</code>.
+   */
+  static CodeBlock createInstance(final ClassName implementationName, final AnnotationMirror mirror) {
+    final Map<ExecutableElement, AnnotationValue> values = AnnotationMirrors.getAnnotationValuesWithDefaults(mirror);
+    final CodeBlock.Builder arguments = CodeBlock.builder();
+    String separator = "";
+    for (final Map.Entry<ExecutableElement, AnnotationValue> entry : values.entrySet()) {
+      arguments.add(separator).add(valueCode(entry.getKey().getReturnType(), entry.getValue()));
+      separator = ", ";
+    }
+    return CodeBlock.of("new $T($L)", implementationName, arguments.build());
+  }
+
+  //
+
+  private static CodeBlock valueCode(final TypeMirror type, final AnnotationValue annotationValue) {
+    final Object value = annotationValue.getValue();
+    switch (type.getKind()) {
+      case BYTE:
+        return CodeBlock.of("(byte) $L", value);
+      case SHORT:
+        return CodeBlock.of("(short) $L", value);
+      case CHAR:
+        return CodeBlock.of("(char) $L", (int) (Character) value);
+      case LONG:
+        return CodeBlock.of("$LL", value);
+      case FLOAT:
+        final Float floatValue = (Float) value;
+        if (floatValue.isNaN() || floatValue.isInfinite()) {
+          return CodeBlock.of("$T.$L", Float.class, floatValue.isNaN() ? "NaN"
+              : floatValue > 0 ? "POSITIVE_INFINITY" : "NEGATIVE_INFINITY");
+        }
+        return CodeBlock.of("$Lf", value);
+      case DOUBLE:
+        final Double doubleValue = (Double) value;
+        if (doubleValue.isNaN() || doubleValue.isInfinite()) {
+          return CodeBlock.of("$T.$L", Double.class, doubleValue.isNaN() ? "NaN"
+              : doubleValue > 0 ? "POSITIVE_INFINITY" : "NEGATIVE_INFINITY");
+        }
+        return CodeBlock.of("$L", value);
+      case ARRAY:
+        final TypeMirror componentType = ((ArrayType) type).getComponentType();
+        final CodeBlock.Builder elements = CodeBlock.builder();
+        String separator = "";
+        for (final AnnotationValue element : asList(value)) {
+          elements.add(separator).add(valueCode(componentType, element));
+          separator = ", ";
+        }
+        final TypeName componentTypeName = TypeName.get(componentType);
+        // Arrays of generic types, like Class<? extends Throwable>[], cannot be created directly.
+        if (componentTypeName instanceof ParameterizedTypeName) {
+          return CodeBlock.of("$T.<$T>arrayOf($L)", AbstractAnnotation.class, componentTypeName, elements.build());
+        }
+        return CodeBlock.of("new $T[] {$L}", componentTypeName, elements.build());
+      default:
+        break;
+    }
+    if (value instanceof String) {
+      return CodeBlock.of("$S", value);
+    } else if (value instanceof TypeMirror) {
+      final TypeName typeName = TypeName.get((TypeMirror) value);
+      return CodeBlock.of("$T.class",
+          typeName instanceof ParameterizedTypeName ? ((ParameterizedTypeName) typeName).rawType : typeName);
+    } else if (value instanceof VariableElement) {
+      final VariableElement constant = (VariableElement) value;
+      return CodeBlock.of("$T.$L", ClassName.get(MoreElements.asType(constant.getEnclosingElement())),
+          constant.getSimpleName());
+    }
+    return CodeBlock.of("$L", value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<? extends AnnotationValue> asList(final Object arrayValue) {
+    return (List<? extends AnnotationValue>) arrayValue;
+  }
+
+  private static boolean isAnnotationType(final TypeMirror type) {
+    if (type.getKind() == TypeKind.ARRAY) {
+      return isAnnotationType(((ArrayType) type).getComponentType());
+    }
+    return type.getKind() == TypeKind.DECLARED
+        && ((DeclaredType) type).asElement().getKind() == ElementKind.ANNOTATION_TYPE;
+  }
+
+  private static boolean isValueVisibleFrom(final Object value, final PackageElement from) {
+    if (value instanceof List) {
+      return asList(value).stream().allMatch(v -> isValueVisibleFrom(v.getValue(), from));
+    } else if (value instanceof TypeMirror) {
+      final TypeMirror type = (TypeMirror) value;
+      if (type.getKind() == TypeKind.ARRAY) {
+        return isValueVisibleFrom(((ArrayType) type).getComponentType(), from);
+      }
+      return type.getKind() != TypeKind.DECLARED
+          ? type.getKind().isPrimitive() || type.getKind() == TypeKind.VOID
+          : isVisibleFrom(((DeclaredType) type).asElement(), from);
+    } else if (value instanceof VariableElement) {
+      return isVisibleFrom(((VariableElement) value).getEnclosingElement(), from);
+    }
+    return true;
+  }
+
+}
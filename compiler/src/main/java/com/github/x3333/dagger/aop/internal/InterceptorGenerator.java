@@ -15,34 +15,58 @@ package com.github.x3333.dagger.aop.internal;
 
 import static com.github.x3333.dagger.aop.internal.Util.cloneConstructor;
 import static com.github.x3333.dagger.aop.internal.Util.cloneMethod;
+import static com.github.x3333.dagger.aop.internal.Util.isCompletionStage;
 import static com.github.x3333.dagger.aop.internal.Util.simpleNames;
 import static com.github.x3333.dagger.aop.internal.Util.toSpec;
 import static javax.lang.model.element.ElementKind.CONSTRUCTOR;
 import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PROTECTED;
 import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
 import static javax.lang.model.type.TypeKind.VOID;
 
+import com.github.x3333.dagger.aop.AbstractDispatcherMethodInvocation;
+import com.github.x3333.dagger.aop.AbstractDoubleMethodInvocation;
+import com.github.x3333.dagger.aop.AbstractIntMethodInvocation;
+import com.github.x3333.dagger.aop.AbstractLongMethodInvocation;
 import com.github.x3333.dagger.aop.AbstractMethodInvocation;
+import com.github.x3333.dagger.aop.AsyncMethodInterceptor;
+import com.github.x3333.dagger.aop.DoubleMethodInterceptor;
+import com.github.x3333.dagger.aop.InlineInterceptorHandler;
+import com.github.x3333.dagger.aop.IntMethodInterceptor;
 import com.github.x3333.dagger.aop.InterceptorHandler;
+import com.github.x3333.dagger.aop.LongMethodInterceptor;
 import com.github.x3333.dagger.aop.MethodInterceptor;
+import com.github.x3333.dagger.aop.MethodMetadata;
 import com.github.x3333.dagger.aop.Sources;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
+import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 
 import com.google.auto.common.MoreElements;
+import com.google.auto.value.AutoValue;
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
@@ -50,6 +74,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
@@ -62,18 +87,48 @@ import com.squareup.javapoet.TypeSpec;
  */
 class InterceptorGenerator {
 
-  private static final String METHOD_CACHE_SUFFIX = "Cache$";
-  private static final String ANNOTATIONS_CACHE_SUFFIX = "AnnotationsCache$";
+  private static final String METADATA_SUFFIX = "Metadata$";
   private static final String INTERCEPTOR_CLASS_PREFIX = "Interceptor_";
+  private static final String INVOCATION_CLASS_SUFFIX = "$Invocation";
+  private static final String SUPER_METHOD_SUFFIX = "$super";
+  private static final String INTERCEPTED_METHOD_SUFFIX = "$intercepted";
+  private static final String DISPATCHER_CLASS_NAME = "Invocation";
+  private static final String DISPATCHER_ARGUMENT_PREFIX = "arg";
+  private static final ImmutableMap<TypeKind, String> TYPED_ARGUMENT_METHODS = ImmutableMap.<TypeKind, String>builder()//
+      .put(TypeKind.INT, "getIntArgument")//
+      .put(TypeKind.LONG, "getLongArgument")//
+      .put(TypeKind.DOUBLE, "getDoubleArgument")//
+      .put(TypeKind.BOOLEAN, "getBooleanArgument")//
+      .put(TypeKind.FLOAT, "getFloatArgument")//
+      .put(TypeKind.SHORT, "getShortArgument")//
+      .put(TypeKind.BYTE, "getByteArgument")//
+      .put(TypeKind.CHAR, "getCharArgument")//
+      .build();
+  private static final ImmutableMap<TypeKind, PrimitiveReturn> PRIMITIVE_RETURNS = ImmutableMap.of(//
+      TypeKind.INT, PrimitiveReturn.of(AbstractIntMethodInvocation.class, IntMethodInterceptor.class, TypeName.INT, "Int"), //
+      TypeKind.LONG, PrimitiveReturn.of(AbstractLongMethodInvocation.class, LongMethodInterceptor.class, TypeName.LONG, "Long"), //
+      TypeKind.DOUBLE, PrimitiveReturn.of(AbstractDoubleMethodInvocation.class, DoubleMethodInterceptor.class, TypeName.DOUBLE, //
+          "Double"));
 
   //
 
   private final ImmutableMap<Class<? extends Annotation>, InterceptorHandler> services;
+  private final boolean reuseInvocations;
+  private final boolean dispatchInvocations;
 
   //
 
-  InterceptorGenerator(final ImmutableMap<Class<? extends Annotation>, InterceptorHandler> services) {
+  /**
+   * @param services Handlers by their annotation.
+   * @param reuseInvocations If methods whose interceptors don't let the invocation escape should reuse a per thread invocation.
+   * @param dispatchInvocations If methods should share a single invocation class per intercepted class, dispatching on the method
+   *        ordinal, instead of an anonymous class per method. Reused invocations take precedence.
+   */
+  InterceptorGenerator(final ImmutableMap<Class<? extends Annotation>, InterceptorHandler> services,
+      final boolean reuseInvocations, final boolean dispatchInvocations) {
     this.services = services;
+    this.reuseInvocations = reuseInvocations;
+    this.dispatchInvocations = dispatchInvocations;
   }
 
   //
@@ -88,6 +143,7 @@ class InterceptorGenerator {
   TypeSpec generateInterceptor(final TypeElement superClassElement, final Collection<MethodBind> methodBinds) {
     final ClassName superClassElementName = ClassName.get(superClassElement);
     final String interceptorName = INTERCEPTOR_CLASS_PREFIX + Joiner.on("_").join(superClassElementName.simpleNames());
+    final ClassName interceptorClassName = ClassName.get(superClassElementName.packageName(), interceptorName);
 
     final TypeSpec.Builder classBuilder = TypeSpec.classBuilder(interceptorName) //
         .addOriginatingElement(superClassElement) //
@@ -117,33 +173,86 @@ class InterceptorGenerator {
 
     final CodeBlock.Builder constructorCode = CodeBlock.builder();
 
-    // Start Annotation Cache statements.
-    final CodeBlock.Builder annotationsCode = CodeBlock.builder();
     final List<Class<? extends Annotation>> interceptorsCreated = new ArrayList<>();
-
-    final CodeBlock.Builder staticAnnotationsCacheCode = CodeBlock.builder()//
-        .add("try {\n").indent();
+    final List<Class<? extends Annotation>> implementationsCreated = new ArrayList<>();
+    // Annotations with the same simple name, from different packages, are suffixed by their index.
+    final Map<Class<? extends Annotation>, String> annotationNames = new HashMap<>();
+    final PackageElement packageElement = MoreElements.getPackage(superClassElement);
+
+    // Dispatched methods share the invocation class, parameters are stored in its fields, one per type and position.
+    final ClassName dispatcherClassName = interceptorClassName.nestedClass(DISPATCHER_CLASS_NAME);
+    final List<DispatchedMethod> dispatchedMethods = new ArrayList<>();
+    final Map<String, TypeName> dispatcherFields = new LinkedHashMap<>();
+    final Map<TypeName, List<String>> dispatcherFieldsByType = new HashMap<>();
+
+    // Overloaded methods have their generated names suffixed by their index among the overloads, so they don't collide.
+    final Map<String, Integer> overloads = new HashMap<>();
+    for (final MethodBind methodBind : methodBinds) {
+      overloads.merge(methodBind.getMethodElement().getSimpleName().toString(), 1, Integer::sum);
+    }
+    final Map<String, Integer> overloadIndexes = new HashMap<>();
 
     // Methods
     for (final MethodBind methodBind : methodBinds) {
       final ExecutableElement methodElement = methodBind.getMethodElement();
-      final ImmutableList<Class<? extends Annotation>> annotations = methodBind.getAnnotations();
+
+      // Inlined templates of each handler, outermost first, nested like the interceptors. Other annotations are intercepted at runtime.
+      final List<InlineTemplates> templates = new ArrayList<>();
+      final ImmutableList.Builder<Class<? extends Annotation>> runtimeAnnotations = ImmutableList.builder();
+      for (final Class<? extends Annotation> annotation : methodBind.getAnnotations()) {
+        if (!addTemplates(this.services.get(annotation), methodElement, templates)) {
+          runtimeAnnotations.add(annotation);
+        }
+      }
+      final ImmutableList<Class<? extends Annotation>> annotations = runtimeAnnotations.build();
+      final boolean inlined = annotations.size() < methodBind.getAnnotations().size();
 
       final TypeMirror returnType = methodElement.getReturnType();
       final boolean hasReturnValue = returnType.getKind() != VOID;
 
       // proceedCall
       final String methodName = methodElement.getSimpleName().toString();
+      final String generatedName = overloads.get(methodName) == 1 ? methodName
+          : methodName + "$" + overloadIndexes.merge(methodName, 1, Integer::sum);
       final Iterable<String> parameterNames = simpleNames(methodElement.getParameters());
       final String joinedParameterNames = Joiner.on(", ").join(parameterNames);
-      // proceedMethod
-      final String proceedMethodModifier = hasReturnValue ? "public" : "protected";
-      final String proceedMethodName = hasReturnValue ? "proceed" : "noReturnProceed";
+
+      if (annotations.isEmpty()) {
+        // All interceptors are inlined, calling the original method without an invocation.
+        classBuilder.addMethod(cloneMethod(methodElement)//
+            .addAnnotation(Override.class)//
+            .addCode(createInlinedCall(returnType, templates, //
+                CodeBlock.of("super.$L($L)", methodName, joinedParameterNames)))//
+            .build());
+        continue;
+      }
+
       // interceptorInvoke
       final String interceptorInvokePrefix = hasReturnValue ? "return " : "";
-      // FIXME: We must add Parameters to the name or a number, so overloaded methods doesn't collide.
-      final String annotationsFieldName = methodName + ANNOTATIONS_CACHE_SUFFIX;
-      final String methodCacheFieldName = methodName + METHOD_CACHE_SUFFIX;
+      // Arguments are served from the parameters captured by the invocation.
+      final List<MethodSpec> argumentMethods = createArgumentMethods(methodElement);
+      final String metadataFieldName = generatedName + METADATA_SUFFIX;
+      // Reused invocations are static classes, reaching the interceptor instance by a field.
+      // Stages complete after the method returns, so their invocation always outlives the call.
+      final boolean reuseInvocation = reuseInvocations && !isCompletionStage(returnType)
+          && annotations.stream().noneMatch(a -> services.get(a).invocationEscapes());
+      final String instancePrefix = reuseInvocation ? "$instance." : "";
+      final boolean dispatchInvocation = dispatchInvocations && !reuseInvocation;
+      final List<String> dispatcherArguments = new ArrayList<>();
+      if (dispatchInvocation) {
+        final Map<TypeName, Integer> typePositions = new HashMap<>();
+        for (final VariableElement parameter : methodElement.getParameters()) {
+          final TypeName type = TypeName.get(parameter.asType());
+          final int position = typePositions.merge(type, 1, Integer::sum) - 1;
+          final List<String> fields = dispatcherFieldsByType.computeIfAbsent(type, t -> new ArrayList<>());
+          if (fields.size() == position) {
+            final String field = DISPATCHER_ARGUMENT_PREFIX + dispatcherFields.size();
+            dispatcherFields.put(field, type);
+            fields.add(field);
+          }
+          dispatcherArguments.add(fields.get(position));
+        }
+      }
 
       // tryBlock
       final CodeBlock.Builder tryBlock = CodeBlock.builder()//
@@ -151,19 +260,27 @@ class InterceptorGenerator {
           .indent();
 
       // proceedCall
-      CodeBlock lastInvoke = CodeBlock.builder()
-          .addStatement("$L$L.super.$L($L)", //
-              interceptorInvokePrefix, interceptorName, //
-              methodName, //
-              joinedParameterNames)
-          .build();
-
-      // Process Annotations
-      for (int i = 0; i < annotations.size(); i++) {
-        final Class<? extends Annotation> annotation = annotations.get(i);
+      final CodeBlock proceedCall = reuseInvocation ? //
+          CodeBlock.builder()
+              .addStatement("$L$L$L$L($L)", //
+                  interceptorInvokePrefix, instancePrefix, //
+                  generatedName, SUPER_METHOD_SUFFIX, //
+                  joinedParameterNames)
+              .build()
+          : CodeBlock.builder()
+              .addStatement("$L$L.super.$L($L)", //
+                  interceptorInvokePrefix, interceptorName, //
+                  methodName, //
+                  dispatchInvocation ? Joiner.on(", ").join(dispatcherArguments) : joinedParameterNames)
+              .build();
+
+      // Process Annotations, the last annotation is the first interceptor called.
+      final List<Class<? extends MethodInterceptor>> interceptorClasses = new ArrayList<>();
+      final List<String> interceptorFieldNames = new ArrayList<>();
+      for (final Class<? extends Annotation> annotation : annotations) {
         final InterceptorHandler handler = this.services.get(annotation);
         final Class<? extends MethodInterceptor> handlerClass = handler.methodInterceptorClass();
-        final String interceptorFieldName = "$interceptor" + annotation.getSimpleName();
+        final String interceptorFieldName = "$interceptor" + annotationName(annotationNames, annotation);
 
         if (!interceptorsCreated.contains(annotation)) {
           final TypeName handlerTypeName = TypeName.get(handlerClass);
@@ -173,135 +290,713 @@ class InterceptorGenerator {
           interceptorsCreated.add(annotation);
         }
 
-        final CodeBlock invokeMethod =
-            createInvokeMethod(returnType, proceedMethodModifier, proceedMethodName, lastInvoke);
-        lastInvoke = createInterceptorInvoke(returnType, interceptorFieldName, interceptorName, methodCacheFieldName,
-            annotationsFieldName, invokeMethod);
+        interceptorClasses.add(0, handlerClass);
+        interceptorFieldNames.add(0, interceptorFieldName);
       }
 
-      tryBlock.add(lastInvoke).unindent();
+      // A single invocation per call, calling the next interceptors by its index in the chain.
+      final List<CodeBlock> chainCalls = new ArrayList<>();
+      for (int i = 1; i < interceptorClasses.size(); i++) {
+        chainCalls.add(createInterceptorInvoke(returnType, interceptorClasses.get(i),
+            instancePrefix + interceptorFieldNames.get(i), CodeBlock.of("this")));
+      }
+      final CodeBlock chain = createChain(returnType, chainCalls, proceedCall);
+      final CodeBlock.Builder methodCode = CodeBlock.builder();
+      final CodeBlock firstInvoke;
+      if (reuseInvocation) {
+        final ClassName invocationClassName = interceptorClassName.nestedClass(generatedName + INVOCATION_CLASS_SUFFIX);
+        classBuilder.addType(createReusableInvocation(returnType, interceptorClassName, invocationClassName,
+            metadataFieldName, methodElement.getParameters(), argumentMethods, chain));
+
+        methodCode.addStatement("final $T $$invocation = $T.acquire(this$L$L)", //
+            invocationClassName, invocationClassName, //
+            parameterNames.iterator().hasNext() ? ", " : "", joinedParameterNames);
+        firstInvoke = createInterceptorInvoke(returnType, interceptorClasses.get(0), interceptorFieldNames.get(0),
+            CodeBlock.of("$$invocation"));
+      } else if (dispatchInvocation) {
+        final int ordinal = dispatchedMethods.size();
+        dispatchedMethods.add(DispatchedMethod.of(ordinal, methodElement, ImmutableList.copyOf(dispatcherArguments), chain));
+
+        methodCode.addStatement("final $T $$invocation = new $T($L, $L)", //
+            dispatcherClassName, dispatcherClassName, metadataFieldName, ordinal);
+        int i = 0;
+        for (final String parameterName : parameterNames) {
+          methodCode.addStatement("$$invocation.$L = $L", dispatcherArguments.get(i++), parameterName);
+        }
+        firstInvoke = createInterceptorInvoke(returnType, interceptorClasses.get(0), interceptorFieldNames.get(0),
+            CodeBlock.of("$$invocation"));
+      } else {
+        final TypeSpec invocation =
+            createInvocation(returnType, interceptorName, metadataFieldName, argumentMethods, chain);
+        firstInvoke = createInterceptorInvoke(returnType, interceptorClasses.get(0), interceptorFieldNames.get(0),
+            CodeBlock.of("$L", invocation));
+      }
+
+      tryBlock.add(firstInvoke).unindent();
 
+      // Generated names are prefixed with $ so they don't collide with parameter names.
       final List<? extends TypeMirror> thrownTypes = methodElement.getThrownTypes();
       for (final TypeMirror thrownType : thrownTypes) {
-        tryBlock.add("} catch ($T e) {\n", thrownType).indent()//
-            .addStatement("throw e").unindent();
+        tryBlock.add("} catch ($T $$e) {\n", thrownType).indent()//
+            .addStatement("throw $$e").unindent();
       }
 
-      tryBlock.add("} catch (RuntimeException e) {\n").indent()//
-          .addStatement("throw e").unindent()//
-          .add("} catch (Throwable e) {\n").indent()//
-          .addStatement("throw new RuntimeException(e)").unindent()//
-          .add("}\n");
+      tryBlock.add("} catch (RuntimeException $$e) {\n").indent()//
+          .addStatement("throw $$e").unindent()//
+          .add("} catch (Throwable $$e) {\n").indent()//
+          .addStatement("throw new RuntimeException($$e)").unindent();
+      if (reuseInvocation) {
+        tryBlock.add("} finally {\n").indent()//
+            .addStatement("$$invocation.release()").unindent();
+      }
+      tryBlock.add("}\n");
+
+      final CodeBlock interceptedCode = methodCode.add(tryBlock.build()).build();
+      if (inlined) {
+        // Inlined templates run around the interceptors called at runtime, moved to a private method.
+        final String interceptedMethodName = generatedName + INTERCEPTED_METHOD_SUFFIX;
+        classBuilder.addMethod(cloneMethod(methodElement)//
+            .addAnnotation(Override.class)//
+            .addCode(createInlinedCall(returnType, templates, //
+                CodeBlock.of("$L($L)", interceptedMethodName, joinedParameterNames)))//
+            .build());
+        classBuilder.addMethod(MethodSpec.methodBuilder(interceptedMethodName)//
+            .addModifiers(PRIVATE)//
+            .returns(TypeName.get(returnType))//
+            .addParameters(Lists.transform(methodElement.getParameters(), Util::cloneParameter))//
+            .addExceptions(Lists.transform(methodElement.getThrownTypes(), TypeName::get))//
+            .addCode(interceptedCode)//
+            .build());
+      } else {
+        classBuilder.addMethod(cloneMethod(methodElement)//
+            .addAnnotation(Override.class)//
+            .addCode(interceptedCode)//
+            .build());
+      }
+      if (reuseInvocation) {
+        classBuilder.addMethod(createSuperMethod(methodElement, generatedName));
+      }
 
-      final CodeBlock argumentsBlock = CodeBlock.builder()//
-          .addStatement("final $T[] arguments = new $T[] { $L }", Object.class, Object.class, joinedParameterNames)//
-          .build();
+      // Method Metadata Field, with the interceptors annotations in the order they are called.
+      // Parameter types are erased, as only raw classes can be used to look up the method.
+      final List<TypeName> parametersTypes = Lists.transform(methodElement.getParameters(), p -> {
+        final TypeName type = TypeName.get(p.asType());
+        return type instanceof ParameterizedTypeName ? ((ParameterizedTypeName) type).rawType : type;
+      });
+      final List<Class<? extends Annotation>> chainAnnotations = annotations.reverse();
+      // Annotation instances created from the source values, null if they must be resolved by reflection.
+      final CodeBlock.Builder chainInstances = CodeBlock.builder();
+      String separator = "";
+      for (final Class<? extends Annotation> annotation : chainAnnotations) {
+        final AnnotationMirror mirror = MoreElements.getAnnotationMirror(methodElement, annotation).get();
+        chainInstances.add(separator);
+        separator = ", ";
+        if (!AnnotationGenerator.isImplementable(mirror, packageElement)) {
+          chainInstances.add("null");
+          continue;
+        }
+        final TypeElement annotationElement = MoreElements.asType(mirror.getAnnotationType().asElement());
+        final ClassName implementationName =
+            AnnotationGenerator.implementationName(interceptorClassName, annotationName(annotationNames, annotation));
+        if (!implementationsCreated.contains(annotation)) {
+          classBuilder.addType(AnnotationGenerator.generateImplementation(implementationName, annotationElement));
+          implementationsCreated.add(annotation);
+        }
+        chainInstances.add(AnnotationGenerator.createInstance(implementationName, mirror));
+      }
+      classBuilder.addField(FieldSpec.builder(//
+          TypeName.get(MethodMetadata.class), //
+          metadataFieldName, //
+          PRIVATE, //
+          STATIC, //
+          FINAL)//
+          .initializer("new $T($T.class, $S, new Class<?>[] {$L}, new $T[] {$L}$L)", //
+              MethodMetadata.class, //
+              superClassElementName, //
+              methodName, //
+              CodeBlock.of(Joiner.on(", ").join(Collections.nCopies(parametersTypes.size(), "$T.class")), //
+                  parametersTypes.toArray()), //
+              Annotation.class, chainInstances.build(), //
+              CodeBlock.of(Strings.repeat(", $T.class", chainAnnotations.size()), chainAnnotations.toArray()))//
+          .build());
+    }
 
-      final MethodSpec method = cloneMethod(MoreElements.asExecutable(methodElement))//
-          .addAnnotation(Override.class)//
-          .addCode(argumentsBlock)//
-          .addCode(tryBlock.build())//
-          .build();
+    if (!dispatchedMethods.isEmpty()) {
+      classBuilder.addType(
+          createDispatcherInvocation(interceptorClassName, dispatcherClassName, dispatcherFields, dispatchedMethods));
+    }
 
-      classBuilder.addMethod(method);
+    constructor.addCode(constructorCode.build());
 
-      // Method Cache Field
-      classBuilder.addField(//
-          TypeName.get(Method.class), //
-          methodCacheFieldName, //
-          PRIVATE, //
-          STATIC, //
-          FINAL);
+    // Add constructor at the end so methods can add their interceptors.
+    classBuilder.addMethod(constructor.build());
 
-      // Method Annotations Cache Field
-      classBuilder.addField(//
-          ParameterizedTypeName.get(List.class, Annotation.class), //
-          annotationsFieldName, //
-          PRIVATE, //
-          STATIC, //
-          FINAL);
-
-      // Method Annotations Cache Statements
-      final List<TypeName> parametersTypes =
-          Lists.transform(methodElement.getParameters(), p -> TypeName.get(p.asType()));
-      final CodeBlock parameters = parametersTypes.size() == 0 ? //
-          CodeBlock.of("") //
-          : CodeBlock.builder().add(//
-              Strings.repeat(", $T.class", parametersTypes.size()), parametersTypes.toArray()).build();
-      staticAnnotationsCacheCode//
-          .addStatement("$L = $L.class.getSuperclass().getDeclaredMethod($S$L)", //
-              methodCacheFieldName, //
-              interceptorName, //
-              methodName, parameters)//
-
-          .addStatement("$L = $T.asList($L.getAnnotations())", //
-              annotationsFieldName, //
-              Arrays.class, //
-              methodCacheFieldName);
+    return classBuilder.build();
+  }
+
+  /**
+   * Name of the <code>annotation</code> in the generated class, its simple name, suffixed by its index among the annotations with the
+   * same simple name in <code>names</code>, so annotations from different packages don't collide.
+   */
+  private static String annotationName(final Map<Class<? extends Annotation>, String> names,
+      final Class<? extends Annotation> annotation) {
+    String name = names.get(annotation);
+    if (name == null) {
+      final String simpleName = annotation.getSimpleName();
+      final long same = names.keySet().stream().filter(a -> a.getSimpleName().equals(simpleName)).count();
+      name = same == 0 ? simpleName : simpleName + "$" + (same + 1);
+      names.put(annotation, name);
     }
+    return name;
+  }
 
-    constructorCode//
-        .add(annotationsCode.build());
+  /**
+   * Create the {@link AbstractMethodInvocation} implementation that proceeds running <code>proceedCode</code>.
+   */
+  private static TypeSpec createInvocation(//
+      final TypeMirror returnTypeMirror, //
+      final String interceptorName, //
+      final String metadataFieldName, //
+      final List<MethodSpec> argumentMethods, //
+      final CodeBlock proceedCode) {
+
+    return addInvocationMethods(TypeSpec.anonymousClassBuilder("\n$>$>$L.this,\n$L.$L$<$<", //
+        interceptorName, //
+        interceptorName, metadataFieldName), //
+        returnTypeMirror, argumentMethods, proceedCode)//
+            .build();
+  }
+
+  /**
+   * Create the reusable {@link AbstractMethodInvocation} implementation, a static class with a per thread instance, that proceeds
+   * running <code>proceedCode</code>.
+   * 
+   * <p>
+   * Calls <code>acquire</code> the thread's instance, setting the method parameters, and <code>release</code> it when the method
+   * returns. Reentrant calls, when the thread's instance is already in use, create a new instance.
+   */
+  private static TypeSpec createReusableInvocation(//
+      final TypeMirror returnTypeMirror, //
+      final ClassName interceptorClassName, //
+      final ClassName invocationClassName, //
+      final String metadataFieldName, //
+      final List<? extends VariableElement> parameters, //
+      final List<MethodSpec> argumentMethods, //
+      final CodeBlock proceedCode) {
+
+    final TypeSpec.Builder invocation = TypeSpec.classBuilder(invocationClassName.simpleName())//
+        .addModifiers(PRIVATE, STATIC, FINAL)//
+        .addField(FieldSpec.builder(//
+            ParameterizedTypeName.get(ClassName.get(ThreadLocal.class), invocationClassName), "$current", //
+            PRIVATE, STATIC, FINAL)//
+            .initializer("$T.withInitial($T::new)", ThreadLocal.class, invocationClassName)//
+            .build())//
+        .addField(boolean.class, "$inUse", PRIVATE)//
+        .addField(interceptorClassName, "$instance", PRIVATE);
+
+    final MethodSpec.Builder acquire = MethodSpec.methodBuilder("acquire")//
+        .addModifiers(STATIC)//
+        .returns(invocationClassName)//
+        .addParameter(interceptorClassName, "$instance", FINAL)//
+        .addStatement("$T $$invocation = $$current.get()", invocationClassName)//
+        .beginControlFlow("if ($$invocation.$$inUse)")//
+        .addCode("// Reentrant call, the thread's invocation is in use.\n")//
+        .addStatement("$$invocation = new $T()", invocationClassName)//
+        .endControlFlow()//
+        .addStatement("$$invocation.$$inUse = true")//
+        .addStatement("$$invocation.$$instance = $$instance")//
+        .addStatement("$$invocation.reset($$instance)");
+
+    final MethodSpec.Builder release = MethodSpec.methodBuilder("release")//
+        .addStatement("$$inUse = false")//
+        .addStatement("$$instance = null")//
+        .addStatement("reset(null)");
+
+    for (final VariableElement parameter : parameters) {
+      final TypeName type = TypeName.get(parameter.asType());
+      final String name = parameter.getSimpleName().toString();
+      invocation.addField(type, name, PRIVATE);
+      acquire.addParameter(type, name, FINAL).addStatement("$$invocation.$L = $L", name, name);
+      if (!type.isPrimitive()) {
+        release.addStatement("$L = null", name);
+      }
+    }
 
-    staticAnnotationsCacheCode.unindent()//
-        .add("} catch (NoSuchMethodException | SecurityException e) {\n").indent()//
-        .addStatement("throw new RuntimeException(e)").unindent()//
-        .add("}\n");
+    return addInvocationMethods(invocation, returnTypeMirror, argumentMethods, proceedCode)//
+        .addMethod(MethodSpec.constructorBuilder()//
+            .addModifiers(PRIVATE)//
+            .addStatement("super(null, $T.$L)", interceptorClassName, metadataFieldName)//
+            .build())//
+        .addMethod(acquire.addStatement("return $$invocation").build())//
+        .addMethod(release.build())//
+        .build();
+  }
 
-    constructor.addCode(constructorCode.build());
+  /**
+   * Create the {@link AbstractDispatcherMethodInvocation} implementation shared by the <code>dispatchedMethods</code>, an inner
+   * class that proceeds running the chain of the method by its ordinal.
+   * 
+   * <p>
+   * The method parameters are set in the <code>fields</code> by the intercepted method, after creating the invocation.
+   */
+  private static TypeSpec createDispatcherInvocation(//
+      final ClassName interceptorClassName, //
+      final ClassName dispatcherClassName, //
+      final Map<String, TypeName> fields, //
+      final List<DispatchedMethod> dispatchedMethods) {
+
+    final TypeSpec.Builder invocation = TypeSpec.classBuilder(dispatcherClassName.simpleName())//
+        .addModifiers(PRIVATE, FINAL)//
+        .superclass(AbstractDispatcherMethodInvocation.class);
+    fields.forEach((name, type) -> invocation.addField(type, name));
+
+    invocation.addMethod(MethodSpec.constructorBuilder()//
+        .addParameter(MethodMetadata.class, "metadata", FINAL)//
+        .addParameter(int.class, "ordinal", FINAL)//
+        .addStatement("super($T.this, metadata, ordinal)", interceptorClassName)//
+        .build());
+
+    // Arguments
+    final List<DispatchedMethod> withArguments =
+        dispatchedMethods.stream().filter(m -> !m.arguments().isEmpty()).collect(Collectors.toList());
+    if (!withArguments.isEmpty()) {
+      final CodeBlock.Builder argumentCount = CodeBlock.builder().add("switch (ordinal) {\n").indent();
+      for (final DispatchedMethod method : withArguments) {
+        argumentCount.add("case $L:\n", method.ordinal()).indent()//
+            .addStatement("return $L", method.arguments().size()).unindent();
+      }
+      invocation.addMethod(MethodSpec.methodBuilder("argumentCount")//
+          .addAnnotation(Override.class)//
+          .addModifiers(PUBLIC)//
+          .returns(int.class)//
+          .addCode(argumentCount.add("default:\n").indent()//
+              .addStatement("return super.argumentCount()").unindent()//
+              .unindent().add("}\n").build())//
+          .build());
+      invocation.addMethod(createDispatcherArgumentMethod("getArgument", TypeName.OBJECT, withArguments, p -> true));
+      for (final Entry<TypeKind, String> typed : TYPED_ARGUMENT_METHODS.entrySet()) {
+        final TypeKind kind = typed.getKey();
+        final Predicate<VariableElement> filter = p -> p.asType().getKind() == kind;
+        withArguments.stream().flatMap(m -> m.methodElement().getParameters().stream()).filter(filter).findFirst()
+            .ifPresent(p -> invocation.addMethod(
+                createDispatcherArgumentMethod(typed.getValue(), TypeName.get(p.asType()), withArguments, filter)));
+      }
+    }
 
-    classBuilder.addStaticBlock(staticAnnotationsCacheCode.build());
+    // Proceed methods, by return type. Primitive returns are boxed by proceed when requested.
+    // Unknown ordinals throw instead of delegating to super, so the invocation doesn't escape in a call never made.
+    final CodeBlock.Builder proceed = CodeBlock.builder();
+    final CodeBlock.Builder noReturnProceed = CodeBlock.builder();
+    final Map<TypeKind, CodeBlock.Builder> primitiveProceeds = new LinkedHashMap<>();
+    for (final DispatchedMethod method : dispatchedMethods) {
+      final TypeKind kind = method.methodElement().getReturnType().getKind();
+      final PrimitiveReturn primitiveReturn = PRIMITIVE_RETURNS.get(kind);
+      if (kind == VOID) {
+        proceed.add("case $L:\n", method.ordinal()).indent()//
+            .addStatement("noReturnProceed($$index)")//
+            .addStatement("return null").unindent();
+        noReturnProceed.add("case $L:\n", method.ordinal()).indent()//
+            .add(method.chain())//
+            .addStatement("return").unindent();
+      } else if (primitiveReturn != null) {
+        proceed.add("case $L:\n", method.ordinal()).indent()//
+            .addStatement("return proceed$L($$index)", primitiveReturn.suffix()).unindent();
+        primitiveProceeds.computeIfAbsent(kind, k -> CodeBlock.builder())//
+            .add("case $L:\n", method.ordinal()).indent()//
+            .add(method.chain()).unindent();
+      } else {
+        proceed.add("case $L:\n", method.ordinal()).indent()//
+            .add(method.chain()).unindent();
+      }
+    }
+    addDispatcherProceedMethod(invocation, "proceed", TypeName.OBJECT, proceed.build());
+    addDispatcherProceedMethod(invocation, "noReturnProceed", TypeName.VOID, noReturnProceed.build());
+    primitiveProceeds.forEach((kind, code) -> addDispatcherProceedMethod(invocation, //
+        "proceed" + PRIMITIVE_RETURNS.get(kind).suffix(), PRIMITIVE_RETURNS.get(kind).type(), code.build()));
 
-    // Add constructor at the end so methods can create the annotation cache.
-    classBuilder.addMethod(constructor.build());
+    return invocation.build();
+  }
 
-    return classBuilder.build();
+  private static MethodSpec createDispatcherArgumentMethod(//
+      final String name, //
+      final TypeName returnType, //
+      final List<DispatchedMethod> dispatchedMethods, //
+      final Predicate<VariableElement> filter) {
+
+    final CodeBlock.Builder code = CodeBlock.builder().add("switch (ordinal) {\n").indent();
+    for (final DispatchedMethod method : dispatchedMethods) {
+      final List<? extends VariableElement> parameters = method.methodElement().getParameters();
+      if (parameters.stream().noneMatch(filter)) {
+        continue;
+      }
+      code.add("case $L:\n", method.ordinal()).indent()//
+          .add("switch ($$index) {\n").indent();
+      for (int i = 0; i < parameters.size(); i++) {
+        if (filter.test(parameters.get(i))) {
+          code.add("case $L:\n", i).indent()//
+              .addStatement("return $L", method.arguments().get(i)).unindent();
+        }
+      }
+      code.unindent().add("}\n")//
+          .addStatement("break").unindent();
+    }
+    code.unindent().add("}\n")//
+        .addStatement("return super.$L($$index)", name);
+
+    return MethodSpec.methodBuilder(name)//
+        .addAnnotation(Override.class)//
+        .addModifiers(PUBLIC)//
+        .returns(returnType)//
+        .addParameter(int.class, "$index", FINAL)//
+        .addCode(code.build())//
+        .build();
+  }
+
+  private static void addDispatcherProceedMethod(//
+      final TypeSpec.Builder invocation, //
+      final String name, //
+      final TypeName returnType, //
+      final CodeBlock cases) {
+
+    if (cases.isEmpty()) {
+      return;
+    }
+    final CodeBlock code = CodeBlock.builder().add("switch (ordinal) {\n").indent()//
+        .add(cases)//
+        .add("default:\n").indent()//
+        .addStatement("throw new RuntimeException(\"Invalid method ordinal!\")").unindent()//
+        .unindent().add("}\n")//
+        .build();
+
+    invocation.addMethod(MethodSpec.methodBuilder(name)//
+        .addAnnotation(Override.class)//
+        .addModifiers(PROTECTED)//
+        .returns(returnType)//
+        .addParameter(int.class, "$index", FINAL)//
+        .addException(Throwable.class)//
+        .addCode(code)//
+        .build());
+  }
+
+  /**
+   * Add the templates of the <code>handler</code> for the method, if it's an {@link InlineInterceptorHandler} providing any. They are
+   * added at the beginning, as the first annotation is the last interceptor called.
+   * 
+   * @return If the method is intercepted by the templates.
+   */
+  private static boolean addTemplates(//
+      final InterceptorHandler handler, //
+      final ExecutableElement methodElement, //
+      final List<InlineTemplates> templates) {
+
+    if (!(handler instanceof InlineInterceptorHandler)) {
+      return false;
+    }
+    final InlineInterceptorHandler inlineHandler = (InlineInterceptorHandler) handler;
+    final InlineTemplates handlerTemplates = InlineTemplates.of(inlineHandler.before(methodElement),
+        inlineHandler.after(methodElement), inlineHandler.onThrow(methodElement));
+    if (!handlerTemplates.before().isPresent() && !handlerTemplates.after().isPresent()
+        && !handlerTemplates.onThrow().isPresent()) {
+      return false;
+    }
+    templates.add(0, handlerTemplates);
+    return true;
   }
 
-  private CodeBlock createInvokeMethod(//
+  /**
+   * Create the body of a method with inlined templates, running them around the <code>call</code>, nested like interceptors: the
+   * templates of each handler run around the templates of the handlers called after it, so its <code>onThrow</code> also runs when
+   * their templates throw. The returned value is kept in <code>$result</code> only if there are templates to run after the call.
+   */
+  private static CodeBlock createInlinedCall(//
       final TypeMirror returnTypeMirror, //
-      final String proceedMethodModifier, //
-      final String proceedMethodName, //
-      final CodeBlock proceedCall) {
+      final List<InlineTemplates> templates, //
+      final CodeBlock call) {
+
+    final boolean hasReturnValue = returnTypeMirror.getKind() != VOID;
+    final boolean hasAfter = templates.stream().anyMatch(t -> t.after().isPresent());
+    final boolean hasOnThrow = templates.stream().anyMatch(t -> t.onThrow().isPresent());
+    final CodeBlock.Builder code = CodeBlock.builder();
+
+    final CodeBlock callStatement;
+    if (!hasAfter && !hasOnThrow) {
+      callStatement = CodeBlock.builder().addStatement("$L$L", hasReturnValue ? "return " : "", call).build();
+    } else if (!hasReturnValue) {
+      callStatement = CodeBlock.builder().addStatement("$L", call).build();
+    } else if (hasOnThrow) {
+      // Assigned in the innermost try, declared before the outermost one.
+      code.addStatement("final $T $$result", TypeName.get(returnTypeMirror));
+      callStatement = CodeBlock.builder().addStatement("$$result = $L", call).build();
+    } else {
+      callStatement = CodeBlock.builder().addStatement("final $T $$result = $L", TypeName.get(returnTypeMirror), call).build();
+    }
+    code.add(nestTemplates(templates, 0, callStatement));
+    if (hasReturnValue && (hasAfter || hasOnThrow)) {
+      code.addStatement("return $$result");
+    }
+    return code.build();
+  }
 
-    final CodeBlock.Builder block = CodeBlock.builder()//
-        .add("@$T\n", Override.class);
+  /**
+   * Nest the templates of the handler at <code>index</code> around the ones after it, down to the <code>callStatement</code>. Thrown
+   * exceptions are rethrown with their precise types.
+   */
+  private static CodeBlock nestTemplates(final List<InlineTemplates> templates, final int index, final CodeBlock callStatement) {
+    if (index == templates.size()) {
+      return callStatement;
+    }
+    final InlineTemplates handlerTemplates = templates.get(index);
+    final CodeBlock inner = nestTemplates(templates, index + 1, callStatement);
+    final CodeBlock.Builder code = CodeBlock.builder();
+    handlerTemplates.before().ifPresent(code::add);
+    if (handlerTemplates.onThrow().isPresent()) {
+      code.add("try {\n").indent()//
+          .add(inner).unindent()//
+          .add("} catch (Throwable $$e) {\n").indent()//
+          .add(handlerTemplates.onThrow().get())//
+          .addStatement("throw $$e").unindent()//
+          .add("}\n");
+    } else {
+      code.add(inner);
+    }
+    handlerTemplates.after().ifPresent(code::add);
+    return code.build();
+  }
+
+  /**
+   * Create the method calling the intercepted method in the super class, so reusable invocations can proceed to it.
+   */
+  private static MethodSpec createSuperMethod(final ExecutableElement methodElement, final String generatedName) {
+    final String methodName = methodElement.getSimpleName().toString();
+    return MethodSpec.methodBuilder(generatedName + SUPER_METHOD_SUFFIX)//
+        .addModifiers(PRIVATE)//
+        .returns(TypeName.get(methodElement.getReturnType()))//
+        .addParameters(Lists.transform(methodElement.getParameters(), Util::cloneParameter))//
+        .addExceptions(Lists.transform(methodElement.getThrownTypes(), TypeName::get))//
+        .addStatement("$Lsuper.$L($L)", //
+            methodElement.getReturnType().getKind() == VOID ? "" : "return ", //
+            methodName, //
+            Joiner.on(", ").join(simpleNames(methodElement.getParameters())))//
+        .build();
+  }
 
+  /**
+   * Add the argument accessors and the proceed method of the invocation, extending the {@link AbstractMethodInvocation} for the
+   * <code>returnTypeMirror</code>.
+   */
+  private static TypeSpec.Builder addInvocationMethods(//
+      final TypeSpec.Builder invocation, //
+      final TypeMirror returnTypeMirror, //
+      final List<MethodSpec> argumentMethods, //
+      final CodeBlock proceedCode) {
+
+    final PrimitiveReturn primitiveReturn = PRIMITIVE_RETURNS.get(returnTypeMirror.getKind());
+    final MethodSpec.Builder proceedMethod;
     if (returnTypeMirror.getKind() == VOID) {
-      block.add("$L void $L() throws $T {\n", proceedMethodModifier, proceedMethodName, Throwable.class);
+      proceedMethod = MethodSpec.methodBuilder("noReturnProceed");
+    } else if (primitiveReturn != null) {
+      proceedMethod = MethodSpec.methodBuilder("proceed" + primitiveReturn.suffix()).returns(TypeName.get(returnTypeMirror));
     } else {
-      block.add("$L $T $L() throws $T {\n", proceedMethodModifier, Object.class, proceedMethodName, Throwable.class);
+      proceedMethod = MethodSpec.methodBuilder("proceed").returns(Object.class);
+    }
+    proceedMethod.addAnnotation(Override.class)//
+        .addModifiers(PROTECTED)//
+        .addParameter(int.class, "$index", FINAL)//
+        .addException(Throwable.class)//
+        .addCode(proceedCode);
+
+    return invocation//
+        .superclass(primitiveReturn == null ? AbstractMethodInvocation.class : primitiveReturn.invocationClass())//
+        .addMethods(argumentMethods)//
+        .addMethod(proceedMethod.build());
+  }
+
+  /**
+   * Create the argument accessors of {@link AbstractMethodInvocation}, returning the method parameters directly.
+   * 
+   * <p>
+   * Primitive parameters, <code>int</code>, <code>long</code>, <code>double</code>, <code>boolean</code>, <code>float</code>,
+   * <code>short</code>, <code>byte</code> and <code>char</code>, also get their typed accessor, so they are never boxed unless
+   * requested using {@link AbstractMethodInvocation#getArgument(int)}.
+   */
+  private static List<MethodSpec> createArgumentMethods(final ExecutableElement methodElement) {
+    final List<? extends VariableElement> parameters = methodElement.getParameters();
+    if (parameters.isEmpty()) {
+      return ImmutableList.of();
+    }
+
+    final List<MethodSpec> methods = new ArrayList<>();
+    methods.add(MethodSpec.methodBuilder("argumentCount")//
+        .addAnnotation(Override.class)//
+        .addModifiers(PUBLIC)//
+        .returns(int.class)//
+        .addStatement("return $L", parameters.size())//
+        .build());
+    methods.add(createArgumentMethod("getArgument", TypeName.OBJECT, parameters, p -> true));
+    for (final Entry<TypeKind, String> typed : TYPED_ARGUMENT_METHODS.entrySet()) {
+      final TypeKind kind = typed.getKey();
+      final Predicate<VariableElement> filter = p -> p.asType().getKind() == kind;
+      parameters.stream().filter(filter).findFirst().ifPresent(p -> methods
+          .add(createArgumentMethod(typed.getValue(), TypeName.get(p.asType()), parameters, filter)));
+    }
+    return methods;
+  }
+
+  private static MethodSpec createArgumentMethod(//
+      final String name, //
+      final TypeName returnType, //
+      final List<? extends VariableElement> parameters, //
+      final Predicate<VariableElement> filter) {
+
+    final CodeBlock.Builder code = CodeBlock.builder().add("switch ($$index) {\n").indent();
+    for (int i = 0; i < parameters.size(); i++) {
+      final VariableElement parameter = parameters.get(i);
+      if (filter.test(parameter)) {
+        code.add("case $L:\n", i).indent()//
+            .addStatement("return $L", parameter.getSimpleName()).unindent();
+      }
     }
-    return block.indent()//
+    code.add("default:\n").indent()//
+        .addStatement("return super.$L($$index)", name).unindent()//
+        .unindent().add("}\n");
+
+    return MethodSpec.methodBuilder(name)//
+        .addAnnotation(Override.class)//
+        .addModifiers(PUBLIC)//
+        .returns(returnType)//
+        .addParameter(int.class, "$index", FINAL)//
+        .addCode(code.build())//
+        .build();
+  }
+
+  /**
+   * Create the body of the invocation's proceed method: call the interceptor at the chain position, or the original method
+   * using <code>proceedCall</code> after the last one.
+   */
+  private static CodeBlock createChain(//
+      final TypeMirror returnTypeMirror, //
+      final List<CodeBlock> chainCalls, //
+      final CodeBlock proceedCall) {
+
+    if (chainCalls.isEmpty()) {
+      return proceedCall;
+    }
+    final boolean hasReturnValue = returnTypeMirror.getKind() != VOID;
+    final CodeBlock.Builder code = CodeBlock.builder().add("switch ($$index) {\n").indent();
+    for (int i = 0; i < chainCalls.size(); i++) {
+      code.add("case $L:\n", i).indent().add(chainCalls.get(i));
+      if (!hasReturnValue) {
+        code.addStatement("break");
+      }
+      code.unindent();
+    }
+    return code.add("default:\n").indent()//
         .add(proceedCall).unindent()//
-        .add("}\n")//
+        .unindent().add("}\n")//
         .build();
   }
 
+  /**
+   * Create the call to the interceptor. Interceptors implementing the primitive contract of the return type, like
+   * {@link IntMethodInterceptor}, are called without boxing. {@link AsyncMethodInterceptor AsyncMethodInterceptors} are called
+   * with the {@link AbstractMethodInvocation#async() async invocation} for methods returning a {@link CompletionStage}.
+   */
   private static CodeBlock createInterceptorInvoke(//
       final TypeMirror returnTypeMirror, //
+      final Class<? extends MethodInterceptor> interceptorClass, //
       final String interceptorFieldName, //
-      final String interceptorName, //
-      final String methodCacheFieldName, //
-      final String annotationsFieldName, //
-      final CodeBlock method) {
+      final CodeBlock invocation) {
 
-    final CodeBlock.Builder block = CodeBlock.builder();
     if (returnTypeMirror.getKind() == VOID) {
-      block.add("$L.invoke(new $T(\n", interceptorFieldName, AbstractMethodInvocation.class);
-    } else {
-      final TypeName returnType = TypeName.get(returnTypeMirror).box(); // Box if needed
-      block.add("return ($T) $L.invoke(new $T(\n", returnType, interceptorFieldName, AbstractMethodInvocation.class);
+      return CodeBlock.builder().addStatement("$L.invoke($L)", interceptorFieldName, invocation).build();
+    }
+    final PrimitiveReturn primitiveReturn = PRIMITIVE_RETURNS.get(returnTypeMirror.getKind());
+    if (primitiveReturn != null && primitiveReturn.interceptorClass().isAssignableFrom(interceptorClass)) {
+      return CodeBlock.builder()
+          .addStatement("return $L.invoke$L($L)", interceptorFieldName, primitiveReturn.suffix(), invocation).build();
+    }
+    if (AsyncMethodInterceptor.class.isAssignableFrom(interceptorClass) && isCompletionStage(returnTypeMirror)) {
+      // Raw cast, the stage type argument is inferred by the interceptor.
+      final TypeName returnType = TypeName.get(returnTypeMirror);
+      return CodeBlock.builder()
+          .addStatement("return ($T) $L.invokeAsync($L.async())", //
+              returnType instanceof ParameterizedTypeName ? ((ParameterizedTypeName) returnType).rawType : returnType, //
+              interceptorFieldName, invocation)
+          .build();
     }
-    return block.indent() //
-        .indent() //
-        .add("$L.this, \n", interceptorName) //
-        .add("$L.$L, \n", interceptorName, methodCacheFieldName) //
-        .add("arguments, \n") //
-        .add("$L.$L) {\n", interceptorName, annotationsFieldName).unindent()//
-        .add(method).unindent()//
-        .add("});\n")//
+    final TypeName returnType = TypeName.get(returnTypeMirror).box(); // Box if needed
+    return CodeBlock.builder().addStatement("return ($T) $L.invoke($L)", returnType, interceptorFieldName, invocation)
         .build();
   }
 
+  /**
+   * Method whose invocation is dispatched by the shared invocation class.
+   */
+  @AutoValue
+  abstract static class DispatchedMethod {
+
+    abstract int ordinal();
+
+    abstract ExecutableElement methodElement();
+
+    /**
+     * Invocation fields holding the method parameters.
+     */
+    abstract ImmutableList<String> arguments();
+
+    /**
+     * Chain of interceptors, proceeding to the method with the invocation fields.
+     */
+    abstract CodeBlock chain();
+
+    static DispatchedMethod of(final int ordinal, final ExecutableElement methodElement, final ImmutableList<String> arguments,
+        final CodeBlock chain) {
+      return new AutoValue_InterceptorGenerator_DispatchedMethod(ordinal, methodElement, arguments, chain);
+    }
+
+  }
+
+  /**
+   * Invocation and interceptor types used for methods returning a primitive, so the return value is never boxed.
+   */
+  @AutoValue
+  abstract static class PrimitiveReturn {
+
+    abstract Class<? extends AbstractMethodInvocation> invocationClass();
+
+    abstract Class<? extends MethodInterceptor> interceptorClass();
+
+    abstract TypeName type();
+
+    /**
+     * Suffix of the primitive methods, like <code>Int</code> in <code>proceedInt</code> and <code>invokeInt</code>.
+     */
+    abstract String suffix();
+
+    static PrimitiveReturn of(final Class<? extends AbstractMethodInvocation> invocationClass,
+        final Class<? extends MethodInterceptor> interceptorClass, final TypeName type, final String suffix) {
+      return new AutoValue_InterceptorGenerator_PrimitiveReturn(invocationClass, interceptorClass, type, suffix);
+    }
+
+  }
+
+  /**
+   * Inlined templates of an {@link InlineInterceptorHandler} for a method.
+   */
+  @AutoValue
+  abstract static class InlineTemplates {
+
+    abstract Optional<CodeBlock> before();
+
+    abstract Optional<CodeBlock> after();
+
+    abstract Optional<CodeBlock> onThrow();
+
+    static InlineTemplates of(final CodeBlock before, final CodeBlock after, final CodeBlock onThrow) {
+      return new AutoValue_InterceptorGenerator_InlineTemplates(Optional.ofNullable(before), Optional.ofNullable(after),
+          Optional.ofNullable(onThrow));
+    }
+
+  }
+
 }
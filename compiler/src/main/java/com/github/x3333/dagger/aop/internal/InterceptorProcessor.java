@@ -31,28 +31,65 @@ import com.google.common.collect.Sets;
  * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
  */
 @AutoService(Processor.class)
-@SupportedOptions({InterceptorProcessor.OPTION_DISABLE_DAGGER_MODULE, InterceptorProcessor.OPTION_DAGGER_MODULE_PACKAGE})
+@SupportedOptions({InterceptorProcessor.OPTION_DISABLE_DAGGER_MODULE, InterceptorProcessor.OPTION_DAGGER_MODULE_PACKAGE,
+    InterceptorProcessor.OPTION_REUSE_INVOCATIONS, InterceptorProcessor.OPTION_DISPATCH_INVOCATIONS,
+    InterceptorProcessor.OPTION_NATIVE_IMAGE, InterceptorProcessor.OPTION_NATIVE_IMAGE_INITIALIZE_AT_BUILD_TIME,
+    InterceptorProcessor.OPTION_STATS, InterceptorProcessor.OPTION_STATS_FILE})
 public class InterceptorProcessor extends BasicAnnotationProcessor {
 
   protected static final String OPTION_DISABLE_DAGGER_MODULE = "aop.disable.module.generation";
   protected static final String OPTION_DAGGER_MODULE_PACKAGE = "aop.module.package";
+  protected static final String OPTION_REUSE_INVOCATIONS = "aop.invocation.reuse";
+  protected static final String OPTION_DISPATCH_INVOCATIONS = "aop.invocation.dispatcher";
+  protected static final String OPTION_NATIVE_IMAGE = "aop.native.image";
+  protected static final String OPTION_NATIVE_IMAGE_INITIALIZE_AT_BUILD_TIME = "aop.native.image.initialize.at.build.time";
+  protected static final String OPTION_STATS = "aop.stats";
+  protected static final String OPTION_STATS_FILE = "aop.stats.file";
+
+  static final String GRADLE_ISOLATING = "org.gradle.annotation.processing.isolating";
+  static final String GRADLE_AGGREGATING = "org.gradle.annotation.processing.aggregating";
 
   @Override
   public SourceVersion getSupportedSourceVersion() {
     return SourceVersion.latestSupported();
   }
 
+  /**
+   * Supported options, with the Gradle incremental processing type of this run.
+   * 
+   * <p>
+   * The processor is registered as <code>dynamic</code> in <code>META-INF/gradle/incremental.annotation.processors</code>. Each
+   * <code>Interceptor_</code> class originates from its super class only, so the processor is isolating, unless it generates the
+   * <code>InterceptorModule</code> or the native image configuration, which originate from all intercepted classes, or the statistics
+   * file, making it aggregating.
+   */
   @Override
   public Set<String> getSupportedOptions() {
-    return Sets.newHashSet(OPTION_DISABLE_DAGGER_MODULE, OPTION_DAGGER_MODULE_PACKAGE);
+    final Set<String> options = Sets.newHashSet(OPTION_DISABLE_DAGGER_MODULE, OPTION_DAGGER_MODULE_PACKAGE,
+        OPTION_REUSE_INVOCATIONS, OPTION_DISPATCH_INVOCATIONS, OPTION_NATIVE_IMAGE, OPTION_NATIVE_IMAGE_INITIALIZE_AT_BUILD_TIME,
+        OPTION_STATS, OPTION_STATS_FILE);
+    if (this.processingEnv != null) {
+      final boolean aggregating = !getBooleanOption(OPTION_DISABLE_DAGGER_MODULE).orElse(false)
+          || getOption(OPTION_NATIVE_IMAGE).isPresent() || getOption(OPTION_STATS_FILE).isPresent();
+      options.add(aggregating ? GRADLE_AGGREGATING : GRADLE_ISOLATING);
+    }
+    return options;
   }
 
   @Override
   protected Iterable<? extends ProcessingStep> initSteps() {
     final Optional<Boolean> disableModuleGeneration = getBooleanOption(OPTION_DISABLE_DAGGER_MODULE);
     final Optional<String> modulePackage = getOption(OPTION_DAGGER_MODULE_PACKAGE);
+    final Optional<Boolean> reuseInvocations = getBooleanOption(OPTION_REUSE_INVOCATIONS);
+    final Optional<Boolean> dispatchInvocations = getBooleanOption(OPTION_DISPATCH_INVOCATIONS);
+    final Optional<String> nativeImage = getOption(OPTION_NATIVE_IMAGE);
+    final Optional<Boolean> nativeImageInitializeAtBuildTime =
+        getBooleanOption(OPTION_NATIVE_IMAGE_INITIALIZE_AT_BUILD_TIME);
+    final Optional<Boolean> stats = getBooleanOption(OPTION_STATS);
+    final Optional<String> statsFile = getOption(OPTION_STATS_FILE);
 
-    return Collections.singleton(new InterceptorProcessorStep(this.processingEnv, disableModuleGeneration, modulePackage));
+    return Collections.singleton(new InterceptorProcessorStep(this.processingEnv, disableModuleGeneration, modulePackage,
+        reuseInvocations, dispatchInvocations, nativeImage, nativeImageInitializeAtBuildTime, stats, statsFile));
   }
 
   protected Optional<String> getOption(final String option) {
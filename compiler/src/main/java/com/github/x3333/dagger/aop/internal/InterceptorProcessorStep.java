@@ -13,6 +13,7 @@
 
 package com.github.x3333.dagger.aop.internal;
 
+import static com.github.x3333.dagger.aop.internal.Util.isVisibleFrom;
 import static com.github.x3333.dagger.aop.internal.Util.scanForElementKind;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 import static javax.lang.model.element.ElementKind.METHOD;
@@ -26,23 +27,25 @@ import com.github.x3333.dagger.aop.InterceptorHandler;
 import com.github.x3333.dagger.aop.MethodInterceptor;
 import com.github.x3333.dagger.aop.Sources;
 
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.TreeMap;
 
 import javax.annotation.Generated;
 import javax.annotation.processing.ProcessingEnvironment;
@@ -54,20 +57,14 @@ import javax.lang.model.element.NestingKind;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.ElementFilter;
-import javax.tools.Diagnostic;
 import javax.tools.Diagnostic.Kind;
 
 import com.google.auto.common.BasicAnnotationProcessor;
 import com.google.auto.common.MoreElements;
-import com.google.auto.common.Visibility;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
 import com.google.common.collect.SetMultimap;
-import com.google.common.collect.TreeMultimap;
 import com.squareup.javapoet.ClassName;
-import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeSpec;
 
@@ -86,6 +83,9 @@ class InterceptorProcessorStep implements BasicAnnotationProcessor.ProcessingSte
   private final Optional<String> modulePackage;
   private final ImmutableMap<Class<? extends Annotation>, InterceptorHandler> services;
   private final InterceptorGenerator generator;
+  private final Optional<NativeImageConfiguration> nativeImageConfiguration;
+  private final Optional<ProcessorStats> stats;
+  private final ProcessingEnvironment filerEnv;
 
   //
 
@@ -95,17 +95,32 @@ class InterceptorProcessorStep implements BasicAnnotationProcessor.ProcessingSte
    * @param processingEnv ProcessingEnvironment associated to the Processor.
    * @param generateModule If we should generate a Dagger Module for intercepted methods.
    * @param modulePackage If we should generate a Dagger Module, in which package it should be created.
+   * @param reuseInvocations If we should reuse a per thread invocation for methods whose interceptors don't let it escape.
+   * @param dispatchInvocations If we should generate a single invocation class per intercepted class.
+   * @param nativeImage If we should generate native-image configuration, in which directory of <code>META-INF/native-image</code>.
+   * @param nativeImageInitializeAtBuildTime If native-image should initialize the generated classes at build time.
+   * @param stats If we should report statistics of each round.
+   * @param statsFile If we should write statistics of each round, the path of the JSON file in the class output.
    */
   public InterceptorProcessorStep(final ProcessingEnvironment processingEnv,
-      final Optional<Boolean> disableModuleGeneration, final Optional<String> modulePackage) {
+      final Optional<Boolean> disableModuleGeneration, final Optional<String> modulePackage,
+      final Optional<Boolean> reuseInvocations, final Optional<Boolean> dispatchInvocations,
+      final Optional<String> nativeImage, final Optional<Boolean> nativeImageInitializeAtBuildTime,
+      final Optional<Boolean> stats, final Optional<String> statsFile) {
     this.processingEnv = processingEnv;
+    this.stats = stats.orElse(false) || statsFile.isPresent() ? Optional.of(new ProcessorStats(processingEnv, statsFile))
+        : Optional.empty();
+    this.filerEnv = this.stats.map(ProcessorStats::filerEnvironment).orElse(processingEnv);
     this.disableModuleGeneration = disableModuleGeneration;
     this.modulePackage = modulePackage;
     final ServiceLoader<InterceptorHandler> handlers =
         ServiceLoader.load(InterceptorHandler.class, this.getClass().getClassLoader());
     this.services = Maps.uniqueIndex(handlers, InterceptorHandler::annotation);
     this.services.forEach((k, v) -> validateAnnotation(v, k));
-    this.generator = new InterceptorGenerator(this.services);
+    this.generator =
+        new InterceptorGenerator(this.services, reuseInvocations.orElse(false), dispatchInvocations.orElse(false));
+    this.nativeImageConfiguration = nativeImage.map(coordinates -> new NativeImageConfiguration(this.filerEnv, coordinates,
+        nativeImageInitializeAtBuildTime.orElse(false)));
   }
 
   //
@@ -124,20 +139,28 @@ class InterceptorProcessorStep implements BasicAnnotationProcessor.ProcessingSte
       return Collections.emptySet();
     }
 
+    this.stats.ifPresent(ProcessorStats::startRound);
+
     final Map<ExecutableElement, MethodBind.Builder> builders = new HashMap<>();
     for (final Class<? extends Annotation> annotation : this.services.keySet()) {
       final InterceptorHandler service = this.services.get(annotation);
+      final Set<Element> elements = elementsByAnnotation.get(annotation);
+      this.stats.ifPresent(s -> s.scanned(annotation, service, elements.size()));
 
       // Group by Method
-      for (final Element element : elementsByAnnotation.get(annotation)) {
+      for (final Element element : elements) {
+        final long validatingElement = System.nanoTime();
         String errorMessage = validateElement(element);
+        this.stats.ifPresent(s -> s.validateElement(System.nanoTime() - validatingElement));
         if (errorMessage != null) {
           printError(element, errorMessage);
           continue;
         }
         final ExecutableElement methodElement = MoreElements.asExecutable(element);
 
-        errorMessage = service.validateMethod(methodElement);
+        final long validatingMethod = System.nanoTime();
+        errorMessage = service.validateMethod(processingEnv, methodElement);
+        this.stats.ifPresent(s -> s.validateMethod(annotation, System.nanoTime() - validatingMethod));
         if (errorMessage != null) {
           printError(element, errorMessage);
           continue;
@@ -151,21 +174,31 @@ class InterceptorProcessorStep implements BasicAnnotationProcessor.ProcessingSte
       }
     }
 
-    // Group by Class
-    // Tree map to order methods in the same order they appear in the source code.
-    final Multimap<TypeElement, MethodBind> classes = TreeMultimap.create(
-        Comparator.comparing(o -> o.getSimpleName().toString()),
-        Comparator.comparingInt(MethodBind::getOrder));
+    // Group by Class, and by annotation for the PostProcess.
+    final Map<TypeElement, List<MethodBind>> classes =
+        new TreeMap<>(Comparator.comparing(o -> o.getQualifiedName().toString()));
     builders.values().forEach(b -> {
       final MethodBind bind = b.build();
-      classes.put(bind.getClassElement(), bind);
+      classes.computeIfAbsent(bind.getClassElement(), key -> new ArrayList<>()).add(bind);
     });
+    final Map<Class<? extends Annotation>, Set<TypeElement>> classesByAnnotation = new HashMap<>();
+    for (final Entry<TypeElement, List<MethodBind>> entry : classes.entrySet()) {
+      // Order methods in the same order they appear in the source code.
+      entry.getValue().sort(MethodBind.declarationOrder(entry.getKey()));
+      for (final MethodBind bind : entry.getValue()) {
+        for (final Class<? extends Annotation> annotation : bind.getAnnotations()) {
+          classesByAnnotation.computeIfAbsent(annotation, key -> new LinkedHashSet<>()).add(entry.getKey());
+        }
+      }
+    }
 
     // Process binds by grouped Class
-    final Map<TypeSpec, TypeElement> generatedTypes = new HashMap<>();
-    for (final TypeElement element : classes.keySet()) {
-      final TypeSpec generatedType = processBind(element, classes.get(element));
-      generatedTypes.put(generatedType, element);
+    // Keyed by element, as the hash code of a TypeSpec is the hash code of its source code.
+    final Map<TypeElement, String> generatedTypes = new LinkedHashMap<>();
+    for (final Entry<TypeElement, List<MethodBind>> entry : classes.entrySet()) {
+      final TypeSpec generatedType = processBind(entry.getKey(), entry.getValue());
+      generatedTypes.put(entry.getKey(), generatedType.name);
+      this.nativeImageConfiguration.ifPresent(c -> c.add(entry.getKey(), generatedType.name, entry.getValue()));
     }
 
     if (!this.disableModuleGeneration.isPresent() || !this.disableModuleGeneration.get()) {
@@ -175,10 +208,18 @@ class InterceptorProcessorStep implements BasicAnnotationProcessor.ProcessingSte
 
     // PostProcess to Handlers
     for (final Entry<Class<? extends Annotation>, InterceptorHandler> serviceEntry : this.services.entrySet()) {
-      final Multimap<TypeElement, MethodBind> bindings =
-          Multimaps.filterEntries(classes, entry -> entry.getValue().getAnnotations().contains(serviceEntry.getKey()));
-      serviceEntry.getValue().postProcess(this.processingEnv, bindings.keySet());
+      final Set<TypeElement> processedClasses = classesByAnnotation.getOrDefault(serviceEntry.getKey(), Collections.emptySet());
+      final long postProcessing = System.nanoTime();
+      serviceEntry.getValue().postProcess(this.processingEnv, processedClasses);
+      this.stats.ifPresent(s -> s.postProcess(serviceEntry.getKey(), serviceEntry.getValue(),
+          System.nanoTime() - postProcessing));
+      if (!processedClasses.isEmpty()) {
+        this.nativeImageConfiguration
+            .ifPresent(c -> c.addReflectiveClasses(serviceEntry.getValue().reflectiveClasses(this.processingEnv, processedClasses)));
+      }
     }
+    this.nativeImageConfiguration.ifPresent(NativeImageConfiguration::write);
+    this.stats.ifPresent(ProcessorStats::endRound);
 
     return Collections.emptySet();
   }
@@ -314,23 +355,14 @@ class InterceptorProcessorStep implements BasicAnnotationProcessor.ProcessingSte
     final Element packageElement = scanForElementKind(ElementKind.PACKAGE, superClassElement);
     final String packageName = MoreElements.asPackage(packageElement).getQualifiedName().toString();
 
+    final long generating = System.nanoTime();
     final TypeSpec interceptorClass = this.generator.generateInterceptor(superClassElement, methodBinds);
-
-    try {
-      JavaFile.builder(packageName, interceptorClass).build().writeTo(this.processingEnv.getFiler());
-    } catch (final IOException ioe) {
-      final StringWriter sw = new StringWriter();
-      try (final PrintWriter pw = new PrintWriter(sw)) {
-        pw.println("Error generating source file for type " + interceptorClass.name);
-        ioe.printStackTrace(pw);
-        pw.close();
-        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, sw.toString());
-      }
-    }
+    this.stats.ifPresent(s -> s.generateInterceptor(System.nanoTime() - generating));
+    Sources.writeClass(this.filerEnv, packageName, interceptorClass);
     return interceptorClass;
   }
 
-  private void generateInterceptorModule(final Map<TypeSpec, TypeElement> generatedTypes) {
+  private void generateInterceptorModule(final Map<TypeElement, String> generatedTypes) {
     final String className = "InterceptorModule";
     final PackageElement pkg = this.processingEnv.getElementUtils().getPackageElement(//
         this.modulePackage.isPresent() ? this.modulePackage.get() : PACKAGE);
@@ -342,8 +374,8 @@ class InterceptorProcessorStep implements BasicAnnotationProcessor.ProcessingSte
         .addAnnotation(Module.class);
 
     int count = 0;
-    for (final Entry<TypeSpec, TypeElement> entry : generatedTypes.entrySet()) {
-      final TypeElement sourceElement = entry.getValue();
+    for (final Entry<TypeElement, String> entry : generatedTypes.entrySet()) {
+      final TypeElement sourceElement = entry.getKey();
 
       if (!isVisibleFrom(sourceElement, pkg)) {
         printWarning(sourceElement,
@@ -351,9 +383,11 @@ class InterceptorProcessorStep implements BasicAnnotationProcessor.ProcessingSte
         continue;
       }
       count++;
+      // The module is regenerated when any intercepted class changes.
+      classBuilder.addOriginatingElement(sourceElement);
 
       final ClassName sourceClassName = ClassName.get(sourceElement);
-      final ClassName superClassName = ClassName.get(sourceClassName.packageName(), entry.getKey().name);
+      final ClassName superClassName = ClassName.get(sourceClassName.packageName(), entry.getValue());
 
       final MethodSpec method = MethodSpec.methodBuilder("provides" + sourceElement.getSimpleName())//
           .addModifiers(ABSTRACT)//
@@ -366,29 +400,12 @@ class InterceptorProcessorStep implements BasicAnnotationProcessor.ProcessingSte
 
     if (count > 0) {
       Sources.writeClass(//
-          this.processingEnv, //
+          this.filerEnv, //
           pkg.getQualifiedName().toString(), //
           classBuilder.build());
     }
   }
 
-  /*
-   * Copyright (C) 2014 Thomas Broyer - bullet - https://github.com/tbroyer/bullet
-   */
-  private boolean isVisibleFrom(final Element target, final PackageElement from) {
-    switch (Visibility.effectiveVisibilityOfElement(target)) {
-      case PUBLIC:
-        return true;
-      case PROTECTED:
-      case DEFAULT:
-        return MoreElements.getPackage(target).equals(from);
-      case PRIVATE:
-        return false;
-      default:
-        throw new AssertionError();
-    }
-  }
-
   /**
    * Print an Error message to Processing Environment.
    *
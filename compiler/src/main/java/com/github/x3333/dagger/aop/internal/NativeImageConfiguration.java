@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.internal;
+
+import static com.github.x3333.dagger.aop.internal.Util.quote;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+import com.google.auto.common.MoreTypes;
+import com.google.common.base.Joiner;
+
+/**
+ * GraalVM native-image configuration of the generated interceptors.
+ * 
+ * <p>
+ * Generated classes don't use reflection when initialized, but intercepted methods are resolved by reflection when their
+ * {@link java.lang.reflect.Method} or their annotations are requested. The <code>reflect-config.json</code> lists exactly these
+ * methods, the interceptors annotations and the {@link com.github.x3333.dagger.aop.InterceptorHandler#reflectiveClasses(
+ * ProcessingEnvironment, Set) classes loaded by reflection} by the handlers, and optionally the <code>native-image.properties</code> initializes the generated
+ * classes at build time.
+ * 
+ * <p>
+ * Configuration is written at the end of each round that generated interceptors. The first round writes in
+ * <code>META-INF/native-image/&lt;group&gt;/&lt;artifact&gt;</code>, later rounds in a subdirectory with the round number, as files
+ * can't be written twice. native-image reads the configuration of all subdirectories.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+class NativeImageConfiguration {
+
+  private static final String BASE_PATH = "META-INF/native-image/";
+
+  private final ProcessingEnvironment processingEnv;
+  private final String path;
+  private final boolean initializeAtBuildTime;
+
+  private final Map<String, List<String>> methodsByClass = new TreeMap<>();
+  private final Set<Class<? extends Annotation>> annotations = new TreeSet<>(Comparator.comparing(Class::getName));
+  private final Set<String> interceptorClasses = new TreeSet<>();
+  private final Set<String> reflectiveClasses = new TreeSet<>();
+  private final List<Element> originatingElements = new ArrayList<>();
+  private int writes;
+
+  //
+
+  /**
+   * @param processingEnv ProcessingEnvironment associated to the Processor.
+   * @param coordinates Directory of the configuration in <code>META-INF/native-image</code>, like <code>group/artifact</code>.
+   * @param initializeAtBuildTime If the generated classes should be initialized at build time.
+   */
+  NativeImageConfiguration(final ProcessingEnvironment processingEnv, final String coordinates,
+      final boolean initializeAtBuildTime) {
+    this.processingEnv = processingEnv;
+    this.path = BASE_PATH + coordinates.replaceAll("^/+|/+$", "") + "/";
+    this.initializeAtBuildTime = initializeAtBuildTime;
+  }
+
+  //
+
+  /**
+   * Add the intercepted methods of the <code>superClassElement</code>, intercepted by the generated <code>interceptorName</code>.
+   */
+  void add(final TypeElement superClassElement, final String interceptorName, final Collection<MethodBind> methodBinds) {
+    final List<String> methods =
+        methodsByClass.computeIfAbsent(binaryName(superClassElement), k -> new ArrayList<>());
+    for (final MethodBind methodBind : methodBinds) {
+      final ExecutableElement methodElement = methodBind.getMethodElement();
+      final List<String> parameterTypes = new ArrayList<>();
+      for (final VariableElement parameter : methodElement.getParameters()) {
+        parameterTypes.add(quote(binaryName(parameter.asType())));
+      }
+      methods.add(String.format("{\"name\": %s, \"parameterTypes\": [%s]}", //
+          quote(methodElement.getSimpleName().toString()), Joiner.on(", ").join(parameterTypes)));
+      annotations.addAll(methodBind.getAnnotations());
+    }
+    final String packageName = processingEnv.getElementUtils().getPackageOf(superClassElement).getQualifiedName().toString();
+    interceptorClasses.add(packageName.isEmpty() ? interceptorName : packageName + "." + interceptorName);
+    originatingElements.add(superClassElement);
+  }
+
+  /**
+   * Add classes generated by the handlers, loaded by reflection with their public methods.
+   */
+  void addReflectiveClasses(final Set<String> classNames) {
+    reflectiveClasses.addAll(classNames);
+  }
+
+  /**
+   * Write the configuration added since the last write, if any.
+   */
+  void write() {
+    if (methodsByClass.isEmpty()) {
+      return;
+    }
+    final String roundPath = writes++ == 0 ? path : path + "round" + writes + "/";
+    final Element[] elements = originatingElements.toArray(new Element[originatingElements.size()]);
+
+    final List<String> entries = new ArrayList<>();
+    methodsByClass.forEach((name, methods) -> entries.add(String.format(//
+        "  {\n    \"name\": %s,\n    \"methods\": [\n      %s\n    ]\n  }", //
+        quote(name), Joiner.on(",\n      ").join(methods))));
+    for (final Class<? extends Annotation> annotation : annotations) {
+      final List<String> members = new ArrayList<>();
+      final Method[] declaredMethods = annotation.getDeclaredMethods();
+      Arrays.sort(declaredMethods, Comparator.comparing(Method::getName));
+      for (final Method member : declaredMethods) {
+        members.add(String.format("{\"name\": %s, \"parameterTypes\": []}", quote(member.getName())));
+      }
+      entries.add(String.format(//
+          "  {\n    \"name\": %s,\n    \"methods\": [%s]\n  }", //
+          quote(annotation.getName()), //
+          members.isEmpty() ? "" : "\n      " + Joiner.on(",\n      ").join(members) + "\n    "));
+    }
+    for (final String reflectiveClass : reflectiveClasses) {
+      entries.add(String.format("  {\n    \"name\": %s,\n    \"allPublicMethods\": true\n  }", quote(reflectiveClass)));
+    }
+    writeResource(roundPath + "reflect-config.json", "[\n" + Joiner.on(",\n").join(entries) + "\n]\n", elements);
+
+    if (initializeAtBuildTime) {
+      writeResource(roundPath + "native-image.properties",
+          "Args = --initialize-at-build-time=" + Joiner.on(",").join(interceptorClasses) + "\n", elements);
+    }
+
+    methodsByClass.clear();
+    annotations.clear();
+    interceptorClasses.clear();
+    reflectiveClasses.clear();
+    originatingElements.clear();
+  }
+
+  //
+
+  private void writeResource(final String name, final String content, final Element[] elements) {
+    try (final Writer writer = processingEnv.getFiler()
+        .createResource(StandardLocation.CLASS_OUTPUT, "", name, elements).openWriter()) {
+      writer.write(content);
+    } catch (final IOException ioe) {
+      final StringWriter sw = new StringWriter();
+      try (final PrintWriter pw = new PrintWriter(sw)) {
+        pw.println("Error generating native image configuration " + name);
+        ioe.printStackTrace(pw);
+        pw.close();
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, sw.toString());
+      }
+    }
+  }
+
+  private String binaryName(final TypeElement element) {
+    return processingEnv.getElementUtils().getBinaryName(element).toString();
+  }
+
+  /**
+   * Name of the erased type as used by reflection, arrays are suffixed with <code>[]</code>.
+   */
+  private String binaryName(final TypeMirror type) {
+    final TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+    switch (erased.getKind()) {
+      case ARRAY:
+        return binaryName(((ArrayType) erased).getComponentType()) + "[]";
+      case DECLARED:
+        return binaryName(MoreTypes.asTypeElement(erased));
+      default:
+        return erased.toString();
+    }
+  }
+
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package com.github.x3333.dagger.aop.internal;
+
+import static com.github.x3333.dagger.aop.internal.Util.quote;
+
+import com.github.x3333.dagger.aop.InterceptorHandler;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.ForwardingFileObject;
+import javax.tools.ForwardingJavaFileObject;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import com.google.common.base.Joiner;
+
+/**
+ * Statistics of the processing rounds.
+ * 
+ * <p>
+ * Each round reports the elements scanned per annotation, the time spent validating them, by
+ * {@link InterceptorHandler#validateMethod(ProcessingEnvironment, javax.lang.model.element.ExecutableElement) validateMethod} and by
+ * {@link InterceptorHandler#postProcess(ProcessingEnvironment, java.util.Set) postProcess} of each handler, generating the interceptors,
+ * in the Filer, and the size of the generated sources. Only files written through {@link #filerEnvironment()} are measured, files
+ * written by handlers are part of their <code>postProcess</code> time.
+ * 
+ * <p>
+ * Rounds are printed as notes and, if a file is set, written as JSON in the class output. The first round writes the file, later rounds
+ * a file with the same name in a subdirectory with the round number, as files can't be written twice.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+class ProcessorStats {
+
+  private final ProcessingEnvironment processingEnv;
+  private final Optional<String> file;
+  private final ProcessingEnvironment filerEnvironment;
+
+  private final Map<Class<? extends Annotation>, HandlerStats> handlers = new LinkedHashMap<>();
+  private int rounds;
+  private long roundStart;
+  private long validateElement;
+  private long generateInterceptor;
+  private long filer;
+  private int sources;
+  private long sourceBytes;
+
+  //
+
+  /**
+   * @param processingEnv ProcessingEnvironment associated to the Processor.
+   * @param file Path of the JSON file in the class output, if the rounds should be written.
+   */
+  ProcessorStats(final ProcessingEnvironment processingEnv, final Optional<String> file) {
+    this.processingEnv = processingEnv;
+    this.file = file.map(f -> f.replaceAll("^/+", ""));
+    this.filerEnvironment = new FilerEnvironment();
+  }
+
+  //
+
+  /**
+   * ProcessingEnvironment whose Filer time, and the size of the sources it creates, are measured.
+   */
+  ProcessingEnvironment filerEnvironment() {
+    return filerEnvironment;
+  }
+
+  void startRound() {
+    roundStart = System.nanoTime();
+  }
+
+  void scanned(final Class<? extends Annotation> annotation, final InterceptorHandler handler, final int elements) {
+    handlers.computeIfAbsent(annotation, key -> new HandlerStats(handler)).elements += elements;
+  }
+
+  void validateElement(final long nanos) {
+    validateElement += nanos;
+  }
+
+  void validateMethod(final Class<? extends Annotation> annotation, final long nanos) {
+    handlers.get(annotation).validateMethod += nanos;
+  }
+
+  void generateInterceptor(final long nanos) {
+    generateInterceptor += nanos;
+  }
+
+  void postProcess(final Class<? extends Annotation> annotation, final InterceptorHandler handler, final long nanos) {
+    handlers.computeIfAbsent(annotation, key -> new HandlerStats(handler)).postProcess += nanos;
+  }
+
+  /**
+   * Report the round, and reset the statistics for the next one.
+   */
+  void endRound() {
+    final long elapsed = System.nanoTime() - roundStart;
+    rounds++;
+
+    final StringBuilder note = new StringBuilder(String.format(Locale.ROOT,
+        "dagger-aop round %d: %.3f ms, %d sources generated with %d bytes%n"
+            + "  validateElement %.3f ms, generateInterceptor %.3f ms, Filer %.3f ms", //
+        rounds, millis(elapsed), sources, sourceBytes, millis(validateElement), millis(generateInterceptor),
+        millis(filer)));
+    final List<String> entries = new ArrayList<>();
+    handlers.forEach((annotation, stats) -> {
+      note.append(String.format(Locale.ROOT, "%n  @%s (%s): %d elements, validateMethod %.3f ms, postProcess %.3f ms", //
+          annotation.getName(), stats.handler.getClass().getName(), stats.elements, millis(stats.validateMethod),
+          millis(stats.postProcess)));
+      entries.add(String.format(Locale.ROOT,
+          "    {\n      \"annotation\": %s,\n      \"handler\": %s,\n      \"elements\": %d,\n"
+              + "      \"validateMethodMillis\": %.3f,\n      \"postProcessMillis\": %.3f\n    }", //
+          quote(annotation.getName()), quote(stats.handler.getClass().getName()), stats.elements,
+          millis(stats.validateMethod), millis(stats.postProcess)));
+    });
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, note);
+
+    file.ifPresent(f -> {
+      final int slash = f.lastIndexOf('/');
+      final String name = rounds == 1 ? f : f.substring(0, slash + 1) + "round" + rounds + "/" + f.substring(slash + 1);
+      writeResource(name, String.format(Locale.ROOT,
+          "{\n  \"round\": %d,\n  \"millis\": %.3f,\n  \"validateElementMillis\": %.3f,\n"
+              + "  \"generateInterceptorMillis\": %.3f,\n  \"filerMillis\": %.3f,\n  \"generatedSources\": %d,\n"
+              + "  \"generatedSourceBytes\": %d,\n  \"handlers\": [%s]\n}\n", //
+          rounds, millis(elapsed), millis(validateElement), millis(generateInterceptor), millis(filer), sources,
+          sourceBytes, entries.isEmpty() ? "" : "\n" + Joiner.on(",\n").join(entries) + "\n  "));
+    });
+
+    handlers.clear();
+    validateElement = 0;
+    generateInterceptor = 0;
+    filer = 0;
+    sources = 0;
+    sourceBytes = 0;
+  }
+
+  //
+
+  private void writeResource(final String name, final String content) {
+    try (final Writer writer =
+        processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", name).openWriter()) {
+      writer.write(content);
+    } catch (final IOException ioe) {
+      final StringWriter sw = new StringWriter();
+      try (final PrintWriter pw = new PrintWriter(sw)) {
+        pw.println("Error writing processor statistics " + name);
+        ioe.printStackTrace(pw);
+        pw.close();
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, sw.toString());
+      }
+    }
+  }
+
+  private static double millis(final long nanos) {
+    return nanos / 1_000_000d;
+  }
+
+  /**
+   * Size of the <code>len</code> chars of <code>chars</code> starting at <code>off</code> encoded in UTF-8, a surrogate pair is 4 bytes.
+   */
+  private static int utf8Length(final CharSequence chars, final int off, final int len) {
+    int length = 0;
+    for (int i = off; i < off + len; i++) {
+      final char c = chars.charAt(i);
+      length += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+    }
+    return length;
+  }
+
+  /**
+   * Writer measuring the Filer time, and the size of the source if <code>source</code>.
+   */
+  private Writer timedWriter(final WriterOpener opener, final boolean source) throws IOException {
+    final long opening = System.nanoTime();
+    final Writer writer;
+    try {
+      writer = opener.open();
+    } finally {
+      filer += System.nanoTime() - opening;
+    }
+    return new Writer() {
+
+      @Override
+      public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        final long start = System.nanoTime();
+        try {
+          writer.write(cbuf, off, len);
+        } finally {
+          filer += System.nanoTime() - start;
+        }
+        if (source) {
+          sourceBytes += utf8Length(CharBuffer.wrap(cbuf), off, len);
+        }
+      }
+
+      @Override
+      public void write(final String str, final int off, final int len) throws IOException {
+        final long start = System.nanoTime();
+        try {
+          writer.write(str, off, len);
+        } finally {
+          filer += System.nanoTime() - start;
+        }
+        if (source) {
+          sourceBytes += utf8Length(str, off, len);
+        }
+      }
+
+      @Override
+      public void flush() throws IOException {
+        final long start = System.nanoTime();
+        try {
+          writer.flush();
+        } finally {
+          filer += System.nanoTime() - start;
+        }
+      }
+
+      @Override
+      public void close() throws IOException {
+        final long start = System.nanoTime();
+        try {
+          writer.close();
+        } finally {
+          filer += System.nanoTime() - start;
+        }
+      }
+
+    };
+  }
+
+  //
+
+  @FunctionalInterface
+  private interface WriterOpener {
+    Writer open() throws IOException;
+  }
+
+  private static final class HandlerStats {
+
+    final InterceptorHandler handler;
+    int elements;
+    long validateMethod;
+    long postProcess;
+
+    HandlerStats(final InterceptorHandler handler) {
+      this.handler = handler;
+    }
+
+  }
+
+  /**
+   * Delegates to the Processor environment, measuring its Filer.
+   */
+  private final class FilerEnvironment implements ProcessingEnvironment {
+
+    private final Filer timedFiler = new TimedFiler();
+
+    @Override
+    public Map<String, String> getOptions() {
+      return processingEnv.getOptions();
+    }
+
+    @Override
+    public Messager getMessager() {
+      return processingEnv.getMessager();
+    }
+
+    @Override
+    public Filer getFiler() {
+      return timedFiler;
+    }
+
+    @Override
+    public Elements getElementUtils() {
+      return processingEnv.getElementUtils();
+    }
+
+    @Override
+    public Types getTypeUtils() {
+      return processingEnv.getTypeUtils();
+    }
+
+    @Override
+    public SourceVersion getSourceVersion() {
+      return processingEnv.getSourceVersion();
+    }
+
+    @Override
+    public Locale getLocale() {
+      return processingEnv.getLocale();
+    }
+
+  }
+
+  private final class TimedFiler implements Filer {
+
+    @Override
+    public JavaFileObject createSourceFile(final CharSequence name, final Element... originatingElements)
+        throws IOException {
+      final long start = System.nanoTime();
+      try {
+        sources++;
+        return new ForwardingJavaFileObject<JavaFileObject>(
+            processingEnv.getFiler().createSourceFile(name, originatingElements)) {
+          @Override
+          public Writer openWriter() throws IOException {
+            return timedWriter(super::openWriter, true);
+          }
+        };
+      } finally {
+        filer += System.nanoTime() - start;
+      }
+    }
+
+    @Override
+    public JavaFileObject createClassFile(final CharSequence name, final Element... originatingElements)
+        throws IOException {
+      final long start = System.nanoTime();
+      try {
+        return processingEnv.getFiler().createClassFile(name, originatingElements);
+      } finally {
+        filer += System.nanoTime() - start;
+      }
+    }
+
+    @Override
+    public FileObject createResource(final Location location, final CharSequence pkg, final CharSequence relativeName,
+        final Element... originatingElements) throws IOException {
+      final long start = System.nanoTime();
+      try {
+        return new ForwardingFileObject<FileObject>(
+            processingEnv.getFiler().createResource(location, pkg, relativeName, originatingElements)) {
+          @Override
+          public Writer openWriter() throws IOException {
+            return timedWriter(super::openWriter, false);
+          }
+        };
+      } finally {
+        filer += System.nanoTime() - start;
+      }
+    }
+
+    @Override
+    public FileObject getResource(final Location location, final CharSequence pkg, final CharSequence relativeName)
+        throws IOException {
+      return processingEnv.getFiler().getResource(location, pkg, relativeName);
+    }
+
+  }
+
+}
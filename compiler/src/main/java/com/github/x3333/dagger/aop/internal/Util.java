@@ -17,14 +17,22 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 
+import com.google.auto.common.MoreElements;
+import com.google.auto.common.MoreTypes;
+import com.google.auto.common.Visibility;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -54,6 +62,48 @@ final class Util {
     return element;
   }
 
+  /**
+   * Check if the <code>target</code> element is visible from the package <code>from</code>.
+   */
+  /*
+   * Copyright (C) 2014 Thomas Broyer - bullet - https://github.com/tbroyer/bullet
+   */
+  static boolean isVisibleFrom(final Element target, final PackageElement from) {
+    switch (Visibility.effectiveVisibilityOfElement(target)) {
+      case PUBLIC:
+        return true;
+      case PROTECTED:
+      case DEFAULT:
+        return MoreElements.getPackage(target).equals(from);
+      case PRIVATE:
+        return false;
+      default:
+        throw new AssertionError();
+    }
+  }
+
+  /**
+   * Check if the <code>type</code> is a {@link CompletionStage} or one of its subtypes.
+   */
+  static boolean isCompletionStage(final TypeMirror type) {
+    if (type.getKind() != TypeKind.DECLARED) {
+      return false;
+    }
+    final TypeElement element = MoreTypes.asTypeElement(type);
+    if (element.getQualifiedName().contentEquals(CompletionStage.class.getCanonicalName())
+        || isCompletionStage(element.getSuperclass())) {
+      return true;
+    }
+    return element.getInterfaces().stream().anyMatch(Util::isCompletionStage);
+  }
+
+  /**
+   * Quote the <code>value</code> as a JSON string.
+   */
+  static String quote(final String value) {
+    return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
   /**
    * Convert a {@link AnnotationMirror}s to {@link AnnotationSpec}.
    */
@@ -16,14 +16,38 @@ package com.github.x3333.dagger.aop;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assert_;
 import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
 import static org.junit.Assert.fail;
 
 import com.github.x3333.dagger.aop.internal.InterceptorProcessor;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 
 import org.junit.Test;
 
+import com.google.common.io.Resources;
 import com.google.testing.compile.JavaFileObjects;
 
 /**
@@ -65,6 +89,117 @@ public class GeneratorTest {
         .generatesSources(generatedFile);
   }
 
+  @Test
+  public void generatorReuseInvocations() {
+    final JavaFileObject sourceFile = JavaFileObjects //
+        .forResource("unit/Reuse.java");
+
+    final JavaFileObject generatedFile = JavaFileObjects//
+        .forResource("unit/Interceptor_Reuse.java");
+
+    assert_()//
+        .about(javaSource())//
+        .that(sourceFile)//
+        .withCompilerOptions("-Aaop.invocation.reuse=true")//
+        .processedWith(new InterceptorProcessor())//
+        .compilesWithoutError()//
+        .and()//
+        .generatesSources(generatedFile);
+  }
+
+  @Test
+  public void generatorDispatchInvocations() {
+    final JavaFileObject sourceFile = JavaFileObjects //
+        .forResource("unit/Dispatcher.java");
+
+    final JavaFileObject generatedFile = JavaFileObjects//
+        .forResource("unit/Interceptor_Dispatcher.java");
+
+    assert_()//
+        .about(javaSource())//
+        .that(sourceFile)//
+        .withCompilerOptions("-Aaop.invocation.dispatcher=true")//
+        .processedWith(new InterceptorProcessor())//
+        .compilesWithoutError()//
+        .and()//
+        .generatesSources(generatedFile);
+  }
+
+  @Test
+  public void generatorInlineInterceptions() {
+    final JavaFileObject sourceFile = JavaFileObjects //
+        .forResource("unit/Inline.java");
+
+    final JavaFileObject generatedFile = JavaFileObjects//
+        .forResource("unit/Interceptor_Inline.java");
+
+    assert_()//
+        .about(javaSource())//
+        .that(sourceFile)//
+        .withCompilerOptions("-Aaop.disable.module.generation=true")//
+        .processedWith(new InterceptorProcessor())//
+        .compilesWithoutError()//
+        .and()//
+        .generatesSources(generatedFile);
+  }
+
+  @Test
+  public void generatorOverloadedMethods() {
+    final JavaFileObject sourceFile = JavaFileObjects //
+        .forResource("unit/Overload.java");
+
+    final JavaFileObject generatedFile = JavaFileObjects//
+        .forResource("unit/Interceptor_Overload.java");
+
+    assert_()//
+        .about(javaSource())//
+        .that(sourceFile)//
+        .withCompilerOptions("-Aaop.invocation.reuse=true", "-Aaop.disable.module.generation=true")//
+        .processedWith(new InterceptorProcessor())//
+        .compilesWithoutError()//
+        .and()//
+        .generatesSources(generatedFile);
+  }
+
+  @Test
+  public void generatorSameSimpleNameAnnotations() {
+    final JavaFileObject sourceFile = JavaFileObjects //
+        .forResource("unit/SameName.java");
+
+    final JavaFileObject generatedFile = JavaFileObjects//
+        .forResource("unit/Interceptor_SameName.java");
+
+    assert_()//
+        .about(javaSource())//
+        .that(sourceFile)//
+        .withCompilerOptions("-Aaop.disable.module.generation=true")//
+        .processedWith(new InterceptorProcessor())//
+        .compilesWithoutError()//
+        .and()//
+        .generatesSources(generatedFile);
+  }
+
+  @Test
+  public void generatorNativeImageConfiguration() {
+    final JavaFileObject sourceFile = JavaFileObjects //
+        .forResource("unit/WithConstructor.java");
+
+    assert_()//
+        .about(javaSource())//
+        .that(sourceFile)//
+        .withCompilerOptions("-Aaop.native.image=com.example/app", "-Aaop.native.image.initialize.at.build.time=true")//
+        .processedWith(new InterceptorProcessor())//
+        .compilesWithoutError()//
+        .and()//
+        .generatesFileNamed(StandardLocation.CLASS_OUTPUT, "",
+            "META-INF/native-image/com.example/app/reflect-config.json")//
+        .withContents(Resources.asByteSource(Resources.getResource("unit/native-image/reflect-config.json")))//
+        .and()//
+        .generatesFileNamed(StandardLocation.CLASS_OUTPUT, "",
+            "META-INF/native-image/com.example/app/native-image.properties")//
+        .withContents(Resources.asByteSource(Resources.getResource("unit/native-image/native-image.properties")));
+  }
+
   @Test
   public void generatorWithModuleCustomPackage() {
     final JavaFileObject sourceFile = JavaFileObjects //
@@ -150,4 +285,145 @@ public class GeneratorTest {
         .withErrorContaining("Classes with intercepted methods cannot have Abstract methods");
   }
 
+  @Test
+  public void generatorIncrementalOriginatingElements() {
+    // Gradle regenerates the files originating from the changed classes, so editing one intercepted class must regenerate only its
+    // Interceptor_ class and the InterceptorModule.
+    final RecordingProcessor processor = new RecordingProcessor();
+
+    assert_()//
+        .about(javaSources())//
+        .that(Arrays.asList(JavaFileObjects.forResource("unit/WithConstructor.java"),
+            JavaFileObjects.forResource("unit/WithoutConstructor.java")))//
+        .withCompilerOptions("-Aaop.module.package=test")//
+        .processedWith(processor)//
+        .compilesWithoutError();
+
+    assertThat(processor.originatingElements.get("test.Interceptor_WithConstructor")).containsExactly("test.WithConstructor");
+    assertThat(processor.originatingElements.get("test.Interceptor_WithoutConstructor"))
+        .containsExactly("test.WithoutConstructor");
+    assertThat(processor.originatingElements.get("test.InterceptorModule"))
+        .containsExactly("test.WithConstructor", "test.WithoutConstructor");
+    assertThat(processor.getSupportedOptions()).contains("org.gradle.annotation.processing.aggregating");
+  }
+
+  @Test
+  public void generatorIncrementalIsolatingWithoutModule() {
+    final RecordingProcessor processor = new RecordingProcessor();
+
+    assert_()//
+        .about(javaSource())//
+        .that(JavaFileObjects.forResource("unit/WithoutConstructor.java"))//
+        .withCompilerOptions("-Aaop.disable.module.generation=true")//
+        .processedWith(processor)//
+        .compilesWithoutError();
+
+    assertThat(processor.originatingElements.keySet()).containsExactly("test.Interceptor_WithoutConstructor");
+    assertThat(processor.getSupportedOptions()).contains("org.gradle.annotation.processing.isolating");
+    assertThat(processor.getSupportedOptions()).doesNotContain("org.gradle.annotation.processing.aggregating");
+  }
+
+  @Test
+  public void generatorStats() {
+    final RecordingProcessor processor = new RecordingProcessor();
+
+    assert_()//
+        .about(javaSource())//
+        .that(JavaFileObjects.forResource("unit/WithConstructor.java"))//
+        .withCompilerOptions("-Aaop.stats=true", "-Aaop.stats.file=META-INF/dagger-aop/stats.json")//
+        .processedWith(processor)//
+        .compilesWithoutError()//
+        .and()//
+        .generatesFileNamed(StandardLocation.CLASS_OUTPUT, "", "META-INF/dagger-aop/stats.json");
+
+    assertThat(processor.notes).isNotEmpty();
+    final String round = processor.notes.get(0);
+    assertThat(round).startsWith("dagger-aop round 1: ");
+    assertThat(round).contains("2 sources generated");
+    assertThat(round).contains("@com.github.x3333.dagger.aop.test.annotation.ValidAnnotation (com.github.x3333.dagger.aop.test.ValidHandler): 9 elements");
+    assertThat(round).contains("@com.github.x3333.dagger.aop.test.annotation.ValidAnnotation2 (com.github.x3333.dagger.aop.test.ValidHandler2): 3 elements");
+    assertThat(processor.getSupportedOptions()).contains("org.gradle.annotation.processing.aggregating");
+  }
+
+  /**
+   * {@link InterceptorProcessor} recording the originating elements of the files it creates, and the notes it prints.
+   */
+  private static final class RecordingProcessor implements Processor {
+
+    final Map<String, List<String>> originatingElements = new HashMap<>();
+    final List<String> notes = new ArrayList<>();
+    private final InterceptorProcessor delegate = new InterceptorProcessor();
+
+    @Override
+    public Set<String> getSupportedOptions() {
+      return delegate.getSupportedOptions();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+      return delegate.getSupportedAnnotationTypes();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return delegate.getSupportedSourceVersion();
+    }
+
+    @Override
+    public void init(final ProcessingEnvironment processingEnv) {
+      final Filer filer = (Filer) Proxy.newProxyInstance(Filer.class.getClassLoader(), new Class<?>[] {Filer.class},
+          (proxy, method, args) -> {
+            final Object[] elements = (Object[]) args[args.length - 1];
+            final String name = method.getName().equals("createResource") ? args[2].toString() : args[0].toString();
+            final List<String> names = new ArrayList<>();
+            for (final Object element : elements) {
+              names.add(((TypeElement) element).getQualifiedName().toString());
+            }
+            originatingElements.put(name, names);
+            try {
+              return method.invoke(processingEnv.getFiler(), args);
+            } catch (final InvocationTargetException e) {
+              throw e.getCause();
+            }
+          });
+      final Messager messager = (Messager) Proxy.newProxyInstance(Messager.class.getClassLoader(),
+          new Class<?>[] {Messager.class}, (proxy, method, args) -> {
+            if (args[0] == Kind.NOTE) {
+              notes.add(args[1].toString());
+            }
+            try {
+              return method.invoke(processingEnv.getMessager(), args);
+            } catch (final InvocationTargetException e) {
+              throw e.getCause();
+            }
+          });
+      delegate.init((ProcessingEnvironment) Proxy.newProxyInstance(ProcessingEnvironment.class.getClassLoader(),
+          new Class<?>[] {ProcessingEnvironment.class}, (proxy, method, args) -> {
+            if (method.getName().equals("getFiler")) {
+              return filer;
+            }
+            if (method.getName().equals("getMessager")) {
+              return messager;
+            }
+            try {
+              return method.invoke(processingEnv, args);
+            } catch (final InvocationTargetException e) {
+              throw e.getCause();
+            }
+          }));
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+      return delegate.process(annotations, roundEnv);
+    }
+
+    @Override
+    public Iterable<? extends Completion> getCompletions(final Element element, final AnnotationMirror annotation,
+        final ExecutableElement member, final String userText) {
+      return delegate.getCompletions(element, annotation, member, userText);
+    }
+
+  }
+
 }
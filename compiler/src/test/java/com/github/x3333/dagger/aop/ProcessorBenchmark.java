@@ -0,0 +1,340 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop;
+
+import com.github.x3333.dagger.aop.internal.InterceptorProcessor;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Scalability benchmark of the {@link InterceptorProcessor} over synthetic codebases.
+ * 
+ * <p>
+ * For each combination of classes and handlers, generates abstract classes with intercepted methods, each method annotated by one of
+ * the handlers in turn, and compiles them with javac, reporting the wall time of the compilation, the time spent in the processor and
+ * the peak heap usage.
+ * 
+ * <p>
+ * Handlers are generated and compiled first, then loaded with a new copy of the processor, as it finds the handlers using the
+ * {@link java.util.ServiceLoader ServiceLoader} of its own class loader. Run with <code>mvn -Pbenchmarks -pl compiler -am test</code>,
+ * arguments can be changed using the <code>processor.benchmark.args</code> property:
+ * 
+ * <pre>
+ * -classes 100,1000,10000 -methods 20 -handlers 1,4,16 -warmup 1
+ * </pre>
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public final class ProcessorBenchmark {
+
+  private static final String HANDLER_SERVICE = "META-INF/services/" + InterceptorHandler.class.getName();
+  private static final String PROCESSOR_PACKAGE = InterceptorProcessor.class.getPackage().getName() + ".";
+
+  private ProcessorBenchmark() {}
+
+  public static void main(final String[] args) throws Exception {
+    int[] classes = {100, 1000, 10000};
+    int methods = 20;
+    int[] handlers = {1, 4, 16};
+    int warmup = 1;
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      switch (args[i]) {
+        case "-classes":
+          classes = parseInts(args[i + 1]);
+          break;
+        case "-methods":
+          methods = Integer.parseInt(args[i + 1]);
+          break;
+        case "-handlers":
+          handlers = parseInts(args[i + 1]);
+          break;
+        case "-warmup":
+          warmup = Integer.parseInt(args[i + 1]);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown argument: " + args[i]);
+      }
+    }
+
+    System.out.println(String.format("%8s %8s %8s %10s %14s %14s", //
+        "classes", "methods", "handlers", "wall ms", "processor ms", "peak heap MB"));
+    for (final int handlerCount : handlers) {
+      final Path handlersDir = Files.createTempDirectory("processor-benchmark-handlers");
+      try {
+        compile(writeHandlers(handlersDir, handlerCount), handlersDir, handlersDir, null, "-proc:none");
+        // A copy of the processor per handler count, warmed up before measuring.
+        try (final URLClassLoader loader = new ProcessorClassLoader(handlersDir)) {
+          for (int i = 0; i < warmup; i++) {
+            run(loader, handlersDir, classes[0], methods, handlerCount);
+          }
+          for (final int classCount : classes) {
+            final Result result = run(loader, handlersDir, classCount, methods, handlerCount);
+            System.out.println(String.format("%8d %8d %8d %10d %14d %14d", //
+                classCount, methods, handlerCount, result.wallNanos / 1_000_000, result.processorNanos / 1_000_000,
+                result.peakHeap / (1024 * 1024)));
+          }
+        }
+      } finally {
+        delete(handlersDir);
+      }
+    }
+  }
+
+  //
+
+  private static Result run(final ClassLoader loader, final Path handlersDir, final int classCount, final int methods,
+      final int handlerCount) throws Exception {
+    final Path root = Files.createTempDirectory("processor-benchmark");
+    try {
+      final Path sourcesDir = Files.createDirectories(root.resolve("sources"));
+      final Path generatedDir = Files.createDirectories(root.resolve("generated"));
+      final Path classesDir = Files.createDirectories(root.resolve("classes"));
+      final List<Path> sources = writeSources(sourcesDir, classCount, methods, handlerCount);
+      final TimedProcessor processor = new TimedProcessor(
+          (Processor) loader.loadClass(InterceptorProcessor.class.getName()).getConstructor().newInstance());
+
+      System.gc();
+      final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()//
+          .filter(pool -> pool.getType() == MemoryType.HEAP)//
+          .collect(Collectors.toList());
+      heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+      final long start = System.nanoTime();
+      compile(sources, handlersDir, classesDir, processor, "-s", generatedDir.toString());
+      final long wallNanos = System.nanoTime() - start;
+
+      final long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+      return new Result(wallNanos, processor.nanos, peakHeap);
+    } finally {
+      delete(root);
+    }
+  }
+
+  private static void delete(final Path root) throws IOException {
+    try (final Stream<Path> paths = Files.walk(root)) {
+      paths.sorted(Collections.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  private static void compile(final List<Path> sources, final Path classpath, final Path output, final Processor processor,
+      final String... options) throws IOException {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    try (final StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+      final Iterable<? extends JavaFileObject> units =
+          fileManager.getJavaFileObjectsFromFiles(sources.stream().map(Path::toFile).collect(Collectors.toList()));
+      final List<String> arguments = new ArrayList<>(Arrays.asList(options));
+      arguments.addAll(Arrays.asList("-d", output.toString(), "-classpath",
+          System.getProperty("java.class.path") + File.pathSeparator + classpath));
+      final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, arguments, null, units);
+      if (processor != null) {
+        task.setProcessors(Collections.singleton(processor));
+      }
+      if (!task.call()) {
+        throw new IllegalStateException("Compilation failed");
+      }
+    }
+  }
+
+  private static List<Path> writeHandlers(final Path dir, final int handlerCount) throws IOException {
+    final Path packageDir = Files.createDirectories(dir.resolve("bench"));
+    final List<Path> sources = new ArrayList<>();
+    final StringBuilder services = new StringBuilder();
+    sources.add(write(packageDir.resolve("BenchInterceptor.java"), "package bench;\n\n"
+        + "public class BenchInterceptor implements com.github.x3333.dagger.aop.MethodInterceptor {\n"
+        + "  @javax.inject.Inject\n  public BenchInterceptor() {}\n\n"
+        + "  @Override\n  @SuppressWarnings(\"unchecked\")\n"
+        + "  public <T> T invoke(final com.github.x3333.dagger.aop.MethodInvocation invocation) throws Throwable {\n"
+        + "    return (T) invocation.proceed();\n  }\n}\n"));
+    for (int i = 0; i < handlerCount; i++) {
+      sources.add(write(packageDir.resolve("Bench" + i + ".java"), "package bench;\n\n"
+          + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+          + "@java.lang.annotation.Target(java.lang.annotation.ElementType.METHOD)\n"
+          + "public @interface Bench" + i + " {}\n"));
+      sources.add(write(packageDir.resolve("Bench" + i + "Handler.java"), "package bench;\n\n"
+          + "public class Bench" + i + "Handler implements com.github.x3333.dagger.aop.InterceptorHandler {\n"
+          + "  @Override\n  public Class<Bench" + i + "> annotation() {\n    return Bench" + i + ".class;\n  }\n\n"
+          + "  @Override\n  public Class<BenchInterceptor> methodInterceptorClass() {\n    return BenchInterceptor.class;\n  }\n}\n"));
+      services.append("bench.Bench").append(i).append("Handler\n");
+    }
+    write(Files.createDirectories(dir.resolve("META-INF/services")).resolve(InterceptorHandler.class.getName()),
+        services.toString());
+    return sources;
+  }
+
+  private static List<Path> writeSources(final Path dir, final int classCount, final int methods, final int handlerCount)
+      throws IOException {
+    final List<Path> sources = new ArrayList<>();
+    for (int i = 0; i < classCount; i++) {
+      // 100 classes per package, so the module binds classes of many packages.
+      final String packageName = "bench.p" + i / 100;
+      final StringBuilder source = new StringBuilder()//
+          .append("package ").append(packageName).append(";\n\n")//
+          .append("public abstract class C").append(i).append(" {\n");
+      for (int j = 0; j < methods; j++) {
+        source.append("\n  @bench.Bench").append(j % handlerCount).append('\n')//
+            .append("  public String m").append(j).append("(final int a, final String b) throws java.io.IOException {\n")//
+            .append("    return b + a;\n  }\n");
+      }
+      source.append("}\n");
+      final Path packageDir = Files.createDirectories(dir.resolve(packageName.replace('.', File.separatorChar)));
+      sources.add(write(packageDir.resolve("C" + i + ".java"), source.toString()));
+    }
+    return sources;
+  }
+
+  private static Path write(final Path path, final String content) throws IOException {
+    return Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static int[] parseInts(final String value) {
+    return Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+  }
+
+  /**
+   * Result of a run.
+   */
+  private static final class Result {
+
+    final long wallNanos;
+    final long processorNanos;
+    final long peakHeap;
+
+    Result(final long wallNanos, final long processorNanos, final long peakHeap) {
+      this.wallNanos = wallNanos;
+      this.processorNanos = processorNanos;
+      this.peakHeap = peakHeap;
+    }
+
+  }
+
+  /**
+   * Class loader with a copy of the processor, seeing only the generated handlers.
+   */
+  private static final class ProcessorClassLoader extends URLClassLoader {
+
+    ProcessorClassLoader(final Path handlersDir) throws IOException {
+      super(new URL[] {handlersDir.toUri().toURL(),
+          InterceptorProcessor.class.getProtectionDomain().getCodeSource().getLocation()},
+          ProcessorBenchmark.class.getClassLoader());
+    }
+
+    @Override
+    protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+      synchronized (getClassLoadingLock(name)) {
+        if (!name.startsWith(PROCESSOR_PACKAGE)) {
+          return super.loadClass(name, resolve);
+        }
+        Class<?> loaded = findLoadedClass(name);
+        if (loaded == null) {
+          loaded = findClass(name);
+        }
+        if (resolve) {
+          resolveClass(loaded);
+        }
+        return loaded;
+      }
+    }
+
+    @Override
+    public Enumeration<URL> getResources(final String name) throws IOException {
+      // Handlers of the test classpath are not loaded.
+      return HANDLER_SERVICE.equals(name) ? findResources(name) : super.getResources(name);
+    }
+
+  }
+
+  /**
+   * {@link Processor} measuring the time spent in the processor it delegates to.
+   */
+  private static final class TimedProcessor implements Processor {
+
+    private final Processor delegate;
+    long nanos;
+
+    TimedProcessor(final Processor delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+      return delegate.getSupportedOptions();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+      return delegate.getSupportedAnnotationTypes();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return delegate.getSupportedSourceVersion();
+    }
+
+    @Override
+    public void init(final ProcessingEnvironment processingEnv) {
+      final long start = System.nanoTime();
+      delegate.init(processingEnv);
+      nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+      final long start = System.nanoTime();
+      try {
+        return delegate.process(annotations, roundEnv);
+      } finally {
+        nanos += System.nanoTime() - start;
+      }
+    }
+
+    @Override
+    public Iterable<? extends Completion> getCompletions(final Element element, final AnnotationMirror annotation,
+        final ExecutableElement member, final String userText) {
+      return delegate.getCompletions(element, annotation, member, userText);
+    }
+
+  }
+
+}
@@ -0,0 +1,57 @@
+package com.github.x3333.dagger.aop.test;
+
+import static javax.lang.model.type.TypeKind.DECLARED;
+
+import com.github.x3333.dagger.aop.InlineInterceptorHandler;
+import com.github.x3333.dagger.aop.test.annotation.InlineAnnotation;
+
+import java.lang.annotation.Annotation;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+
+import com.squareup.javapoet.CodeBlock;
+
+public class InlineHandler implements InlineInterceptorHandler {
+
+  public static final AtomicLong CALLS = new AtomicLong();
+  public static final AtomicLong FAILURES = new AtomicLong();
+
+  @Override
+  public Class<? extends Annotation> annotation() {
+    return InlineAnnotation.class;
+  }
+
+  @Override
+  public Class<Interceptor> methodInterceptorClass() {
+    return Interceptor.class;
+  }
+
+  @Override
+  public CodeBlock before(final ExecutableElement methodElement) {
+    final CodeBlock.Builder code = CodeBlock.builder();
+    for (final VariableElement parameter : methodElement.getParameters()) {
+      if (!parameter.asType().getKind().isPrimitive()) {
+        code.addStatement("$T.requireNonNull($L, $S)", Objects.class, parameter.getSimpleName(), parameter.getSimpleName());
+      }
+    }
+    return code.build();
+  }
+
+  @Override
+  public CodeBlock after(final ExecutableElement methodElement) {
+    final CodeBlock.Builder code = CodeBlock.builder();
+    if (methodElement.getReturnType().getKind() == DECLARED) {
+      code.addStatement("$T.requireNonNull($$result)", Objects.class);
+    }
+    return code.addStatement("$T.CALLS.incrementAndGet()", InlineHandler.class).build();
+  }
+
+  @Override
+  public CodeBlock onThrow(final ExecutableElement methodElement) {
+    return CodeBlock.builder().addStatement("$T.FAILURES.incrementAndGet()", InlineHandler.class).build();
+  }
+
+}
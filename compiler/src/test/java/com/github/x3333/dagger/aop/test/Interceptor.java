@@ -1,9 +1,16 @@
 package com.github.x3333.dagger.aop.test;
 
-import com.github.x3333.dagger.aop.MethodInterceptor;
+import com.github.x3333.dagger.aop.AsyncMethodInterceptor;
+import com.github.x3333.dagger.aop.AsyncMethodInvocation;
+import com.github.x3333.dagger.aop.IntMethodInterceptor;
+import com.github.x3333.dagger.aop.IntMethodInvocation;
+import com.github.x3333.dagger.aop.LongMethodInterceptor;
+import com.github.x3333.dagger.aop.LongMethodInvocation;
 import com.github.x3333.dagger.aop.MethodInvocation;
 
-public class Interceptor implements MethodInterceptor {
+import java.util.concurrent.CompletionStage;
+
+public class Interceptor implements IntMethodInterceptor, LongMethodInterceptor, AsyncMethodInterceptor {
 
   @Override
   @SuppressWarnings("unchecked")
@@ -11,4 +18,19 @@ public class Interceptor implements MethodInterceptor {
     return (T) invocation.proceed();
   }
 
+  @Override
+  public int invokeInt(final IntMethodInvocation invocation) throws Throwable {
+    return invocation.proceedInt();
+  }
+
+  @Override
+  public long invokeLong(final LongMethodInvocation invocation) throws Throwable {
+    return invocation.proceedLong();
+  }
+
+  @Override
+  public <T> CompletionStage<T> invokeAsync(final AsyncMethodInvocation invocation) throws Throwable {
+    return invocation.proceedAsync();
+  }
+
 }
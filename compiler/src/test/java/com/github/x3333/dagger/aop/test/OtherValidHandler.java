@@ -0,0 +1,25 @@
+package com.github.x3333.dagger.aop.test;
+
+import com.github.x3333.dagger.aop.InterceptorHandler;
+import com.github.x3333.dagger.aop.test.annotation.other.ValidAnnotation;
+
+import java.lang.annotation.Annotation;
+
+public class OtherValidHandler implements InterceptorHandler {
+
+  @Override
+  public Class<? extends Annotation> annotation() {
+    return ValidAnnotation.class;
+  }
+
+  @Override
+  public Class<Interceptor2> methodInterceptorClass() {
+    return Interceptor2.class;
+  }
+
+  @Override
+  public boolean invocationEscapes() {
+    return false;
+  }
+
+}
@@ -4,6 +4,11 @@ import com.github.x3333.dagger.aop.InterceptorHandler;
 import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation;
 
 import java.lang.annotation.Annotation;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.TypeElement;
 
 public class ValidHandler implements InterceptorHandler {
 
@@ -17,4 +22,18 @@ public class ValidHandler implements InterceptorHandler {
     return Interceptor.class;
   }
 
+  @Override
+  public boolean invocationEscapes() {
+    return false;
+  }
+
+  @Override
+  public Set<String> reflectiveClasses(final ProcessingEnvironment processingEnv, final Set<TypeElement> processedClasses) {
+    final Set<String> classes = new TreeSet<>();
+    for (final TypeElement classElement : processedClasses) {
+      classes.add(classElement.getQualifiedName() + "Reflective");
+    }
+    return classes;
+  }
+
 }
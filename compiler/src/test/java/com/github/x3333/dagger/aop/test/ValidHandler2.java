@@ -17,4 +17,9 @@ public class ValidHandler2 implements InterceptorHandler {
     return Interceptor2.class;
   }
 
+  @Override
+  public boolean invocationEscapes() {
+    return false;
+  }
+
 }
@@ -9,4 +9,10 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 public @interface ValidAnnotation {
 
+  String value() default "";
+
+  long timeout() default 0;
+
+  Class<? extends Throwable>[] on() default {};
+
 }
@@ -0,0 +1,14 @@
+package com.github.x3333.dagger.aop.test.annotation.other;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ValidAnnotation {
+
+  int value() default 0;
+
+}
@@ -0,0 +1,31 @@
+package test;
+
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation2;
+
+public abstract class Dispatcher {
+
+  public static class MyException extends Exception {
+  }
+
+  @ValidAnnotation
+  public String doSomeWorkReturn(String param1, String param2) {
+    return null;
+  }
+
+  @ValidAnnotation
+  public long doSomeWorkArguments(final int param1, final long param2, final String e) {
+    return 0;
+  }
+
+  @ValidAnnotation
+  @ValidAnnotation2
+  public int doSomeWorkMultiplePrimitive(final boolean flag) {
+    return 0;
+  }
+
+  @ValidAnnotation
+  @ValidAnnotation2
+  public void doSomeWorkMultipleAndThrows() throws MyException {}
+
+}
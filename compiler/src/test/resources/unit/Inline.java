@@ -0,0 +1,24 @@
+package test;
+
+import com.github.x3333.dagger.aop.test.annotation.InlineAnnotation;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation;
+
+import java.io.IOException;
+
+public abstract class Inline {
+
+  @InlineAnnotation
+  public String doSomeWorkReturn(String param1, int param2) throws IOException {
+    return param1;
+  }
+
+  @InlineAnnotation
+  public void doSomeWorkNoReturn(Object param1) {}
+
+  @InlineAnnotation
+  @ValidAnnotation
+  public int doSomeWorkMixed(String param1) {
+    return 0;
+  }
+
+}
@@ -0,0 +1,308 @@
+package test;
+
+import com.github.x3333.dagger.aop.AbstractAnnotation;
+import com.github.x3333.dagger.aop.AbstractDispatcherMethodInvocation;
+import com.github.x3333.dagger.aop.MethodMetadata;
+import com.github.x3333.dagger.aop.test.Interceptor;
+import com.github.x3333.dagger.aop.test.Interceptor2;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation2;
+import java.lang.Class;
+import java.lang.Integer;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.Throwable;
+import java.lang.annotation.Annotation;
+import javax.annotation.Generated;
+import javax.inject.Inject;
+
+@Generated(
+    value = "com.github.x3333.dagger.aop.internal.InterceptorProcessor",
+    comments = "https://github.com/0x3333/dagger-aop"
+)
+public final class Interceptor_Dispatcher extends Dispatcher {
+  private static final MethodMetadata doSomeWorkReturnMetadata$ = new MethodMetadata(Dispatcher.class, "doSomeWorkReturn", new Class<?>[] {String.class, String.class}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
+
+  private static final MethodMetadata doSomeWorkArgumentsMetadata$ = new MethodMetadata(Dispatcher.class, "doSomeWorkArguments", new Class<?>[] {int.class, long.class, String.class}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
+
+  private static final MethodMetadata doSomeWorkMultiplePrimitiveMetadata$ = new MethodMetadata(Dispatcher.class, "doSomeWorkMultiplePrimitive", new Class<?>[] {boolean.class}, new Annotation[] {new ValidAnnotation2$Impl(), new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation2.class, ValidAnnotation.class);
+
+  private static final MethodMetadata doSomeWorkMultipleAndThrowsMetadata$ = new MethodMetadata(Dispatcher.class, "doSomeWorkMultipleAndThrows", new Class<?>[] {}, new Annotation[] {new ValidAnnotation2$Impl(), new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation2.class, ValidAnnotation.class);
+
+  private final Interceptor $interceptorValidAnnotation;
+
+  private final Interceptor2 $interceptorValidAnnotation2;
+
+  @Inject
+  public Interceptor_Dispatcher(final Interceptor $interceptorValidAnnotation, final Interceptor2 $interceptorValidAnnotation2) {
+    super();
+    this.$interceptorValidAnnotation = $interceptorValidAnnotation;
+    this.$interceptorValidAnnotation2 = $interceptorValidAnnotation2;
+  }
+
+  @Override
+  public String doSomeWorkReturn(String param1, String param2) {
+    final Invocation $invocation = new Invocation(doSomeWorkReturnMetadata$, 0);
+    $invocation.arg0 = param1;
+    $invocation.arg1 = param2;
+    try {
+      return (String) $interceptorValidAnnotation.invoke($invocation);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  @Override
+  public long doSomeWorkArguments(final int param1, final long param2, final String e) {
+    final Invocation $invocation = new Invocation(doSomeWorkArgumentsMetadata$, 1);
+    $invocation.arg2 = param1;
+    $invocation.arg3 = param2;
+    $invocation.arg0 = e;
+    try {
+      return $interceptorValidAnnotation.invokeLong($invocation);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  @Override
+  public int doSomeWorkMultiplePrimitive(final boolean flag) {
+    final Invocation $invocation = new Invocation(doSomeWorkMultiplePrimitiveMetadata$, 2);
+    $invocation.arg4 = flag;
+    try {
+      return (Integer) $interceptorValidAnnotation2.invoke($invocation);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  @Override
+  public void doSomeWorkMultipleAndThrows() throws Dispatcher.MyException {
+    final Invocation $invocation = new Invocation(doSomeWorkMultipleAndThrowsMetadata$, 3);
+    try {
+      $interceptorValidAnnotation2.invoke($invocation);
+    } catch (Dispatcher.MyException $e) {
+      throw $e;
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  private static final class ValidAnnotation$Impl extends AbstractAnnotation implements ValidAnnotation {
+    private final String value;
+
+    private final long timeout;
+
+    private final Class<? extends Throwable>[] on;
+
+    ValidAnnotation$Impl(final String value, final long timeout, final Class<? extends Throwable>[] on) {
+      super(ValidAnnotation.class, "value", "timeout", "on");
+      this.value = value;
+      this.timeout = timeout;
+      this.on = on;
+    }
+
+    @Override
+    public String value() {
+      return value;
+    }
+
+    @Override
+    public long timeout() {
+      return timeout;
+    }
+
+    @Override
+    public Class<? extends Throwable>[] on() {
+      return on.clone();
+    }
+
+    @Override
+    protected Object memberValue(final int $index) {
+      switch ($index) {
+        case 0:
+          return value;
+        case 1:
+          return timeout;
+        case 2:
+          return on;
+        default:
+          return super.memberValue($index);
+      }
+    }
+  }
+
+  private static final class ValidAnnotation2$Impl extends AbstractAnnotation implements ValidAnnotation2 {
+    ValidAnnotation2$Impl() {
+      super(ValidAnnotation2.class);
+    }
+  }
+
+  private final class Invocation extends AbstractDispatcherMethodInvocation {
+    String arg0;
+
+    String arg1;
+
+    int arg2;
+
+    long arg3;
+
+    boolean arg4;
+
+    Invocation(final MethodMetadata metadata, final int ordinal) {
+      super(Interceptor_Dispatcher.this, metadata, ordinal);
+    }
+
+    @Override
+    public int argumentCount() {
+      switch (ordinal) {
+        case 0:
+          return 2;
+        case 1:
+          return 3;
+        case 2:
+          return 1;
+        default:
+          return super.argumentCount();
+      }
+    }
+
+    @Override
+    public Object getArgument(final int $index) {
+      switch (ordinal) {
+        case 0:
+          switch ($index) {
+            case 0:
+              return arg0;
+            case 1:
+              return arg1;
+          }
+          break;
+        case 1:
+          switch ($index) {
+            case 0:
+              return arg2;
+            case 1:
+              return arg3;
+            case 2:
+              return arg0;
+          }
+          break;
+        case 2:
+          switch ($index) {
+            case 0:
+              return arg4;
+          }
+          break;
+      }
+      return super.getArgument($index);
+    }
+
+    @Override
+    public int getIntArgument(final int $index) {
+      switch (ordinal) {
+        case 1:
+          switch ($index) {
+            case 0:
+              return arg2;
+          }
+          break;
+      }
+      return super.getIntArgument($index);
+    }
+
+    @Override
+    public long getLongArgument(final int $index) {
+      switch (ordinal) {
+        case 1:
+          switch ($index) {
+            case 1:
+              return arg3;
+          }
+          break;
+      }
+      return super.getLongArgument($index);
+    }
+
+    @Override
+    public boolean getBooleanArgument(final int $index) {
+      switch (ordinal) {
+        case 2:
+          switch ($index) {
+            case 0:
+              return arg4;
+          }
+          break;
+      }
+      return super.getBooleanArgument($index);
+    }
+
+    @Override
+    protected Object proceed(final int $index) throws Throwable {
+      switch (ordinal) {
+        case 0:
+          return Interceptor_Dispatcher.super.doSomeWorkReturn(arg0, arg1);
+        case 1:
+          return proceedLong($index);
+        case 2:
+          return proceedInt($index);
+        case 3:
+          noReturnProceed($index);
+          return null;
+        default:
+          throw new RuntimeException("Invalid method ordinal!");
+      }
+    }
+
+    @Override
+    protected void noReturnProceed(final int $index) throws Throwable {
+      switch (ordinal) {
+        case 3:
+          switch ($index) {
+            case 0:
+              $interceptorValidAnnotation.invoke(this);
+              break;
+            default:
+              Interceptor_Dispatcher.super.doSomeWorkMultipleAndThrows();
+          }
+          return;
+        default:
+          throw new RuntimeException("Invalid method ordinal!");
+      }
+    }
+
+    @Override
+    protected long proceedLong(final int $index) throws Throwable {
+      switch (ordinal) {
+        case 1:
+          return Interceptor_Dispatcher.super.doSomeWorkArguments(arg2, arg3, arg0);
+        default:
+          throw new RuntimeException("Invalid method ordinal!");
+      }
+    }
+
+    @Override
+    protected int proceedInt(final int $index) throws Throwable {
+      switch (ordinal) {
+        case 2:
+          switch ($index) {
+            case 0:
+              return $interceptorValidAnnotation.invokeInt(this);
+            default:
+              return Interceptor_Dispatcher.super.doSomeWorkMultiplePrimitive(arg4);
+          }
+        default:
+          throw new RuntimeException("Invalid method ordinal!");
+      }
+    }
+  }
+}
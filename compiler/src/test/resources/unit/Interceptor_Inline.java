@@ -0,0 +1,151 @@
+package test;
+
+import com.github.x3333.dagger.aop.AbstractAnnotation;
+import com.github.x3333.dagger.aop.AbstractIntMethodInvocation;
+import com.github.x3333.dagger.aop.MethodMetadata;
+import com.github.x3333.dagger.aop.test.InlineHandler;
+import com.github.x3333.dagger.aop.test.Interceptor;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation;
+import java.io.IOException;
+import java.lang.Class;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.Throwable;
+import java.lang.annotation.Annotation;
+import java.util.Objects;
+import javax.annotation.Generated;
+import javax.inject.Inject;
+
+@Generated(
+    value = "com.github.x3333.dagger.aop.internal.InterceptorProcessor",
+    comments = "https://github.com/0x3333/dagger-aop"
+)
+public final class Interceptor_Inline extends Inline {
+  private static final MethodMetadata doSomeWorkMixedMetadata$ = new MethodMetadata(Inline.class, "doSomeWorkMixed", new Class<?>[] {String.class}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
+
+  private final Interceptor $interceptorValidAnnotation;
+
+  @Inject
+  public Interceptor_Inline(final Interceptor $interceptorValidAnnotation) {
+    super();
+    this.$interceptorValidAnnotation = $interceptorValidAnnotation;
+  }
+
+  @Override
+  public String doSomeWorkReturn(String param1, int param2) throws IOException {
+    final String $result;
+    Objects.requireNonNull(param1, "param1");
+    try {
+      $result = super.doSomeWorkReturn(param1, param2);
+    } catch (Throwable $e) {
+      InlineHandler.FAILURES.incrementAndGet();
+      throw $e;
+    }
+    Objects.requireNonNull($result);
+    InlineHandler.CALLS.incrementAndGet();
+    return $result;
+  }
+
+  @Override
+  public void doSomeWorkNoReturn(Object param1) {
+    Objects.requireNonNull(param1, "param1");
+    try {
+      super.doSomeWorkNoReturn(param1);
+    } catch (Throwable $e) {
+      InlineHandler.FAILURES.incrementAndGet();
+      throw $e;
+    }
+    InlineHandler.CALLS.incrementAndGet();
+  }
+
+  @Override
+  public int doSomeWorkMixed(String param1) {
+    final int $result;
+    Objects.requireNonNull(param1, "param1");
+    try {
+      $result = doSomeWorkMixed$intercepted(param1);
+    } catch (Throwable $e) {
+      InlineHandler.FAILURES.incrementAndGet();
+      throw $e;
+    }
+    InlineHandler.CALLS.incrementAndGet();
+    return $result;
+  }
+
+  private int doSomeWorkMixed$intercepted(String param1) {
+    try {
+      return $interceptorValidAnnotation.invokeInt(new AbstractIntMethodInvocation(
+          Interceptor_Inline.this,
+          Interceptor_Inline.doSomeWorkMixedMetadata$) {
+        @Override
+        public int argumentCount() {
+          return 1;
+        }
+
+        @Override
+        public Object getArgument(final int $index) {
+          switch ($index) {
+            case 0:
+              return param1;
+            default:
+              return super.getArgument($index);
+          }
+        }
+
+        @Override
+        protected int proceedInt(final int $index) throws Throwable {
+          return Interceptor_Inline.super.doSomeWorkMixed(param1);
+        }
+      });
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  private static final class ValidAnnotation$Impl extends AbstractAnnotation implements ValidAnnotation {
+    private final String value;
+
+    private final long timeout;
+
+    private final Class<? extends Throwable>[] on;
+
+    ValidAnnotation$Impl(final String value, final long timeout, final Class<? extends Throwable>[] on) {
+      super(ValidAnnotation.class, "value", "timeout", "on");
+      this.value = value;
+      this.timeout = timeout;
+      this.on = on;
+    }
+
+    @Override
+    public String value() {
+      return value;
+    }
+
+    @Override
+    public long timeout() {
+      return timeout;
+    }
+
+    @Override
+    public Class<? extends Throwable>[] on() {
+      return on.clone();
+    }
+
+    @Override
+    protected Object memberValue(final int $index) {
+      switch ($index) {
+        case 0:
+          return value;
+        case 1:
+          return timeout;
+        case 2:
+          return on;
+        default:
+          return super.memberValue($index);
+      }
+    }
+  }
+}
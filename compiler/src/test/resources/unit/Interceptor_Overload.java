@@ -0,0 +1,300 @@
+package test;
+
+import com.github.x3333.dagger.aop.AbstractAnnotation;
+import com.github.x3333.dagger.aop.AbstractLongMethodInvocation;
+import com.github.x3333.dagger.aop.AbstractMethodInvocation;
+import com.github.x3333.dagger.aop.MethodMetadata;
+import com.github.x3333.dagger.aop.test.InlineHandler;
+import com.github.x3333.dagger.aop.test.Interceptor;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation;
+import java.lang.Class;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.ThreadLocal;
+import java.lang.Throwable;
+import java.lang.annotation.Annotation;
+import javax.annotation.Generated;
+import javax.inject.Inject;
+
+@Generated(
+    value = "com.github.x3333.dagger.aop.internal.InterceptorProcessor",
+    comments = "https://github.com/0x3333/dagger-aop"
+)
+public final class Interceptor_Overload extends Overload {
+  private static final MethodMetadata doSomeWork$1Metadata$ = new MethodMetadata(Overload.class, "doSomeWork", new Class<?>[] {String.class}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
+
+  private static final MethodMetadata doSomeWork$2Metadata$ = new MethodMetadata(Overload.class, "doSomeWork", new Class<?>[] {int.class}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
+
+  private static final MethodMetadata doSomeWorkOnceMetadata$ = new MethodMetadata(Overload.class, "doSomeWorkOnce", new Class<?>[] {}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
+
+  private final Interceptor $interceptorValidAnnotation;
+
+  @Inject
+  public Interceptor_Overload(final Interceptor $interceptorValidAnnotation) {
+    super();
+    this.$interceptorValidAnnotation = $interceptorValidAnnotation;
+  }
+
+  @Override
+  public String doSomeWork(String param1) {
+    final doSomeWork$1$Invocation $invocation = doSomeWork$1$Invocation.acquire(this, param1);
+    try {
+      return (String) $interceptorValidAnnotation.invoke($invocation);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    } finally {
+      $invocation.release();
+    }
+  }
+
+  private String doSomeWork$1$super(String param1) {
+    return super.doSomeWork(param1);
+  }
+
+  @Override
+  public long doSomeWork(final int param1) {
+    final long $result;
+    try {
+      $result = doSomeWork$2$intercepted(param1);
+    } catch (Throwable $e) {
+      InlineHandler.FAILURES.incrementAndGet();
+      throw $e;
+    }
+    InlineHandler.CALLS.incrementAndGet();
+    return $result;
+  }
+
+  private long doSomeWork$2$intercepted(final int param1) {
+    final doSomeWork$2$Invocation $invocation = doSomeWork$2$Invocation.acquire(this, param1);
+    try {
+      return $interceptorValidAnnotation.invokeLong($invocation);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    } finally {
+      $invocation.release();
+    }
+  }
+
+  private long doSomeWork$2$super(final int param1) {
+    return super.doSomeWork(param1);
+  }
+
+  @Override
+  public String doSomeWorkOnce() {
+    final doSomeWorkOnce$Invocation $invocation = doSomeWorkOnce$Invocation.acquire(this);
+    try {
+      return (String) $interceptorValidAnnotation.invoke($invocation);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    } finally {
+      $invocation.release();
+    }
+  }
+
+  private String doSomeWorkOnce$super() {
+    return super.doSomeWorkOnce();
+  }
+
+  private static final class doSomeWork$1$Invocation extends AbstractMethodInvocation {
+    private static final ThreadLocal<doSomeWork$1$Invocation> $current = ThreadLocal.withInitial(doSomeWork$1$Invocation::new);
+
+    private boolean $inUse;
+
+    private Interceptor_Overload $instance;
+
+    private String param1;
+
+    private doSomeWork$1$Invocation() {
+      super(null, Interceptor_Overload.doSomeWork$1Metadata$);
+    }
+
+    @Override
+    public int argumentCount() {
+      return 1;
+    }
+
+    @Override
+    public Object getArgument(final int $index) {
+      switch ($index) {
+        case 0:
+          return param1;
+        default:
+          return super.getArgument($index);
+      }
+    }
+
+    @Override
+    protected Object proceed(final int $index) throws Throwable {
+      return $instance.doSomeWork$1$super(param1);
+    }
+
+    static doSomeWork$1$Invocation acquire(final Interceptor_Overload $instance, final String param1) {
+      doSomeWork$1$Invocation $invocation = $current.get();
+      if ($invocation.$inUse) {
+        // Reentrant call, the thread's invocation is in use.
+        $invocation = new doSomeWork$1$Invocation();
+      }
+      $invocation.$inUse = true;
+      $invocation.$instance = $instance;
+      $invocation.reset($instance);
+      $invocation.param1 = param1;
+      return $invocation;
+    }
+
+    void release() {
+      $inUse = false;
+      $instance = null;
+      reset(null);
+      param1 = null;
+    }
+  }
+
+  private static final class ValidAnnotation$Impl extends AbstractAnnotation implements ValidAnnotation {
+    private final String value;
+
+    private final long timeout;
+
+    private final Class<? extends Throwable>[] on;
+
+    ValidAnnotation$Impl(final String value, final long timeout, final Class<? extends Throwable>[] on) {
+      super(ValidAnnotation.class, "value", "timeout", "on");
+      this.value = value;
+      this.timeout = timeout;
+      this.on = on;
+    }
+
+    @Override
+    public String value() {
+      return value;
+    }
+
+    @Override
+    public long timeout() {
+      return timeout;
+    }
+
+    @Override
+    public Class<? extends Throwable>[] on() {
+      return on.clone();
+    }
+
+    @Override
+    protected Object memberValue(final int $index) {
+      switch ($index) {
+        case 0:
+          return value;
+        case 1:
+          return timeout;
+        case 2:
+          return on;
+        default:
+          return super.memberValue($index);
+      }
+    }
+  }
+
+  private static final class doSomeWork$2$Invocation extends AbstractLongMethodInvocation {
+    private static final ThreadLocal<doSomeWork$2$Invocation> $current = ThreadLocal.withInitial(doSomeWork$2$Invocation::new);
+
+    private boolean $inUse;
+
+    private Interceptor_Overload $instance;
+
+    private int param1;
+
+    private doSomeWork$2$Invocation() {
+      super(null, Interceptor_Overload.doSomeWork$2Metadata$);
+    }
+
+    @Override
+    public int argumentCount() {
+      return 1;
+    }
+
+    @Override
+    public Object getArgument(final int $index) {
+      switch ($index) {
+        case 0:
+          return param1;
+        default:
+          return super.getArgument($index);
+      }
+    }
+
+    @Override
+    public int getIntArgument(final int $index) {
+      switch ($index) {
+        case 0:
+          return param1;
+        default:
+          return super.getIntArgument($index);
+      }
+    }
+
+    @Override
+    protected long proceedLong(final int $index) throws Throwable {
+      return $instance.doSomeWork$2$super(param1);
+    }
+
+    static doSomeWork$2$Invocation acquire(final Interceptor_Overload $instance, final int param1) {
+      doSomeWork$2$Invocation $invocation = $current.get();
+      if ($invocation.$inUse) {
+        // Reentrant call, the thread's invocation is in use.
+        $invocation = new doSomeWork$2$Invocation();
+      }
+      $invocation.$inUse = true;
+      $invocation.$instance = $instance;
+      $invocation.reset($instance);
+      $invocation.param1 = param1;
+      return $invocation;
+    }
+
+    void release() {
+      $inUse = false;
+      $instance = null;
+      reset(null);
+    }
+  }
+
+  private static final class doSomeWorkOnce$Invocation extends AbstractMethodInvocation {
+    private static final ThreadLocal<doSomeWorkOnce$Invocation> $current = ThreadLocal.withInitial(doSomeWorkOnce$Invocation::new);
+
+    private boolean $inUse;
+
+    private Interceptor_Overload $instance;
+
+    private doSomeWorkOnce$Invocation() {
+      super(null, Interceptor_Overload.doSomeWorkOnceMetadata$);
+    }
+
+    @Override
+    protected Object proceed(final int $index) throws Throwable {
+      return $instance.doSomeWorkOnce$super();
+    }
+
+    static doSomeWorkOnce$Invocation acquire(final Interceptor_Overload $instance) {
+      doSomeWorkOnce$Invocation $invocation = $current.get();
+      if ($invocation.$inUse) {
+        // Reentrant call, the thread's invocation is in use.
+        $invocation = new doSomeWorkOnce$Invocation();
+      }
+      $invocation.$inUse = true;
+      $invocation.$instance = $instance;
+      $invocation.reset($instance);
+      return $invocation;
+    }
+
+    void release() {
+      $inUse = false;
+      $instance = null;
+      reset(null);
+    }
+  }
+}
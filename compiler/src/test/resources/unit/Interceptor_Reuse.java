@@ -0,0 +1,327 @@
+package test;
+
+import com.github.x3333.dagger.aop.AbstractAnnotation;
+import com.github.x3333.dagger.aop.AbstractLongMethodInvocation;
+import com.github.x3333.dagger.aop.AbstractMethodInvocation;
+import com.github.x3333.dagger.aop.MethodMetadata;
+import com.github.x3333.dagger.aop.test.Interceptor;
+import com.github.x3333.dagger.aop.test.Interceptor2;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation2;
+import java.lang.Class;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.ThreadLocal;
+import java.lang.Throwable;
+import java.lang.annotation.Annotation;
+import javax.annotation.Generated;
+import javax.inject.Inject;
+
+@Generated(
+    value = "com.github.x3333.dagger.aop.internal.InterceptorProcessor",
+    comments = "https://github.com/0x3333/dagger-aop"
+)
+public final class Interceptor_Reuse extends Reuse {
+  private static final MethodMetadata doSomeWorkReturnMetadata$ = new MethodMetadata(Reuse.class, "doSomeWorkReturn", new Class<?>[] {String.class}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
+
+  private static final MethodMetadata doSomeWorkArgumentsMetadata$ = new MethodMetadata(Reuse.class, "doSomeWorkArguments", new Class<?>[] {int.class, long.class, Object.class}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
+
+  private static final MethodMetadata doSomeWorkMultipleAndThrowsMetadata$ = new MethodMetadata(Reuse.class, "doSomeWorkMultipleAndThrows", new Class<?>[] {}, new Annotation[] {new ValidAnnotation2$Impl(), new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation2.class, ValidAnnotation.class);
+
+  private final Interceptor $interceptorValidAnnotation;
+
+  private final Interceptor2 $interceptorValidAnnotation2;
+
+  @Inject
+  public Interceptor_Reuse(final Interceptor $interceptorValidAnnotation, final Interceptor2 $interceptorValidAnnotation2) {
+    super();
+    this.$interceptorValidAnnotation = $interceptorValidAnnotation;
+    this.$interceptorValidAnnotation2 = $interceptorValidAnnotation2;
+  }
+
+  @Override
+  public String doSomeWorkReturn(String param1) {
+    final doSomeWorkReturn$Invocation $invocation = doSomeWorkReturn$Invocation.acquire(this, param1);
+    try {
+      return (String) $interceptorValidAnnotation.invoke($invocation);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    } finally {
+      $invocation.release();
+    }
+  }
+
+  private String doSomeWorkReturn$super(String param1) {
+    return super.doSomeWorkReturn(param1);
+  }
+
+  @Override
+  public long doSomeWorkArguments(final int param1, final long param2, final Object e) {
+    final doSomeWorkArguments$Invocation $invocation = doSomeWorkArguments$Invocation.acquire(this, param1, param2, e);
+    try {
+      return $interceptorValidAnnotation.invokeLong($invocation);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    } finally {
+      $invocation.release();
+    }
+  }
+
+  private long doSomeWorkArguments$super(final int param1, final long param2, final Object e) {
+    return super.doSomeWorkArguments(param1, param2, e);
+  }
+
+  @Override
+  public void doSomeWorkMultipleAndThrows() throws Reuse.MyException {
+    final doSomeWorkMultipleAndThrows$Invocation $invocation = doSomeWorkMultipleAndThrows$Invocation.acquire(this);
+    try {
+      $interceptorValidAnnotation2.invoke($invocation);
+    } catch (Reuse.MyException $e) {
+      throw $e;
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    } finally {
+      $invocation.release();
+    }
+  }
+
+  private void doSomeWorkMultipleAndThrows$super() throws Reuse.MyException {
+    super.doSomeWorkMultipleAndThrows();
+  }
+
+  private static final class doSomeWorkReturn$Invocation extends AbstractMethodInvocation {
+    private static final ThreadLocal<doSomeWorkReturn$Invocation> $current = ThreadLocal.withInitial(doSomeWorkReturn$Invocation::new);
+
+    private boolean $inUse;
+
+    private Interceptor_Reuse $instance;
+
+    private String param1;
+
+    private doSomeWorkReturn$Invocation() {
+      super(null, Interceptor_Reuse.doSomeWorkReturnMetadata$);
+    }
+
+    @Override
+    public int argumentCount() {
+      return 1;
+    }
+
+    @Override
+    public Object getArgument(final int $index) {
+      switch ($index) {
+        case 0:
+          return param1;
+        default:
+          return super.getArgument($index);
+      }
+    }
+
+    @Override
+    protected Object proceed(final int $index) throws Throwable {
+      return $instance.doSomeWorkReturn$super(param1);
+    }
+
+    static doSomeWorkReturn$Invocation acquire(final Interceptor_Reuse $instance, final String param1) {
+      doSomeWorkReturn$Invocation $invocation = $current.get();
+      if ($invocation.$inUse) {
+        // Reentrant call, the thread's invocation is in use.
+        $invocation = new doSomeWorkReturn$Invocation();
+      }
+      $invocation.$inUse = true;
+      $invocation.$instance = $instance;
+      $invocation.reset($instance);
+      $invocation.param1 = param1;
+      return $invocation;
+    }
+
+    void release() {
+      $inUse = false;
+      $instance = null;
+      reset(null);
+      param1 = null;
+    }
+  }
+
+  private static final class ValidAnnotation$Impl extends AbstractAnnotation implements ValidAnnotation {
+    private final String value;
+
+    private final long timeout;
+
+    private final Class<? extends Throwable>[] on;
+
+    ValidAnnotation$Impl(final String value, final long timeout, final Class<? extends Throwable>[] on) {
+      super(ValidAnnotation.class, "value", "timeout", "on");
+      this.value = value;
+      this.timeout = timeout;
+      this.on = on;
+    }
+
+    @Override
+    public String value() {
+      return value;
+    }
+
+    @Override
+    public long timeout() {
+      return timeout;
+    }
+
+    @Override
+    public Class<? extends Throwable>[] on() {
+      return on.clone();
+    }
+
+    @Override
+    protected Object memberValue(final int $index) {
+      switch ($index) {
+        case 0:
+          return value;
+        case 1:
+          return timeout;
+        case 2:
+          return on;
+        default:
+          return super.memberValue($index);
+      }
+    }
+  }
+
+  private static final class doSomeWorkArguments$Invocation extends AbstractLongMethodInvocation {
+    private static final ThreadLocal<doSomeWorkArguments$Invocation> $current = ThreadLocal.withInitial(doSomeWorkArguments$Invocation::new);
+
+    private boolean $inUse;
+
+    private Interceptor_Reuse $instance;
+
+    private int param1;
+
+    private long param2;
+
+    private Object e;
+
+    private doSomeWorkArguments$Invocation() {
+      super(null, Interceptor_Reuse.doSomeWorkArgumentsMetadata$);
+    }
+
+    @Override
+    public int argumentCount() {
+      return 3;
+    }
+
+    @Override
+    public Object getArgument(final int $index) {
+      switch ($index) {
+        case 0:
+          return param1;
+        case 1:
+          return param2;
+        case 2:
+          return e;
+        default:
+          return super.getArgument($index);
+      }
+    }
+
+    @Override
+    public int getIntArgument(final int $index) {
+      switch ($index) {
+        case 0:
+          return param1;
+        default:
+          return super.getIntArgument($index);
+      }
+    }
+
+    @Override
+    public long getLongArgument(final int $index) {
+      switch ($index) {
+        case 1:
+          return param2;
+        default:
+          return super.getLongArgument($index);
+      }
+    }
+
+    @Override
+    protected long proceedLong(final int $index) throws Throwable {
+      return $instance.doSomeWorkArguments$super(param1, param2, e);
+    }
+
+    static doSomeWorkArguments$Invocation acquire(final Interceptor_Reuse $instance, final int param1, final long param2, final Object e) {
+      doSomeWorkArguments$Invocation $invocation = $current.get();
+      if ($invocation.$inUse) {
+        // Reentrant call, the thread's invocation is in use.
+        $invocation = new doSomeWorkArguments$Invocation();
+      }
+      $invocation.$inUse = true;
+      $invocation.$instance = $instance;
+      $invocation.reset($instance);
+      $invocation.param1 = param1;
+      $invocation.param2 = param2;
+      $invocation.e = e;
+      return $invocation;
+    }
+
+    void release() {
+      $inUse = false;
+      $instance = null;
+      reset(null);
+      e = null;
+    }
+  }
+
+  private static final class doSomeWorkMultipleAndThrows$Invocation extends AbstractMethodInvocation {
+    private static final ThreadLocal<doSomeWorkMultipleAndThrows$Invocation> $current = ThreadLocal.withInitial(doSomeWorkMultipleAndThrows$Invocation::new);
+
+    private boolean $inUse;
+
+    private Interceptor_Reuse $instance;
+
+    private doSomeWorkMultipleAndThrows$Invocation() {
+      super(null, Interceptor_Reuse.doSomeWorkMultipleAndThrowsMetadata$);
+    }
+
+    @Override
+    protected void noReturnProceed(final int $index) throws Throwable {
+      switch ($index) {
+        case 0:
+          $instance.$interceptorValidAnnotation.invoke(this);
+          break;
+        default:
+          $instance.doSomeWorkMultipleAndThrows$super();
+      }
+    }
+
+    static doSomeWorkMultipleAndThrows$Invocation acquire(final Interceptor_Reuse $instance) {
+      doSomeWorkMultipleAndThrows$Invocation $invocation = $current.get();
+      if ($invocation.$inUse) {
+        // Reentrant call, the thread's invocation is in use.
+        $invocation = new doSomeWorkMultipleAndThrows$Invocation();
+      }
+      $invocation.$inUse = true;
+      $invocation.$instance = $instance;
+      $invocation.reset($instance);
+      return $invocation;
+    }
+
+    void release() {
+      $inUse = false;
+      $instance = null;
+      reset(null);
+    }
+  }
+
+  private static final class ValidAnnotation2$Impl extends AbstractAnnotation implements ValidAnnotation2 {
+    ValidAnnotation2$Impl() {
+      super(ValidAnnotation2.class);
+    }
+  }
+}
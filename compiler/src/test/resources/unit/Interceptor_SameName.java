@@ -0,0 +1,141 @@
+package test;
+
+import com.github.x3333.dagger.aop.AbstractAnnotation;
+import com.github.x3333.dagger.aop.AbstractMethodInvocation;
+import com.github.x3333.dagger.aop.MethodMetadata;
+import com.github.x3333.dagger.aop.test.Interceptor;
+import com.github.x3333.dagger.aop.test.Interceptor2;
+import com.github.x3333.dagger.aop.test.annotation.other.ValidAnnotation;
+import java.lang.Class;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.Throwable;
+import java.lang.annotation.Annotation;
+import javax.annotation.Generated;
+import javax.inject.Inject;
+
+@Generated(
+    value = "com.github.x3333.dagger.aop.internal.InterceptorProcessor",
+    comments = "https://github.com/0x3333/dagger-aop"
+)
+public final class Interceptor_SameName extends SameName {
+  private static final MethodMetadata doSomeWorkMetadata$ = new MethodMetadata(SameName.class, "doSomeWork", new Class<?>[] {String.class}, new Annotation[] {new ValidAnnotation$2$Impl(1), new ValidAnnotation$Impl("same", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class, com.github.x3333.dagger.aop.test.annotation.ValidAnnotation.class);
+
+  private final Interceptor $interceptorValidAnnotation;
+
+  private final Interceptor2 $interceptorValidAnnotation$2;
+
+  @Inject
+  public Interceptor_SameName(final Interceptor $interceptorValidAnnotation, final Interceptor2 $interceptorValidAnnotation$2) {
+    super();
+    this.$interceptorValidAnnotation = $interceptorValidAnnotation;
+    this.$interceptorValidAnnotation$2 = $interceptorValidAnnotation$2;
+  }
+
+  @Override
+  public String doSomeWork(final String param1) {
+    try {
+      return (String) $interceptorValidAnnotation$2.invoke(new AbstractMethodInvocation(
+          Interceptor_SameName.this,
+          Interceptor_SameName.doSomeWorkMetadata$) {
+        @Override
+        public int argumentCount() {
+          return 1;
+        }
+
+        @Override
+        public Object getArgument(final int $index) {
+          switch ($index) {
+            case 0:
+              return param1;
+            default:
+              return super.getArgument($index);
+          }
+        }
+
+        @Override
+        protected Object proceed(final int $index) throws Throwable {
+          switch ($index) {
+            case 0:
+              return (String) $interceptorValidAnnotation.invoke(this);
+            default:
+              return Interceptor_SameName.super.doSomeWork(param1);
+          }
+        }
+      });
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  private static final class ValidAnnotation$2$Impl extends AbstractAnnotation implements ValidAnnotation {
+    private final int value;
+
+    ValidAnnotation$2$Impl(final int value) {
+      super(ValidAnnotation.class, "value");
+      this.value = value;
+    }
+
+    @Override
+    public int value() {
+      return value;
+    }
+
+    @Override
+    protected Object memberValue(final int $index) {
+      switch ($index) {
+        case 0:
+          return value;
+        default:
+          return super.memberValue($index);
+      }
+    }
+  }
+
+  private static final class ValidAnnotation$Impl extends AbstractAnnotation implements com.github.x3333.dagger.aop.test.annotation.ValidAnnotation {
+    private final String value;
+
+    private final long timeout;
+
+    private final Class<? extends Throwable>[] on;
+
+    ValidAnnotation$Impl(final String value, final long timeout, final Class<? extends Throwable>[] on) {
+      super(com.github.x3333.dagger.aop.test.annotation.ValidAnnotation.class, "value", "timeout", "on");
+      this.value = value;
+      this.timeout = timeout;
+      this.on = on;
+    }
+
+    @Override
+    public String value() {
+      return value;
+    }
+
+    @Override
+    public long timeout() {
+      return timeout;
+    }
+
+    @Override
+    public Class<? extends Throwable>[] on() {
+      return on.clone();
+    }
+
+    @Override
+    protected Object memberValue(final int $index) {
+      switch ($index) {
+        case 0:
+          return value;
+        case 1:
+          return timeout;
+        case 2:
+          return on;
+        default:
+          return super.memberValue($index);
+      }
+    }
+  }
+}
@@ -1,17 +1,25 @@
 package test;
 
+import com.github.x3333.dagger.aop.AbstractAnnotation;
+import com.github.x3333.dagger.aop.AbstractIntMethodInvocation;
+import com.github.x3333.dagger.aop.AbstractLongMethodInvocation;
 import com.github.x3333.dagger.aop.AbstractMethodInvocation;
+import com.github.x3333.dagger.aop.MethodMetadata;
 import com.github.x3333.dagger.aop.test.Interceptor;
 import com.github.x3333.dagger.aop.test.Interceptor2;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation2;
+import java.lang.Class;
+import java.lang.IllegalStateException;
 import java.lang.Integer;
 import java.lang.Object;
 import java.lang.Override;
 import java.lang.String;
 import java.lang.Throwable;
+import java.lang.Void;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import javax.annotation.Generated;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -21,42 +29,23 @@ import javax.inject.Named;
     comments = "https://github.com/0x3333/dagger-aop"
 )
 public final class Interceptor_WithConstructor extends WithConstructor {
-  private static final Method doSomeWorkReturnCache$;
+  private static final MethodMetadata doSomeWorkReturnMetadata$ = new MethodMetadata(WithConstructor.class, "doSomeWorkReturn", new Class<?>[] {String.class}, new Annotation[] {new ValidAnnotation$Impl("custom", 10L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf(WithConstructor.MyException.class, IllegalStateException.class))}, ValidAnnotation.class);
 
-  private static final List<Annotation> doSomeWorkReturnAnnotationsCache$;
+  private static final MethodMetadata doSomeWorkReturnPrimitiveMetadata$ = new MethodMetadata(WithConstructor.class, "doSomeWorkReturnPrimitive", new Class<?>[] {String.class}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
 
-  private static final Method doSomeWorkReturnPrimitiveCache$;
+  private static final MethodMetadata doSomeWorkArgumentsMetadata$ = new MethodMetadata(WithConstructor.class, "doSomeWorkArguments", new Class<?>[] {int.class, long.class, Object.class}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
 
-  private static final List<Annotation> doSomeWorkReturnPrimitiveAnnotationsCache$;
+  private static final MethodMetadata doSomeWorkNoReturnMetadata$ = new MethodMetadata(WithConstructor.class, "doSomeWorkNoReturn", new Class<?>[] {}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
 
-  private static final Method doSomeWorkNoReturnCache$;
+  private static final MethodMetadata doSomeWorkNoReturnThrowsMetadata$ = new MethodMetadata(WithConstructor.class, "doSomeWorkNoReturnThrows", new Class<?>[] {}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
 
-  private static final List<Annotation> doSomeWorkNoReturnAnnotationsCache$;
+  private static final MethodMetadata doSomeWorkMultipleAndThrowsMetadata$ = new MethodMetadata(WithConstructor.class, "doSomeWorkMultipleAndThrows", new Class<?>[] {}, new Annotation[] {new ValidAnnotation2$Impl(), new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation2.class, ValidAnnotation.class);
 
-  private static final Method doSomeWorkNoReturnThrowsCache$;
+  private static final MethodMetadata doSomeWorkMultiplePrimitiveMetadata$ = new MethodMetadata(WithConstructor.class, "doSomeWorkMultiplePrimitive", new Class<?>[] {}, new Annotation[] {new ValidAnnotation2$Impl(), new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation2.class, ValidAnnotation.class);
 
-  private static final List<Annotation> doSomeWorkNoReturnThrowsAnnotationsCache$;
+  private static final MethodMetadata doSomeWorkAsyncMetadata$ = new MethodMetadata(WithConstructor.class, "doSomeWorkAsync", new Class<?>[] {}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
 
-  private static final Method doSomeWorkMultipleAndThrowsCache$;
-
-  private static final List<Annotation> doSomeWorkMultipleAndThrowsAnnotationsCache$;
-
-  static {
-    try {
-      doSomeWorkReturnCache$ = Interceptor_WithConstructor.class.getSuperclass().getDeclaredMethod("doSomeWorkReturn", String.class);
-      doSomeWorkReturnAnnotationsCache$ = Arrays.asList(doSomeWorkReturnCache$.getAnnotations());
-      doSomeWorkReturnPrimitiveCache$ = Interceptor_WithConstructor.class.getSuperclass().getDeclaredMethod("doSomeWorkReturnPrimitive", String.class);
-      doSomeWorkReturnPrimitiveAnnotationsCache$ = Arrays.asList(doSomeWorkReturnPrimitiveCache$.getAnnotations());
-      doSomeWorkNoReturnCache$ = Interceptor_WithConstructor.class.getSuperclass().getDeclaredMethod("doSomeWorkNoReturn");
-      doSomeWorkNoReturnAnnotationsCache$ = Arrays.asList(doSomeWorkNoReturnCache$.getAnnotations());
-      doSomeWorkNoReturnThrowsCache$ = Interceptor_WithConstructor.class.getSuperclass().getDeclaredMethod("doSomeWorkNoReturnThrows");
-      doSomeWorkNoReturnThrowsAnnotationsCache$ = Arrays.asList(doSomeWorkNoReturnThrowsCache$.getAnnotations());
-      doSomeWorkMultipleAndThrowsCache$ = Interceptor_WithConstructor.class.getSuperclass().getDeclaredMethod("doSomeWorkMultipleAndThrows");
-      doSomeWorkMultipleAndThrowsAnnotationsCache$ = Arrays.asList(doSomeWorkMultipleAndThrowsCache$.getAnnotations());
-    } catch (NoSuchMethodException | SecurityException e) {
-      throw new RuntimeException(e);
-    }
-  }
+  private static final MethodMetadata doSomeWorkMultipleAsyncMetadata$ = new MethodMetadata(WithConstructor.class, "doSomeWorkMultipleAsync", new Class<?>[] {String.class}, new Annotation[] {new ValidAnnotation2$Impl(), new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation2.class, ValidAnnotation.class);
 
   private final Interceptor $interceptorValidAnnotation;
 
@@ -71,119 +60,317 @@ public final class Interceptor_WithConstructor extends WithConstructor {
 
   @Override
   public String doSomeWorkReturn(String param1) {
-    final Object[] arguments = new Object[] { param1 };
     try {
       return (String) $interceptorValidAnnotation.invoke(new AbstractMethodInvocation(
           Interceptor_WithConstructor.this,
-          Interceptor_WithConstructor.doSomeWorkReturnCache$,
-          arguments,
-          Interceptor_WithConstructor.doSomeWorkReturnAnnotationsCache$) {
+          Interceptor_WithConstructor.doSomeWorkReturnMetadata$) {
+        @Override
+        public int argumentCount() {
+          return 1;
+        }
+
+        @Override
+        public Object getArgument(final int $index) {
+          switch ($index) {
+            case 0:
+              return param1;
+            default:
+              return super.getArgument($index);
+          }
+        }
+
         @Override
-        public Object proceed() throws Throwable {
+        protected Object proceed(final int $index) throws Throwable {
           return Interceptor_WithConstructor.super.doSomeWorkReturn(param1);
         }
       });
-    } catch (RuntimeException e) {
-      throw e;
-    } catch (Throwable e) {
-      throw new RuntimeException(e);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
     }
   }
 
   @Override
   public int doSomeWorkReturnPrimitive(String param1) {
-    final Object[] arguments = new Object[] { param1 };
     try {
-      return (Integer) $interceptorValidAnnotation.invoke(new AbstractMethodInvocation(
+      return $interceptorValidAnnotation.invokeInt(new AbstractIntMethodInvocation(
           Interceptor_WithConstructor.this,
-          Interceptor_WithConstructor.doSomeWorkReturnPrimitiveCache$,
-          arguments,
-          Interceptor_WithConstructor.doSomeWorkReturnPrimitiveAnnotationsCache$) {
+          Interceptor_WithConstructor.doSomeWorkReturnPrimitiveMetadata$) {
         @Override
-        public Object proceed() throws Throwable {
+        public int argumentCount() {
+          return 1;
+        }
+
+        @Override
+        public Object getArgument(final int $index) {
+          switch ($index) {
+            case 0:
+              return param1;
+            default:
+              return super.getArgument($index);
+          }
+        }
+
+        @Override
+        protected int proceedInt(final int $index) throws Throwable {
           return Interceptor_WithConstructor.super.doSomeWorkReturnPrimitive(param1);
         }
       });
-    } catch (RuntimeException e) {
-      throw e;
-    } catch (Throwable e) {
-      throw new RuntimeException(e);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  @Override
+  public long doSomeWorkArguments(final int param1, final long param2, final Object e) {
+    try {
+      return $interceptorValidAnnotation.invokeLong(new AbstractLongMethodInvocation(
+          Interceptor_WithConstructor.this,
+          Interceptor_WithConstructor.doSomeWorkArgumentsMetadata$) {
+        @Override
+        public int argumentCount() {
+          return 3;
+        }
+
+        @Override
+        public Object getArgument(final int $index) {
+          switch ($index) {
+            case 0:
+              return param1;
+            case 1:
+              return param2;
+            case 2:
+              return e;
+            default:
+              return super.getArgument($index);
+          }
+        }
+
+        @Override
+        public int getIntArgument(final int $index) {
+          switch ($index) {
+            case 0:
+              return param1;
+            default:
+              return super.getIntArgument($index);
+          }
+        }
+
+        @Override
+        public long getLongArgument(final int $index) {
+          switch ($index) {
+            case 1:
+              return param2;
+            default:
+              return super.getLongArgument($index);
+          }
+        }
+
+        @Override
+        protected long proceedLong(final int $index) throws Throwable {
+          return Interceptor_WithConstructor.super.doSomeWorkArguments(param1, param2, e);
+        }
+      });
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
     }
   }
 
   @Override
   public void doSomeWorkNoReturn() {
-    final Object[] arguments = new Object[] {  };
     try {
       $interceptorValidAnnotation.invoke(new AbstractMethodInvocation(
           Interceptor_WithConstructor.this,
-          Interceptor_WithConstructor.doSomeWorkNoReturnCache$,
-          arguments,
-          Interceptor_WithConstructor.doSomeWorkNoReturnAnnotationsCache$) {
+          Interceptor_WithConstructor.doSomeWorkNoReturnMetadata$) {
         @Override
-        protected void noReturnProceed() throws Throwable {
+        protected void noReturnProceed(final int $index) throws Throwable {
           Interceptor_WithConstructor.super.doSomeWorkNoReturn();
         }
       });
-    } catch (RuntimeException e) {
-      throw e;
-    } catch (Throwable e) {
-      throw new RuntimeException(e);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
     }
   }
 
   @Override
   public void doSomeWorkNoReturnThrows() throws WithConstructor.MyException {
-    final Object[] arguments = new Object[] {  };
     try {
       $interceptorValidAnnotation.invoke(new AbstractMethodInvocation(
           Interceptor_WithConstructor.this,
-          Interceptor_WithConstructor.doSomeWorkNoReturnThrowsCache$,
-          arguments,
-          Interceptor_WithConstructor.doSomeWorkNoReturnThrowsAnnotationsCache$) {
+          Interceptor_WithConstructor.doSomeWorkNoReturnThrowsMetadata$) {
         @Override
-        protected void noReturnProceed() throws Throwable {
+        protected void noReturnProceed(final int $index) throws Throwable {
           Interceptor_WithConstructor.super.doSomeWorkNoReturnThrows();
         }
       });
-    } catch (WithConstructor.MyException e) {
-      throw e;
-    } catch (RuntimeException e) {
-      throw e;
-    } catch (Throwable e) {
-      throw new RuntimeException(e);
+    } catch (WithConstructor.MyException $e) {
+      throw $e;
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
     }
   }
 
   @Override
   public void doSomeWorkMultipleAndThrows() throws WithConstructor.MyException {
-    final Object[] arguments = new Object[] {  };
     try {
       $interceptorValidAnnotation2.invoke(new AbstractMethodInvocation(
           Interceptor_WithConstructor.this,
-          Interceptor_WithConstructor.doSomeWorkMultipleAndThrowsCache$,
-          arguments,
-          Interceptor_WithConstructor.doSomeWorkMultipleAndThrowsAnnotationsCache$) {
-        @Override
-        protected void noReturnProceed() throws Throwable {
-          $interceptorValidAnnotation.invoke(new AbstractMethodInvocation(
-              Interceptor_WithConstructor.this,
-              Interceptor_WithConstructor.doSomeWorkMultipleAndThrowsCache$,
-              arguments,
-              Interceptor_WithConstructor.doSomeWorkMultipleAndThrowsAnnotationsCache$) {
-            @Override
-            protected void noReturnProceed() throws Throwable {
+          Interceptor_WithConstructor.doSomeWorkMultipleAndThrowsMetadata$) {
+        @Override
+        protected void noReturnProceed(final int $index) throws Throwable {
+          switch ($index) {
+            case 0:
+              $interceptorValidAnnotation.invoke(this);
+              break;
+            default:
               Interceptor_WithConstructor.super.doSomeWorkMultipleAndThrows();
-            }
-          });
+          }
+        }
+      });
+    } catch (WithConstructor.MyException $e) {
+      throw $e;
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  @Override
+  public int doSomeWorkMultiplePrimitive() {
+    try {
+      return (Integer) $interceptorValidAnnotation2.invoke(new AbstractIntMethodInvocation(
+          Interceptor_WithConstructor.this,
+          Interceptor_WithConstructor.doSomeWorkMultiplePrimitiveMetadata$) {
+        @Override
+        protected int proceedInt(final int $index) throws Throwable {
+          switch ($index) {
+            case 0:
+              return $interceptorValidAnnotation.invokeInt(this);
+            default:
+              return Interceptor_WithConstructor.super.doSomeWorkMultiplePrimitive();
+          }
+        }
+      });
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  @Override
+  public CompletionStage<Void> doSomeWorkAsync() {
+    try {
+      return (CompletionStage) $interceptorValidAnnotation.invokeAsync(new AbstractMethodInvocation(
+          Interceptor_WithConstructor.this,
+          Interceptor_WithConstructor.doSomeWorkAsyncMetadata$) {
+        @Override
+        protected Object proceed(final int $index) throws Throwable {
+          return Interceptor_WithConstructor.super.doSomeWorkAsync();
+        }
+      }.async());
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  @Override
+  public CompletableFuture<String> doSomeWorkMultipleAsync(String param1) {
+    try {
+      return (CompletableFuture<String>) $interceptorValidAnnotation2.invoke(new AbstractMethodInvocation(
+          Interceptor_WithConstructor.this,
+          Interceptor_WithConstructor.doSomeWorkMultipleAsyncMetadata$) {
+        @Override
+        public int argumentCount() {
+          return 1;
+        }
+
+        @Override
+        public Object getArgument(final int $index) {
+          switch ($index) {
+            case 0:
+              return param1;
+            default:
+              return super.getArgument($index);
+          }
+        }
+
+        @Override
+        protected Object proceed(final int $index) throws Throwable {
+          switch ($index) {
+            case 0:
+              return (CompletableFuture) $interceptorValidAnnotation.invokeAsync(this.async());
+            default:
+              return Interceptor_WithConstructor.super.doSomeWorkMultipleAsync(param1);
+          }
         }
       });
-    } catch (WithConstructor.MyException e) {
-      throw e;
-    } catch (RuntimeException e) {
-      throw e;
-    } catch (Throwable e) {
-      throw new RuntimeException(e);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  private static final class ValidAnnotation$Impl extends AbstractAnnotation implements ValidAnnotation {
+    private final String value;
+
+    private final long timeout;
+
+    private final Class<? extends Throwable>[] on;
+
+    ValidAnnotation$Impl(final String value, final long timeout, final Class<? extends Throwable>[] on) {
+      super(ValidAnnotation.class, "value", "timeout", "on");
+      this.value = value;
+      this.timeout = timeout;
+      this.on = on;
+    }
+
+    @Override
+    public String value() {
+      return value;
+    }
+
+    @Override
+    public long timeout() {
+      return timeout;
+    }
+
+    @Override
+    public Class<? extends Throwable>[] on() {
+      return on.clone();
+    }
+
+    @Override
+    protected Object memberValue(final int $index) {
+      switch ($index) {
+        case 0:
+          return value;
+        case 1:
+          return timeout;
+        case 2:
+          return on;
+        default:
+          return super.memberValue($index);
+      }
+    }
+  }
+
+  private static final class ValidAnnotation2$Impl extends AbstractAnnotation implements ValidAnnotation2 {
+    ValidAnnotation2$Impl() {
+      super(ValidAnnotation2.class);
     }
   }
 }
@@ -1,17 +1,21 @@
 package test;
 
+import com.github.x3333.dagger.aop.AbstractAnnotation;
+import com.github.x3333.dagger.aop.AbstractIntMethodInvocation;
+import com.github.x3333.dagger.aop.AbstractLongMethodInvocation;
 import com.github.x3333.dagger.aop.AbstractMethodInvocation;
+import com.github.x3333.dagger.aop.MethodMetadata;
 import com.github.x3333.dagger.aop.test.Interceptor;
 import com.github.x3333.dagger.aop.test.Interceptor2;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation2;
+import java.lang.Class;
 import java.lang.Integer;
 import java.lang.Object;
 import java.lang.Override;
 import java.lang.String;
 import java.lang.Throwable;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.List;
 import javax.annotation.Generated;
 import javax.inject.Inject;
 
@@ -20,42 +24,19 @@ import javax.inject.Inject;
     comments = "https://github.com/0x3333/dagger-aop"
 )
 public final class Interceptor_WithoutConstructor extends WithoutConstructor {
-  private static final Method doSomeWorkReturnCache$;
+  private static final MethodMetadata doSomeWorkReturnMetadata$ = new MethodMetadata(WithoutConstructor.class, "doSomeWorkReturn", new Class<?>[] {}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
 
-  private static final List<Annotation> doSomeWorkReturnAnnotationsCache$;
+  private static final MethodMetadata doSomeWorkReturnPrimitiveMetadata$ = new MethodMetadata(WithoutConstructor.class, "doSomeWorkReturnPrimitive", new Class<?>[] {String.class}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
 
-  private static final Method doSomeWorkReturnPrimitiveCache$;
+  private static final MethodMetadata doSomeWorkArgumentsMetadata$ = new MethodMetadata(WithoutConstructor.class, "doSomeWorkArguments", new Class<?>[] {int.class, long.class, Object.class}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
 
-  private static final List<Annotation> doSomeWorkReturnPrimitiveAnnotationsCache$;
+  private static final MethodMetadata doSomeWorkNoReturnMetadata$ = new MethodMetadata(WithoutConstructor.class, "doSomeWorkNoReturn", new Class<?>[] {String.class}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
 
-  private static final Method doSomeWorkNoReturnCache$;
+  private static final MethodMetadata doSomeWorkNoReturnThrowsMetadata$ = new MethodMetadata(WithoutConstructor.class, "doSomeWorkNoReturnThrows", new Class<?>[] {}, new Annotation[] {new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation.class);
 
-  private static final List<Annotation> doSomeWorkNoReturnAnnotationsCache$;
+  private static final MethodMetadata doSomeWorkMultipleAndThrowsMetadata$ = new MethodMetadata(WithoutConstructor.class, "doSomeWorkMultipleAndThrows", new Class<?>[] {}, new Annotation[] {new ValidAnnotation2$Impl(), new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation2.class, ValidAnnotation.class);
 
-  private static final Method doSomeWorkNoReturnThrowsCache$;
-
-  private static final List<Annotation> doSomeWorkNoReturnThrowsAnnotationsCache$;
-
-  private static final Method doSomeWorkMultipleAndThrowsCache$;
-
-  private static final List<Annotation> doSomeWorkMultipleAndThrowsAnnotationsCache$;
-
-  static {
-    try {
-      doSomeWorkReturnCache$ = Interceptor_WithoutConstructor.class.getSuperclass().getDeclaredMethod("doSomeWorkReturn");
-      doSomeWorkReturnAnnotationsCache$ = Arrays.asList(doSomeWorkReturnCache$.getAnnotations());
-      doSomeWorkReturnPrimitiveCache$ = Interceptor_WithoutConstructor.class.getSuperclass().getDeclaredMethod("doSomeWorkReturnPrimitive", String.class);
-      doSomeWorkReturnPrimitiveAnnotationsCache$ = Arrays.asList(doSomeWorkReturnPrimitiveCache$.getAnnotations());
-      doSomeWorkNoReturnCache$ = Interceptor_WithoutConstructor.class.getSuperclass().getDeclaredMethod("doSomeWorkNoReturn", String.class);
-      doSomeWorkNoReturnAnnotationsCache$ = Arrays.asList(doSomeWorkNoReturnCache$.getAnnotations());
-      doSomeWorkNoReturnThrowsCache$ = Interceptor_WithoutConstructor.class.getSuperclass().getDeclaredMethod("doSomeWorkNoReturnThrows");
-      doSomeWorkNoReturnThrowsAnnotationsCache$ = Arrays.asList(doSomeWorkNoReturnThrowsCache$.getAnnotations());
-      doSomeWorkMultipleAndThrowsCache$ = Interceptor_WithoutConstructor.class.getSuperclass().getDeclaredMethod("doSomeWorkMultipleAndThrows");
-      doSomeWorkMultipleAndThrowsAnnotationsCache$ = Arrays.asList(doSomeWorkMultipleAndThrowsCache$.getAnnotations());
-    } catch (NoSuchMethodException | SecurityException e) {
-      throw new RuntimeException(e);
-    }
-  }
+  private static final MethodMetadata doSomeWorkMultiplePrimitiveMetadata$ = new MethodMetadata(WithoutConstructor.class, "doSomeWorkMultiplePrimitive", new Class<?>[] {}, new Annotation[] {new ValidAnnotation2$Impl(), new ValidAnnotation$Impl("", 0L, AbstractAnnotation.<Class<? extends Throwable>>arrayOf())}, ValidAnnotation2.class, ValidAnnotation.class);
 
   private final Interceptor $interceptorValidAnnotation;
 
@@ -70,119 +51,261 @@ public final class Interceptor_WithoutConstructor extends WithoutConstructor {
 
   @Override
   public String doSomeWorkReturn() {
-    final Object[] arguments = new Object[] {  };
     try {
       return (String) $interceptorValidAnnotation.invoke(new AbstractMethodInvocation(
           Interceptor_WithoutConstructor.this,
-          Interceptor_WithoutConstructor.doSomeWorkReturnCache$,
-          arguments,
-          Interceptor_WithoutConstructor.doSomeWorkReturnAnnotationsCache$) {
+          Interceptor_WithoutConstructor.doSomeWorkReturnMetadata$) {
         @Override
-        public Object proceed() throws Throwable {
+        protected Object proceed(final int $index) throws Throwable {
           return Interceptor_WithoutConstructor.super.doSomeWorkReturn();
         }
       });
-    } catch (RuntimeException e) {
-      throw e;
-    } catch (Throwable e) {
-      throw new RuntimeException(e);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
     }
   }
 
   @Override
   public int doSomeWorkReturnPrimitive(String param1) {
-    final Object[] arguments = new Object[] { param1 };
     try {
-      return (Integer) $interceptorValidAnnotation.invoke(new AbstractMethodInvocation(
+      return $interceptorValidAnnotation.invokeInt(new AbstractIntMethodInvocation(
           Interceptor_WithoutConstructor.this,
-          Interceptor_WithoutConstructor.doSomeWorkReturnPrimitiveCache$,
-          arguments,
-          Interceptor_WithoutConstructor.doSomeWorkReturnPrimitiveAnnotationsCache$) {
+          Interceptor_WithoutConstructor.doSomeWorkReturnPrimitiveMetadata$) {
         @Override
-        public Object proceed() throws Throwable {
+        public int argumentCount() {
+          return 1;
+        }
+
+        @Override
+        public Object getArgument(final int $index) {
+          switch ($index) {
+            case 0:
+              return param1;
+            default:
+              return super.getArgument($index);
+          }
+        }
+
+        @Override
+        protected int proceedInt(final int $index) throws Throwable {
           return Interceptor_WithoutConstructor.super.doSomeWorkReturnPrimitive(param1);
         }
       });
-    } catch (RuntimeException e) {
-      throw e;
-    } catch (Throwable e) {
-      throw new RuntimeException(e);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  @Override
+  public long doSomeWorkArguments(final int param1, final long param2, final Object e) {
+    try {
+      return $interceptorValidAnnotation.invokeLong(new AbstractLongMethodInvocation(
+          Interceptor_WithoutConstructor.this,
+          Interceptor_WithoutConstructor.doSomeWorkArgumentsMetadata$) {
+        @Override
+        public int argumentCount() {
+          return 3;
+        }
+
+        @Override
+        public Object getArgument(final int $index) {
+          switch ($index) {
+            case 0:
+              return param1;
+            case 1:
+              return param2;
+            case 2:
+              return e;
+            default:
+              return super.getArgument($index);
+          }
+        }
+
+        @Override
+        public int getIntArgument(final int $index) {
+          switch ($index) {
+            case 0:
+              return param1;
+            default:
+              return super.getIntArgument($index);
+          }
+        }
+
+        @Override
+        public long getLongArgument(final int $index) {
+          switch ($index) {
+            case 1:
+              return param2;
+            default:
+              return super.getLongArgument($index);
+          }
+        }
+
+        @Override
+        protected long proceedLong(final int $index) throws Throwable {
+          return Interceptor_WithoutConstructor.super.doSomeWorkArguments(param1, param2, e);
+        }
+      });
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
     }
   }
 
   @Override
   public void doSomeWorkNoReturn(String param1) {
-    final Object[] arguments = new Object[] { param1 };
     try {
       $interceptorValidAnnotation.invoke(new AbstractMethodInvocation(
           Interceptor_WithoutConstructor.this,
-          Interceptor_WithoutConstructor.doSomeWorkNoReturnCache$,
-          arguments,
-          Interceptor_WithoutConstructor.doSomeWorkNoReturnAnnotationsCache$) {
+          Interceptor_WithoutConstructor.doSomeWorkNoReturnMetadata$) {
         @Override
-        protected void noReturnProceed() throws Throwable {
+        public int argumentCount() {
+          return 1;
+        }
+
+        @Override
+        public Object getArgument(final int $index) {
+          switch ($index) {
+            case 0:
+              return param1;
+            default:
+              return super.getArgument($index);
+          }
+        }
+
+        @Override
+        protected void noReturnProceed(final int $index) throws Throwable {
           Interceptor_WithoutConstructor.super.doSomeWorkNoReturn(param1);
         }
       });
-    } catch (RuntimeException e) {
-      throw e;
-    } catch (Throwable e) {
-      throw new RuntimeException(e);
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
     }
   }
 
   @Override
   public void doSomeWorkNoReturnThrows() throws WithoutConstructor.MyException {
-    final Object[] arguments = new Object[] {  };
     try {
       $interceptorValidAnnotation.invoke(new AbstractMethodInvocation(
           Interceptor_WithoutConstructor.this,
-          Interceptor_WithoutConstructor.doSomeWorkNoReturnThrowsCache$,
-          arguments,
-          Interceptor_WithoutConstructor.doSomeWorkNoReturnThrowsAnnotationsCache$) {
+          Interceptor_WithoutConstructor.doSomeWorkNoReturnThrowsMetadata$) {
         @Override
-        protected void noReturnProceed() throws Throwable {
+        protected void noReturnProceed(final int $index) throws Throwable {
           Interceptor_WithoutConstructor.super.doSomeWorkNoReturnThrows();
         }
       });
-    } catch (WithoutConstructor.MyException e) {
-      throw e;
-    } catch (RuntimeException e) {
-      throw e;
-    } catch (Throwable e) {
-      throw new RuntimeException(e);
+    } catch (WithoutConstructor.MyException $e) {
+      throw $e;
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
     }
   }
 
   @Override
   public void doSomeWorkMultipleAndThrows() throws WithoutConstructor.MyException {
-    final Object[] arguments = new Object[] {  };
     try {
       $interceptorValidAnnotation2.invoke(new AbstractMethodInvocation(
           Interceptor_WithoutConstructor.this,
-          Interceptor_WithoutConstructor.doSomeWorkMultipleAndThrowsCache$,
-          arguments,
-          Interceptor_WithoutConstructor.doSomeWorkMultipleAndThrowsAnnotationsCache$) {
+          Interceptor_WithoutConstructor.doSomeWorkMultipleAndThrowsMetadata$) {
         @Override
-        protected void noReturnProceed() throws Throwable {
-          $interceptorValidAnnotation.invoke(new AbstractMethodInvocation(
-              Interceptor_WithoutConstructor.this,
-              Interceptor_WithoutConstructor.doSomeWorkMultipleAndThrowsCache$,
-              arguments,
-              Interceptor_WithoutConstructor.doSomeWorkMultipleAndThrowsAnnotationsCache$) {
-            @Override
-            protected void noReturnProceed() throws Throwable {
+        protected void noReturnProceed(final int $index) throws Throwable {
+          switch ($index) {
+            case 0:
+              $interceptorValidAnnotation.invoke(this);
+              break;
+            default:
               Interceptor_WithoutConstructor.super.doSomeWorkMultipleAndThrows();
-            }
-          });
+          }
         }
       });
-    } catch (WithoutConstructor.MyException e) {
-      throw e;
-    } catch (RuntimeException e) {
-      throw e;
-    } catch (Throwable e) {
-      throw new RuntimeException(e);
+    } catch (WithoutConstructor.MyException $e) {
+      throw $e;
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  @Override
+  public int doSomeWorkMultiplePrimitive() {
+    try {
+      return (Integer) $interceptorValidAnnotation2.invoke(new AbstractIntMethodInvocation(
+          Interceptor_WithoutConstructor.this,
+          Interceptor_WithoutConstructor.doSomeWorkMultiplePrimitiveMetadata$) {
+        @Override
+        protected int proceedInt(final int $index) throws Throwable {
+          switch ($index) {
+            case 0:
+              return $interceptorValidAnnotation.invokeInt(this);
+            default:
+              return Interceptor_WithoutConstructor.super.doSomeWorkMultiplePrimitive();
+          }
+        }
+      });
+    } catch (RuntimeException $e) {
+      throw $e;
+    } catch (Throwable $e) {
+      throw new RuntimeException($e);
+    }
+  }
+
+  private static final class ValidAnnotation$Impl extends AbstractAnnotation implements ValidAnnotation {
+    private final String value;
+
+    private final long timeout;
+
+    private final Class<? extends Throwable>[] on;
+
+    ValidAnnotation$Impl(final String value, final long timeout, final Class<? extends Throwable>[] on) {
+      super(ValidAnnotation.class, "value", "timeout", "on");
+      this.value = value;
+      this.timeout = timeout;
+      this.on = on;
+    }
+
+    @Override
+    public String value() {
+      return value;
+    }
+
+    @Override
+    public long timeout() {
+      return timeout;
+    }
+
+    @Override
+    public Class<? extends Throwable>[] on() {
+      return on.clone();
+    }
+
+    @Override
+    protected Object memberValue(final int $index) {
+      switch ($index) {
+        case 0:
+          return value;
+        case 1:
+          return timeout;
+        case 2:
+          return on;
+        default:
+          return super.memberValue($index);
+      }
+    }
+  }
+
+  private static final class ValidAnnotation2$Impl extends AbstractAnnotation implements ValidAnnotation2 {
+    ValidAnnotation2$Impl() {
+      super(ValidAnnotation2.class);
     }
   }
 }
@@ -0,0 +1,24 @@
+package test;
+
+import com.github.x3333.dagger.aop.test.annotation.InlineAnnotation;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation;
+
+public abstract class Overload {
+
+  @ValidAnnotation
+  public String doSomeWork(String param1) {
+    return null;
+  }
+
+  @InlineAnnotation
+  @ValidAnnotation
+  public long doSomeWork(final int param1) {
+    return 0;
+  }
+
+  @ValidAnnotation
+  public String doSomeWorkOnce() {
+    return null;
+  }
+
+}
@@ -0,0 +1,25 @@
+package test;
+
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation;
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation2;
+
+public abstract class Reuse {
+
+  public static class MyException extends Exception {
+  }
+
+  @ValidAnnotation
+  public String doSomeWorkReturn(String param1) {
+    return null;
+  }
+
+  @ValidAnnotation
+  public long doSomeWorkArguments(final int param1, final long param2, final Object e) {
+    return 0;
+  }
+
+  @ValidAnnotation
+  @ValidAnnotation2
+  public void doSomeWorkMultipleAndThrows() throws MyException {}
+
+}
@@ -0,0 +1,13 @@
+package test;
+
+import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation;
+
+public abstract class SameName {
+
+  @ValidAnnotation("same")
+  @com.github.x3333.dagger.aop.test.annotation.other.ValidAnnotation(1)
+  public String doSomeWork(final String param1) {
+    return null;
+  }
+
+}
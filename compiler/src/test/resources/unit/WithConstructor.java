@@ -3,6 +3,9 @@ package test;
 import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation;
 import com.github.x3333.dagger.aop.test.annotation.ValidAnnotation2;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import javax.inject.Named;
 
 public abstract class WithConstructor {
@@ -12,7 +15,7 @@ public abstract class WithConstructor {
 
   public WithConstructor(@Named("myDepAnnotation") final String someDep) {}
 
-  @ValidAnnotation
+  @ValidAnnotation(value = "custom", timeout = 10, on = {MyException.class, IllegalStateException.class})
   public String doSomeWorkReturn(String param1) {
     return null;
   }
@@ -22,6 +25,11 @@ public abstract class WithConstructor {
     return 0;
   }
 
+  @ValidAnnotation
+  public long doSomeWorkArguments(final int param1, final long param2, final Object e) {
+    return 0;
+  }
+
   @ValidAnnotation
   public void doSomeWorkNoReturn() {}
 
@@ -32,4 +40,21 @@ public abstract class WithConstructor {
   @ValidAnnotation2
   public void doSomeWorkMultipleAndThrows() throws MyException {}
 
+  @ValidAnnotation
+  @ValidAnnotation2
+  public int doSomeWorkMultiplePrimitive() {
+    return 0;
+  }
+
+  @ValidAnnotation
+  public CompletionStage<Void> doSomeWorkAsync() {
+    return null;
+  }
+
+  @ValidAnnotation
+  @ValidAnnotation2
+  public CompletableFuture<String> doSomeWorkMultipleAsync(String param1) {
+    return null;
+  }
+
 }
@@ -18,6 +18,11 @@ public abstract class WithoutConstructor {
     return 0;
   }
 
+  @ValidAnnotation
+  public long doSomeWorkArguments(final int param1, final long param2, final Object e) {
+    return 0;
+  }
+
   @ValidAnnotation
   public void doSomeWorkNoReturn(String param1) {}
 
@@ -28,4 +33,10 @@ public abstract class WithoutConstructor {
   @ValidAnnotation2
   public void doSomeWorkMultipleAndThrows() throws MyException {}
 
+  @ValidAnnotation
+  @ValidAnnotation2
+  public int doSomeWorkMultiplePrimitive() {
+    return 0;
+  }
+
 }
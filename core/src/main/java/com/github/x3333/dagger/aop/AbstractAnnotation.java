@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Abstract implementation of annotations generated at compile time, so annotation attributes are read from fields instead of a
+ * reflective proxy.
+ * 
+ * <p>
+ * Implements {@link #equals(Object)}, {@link #hashCode()} and {@link #toString()} following the {@link Annotation} contract, being
+ * equal to the instances returned by reflection. Implementers must return the member values by their position in
+ * {@link #memberValue(int)}.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public abstract class AbstractAnnotation implements Annotation {
+
+  private final Class<? extends Annotation> annotationType;
+  private final String[] memberNames;
+
+  /**
+   * @param annotationType Type of the annotation implemented.
+   * @param memberNames Names of the annotation members, in the order they are declared.
+   */
+  protected AbstractAnnotation(final Class<? extends Annotation> annotationType, final String... memberNames) {
+    this.annotationType = annotationType;
+    this.memberNames = memberNames;
+  }
+
+  /**
+   * Create an array of the values, used for members whose array type cannot be created directly, like
+   * <code>Class&lt;? extends Throwable&gt;[]</code>.
+   * 
+   * @param <T> Type of the array component.
+   * @param values Values of the array.
+   * @return Array of values.
+   */
+  @SafeVarargs
+  public static <T> T[] arrayOf(final T... values) {
+    return values;
+  }
+
+  @Override
+  public Class<? extends Annotation> annotationType() {
+    return annotationType;
+  }
+
+  /**
+   * Return the value of a member, arrays are not copied.
+   * 
+   * @param index Position of the member, in the order they are declared.
+   * @return Member value.
+   */
+  protected Object memberValue(final int index) {
+    throw new IndexOutOfBoundsException(String.valueOf(index));
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!annotationType.isInstance(obj)) {
+      return false;
+    }
+    if (obj instanceof AbstractAnnotation && Arrays.equals(memberNames, ((AbstractAnnotation) obj).memberNames)) {
+      final AbstractAnnotation other = (AbstractAnnotation) obj;
+      for (int i = 0; i < memberNames.length; i++) {
+        if (!Objects.deepEquals(memberValue(i), other.memberValue(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    // Other implementations, like the reflective one, are read by reflection.
+    for (int i = 0; i < memberNames.length; i++) {
+      if (!Objects.deepEquals(memberValue(i), reflectiveMemberValue(obj, memberNames[i]))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (int i = 0; i < memberNames.length; i++) {
+      hashCode += 127 * memberNames[i].hashCode() ^ memberValueHashCode(memberValue(i));
+    }
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder("@").append(annotationType.getName()).append('(');
+    for (int i = 0; i < memberNames.length; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(memberNames[i]).append('=').append(memberValueToString(memberValue(i)));
+    }
+    return builder.append(')').toString();
+  }
+
+  private Object reflectiveMemberValue(final Object annotation, final String name) {
+    try {
+      final Method member = annotationType.getDeclaredMethod(name);
+      member.setAccessible(true);
+      return member.invoke(annotation);
+    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static int memberValueHashCode(final Object value) {
+    if (value instanceof Object[]) {
+      return Arrays.hashCode((Object[]) value);
+    } else if (value instanceof boolean[]) {
+      return Arrays.hashCode((boolean[]) value);
+    } else if (value instanceof byte[]) {
+      return Arrays.hashCode((byte[]) value);
+    } else if (value instanceof char[]) {
+      return Arrays.hashCode((char[]) value);
+    } else if (value instanceof short[]) {
+      return Arrays.hashCode((short[]) value);
+    } else if (value instanceof int[]) {
+      return Arrays.hashCode((int[]) value);
+    } else if (value instanceof long[]) {
+      return Arrays.hashCode((long[]) value);
+    } else if (value instanceof float[]) {
+      return Arrays.hashCode((float[]) value);
+    } else if (value instanceof double[]) {
+      return Arrays.hashCode((double[]) value);
+    }
+    return value.hashCode();
+  }
+
+  private static String memberValueToString(final Object value) {
+    if (value instanceof Object[]) {
+      return Arrays.toString((Object[]) value);
+    } else if (value instanceof boolean[]) {
+      return Arrays.toString((boolean[]) value);
+    } else if (value instanceof byte[]) {
+      return Arrays.toString((byte[]) value);
+    } else if (value instanceof char[]) {
+      return Arrays.toString((char[]) value);
+    } else if (value instanceof short[]) {
+      return Arrays.toString((short[]) value);
+    } else if (value instanceof int[]) {
+      return Arrays.toString((int[]) value);
+    } else if (value instanceof long[]) {
+      return Arrays.toString((long[]) value);
+    } else if (value instanceof float[]) {
+      return Arrays.toString((float[]) value);
+    } else if (value instanceof double[]) {
+      return Arrays.toString((double[]) value);
+    }
+    return String.valueOf(value);
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop;
+
+/**
+ * Abstract implementation for invocations shared by all intercepted methods of a class, dispatching on the method ordinal.
+ * 
+ * <p>
+ * Implements all primitive invocations, but only the one matching the return type of the method may be used. Implementers must
+ * implement the proceed methods of {@link AbstractMethodInvocation} and the primitive ones, like {@link #proceedInt(int)}, for the
+ * methods they dispatch.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public abstract class AbstractDispatcherMethodInvocation extends AbstractMethodInvocation
+    implements IntMethodInvocation, LongMethodInvocation, DoubleMethodInvocation {
+
+  /**
+   * Ordinal of the method being invoked, in the intercepted class.
+   */
+  protected final int ordinal;
+
+  public AbstractDispatcherMethodInvocation(final Object instance, final MethodMetadata metadata, final int ordinal) {
+    super(instance, metadata);
+    this.ordinal = ordinal;
+  }
+
+  @Override
+  public int proceedInt() throws Throwable {
+    final InvocationContext bound = context;
+    if (bound != null) {
+      return (Integer) proceedInContext(bound, this::proceed);
+    }
+    final int current = index++;
+    try {
+      return proceedInt(current);
+    } finally {
+      index = current;
+      // Bindings of the next interceptors end with them.
+      context = null;
+    }
+  }
+
+  @Override
+  public long proceedLong() throws Throwable {
+    final InvocationContext bound = context;
+    if (bound != null) {
+      return (Long) proceedInContext(bound, this::proceed);
+    }
+    final int current = index++;
+    try {
+      return proceedLong(current);
+    } finally {
+      index = current;
+      // Bindings of the next interceptors end with them.
+      context = null;
+    }
+  }
+
+  @Override
+  public double proceedDouble() throws Throwable {
+    final InvocationContext bound = context;
+    if (bound != null) {
+      return (Double) proceedInContext(bound, this::proceed);
+    }
+    final int current = index++;
+    try {
+      return proceedDouble(current);
+    } finally {
+      index = current;
+      // Bindings of the next interceptors end with them.
+      context = null;
+    }
+  }
+
+  /**
+   * @see AbstractIntMethodInvocation#proceedInt(int)
+   */
+  protected int proceedInt(final int index) throws Throwable {
+    throw new RuntimeException("Invalid AbstractDispatcherMethodInvocation implementation!");
+  }
+
+  /**
+   * @see AbstractLongMethodInvocation#proceedLong(int)
+   */
+  protected long proceedLong(final int index) throws Throwable {
+    throw new RuntimeException("Invalid AbstractDispatcherMethodInvocation implementation!");
+  }
+
+  /**
+   * @see AbstractDoubleMethodInvocation#proceedDouble(int)
+   */
+  protected double proceedDouble(final int index) throws Throwable {
+    throw new RuntimeException("Invalid AbstractDispatcherMethodInvocation implementation!");
+  }
+
+}
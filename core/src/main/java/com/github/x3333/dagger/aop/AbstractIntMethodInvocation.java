@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop;
+
+/**
+ * Abstract implementation for invocations of methods returning <code>int</code>.
+ * 
+ * <p>
+ * Implementers must implement {@link #proceedInt(int)}, {@link #proceed()} boxes its return value.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public abstract class AbstractIntMethodInvocation extends AbstractMethodInvocation implements IntMethodInvocation {
+
+  public AbstractIntMethodInvocation(final Object instance, final MethodMetadata metadata) {
+    super(instance, metadata);
+  }
+
+  @Override
+  public Object proceed() throws Throwable {
+    return proceedInt();
+  }
+
+  @Override
+  public int proceedInt() throws Throwable {
+    final InvocationContext bound = context;
+    if (bound != null) {
+      return (Integer) proceedInContext(bound, this::proceed);
+    }
+    final int current = index++;
+    try {
+      return proceedInt(current);
+    } finally {
+      index = current;
+      // Bindings of the next interceptors end with them.
+      context = null;
+    }
+  }
+
+  /**
+   * Proceed the chain at position <code>index</code>.
+   * 
+   * @param index Position in the chain, 0 when proceeding from the first interceptor.
+   * @return The method's return value.
+   * @throws Throwable Exception thrown by the next interceptor or the original method.
+   * @see AbstractMethodInvocation#proceed(int)
+   */
+  protected abstract int proceedInt(int index) throws Throwable;
+
+}
@@ -16,6 +16,7 @@ package com.github.x3333.dagger.aop;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Abstract implementation for method invocations.
@@ -23,26 +24,53 @@ import java.util.List;
  * <p>
  * Implementers must implement at least one of these:
  * <ul>
- * <li>{@link #proceed()} for methods <em>with</em> a return value</li>
- * <li>{@link #noReturnProceed()} for methods <em>without</em> a return value</li>
+ * <li>{@link #proceed()} or {@link #proceed(int)} for methods <em>with</em> a return value</li>
+ * <li>{@link #noReturnProceed()} or {@link #noReturnProceed(int)} for methods <em>without</em> a return value</li>
  * </ul>
  * If implementers fail to follow the contract, a {@link RuntimeException} will be thrown.
  * 
+ * <p>
+ * A single invocation is shared by all interceptors of a method. Each {@link #proceed()} moves to the next position of the chain and
+ * calls {@link #proceed(int)} with the position it left, which calls the next interceptor or the original method. The position is
+ * restored when it returns, so interceptors can proceed more than once, but not concurrently. {@link AsyncMethodInvocation}s proceed in
+ * a copy of the invocation, so they may proceed in other threads, even before their interceptor has returned.
+ * 
+ * <p>
+ * Values {@link #bind(InvocationContext.Key, Object) bound} by an interceptor are set in the {@link InvocationContext} while it
+ * proceeds. Without bindings, proceeding doesn't touch the context.
+ * 
+ * <p>
+ * Methods with arguments must implement {@link #argumentCount()} and {@link #getArgument(int)}, and may implement the typed accessors,
+ * like {@link #getIntArgument(int)}, to avoid boxing. {@link #getArguments()} is created from them only when requested.
+ * 
  * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
  */
-public abstract class AbstractMethodInvocation implements MethodInvocation {
+public abstract class AbstractMethodInvocation implements MethodInvocation, Cloneable {
 
-  private final Object instance;
-  private final Method method;
-  private final Object[] arguments;
-  private final List<Annotation> annotations;
+  private Object instance;
+  private final MethodMetadata metadata;
+  private Object[] arguments;
+  int index;
+  InvocationContext context;
 
-  public AbstractMethodInvocation(final Object instance, final Method method, final Object[] arguments,
-      final List<Annotation> annotations) {
+  public AbstractMethodInvocation(final Object instance, final MethodMetadata metadata) {
     this.instance = instance;
-    this.method = method;
-    this.arguments = arguments;
-    this.annotations = annotations;
+    this.metadata = metadata;
+  }
+
+  /**
+   * Prepare this invocation to be reused by another call of the same method, releasing the state of the previous call.
+   * 
+   * <p>
+   * Used by the generated code when invocations are reused, see {@link InterceptorHandler#invocationEscapes()}.
+   * 
+   * @param instance Instance of the object being intercepted, or <code>null</code> when releasing the invocation.
+   */
+  protected void reset(final Object instance) {
+    this.instance = instance;
+    this.arguments = null;
+    this.index = 0;
+    this.context = null;
   }
 
   @Override
@@ -52,25 +80,155 @@ public abstract class AbstractMethodInvocation implements MethodInvocation {
 
   @Override
   public Method getMethod() {
-    return method;
+    return metadata.getMethod();
   }
 
   @Override
   public Object[] getArguments() {
+    if (arguments == null) {
+      final Object[] values = new Object[argumentCount()];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = getArgument(i);
+      }
+      arguments = values;
+    }
     return arguments;
   }
 
+  @Override
+  public int argumentCount() {
+    return 0;
+  }
+
+  @Override
+  public Object getArgument(final int index) {
+    throw new IndexOutOfBoundsException("Invalid argument index: " + index);
+  }
+
   @Override
   public List<Annotation> getAnnotations() {
-    return annotations;
+    return metadata.getAnnotations();
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * <p>
+   * The annotation of the running interceptor is found in constant time.
+   */
+  @Override
+  public <A extends Annotation> A annotation(final Class<A> annotationClass) {
+    return annotation(annotationClass, index);
+  }
+
+  <A extends Annotation> A annotation(final Class<A> annotationClass, final int position) {
+    return metadata.annotation(annotationClass, position);
+  }
+
+  @Override
+  public <S> S methodState(final Function<? super MethodInvocation, ? extends S> factory) {
+    return methodState(factory, this, index);
+  }
+
+  <S> S methodState(final Function<? super MethodInvocation, ? extends S> factory, final MethodInvocation invocation,
+      final int position) {
+    return metadata.state(position, factory, invocation);
+  }
+
+  @Override
+  public <T> void bind(final InvocationContext.Key<T> key, final T value) {
+    context = (context == null ? InvocationContext.current() : context).with(key, value);
   }
 
   @Override
   public Object proceed() throws Throwable {
-    noReturnProceed();
+    final InvocationContext bound = context;
+    if (bound != null) {
+      return proceedInContext(bound, this::proceed);
+    }
+    final int current = index++;
+    try {
+      return proceed(current);
+    } finally {
+      index = current;
+      // Bindings of the next interceptors end with them.
+      context = null;
+    }
+  }
+
+  /**
+   * {@link AsyncMethodInvocation} of this invocation, bound to the current position of the chain.
+   * 
+   * <p>
+   * Used by the generated code to call {@link AsyncMethodInterceptor AsyncMethodInterceptors}, so they can proceed after they
+   * returned.
+   * 
+   * @return The AsyncMethodInvocation passed to the interceptor at the current position.
+   */
+  public AsyncMethodInvocation async() {
+    return new BoundAsyncMethodInvocation(this, index);
+  }
+
+  /**
+   * Proceed the chain at <code>position</code>, from an interceptor that may have already returned, with the <code>bound</code>
+   * context.
+   * 
+   * <p>
+   * Proceeds in a copy of this invocation, so the position and context of the chain aren't shared with the interceptor, which may
+   * still be running in another thread.
+   */
+  Object proceedAt(final int position, final InvocationContext bound) throws Throwable {
+    final AbstractMethodInvocation copy;
+    try {
+      copy = (AbstractMethodInvocation) clone();
+    } catch (final CloneNotSupportedException e) {
+      throw new AssertionError(e);
+    }
+    copy.index = position + 1;
+    copy.context = null;
+    if (bound != null) {
+      return InvocationContext.call(bound, () -> copy.proceed(position));
+    }
+    return copy.proceed(position);
+  }
+
+  /**
+   * Run the proceed <code>operation</code> in the <code>bound</code> context. The context of this invocation is unset while it runs,
+   * so the operation proceeds as usual.
+   */
+  final Object proceedInContext(final InvocationContext bound, final InvocationContext.Operation<Object> operation)
+      throws Throwable {
+    final InvocationContext saved = context;
+    context = null;
+    try {
+      return InvocationContext.call(bound, operation);
+    } finally {
+      context = saved;
+    }
+  }
+
+  /**
+   * Proceed the chain at position <code>index</code>.
+   * 
+   * @param index Position in the chain, 0 when proceeding from the first interceptor.
+   * @return The method's return value.
+   * @throws Throwable Exception thrown by the next interceptor or the original method.
+   */
+  protected Object proceed(final int index) throws Throwable {
+    noReturnProceed(index);
     return null;
   }
 
+  /**
+   * Proceed the chain at position <code>index</code>, for methods without a return value.
+   * 
+   * @param index Position in the chain, 0 when proceeding from the first interceptor.
+   * @throws Throwable Exception thrown by the next interceptor or the original method.
+   */
+  protected void noReturnProceed(final int index) throws Throwable {
+    noReturnProceed();
+  }
+
   protected void noReturnProceed() throws Throwable {
     throw new RuntimeException("Invalid AbstractMethodInvocation implementation!");
   }
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link MethodInterceptor} aware of methods returning a {@link CompletionStage}, intercepting its completion instead of the call
+ * only.
+ * 
+ * <p>
+ * {@link #invokeAsync(AsyncMethodInvocation)} is called for methods returning a {@link CompletionStage}, {@link #invoke(MethodInvocation)}
+ * is still called for other return types.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public interface AsyncMethodInterceptor extends MethodInterceptor {
+
+  /**
+   * Called by the generated class for methods returning a {@link CompletionStage}. Responsible to implement the interceptor logic as
+   * well to call the original method using {@link AsyncMethodInvocation#proceedAsync()}.
+   * 
+   * @param <T> type of the stage's value.
+   * @param invocation The {@link AsyncMethodInvocation} with information about the interception.
+   * @return The stage returned by the original method, or a custom one. It must be assignable to the method's return type.
+   * @throws Throwable Exception thrown by the interceptor.
+   */
+  <T> CompletionStage<T> invokeAsync(AsyncMethodInvocation invocation) throws Throwable;
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link MethodInvocation} of a method returning a {@link CompletionStage}, like a
+ * {@link java.util.concurrent.CompletableFuture CompletableFuture}.
+ * 
+ * <p>
+ * The invocation is bound to the position of the interceptor in the chain, so {@link #proceedAsync()} can also be called from a
+ * completion callback, after {@link AsyncMethodInterceptor#invokeAsync(AsyncMethodInvocation)} has returned, to proceed again.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public interface AsyncMethodInvocation extends MethodInvocation {
+
+  /**
+   * Proceed to the next interceptor in the chain, or to the original method, without waiting for the returned stage to complete.
+   * 
+   * <p>
+   * Exceptions thrown by the next interceptor or the original method complete the returned stage exceptionally. Callbacks added
+   * using the non <code>Async</code> methods of {@link CompletionStage}, like {@link CompletionStage#whenComplete whenComplete}, run
+   * in the thread completing the stage, without a thread hop.
+   * 
+   * @param <T> type of the stage's value.
+   * @return The stage returned by the original method, or a custom one.
+   */
+  <T> CompletionStage<T> proceedAsync();
+
+}
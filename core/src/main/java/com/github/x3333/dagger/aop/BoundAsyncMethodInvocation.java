@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * {@link AsyncMethodInvocation} bound to a position in the chain of an {@link AbstractMethodInvocation}.
+ * 
+ * <p>
+ * Keeps its own context bindings, as it may proceed after the interceptor has returned.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class BoundAsyncMethodInvocation implements AsyncMethodInvocation {
+
+  private final AbstractMethodInvocation invocation;
+  private final int position;
+  private InvocationContext context;
+
+  BoundAsyncMethodInvocation(final AbstractMethodInvocation invocation, final int position) {
+    this.invocation = invocation;
+    this.position = position;
+  }
+
+  @Override
+  public Object getInstance() {
+    return invocation.getInstance();
+  }
+
+  @Override
+  public Method getMethod() {
+    return invocation.getMethod();
+  }
+
+  @Override
+  public Object[] getArguments() {
+    return invocation.getArguments();
+  }
+
+  @Override
+  public int argumentCount() {
+    return invocation.argumentCount();
+  }
+
+  @Override
+  public Object getArgument(final int index) {
+    return invocation.getArgument(index);
+  }
+
+  @Override
+  public int getIntArgument(final int index) {
+    return invocation.getIntArgument(index);
+  }
+
+  @Override
+  public long getLongArgument(final int index) {
+    return invocation.getLongArgument(index);
+  }
+
+  @Override
+  public double getDoubleArgument(final int index) {
+    return invocation.getDoubleArgument(index);
+  }
+
+  @Override
+  public boolean getBooleanArgument(final int index) {
+    return invocation.getBooleanArgument(index);
+  }
+
+  @Override
+  public float getFloatArgument(final int index) {
+    return invocation.getFloatArgument(index);
+  }
+
+  @Override
+  public short getShortArgument(final int index) {
+    return invocation.getShortArgument(index);
+  }
+
+  @Override
+  public byte getByteArgument(final int index) {
+    return invocation.getByteArgument(index);
+  }
+
+  @Override
+  public char getCharArgument(final int index) {
+    return invocation.getCharArgument(index);
+  }
+
+  @Override
+  public List<Annotation> getAnnotations() {
+    return invocation.getAnnotations();
+  }
+
+  @Override
+  public <A extends Annotation> A annotation(final Class<A> annotationClass) {
+    return invocation.annotation(annotationClass, position);
+  }
+
+  @Override
+  public <S> S methodState(final Function<? super MethodInvocation, ? extends S> factory) {
+    return invocation.methodState(factory, this, position);
+  }
+
+  @Override
+  public <T> void bind(final InvocationContext.Key<T> key, final T value) {
+    context = (context == null ? InvocationContext.current() : context).with(key, value);
+  }
+
+  @Override
+  public Object proceed() throws Throwable {
+    return invocation.proceedAt(position, context);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> CompletionStage<T> proceedAsync() {
+    try {
+      return (CompletionStage<T>) invocation.proceedAt(position, context);
+    } catch (final Throwable e) {
+      final CompletableFuture<T> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+  }
+
+}
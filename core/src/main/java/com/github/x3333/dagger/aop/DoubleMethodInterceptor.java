@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop;
+
+/**
+ * {@link MethodInterceptor} that can intercept methods returning <code>double</code> without boxing the return value.
+ * 
+ * <p>
+ * Implementing this interface is optional. When the interceptor implements it, the generated class calls
+ * {@link #invokeDouble(DoubleMethodInvocation)} instead of {@link #invoke(MethodInvocation)} for methods returning <code>double</code>.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public interface DoubleMethodInterceptor extends MethodInterceptor {
+
+  /**
+   * Called by the generated class for methods returning <code>double</code>. Responsible to implement the interceptor logic as well to call
+   * the original method using {@link DoubleMethodInvocation#proceedDouble()}.
+   * 
+   * @param invocation The {@link DoubleMethodInvocation} with information about the interception.
+   * @return The original method's return value, or a custom one.
+   * @throws Throwable Exception thrown by the interceptor or the original method.
+   */
+  double invokeDouble(DoubleMethodInvocation invocation) throws Throwable;
+
+}
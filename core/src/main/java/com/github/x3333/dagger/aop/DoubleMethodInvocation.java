@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop;
+
+/**
+ * {@link MethodInvocation} of a method returning <code>double</code>.
+ * 
+ * <p>
+ * {@link #proceed()} boxes the return value, {@link #proceedDouble()} doesn't.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public interface DoubleMethodInvocation extends MethodInvocation {
+
+  /**
+   * Proceed to the next interceptor in the chain, or to the original method, without boxing the return value.
+   * 
+   * @return The method's return value.
+   * @throws Throwable Exception thrown by the next interceptor or the original method.
+   */
+  double proceedDouble() throws Throwable;
+
+}
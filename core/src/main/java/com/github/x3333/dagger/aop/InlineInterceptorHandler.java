@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package com.github.x3333.dagger.aop;
+
+import javax.lang.model.element.ExecutableElement;
+
+import com.squareup.javapoet.CodeBlock;
+
+/**
+ * {@link InterceptorHandler} whose interception can be generated straight in the intercepted method.
+ * 
+ * <p>
+ * For trivial interceptors, like argument checks or counters, calling a {@link MethodInterceptor} with a {@link MethodInvocation}
+ * costs more than the interception itself. Instead, the handler returns code templates, generated around the call to the original
+ * method:
+ * 
+ * <pre>
+ * final T $result;
+ * before
+ * try {
+ *   $result = super.method(parameters);
+ * } catch (Throwable $e) {
+ *   onThrow
+ *   throw $e;
+ * }
+ * after
+ * return $result;
+ * </pre>
+ * 
+ * <p>
+ * Templates are complete statements, as created by {@link CodeBlock.Builder#addStatement(String, Object...)}, referencing the method
+ * parameters by their names, the returned value by <code>$result</code>, absent in <code>void</code> methods, and the thrown
+ * exception by <code>$e</code>, which must not be reassigned. For methods returning a {@link java.util.concurrent.CompletionStage},
+ * <code>after</code> runs when the stage is returned, not when it completes.
+ * 
+ * <p>
+ * Templates of several handlers are nested like interceptors: those of the handler called first run around the others, in its own
+ * <code>try</code>, so its <code>onThrow</code> also runs when the <code>before</code> or <code>after</code> of an inner handler
+ * throws.
+ * 
+ * <p>
+ * Methods without templates, all of them <code>null</code>, are intercepted by the {@link #methodInterceptorClass()} at runtime.
+ * Inlined templates run around the interceptors called at runtime, and methods whose interceptors are all inlined don't create a
+ * {@link MethodInvocation}.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public interface InlineInterceptorHandler extends InterceptorHandler {
+
+  /**
+   * Code run before the original method.
+   * 
+   * @param methodElement Method being intercepted.
+   * @return Statements to be generated, or <code>null</code> if none.
+   */
+  default CodeBlock before(final ExecutableElement methodElement) {
+    return null;
+  }
+
+  /**
+   * Code run after the original method returns, with the returned value in <code>$result</code>.
+   * 
+   * @param methodElement Method being intercepted.
+   * @return Statements to be generated, or <code>null</code> if none.
+   */
+  default CodeBlock after(final ExecutableElement methodElement) {
+    return null;
+  }
+
+  /**
+   * Code run when the original method throws, with the exception in <code>$e</code>, which is thrown after it.
+   * 
+   * @param methodElement Method being intercepted.
+   * @return Statements to be generated, or <code>null</code> if none.
+   */
+  default CodeBlock onThrow(final ExecutableElement methodElement) {
+    return null;
+  }
+
+}
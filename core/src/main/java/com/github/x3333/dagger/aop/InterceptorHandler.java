@@ -14,6 +14,7 @@
 package com.github.x3333.dagger.aop;
 
 import java.lang.annotation.Annotation;
+import java.util.Collections;
 import java.util.Set;
 
 import javax.annotation.processing.ProcessingEnvironment;
@@ -50,6 +51,20 @@ public interface InterceptorHandler {
    */
   Class<? extends MethodInterceptor> methodInterceptorClass();
 
+  /**
+   * If the {@link MethodInterceptor} may use the {@link MethodInvocation} after {@link MethodInterceptor#invoke(MethodInvocation)}
+   * returns, like keeping it in a field or proceeding in another thread.
+   * 
+   * <p>
+   * When the Processor is run with <code>aop.invocation.reuse=true</code> and all interceptors of a method return <code>false</code>,
+   * a single invocation per thread is reused by all calls to that method, instead of allocating one per call.
+   * 
+   * @return <code>true</code> if the interceptor may use the invocation after returning, the default.
+   */
+  default boolean invocationEscapes() {
+    return true;
+  }
+
   /**
    * Validate a method {@link ExecutableElement} to be accepted by the Processor.
    * 
@@ -63,6 +78,21 @@ public interface InterceptorHandler {
     return null;
   }
 
+  /**
+   * Validate a method {@link ExecutableElement} to be accepted by the Processor, with the {@link ProcessingEnvironment} to compare its
+   * types.
+   * 
+   * <p>
+   * This is the method called by the Processor, by default calling {@link #validateMethod(ExecutableElement)}.
+   * 
+   * @param processingEnv ProcessingEnvironment associated to the Processor.
+   * @param methodElement ExecutableElement to be validated.
+   * @return <code>Null</code> if this element has passed validation, otherwise, a String with the error message.
+   */
+  default String validateMethod(final ProcessingEnvironment processingEnv, final ExecutableElement methodElement) {
+    return validateMethod(methodElement);
+  }
+
   /**
    * Called after the Generator has processed all annotated classes. Post processing can be helpful to generate more classes or configuring
    * the environment.
@@ -72,4 +102,16 @@ public interface InterceptorHandler {
    */
   default void postProcess(final ProcessingEnvironment processingEnv, final Set<TypeElement> processedClasses) {}
 
+  /**
+   * Classes generated by {@link #postProcess(ProcessingEnvironment, Set) post processing} that the interceptor loads by reflection. They
+   * are listed with their public methods in the native-image configuration, when it is generated.
+   * 
+   * @param processingEnv {@link ProcessingEnvironment} associated with this generation.
+   * @param processedClasses All processed classes that belongs to this Handler.
+   * @return Binary names of the classes, none by default.
+   */
+  default Set<String> reflectiveClasses(final ProcessingEnvironment processingEnv, final Set<TypeElement> processedClasses) {
+    return Collections.emptySet();
+  }
+
 }
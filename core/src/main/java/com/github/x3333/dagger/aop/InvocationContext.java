@@ -0,0 +1,294 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Callable;
+
+/**
+ * Values shared by the interceptors of a call with the calls they proceed to.
+ * 
+ * <p>
+ * Interceptors {@link MethodInvocation#bind(Key, Object) bind} values, like the current transaction or a deadline, before
+ * proceeding. The values are visible using {@link #current()} until proceed returns, in nested intercepted calls and in any code
+ * called by the original method.
+ * 
+ * <p>
+ * Contexts are immutable, a binding creates a new context. In Java 21 or later the current context is held by a
+ * <code>ScopedValue</code>, so it is inherited by <code>StructuredTaskScope</code> forks without copying and costs nothing to
+ * virtual threads not intercepted. In older versions it is held by a {@link ThreadLocal}, not inherited by other threads, use
+ * {@link #call(Callable)} to run code of other threads in a context.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public final class InvocationContext {
+
+  private static final InvocationContext EMPTY = new InvocationContext(null, null, null);
+  private static final Binding BINDING = Binding.create();
+
+  private final Key<?> key;
+  private final Object value;
+  private final InvocationContext parent;
+
+  private InvocationContext(final Key<?> key, final Object value, final InvocationContext parent) {
+    this.key = key;
+    this.value = value;
+    this.parent = parent;
+  }
+
+  /**
+   * Create a new key, identified by its instance.
+   * 
+   * @param <T> Type of the values bound to the key.
+   * @param name Name of the key, used only in {@link #toString()}.
+   * @return The new Key.
+   */
+  public static <T> Key<T> key(final String name) {
+    return new Key<>(name);
+  }
+
+  /**
+   * The context of the running call.
+   * 
+   * @return Current context, an empty context if none is bound.
+   */
+  public static InvocationContext current() {
+    return BINDING.current();
+  }
+
+  /**
+   * Value bound to the <code>key</code>.
+   * 
+   * @param <T> Type of the value.
+   * @param key Key of the value.
+   * @return The value of the innermost binding, <code>null</code> if not bound.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(final Key<T> key) {
+    for (InvocationContext context = this; context != EMPTY; context = context.parent) {
+      if (context.key == key) {
+        return (T) context.value;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Create a context with the bindings of this one and <code>value</code> bound to <code>key</code>.
+   * 
+   * @param <T> Type of the value.
+   * @param key Key of the value.
+   * @param value Value to be bound.
+   * @return The new context.
+   */
+  public <T> InvocationContext with(final Key<T> key, final T value) {
+    return new InvocationContext(key, value, this);
+  }
+
+  /**
+   * Call <code>operation</code> with this context as the {@link #current()} one.
+   * 
+   * @param <V> Type of the value returned by the operation.
+   * @param operation Operation to be called.
+   * @return The value returned by the operation.
+   * @throws Exception Exception thrown by the operation.
+   */
+  public <V> V call(final Callable<V> operation) throws Exception {
+    try {
+      return call(this, operation::call);
+    } catch (final Exception | Error e) {
+      throw e;
+    } catch (final Throwable e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("InvocationContext[");
+    for (InvocationContext context = this; context != EMPTY; context = context.parent) {
+      sb.append(context == this ? "" : ", ").append(context.key).append('=').append(context.value);
+    }
+    return sb.append(']').toString();
+  }
+
+  //
+
+  static <V> V call(final InvocationContext context, final Operation<V> operation) throws Throwable {
+    return BINDING.call(context, operation);
+  }
+
+  /**
+   * Operation called in a context.
+   */
+  interface Operation<V> {
+
+    V call() throws Throwable;
+
+  }
+
+  /**
+   * Key of a value in the context.
+   * 
+   * @param <T> Type of the values bound to the key.
+   */
+  public static final class Key<T> {
+
+    private final String name;
+
+    private Key(final String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+
+  }
+
+  //
+
+  /**
+   * Holder of the current context.
+   */
+  private abstract static class Binding {
+
+    static Binding create() {
+      try {
+        return new ScopedValueBinding();
+      } catch (final ReflectiveOperationException | RuntimeException e) {
+        // Before Java 21.
+        return new ThreadLocalBinding();
+      }
+    }
+
+    abstract InvocationContext current();
+
+    abstract <V> V call(InvocationContext context, Operation<V> operation) throws Throwable;
+
+  }
+
+  /**
+   * Context held by a <code>ScopedValue</code>, found using reflection as the library targets Java 8.
+   */
+  private static final class ScopedValueBinding extends Binding {
+
+    private final MethodHandle isBound;
+    private final MethodHandle get;
+    private final MethodHandle where;
+    private final MethodHandle run;
+
+    ScopedValueBinding() throws ReflectiveOperationException {
+      final Class<?> scopedValueClass = Class.forName("java.lang.ScopedValue");
+      final Class<?> carrierClass = Class.forName("java.lang.ScopedValue$Carrier");
+      final Object scopedValue = scopedValueClass.getMethod("newInstance").invoke(null);
+      final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+      isBound = lookup.findVirtual(scopedValueClass, "isBound", MethodType.methodType(boolean.class))//
+          .bindTo(scopedValue);
+      get = lookup.findVirtual(scopedValueClass, "get", MethodType.methodType(Object.class))//
+          .bindTo(scopedValue)//
+          .asType(MethodType.methodType(InvocationContext.class));
+      where = MethodHandles.insertArguments(
+          lookup.findStatic(scopedValueClass, "where", MethodType.methodType(carrierClass, scopedValueClass, Object.class)), //
+          0, scopedValue)//
+          .asType(MethodType.methodType(Object.class, InvocationContext.class));
+      run = lookup.findVirtual(carrierClass, "run", MethodType.methodType(void.class, Runnable.class))//
+          .asType(MethodType.methodType(void.class, Object.class, Runnable.class));
+    }
+
+    @Override
+    InvocationContext current() {
+      try {
+        return (boolean) isBound.invokeExact() ? (InvocationContext) get.invokeExact() : EMPTY;
+      } catch (final Throwable e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override
+    <V> V call(final InvocationContext context, final Operation<V> operation) throws Throwable {
+      // Carrier.run is the only method with the same signature in all versions.
+      final RunnableOperation<V> runnable = new RunnableOperation<>(operation);
+      run.invokeExact(where.invokeExact(context), (Runnable) runnable);
+      return runnable.result();
+    }
+
+  }
+
+  /**
+   * Run an {@link Operation}, keeping its result.
+   */
+  private static final class RunnableOperation<V> implements Runnable {
+
+    private final Operation<V> operation;
+    private V value;
+    private Throwable exception;
+
+    RunnableOperation(final Operation<V> operation) {
+      this.operation = operation;
+    }
+
+    @Override
+    public void run() {
+      try {
+        value = operation.call();
+      } catch (final Throwable e) {
+        exception = e;
+      }
+    }
+
+    V result() throws Throwable {
+      if (exception != null) {
+        throw exception;
+      }
+      return value;
+    }
+
+  }
+
+  /**
+   * Context held by a {@link ThreadLocal}.
+   */
+  private static final class ThreadLocalBinding extends Binding {
+
+    private final ThreadLocal<InvocationContext> current = new ThreadLocal<>();
+
+    @Override
+    InvocationContext current() {
+      final InvocationContext context = current.get();
+      return context == null ? EMPTY : context;
+    }
+
+    @Override
+    <V> V call(final InvocationContext context, final Operation<V> operation) throws Throwable {
+      final InvocationContext previous = current.get();
+      current.set(context);
+      try {
+        return operation.call();
+      } finally {
+        if (previous == null) {
+          current.remove();
+        } else {
+          current.set(previous);
+        }
+      }
+    }
+
+  }
+
+}
@@ -16,6 +16,10 @@ package com.github.x3333.dagger.aop;
 /**
  * Basic interface for a Method Interceptor.
  * 
+ * <p>
+ * Interceptors may also implement {@link IntMethodInterceptor}, {@link LongMethodInterceptor} or {@link DoubleMethodInterceptor} to
+ * intercept methods returning these primitives without boxing the return value.
+ * 
  * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
  */
 public interface MethodInterceptor {
@@ -16,6 +16,7 @@ package com.github.x3333.dagger.aop;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Represents a Method Invocation.
@@ -44,10 +45,129 @@ public interface MethodInvocation {
   /**
    * All arguments that had been passed to the Method.
    * 
+   * <p>
+   * Primitive arguments are boxed. Prefer {@link #getArgument(int)} and the typed accessors, like {@link #getIntArgument(int)}, which
+   * doesn't need to create an array.
+   * 
    * @return Array of objects in the order they are provided.
    */
   Object[] getArguments();
 
+  /**
+   * Number of arguments that had been passed to the Method.
+   * 
+   * @return Argument count.
+   */
+  int argumentCount();
+
+  /**
+   * Argument that had been passed to the Method at position <code>index</code>.
+   * 
+   * <p>
+   * If the argument is a primitive, it will be boxed, use the typed accessor instead.
+   * 
+   * @param index Position of the argument, starting at 0.
+   * @return Argument value.
+   * @throws IndexOutOfBoundsException If <code>index</code> is not a valid argument position.
+   */
+  Object getArgument(int index);
+
+  /**
+   * <code>int</code> argument that had been passed to the Method at position <code>index</code>.
+   * 
+   * @param index Position of the argument, starting at 0.
+   * @return Argument value.
+   * @throws IndexOutOfBoundsException If <code>index</code> is not a valid argument position.
+   * @throws ClassCastException If the argument is not an <code>int</code>.
+   */
+  default int getIntArgument(final int index) {
+    return (Integer) getArgument(index);
+  }
+
+  /**
+   * <code>long</code> argument that had been passed to the Method at position <code>index</code>.
+   * 
+   * @param index Position of the argument, starting at 0.
+   * @return Argument value.
+   * @throws IndexOutOfBoundsException If <code>index</code> is not a valid argument position.
+   * @throws ClassCastException If the argument is not a <code>long</code>.
+   */
+  default long getLongArgument(final int index) {
+    return (Long) getArgument(index);
+  }
+
+  /**
+   * <code>double</code> argument that had been passed to the Method at position <code>index</code>.
+   * 
+   * @param index Position of the argument, starting at 0.
+   * @return Argument value.
+   * @throws IndexOutOfBoundsException If <code>index</code> is not a valid argument position.
+   * @throws ClassCastException If the argument is not a <code>double</code>.
+   */
+  default double getDoubleArgument(final int index) {
+    return (Double) getArgument(index);
+  }
+
+  /**
+   * <code>boolean</code> argument that had been passed to the Method at position <code>index</code>.
+   * 
+   * @param index Position of the argument, starting at 0.
+   * @return Argument value.
+   * @throws IndexOutOfBoundsException If <code>index</code> is not a valid argument position.
+   * @throws ClassCastException If the argument is not a <code>boolean</code>.
+   */
+  default boolean getBooleanArgument(final int index) {
+    return (Boolean) getArgument(index);
+  }
+
+  /**
+   * <code>float</code> argument that had been passed to the Method at position <code>index</code>.
+   * 
+   * @param index Position of the argument, starting at 0.
+   * @return Argument value.
+   * @throws IndexOutOfBoundsException If <code>index</code> is not a valid argument position.
+   * @throws ClassCastException If the argument is not a <code>float</code>.
+   */
+  default float getFloatArgument(final int index) {
+    return (Float) getArgument(index);
+  }
+
+  /**
+   * <code>short</code> argument that had been passed to the Method at position <code>index</code>.
+   * 
+   * @param index Position of the argument, starting at 0.
+   * @return Argument value.
+   * @throws IndexOutOfBoundsException If <code>index</code> is not a valid argument position.
+   * @throws ClassCastException If the argument is not a <code>short</code>.
+   */
+  default short getShortArgument(final int index) {
+    return (Short) getArgument(index);
+  }
+
+  /**
+   * <code>byte</code> argument that had been passed to the Method at position <code>index</code>.
+   * 
+   * @param index Position of the argument, starting at 0.
+   * @return Argument value.
+   * @throws IndexOutOfBoundsException If <code>index</code> is not a valid argument position.
+   * @throws ClassCastException If the argument is not a <code>byte</code>.
+   */
+  default byte getByteArgument(final int index) {
+    return (Byte) getArgument(index);
+  }
+
+  /**
+   * <code>char</code> argument that had been passed to the Method at position <code>index</code>.
+   * 
+   * @param index Position of the argument, starting at 0.
+   * @return Argument value.
+   * @throws IndexOutOfBoundsException If <code>index</code> is not a valid argument position.
+   * @throws ClassCastException If the argument is not a <code>char</code>.
+   */
+  default char getCharArgument(final int index) {
+    return (Character) getArgument(index);
+  }
+
   /**
    * All the annotations that the method intercepted has in runtime.
    * 
@@ -55,6 +175,37 @@ public interface MethodInvocation {
    */
   List<Annotation> getAnnotations();
 
+  /**
+   * Bind <code>value</code> to <code>key</code> in the {@link InvocationContext} while this invocation proceeds, so the next
+   * interceptors, the original method and nested intercepted calls find it using {@link InvocationContext#current()}.
+   * 
+   * <p>
+   * Bindings are kept if the invocation proceeds more than once.
+   * 
+   * @param <T> Type of the value.
+   * @param key Key of the value.
+   * @param value Value to be bound.
+   */
+  <T> void bind(InvocationContext.Key<T> key, T value);
+
+  /**
+   * State of the running {@link MethodInterceptor} for the intercepted method, like its statistics.
+   * 
+   * <p>
+   * The state is kept by the {@link MethodMetadata} of the method, so it is shared by all instances of the intercepted class and
+   * found in constant time. It is created by <code>factory</code> in the first call, which should be a non capturing lambda or method
+   * reference, so no allocation is made per call.
+   * 
+   * <p>
+   * Interceptors keep here what they would otherwise look up by method in every call, like the policy parsed from their annotation,
+   * a cache or a histogram, and read it again from the invocation instead of holding it in fields.
+   * 
+   * @param <S> Type of the state.
+   * @param factory Function creating the state from the first invocation.
+   * @return The state of the running interceptor.
+   */
+  <S> S methodState(Function<? super MethodInvocation, ? extends S> factory);
+
   /**
    * Called by the MethodInterceptor when the original method need to proceed.
    * 
@@ -72,11 +223,17 @@ public interface MethodInvocation {
    * 
    * @param <A> Type of the Annotation to be returned.
    * @param annotationClass Class of the Annotation to be returned.
-   * @return Optional Annotation instance.
+   * @return Annotation instance, <code>null</code> if the method is not annotated with <code>annotationClass</code>.
    */
   @SuppressWarnings("unchecked")
   default <A extends Annotation> A annotation(final Class<A> annotationClass) {
-    return (A) getAnnotations().stream().filter(a -> a.annotationType().equals(annotationClass)).findFirst().get();
+    final List<Annotation> annotations = getAnnotations();
+    for (int i = 0; i < annotations.size(); i++) {
+      if (annotations.get(i).annotationType() == annotationClass) {
+        return (A) annotations.get(i);
+      }
+    }
+    return null;
   }
 
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Reflective information about an intercepted method, shared by all its invocations.
+ * 
+ * <p>
+ * The {@link Method} and its annotations are resolved when first requested, not when the intercepted class is loaded. Resolution is a
+ * racy single-check: concurrent first calls may resolve more than once, but always publish an equivalent immutable result.
+ * 
+ * <p>
+ * Annotations of the method interceptors are indexed in the order they are called, so {@link #annotation(Class, int)} finds the
+ * annotation of the running interceptor in constant time, without allocating. Their instances can be created at compile time, see
+ * {@link AbstractAnnotation}, so they are returned without resolving the method.
+ * 
+ * <p>
+ * Each interceptor of the chain also has a {@link #state(int, Function, Object) state} slot, holding its per method state, like
+ * statistics, created once by the first call.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public final class MethodMetadata {
+
+  private final Class<?> declaringClass;
+  private final String name;
+  private final Class<?>[] parameterTypes;
+  private final Class<? extends Annotation>[] chainTypes;
+  private final Annotation[] chainAnnotations;
+  private final AtomicReferenceArray<Object> states;
+
+  private Resolved resolved;
+
+  /**
+   * Create the metadata of a method, without resolving it.
+   * 
+   * @param declaringClass Class declaring the method intercepted.
+   * @param name Name of the method intercepted.
+   * @param parameterTypes Parameter types of the method intercepted.
+   * @param chainTypes Annotation types of the method interceptors, in the order they are called.
+   */
+  @SafeVarargs
+  public MethodMetadata(final Class<?> declaringClass, final String name, final Class<?>[] parameterTypes,
+      final Class<? extends Annotation>... chainTypes) {
+    this(declaringClass, name, parameterTypes, new Annotation[chainTypes.length], chainTypes);
+  }
+
+  /**
+   * Create the metadata of a method, without resolving it.
+   * 
+   * @param declaringClass Class declaring the method intercepted.
+   * @param name Name of the method intercepted.
+   * @param parameterTypes Parameter types of the method intercepted.
+   * @param chainAnnotations Annotations of the method interceptors, in the order they are called. <code>null</code> elements are
+   *        resolved by reflection.
+   * @param chainTypes Annotation types of the method interceptors, in the order they are called.
+   */
+  @SafeVarargs
+  public MethodMetadata(final Class<?> declaringClass, final String name, final Class<?>[] parameterTypes,
+      final Annotation[] chainAnnotations, final Class<? extends Annotation>... chainTypes) {
+    this.declaringClass = declaringClass;
+    this.name = name;
+    this.parameterTypes = parameterTypes;
+    this.chainTypes = chainTypes;
+    this.chainAnnotations = chainAnnotations;
+    this.states = new AtomicReferenceArray<>(chainTypes.length);
+  }
+
+  /**
+   * @return Method intercepted.
+   */
+  public Method getMethod() {
+    return resolve().method;
+  }
+
+  /**
+   * @return All the annotations of the method in runtime, as returned by reflection.
+   */
+  public List<Annotation> getAnnotations() {
+    return resolve().annotations;
+  }
+
+  /**
+   * Return the Annotation instance of the method.
+   * 
+   * @param <A> Type of the Annotation to be returned.
+   * @param annotationClass Class of the Annotation to be returned.
+   * @param position Position in the chain of the interceptor looking for the annotation, checked first.
+   * @return Annotation instance, <code>null</code> if the method is not annotated with <code>annotationClass</code>.
+   */
+  @SuppressWarnings("unchecked")
+  public <A extends Annotation> A annotation(final Class<A> annotationClass, final int position) {
+    final Class<? extends Annotation>[] types = chainTypes;
+    if (position < types.length && types[position] == annotationClass) {
+      return (A) chainAnnotation(position);
+    }
+    for (int i = 0; i < types.length; i++) {
+      if (types[i] == annotationClass) {
+        return (A) chainAnnotation(i);
+      }
+    }
+    // Not an interceptor annotation.
+    final List<Annotation> annotations = resolve().annotations;
+    for (int i = 0; i < annotations.size(); i++) {
+      final Annotation annotation = annotations.get(i);
+      if (annotation.annotationType() == annotationClass) {
+        return (A) annotation;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return the state of the interceptor at <code>position</code> for this method, creating it using <code>factory</code> when first
+   * requested.
+   * 
+   * <p>
+   * Concurrent first calls may create more than one state, but only one is kept and returned to all of them.
+   * 
+   * @param <T> Type of the factory argument.
+   * @param <S> Type of the state.
+   * @param position Position in the chain of the interceptor.
+   * @param factory Function creating the state.
+   * @param argument Argument passed to the <code>factory</code>.
+   * @return The state of the interceptor.
+   */
+  @SuppressWarnings("unchecked")
+  public <T, S> S state(final int position, final Function<? super T, ? extends S> factory, final T argument) {
+    final Object state = states.get(position);
+    if (state != null) {
+      return (S) state;
+    }
+    final S created = factory.apply(argument);
+    return states.compareAndSet(position, null, created) ? created : (S) states.get(position);
+  }
+
+  private Annotation chainAnnotation(final int position) {
+    final Annotation annotation = chainAnnotations[position];
+    return annotation != null ? annotation : resolve().chainAnnotations[position];
+  }
+
+  private Resolved resolve() {
+    Resolved result = resolved;
+    if (result == null) {
+      try {
+        result = new Resolved(declaringClass.getDeclaredMethod(name, parameterTypes), chainTypes);
+      } catch (NoSuchMethodException | SecurityException e) {
+        throw new RuntimeException(e);
+      }
+      resolved = result;
+    }
+    return result;
+  }
+
+  /**
+   * Resolved reflective information. Immutable, so it can be published without synchronization.
+   */
+  private static final class Resolved {
+
+    final Method method;
+    final List<Annotation> annotations;
+    final Annotation[] chainAnnotations;
+
+    Resolved(final Method method, final Class<? extends Annotation>[] chainTypes) {
+      this.method = method;
+      this.annotations = Collections.unmodifiableList(Arrays.asList(method.getAnnotations()));
+      this.chainAnnotations = new Annotation[chainTypes.length];
+      for (int i = 0; i < chainTypes.length; i++) {
+        this.chainAnnotations[i] = method.getAnnotation(chainTypes[i]);
+      }
+    }
+
+  }
+
+}
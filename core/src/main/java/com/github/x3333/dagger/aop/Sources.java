@@ -16,10 +16,13 @@ package com.github.x3333.dagger.aop;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 
 import javax.annotation.Generated;
 import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
 import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
 
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.JavaFile;
@@ -49,6 +52,10 @@ public final class Sources {
   /**
    * Write a Class to the Processing Environment Filer.
    * 
+   * <p>
+   * The source is rendered before being written, as the writers of the Filer may not be buffered, and the class originating elements
+   * are kept, so incremental builds regenerate it when they change.
+   * 
    * @param processingEnv ProcessingEnvironment to use.
    * @param packageName Package name of the class to write.
    * @param classSpec Class to be written.
@@ -56,7 +63,13 @@ public final class Sources {
   public static void writeClass(final ProcessingEnvironment processingEnv, final String packageName,
       final TypeSpec classSpec) {
     try {
-      JavaFile.builder(packageName, classSpec).build().writeTo(processingEnv.getFiler());
+      final String source = JavaFile.builder(packageName, classSpec).build().toString();
+      final String className = packageName.isEmpty() ? classSpec.name : packageName + "." + classSpec.name;
+      final JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(className,
+          classSpec.originatingElements.toArray(new Element[classSpec.originatingElements.size()]));
+      try (final Writer writer = sourceFile.openWriter()) {
+        writer.write(source);
+      }
     } catch (final IOException ioe) {
       final StringWriter sw = new StringWriter();
       try (final PrintWriter pw = new PrintWriter(sw);) {
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.test;
+
+import com.github.x3333.dagger.aop.InlineInterceptorHandler;
+
+import java.lang.annotation.Annotation;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+
+import com.squareup.javapoet.CodeBlock;
+
+/**
+ * Inlined {@link Inline} interceptor, rejecting null arguments and counting the calls and failures.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class InlineHandler implements InlineInterceptorHandler {
+
+  public static final AtomicLong CALLS = new AtomicLong();
+  public static final AtomicLong FAILURES = new AtomicLong();
+
+  @Override
+  public Class<? extends Annotation> annotation() {
+    return Inline.class;
+  }
+
+  @Override
+  public Class<TestInterceptor> methodInterceptorClass() {
+    return TestInterceptor.class;
+  }
+
+  @Override
+  public CodeBlock before(final ExecutableElement methodElement) {
+    final CodeBlock.Builder code = CodeBlock.builder();
+    for (final VariableElement parameter : methodElement.getParameters()) {
+      if (!parameter.asType().getKind().isPrimitive()) {
+        code.addStatement("$T.requireNonNull($L, $S)", Objects.class, parameter.getSimpleName(), parameter.getSimpleName());
+      }
+    }
+    return code.build();
+  }
+
+  @Override
+  public CodeBlock after(final ExecutableElement methodElement) {
+    return CodeBlock.builder().addStatement("$T.CALLS.incrementAndGet()", InlineHandler.class).build();
+  }
+
+  @Override
+  public CodeBlock onThrow(final ExecutableElement methodElement) {
+    return CodeBlock.builder().addStatement("$T.FAILURES.incrementAndGet()", InlineHandler.class).build();
+  }
+
+}
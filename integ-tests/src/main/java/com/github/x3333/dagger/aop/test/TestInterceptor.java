@@ -13,15 +13,30 @@
 
 package com.github.x3333.dagger.aop.test;
 
-import com.github.x3333.dagger.aop.MethodInterceptor;
+import com.github.x3333.dagger.aop.AsyncMethodInterceptor;
+import com.github.x3333.dagger.aop.AsyncMethodInvocation;
+import com.github.x3333.dagger.aop.IntMethodInterceptor;
+import com.github.x3333.dagger.aop.IntMethodInvocation;
+import com.github.x3333.dagger.aop.InvocationContext;
+import com.github.x3333.dagger.aop.LongMethodInterceptor;
+import com.github.x3333.dagger.aop.LongMethodInvocation;
 import com.github.x3333.dagger.aop.MethodInvocation;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
 import javax.inject.Inject;
 
 /**
  * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
  */
-public class TestInterceptor implements MethodInterceptor {
+public class TestInterceptor implements IntMethodInterceptor, LongMethodInterceptor, AsyncMethodInterceptor {
+
+  /**
+   * Number of intercepted calls running, bound by each call.
+   */
+  public static final InvocationContext.Key<Integer> DEPTH = InvocationContext.key("depth");
 
   @Inject
   public TestInterceptor() {}
@@ -29,13 +44,47 @@ public class TestInterceptor implements MethodInterceptor {
   @Override
   @SuppressWarnings("unchecked")
   public <T> T invoke(final MethodInvocation invocation) throws Throwable {
+    checkAnnotations(invocation);
     final Object returnValue = invocation.proceed();
     if (returnValue instanceof String) {
       return (T) ("TestInterceptor_" + returnValue.toString());
     } else if (returnValue instanceof Integer) {
       return (T) (Integer) ((Integer) returnValue + 2);
+    } else if (returnValue instanceof Long) {
+      return (T) (Long) ((Long) returnValue + invocation.getLongArgument(invocation.argumentCount() - 1));
     }
     return (T) returnValue;
   }
 
+  @Override
+  public int invokeInt(final IntMethodInvocation invocation) throws Throwable {
+    checkAnnotations(invocation);
+    return invocation.proceedInt() + 2;
+  }
+
+  @Override
+  public long invokeLong(final LongMethodInvocation invocation) throws Throwable {
+    checkAnnotations(invocation);
+    return invocation.proceedLong() + invocation.getLongArgument(invocation.argumentCount() - 1);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> CompletionStage<T> invokeAsync(final AsyncMethodInvocation invocation) throws Throwable {
+    checkAnnotations(invocation);
+    // Failed stages are retried once, proceeding after this method has returned.
+    return invocation.<String>proceedAsync()//
+        .handle((value, e) -> e == null ? CompletableFuture.completedFuture(value) : invocation.<String>proceedAsync())//
+        .thenCompose(Function.identity())//
+        .thenApply(value -> (T) ("TestInterceptor_" + value));
+  }
+
+  private static void checkAnnotations(final MethodInvocation invocation) {
+    if (invocation.annotation(Interceptor.class) == null || invocation.annotation(Deprecated.class) != null) {
+      throw new IllegalStateException("Invalid annotations!");
+    }
+    final Integer depth = InvocationContext.current().get(DEPTH);
+    invocation.bind(DEPTH, depth == null ? 1 : depth + 1);
+  }
+
 }
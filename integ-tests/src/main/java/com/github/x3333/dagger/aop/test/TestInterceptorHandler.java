@@ -32,4 +32,9 @@ public class TestInterceptorHandler implements InterceptorHandler {
     return TestInterceptor.class;
   }
 
+  @Override
+  public boolean invocationEscapes() {
+    return false;
+  }
+
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.test;
+
+import com.github.x3333.dagger.aop.MethodInterceptor;
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import java.lang.reflect.Proxy;
+
+import javax.inject.Inject;
+
+/**
+ * Proceed the invocation {@link Twice#times()}, returning the sum of the results.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class TwiceInterceptor implements MethodInterceptor {
+
+  @Inject
+  public TwiceInterceptor() {}
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T invoke(final MethodInvocation invocation) throws Throwable {
+    final Twice twice = invocation.annotation(Twice.class);
+    checkAnnotation(invocation, twice);
+    int sum = 0;
+    for (int i = 0; i < twice.times(); i++) {
+      sum += (Integer) invocation.proceed();
+    }
+    return (T) (Integer) sum;
+  }
+
+  /**
+   * The annotation must be created at compile time, equal to the one returned by reflection.
+   */
+  private static void checkAnnotation(final MethodInvocation invocation, final Twice twice) {
+    final Twice reflective = invocation.getMethod().getAnnotation(Twice.class);
+    if (Proxy.isProxyClass(twice.getClass()) || !twice.equals(reflective) || !reflective.equals(twice)
+        || twice.hashCode() != reflective.hashCode()) {
+      throw new IllegalStateException("Invalid annotation!");
+    }
+  }
+
+}
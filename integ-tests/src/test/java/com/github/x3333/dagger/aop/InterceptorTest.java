@@ -13,17 +13,50 @@
 
 package com.github.x3333.dagger.aop;
 
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.github.x3333.dagger.aop.di.DaggerSomeComponent;
 import com.github.x3333.dagger.aop.di.SomeComponent;
+import com.github.x3333.dagger.aop.interceptors.circuitbreaker.CircuitBreakerOpenException;
+import com.github.x3333.dagger.aop.interceptors.memo.PersistentMemo;
+import com.github.x3333.dagger.aop.interceptors.ratelimited.RateLimitExceededException;
+import com.github.x3333.dagger.aop.interceptors.timeout.TimeoutExceededException;
+import com.github.x3333.dagger.aop.interceptors.timeout.TimeoutInterceptor;
+import com.github.x3333.dagger.aop.interceptors.timed.LatencyHistogram;
+import com.github.x3333.dagger.aop.interceptors.timed.TimedRegistry;
+import com.github.x3333.dagger.aop.test.InlineHandler;
+import com.github.x3333.dagger.aop.test.TestInterceptor;
 import com.github.x3333.dagger.aop.user.Some;
 import com.github.x3333.dagger.aop.user.impl.Interceptor_SomeImpl;
+import com.github.x3333.dagger.aop.user.impl.SomeImpl;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ObjectName;
+
+import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.internal.stubbing.defaultanswers.ForwardsInvocations;
 
 import com.google.common.truth.Truth;
@@ -33,6 +66,9 @@ import com.google.common.truth.Truth;
  */
 public class InterceptorTest {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   SomeComponent component;
   Some realSome;
   Some some;
@@ -44,6 +80,11 @@ public class InterceptorTest {
     some = mock(Some.class, new ForwardsInvocations(realSome));
   }
 
+  @After
+  public void tearDown() {
+    System.clearProperty(PersistentMemo.DIRECTORY_PROPERTY);
+  }
+
   @Test
   public void testTypeInterception() {
     Truth.assertThat(realSome).isInstanceOf(Interceptor_SomeImpl.class);
@@ -73,4 +114,392 @@ public class InterceptorTest {
     verify(some, times(1)).doWork3(8.1d);
   }
 
+  @Test
+  public void testInterceptionWithTypedArguments() {
+    // some.doWork4() return the sum of the parameters by default.
+    // when intercepted the result is added the last parameter, read using getLongArgument
+    Truth.assertThat(some.doWork4(1, 10L)).isEqualTo(21L);
+    verify(some, times(1)).doWork4(1, 10L);
+  }
+
+  @Test
+  public void testInterceptionChainProceedTwice() {
+    // some.doWork5() return the number of times it has been called.
+    // when intercepted, @Twice proceeds twice through @Interceptor, which adds 2 each time: (1 + 2) + (2 + 2)
+    Truth.assertThat(some.doWork5()).isEqualTo(7);
+    verify(some, times(1)).doWork5();
+  }
+
+  @Test
+  public void testInterceptionReentrant() {
+    // some.doWork6() calls itself until depth is 0, returning 0.
+    // when intercepted, each call adds its depth after proceeding, so the reused invocation must not be shared: 3 + 2 + 1
+    Truth.assertThat(some.doWork6(3L)).isEqualTo(6L);
+    verify(some, times(1)).doWork6(3L);
+  }
+
+  @Test
+  public void testInterceptionAnnotationValues() {
+    // some.doWork7() return the number of times it has been called.
+    // when intercepted, @Twice(times = 3) proceeds 3 times, reading times from the annotation created at compile time: 1 + 2 + 3
+    Truth.assertThat(some.doWork7()).isEqualTo(6);
+    verify(some, times(1)).doWork7();
+  }
+
+  @Test
+  public void testInterceptionAsync() {
+    // some.doWork8() returns a stage of the result, failing the first time it completes.
+    // when intercepted, the interceptor retries from the completion callback and prefixes the value with "TestInterceptor_",
+    // in the thread completing the result.
+    final CompletableFuture<String> result = new CompletableFuture<>();
+    final CompletionStage<String> stage = some.doWork8(result);
+    Truth.assertThat(stage.toCompletableFuture().isDone()).isFalse();
+    result.complete("doWork8");
+    Truth.assertThat(stage.toCompletableFuture().getNow(null)).isEqualTo("TestInterceptor_doWork8");
+    verify(some, times(1)).doWork8(result);
+  }
+
+  @Test
+  public void testInterceptionContext() {
+    // some.doWork9() calls itself until depth is 0, returning the depth bound in the context.
+    // when intercepted, each call binds the depth of the calling one plus 1, and prefixes the result with "TestInterceptor_"
+    Truth.assertThat(some.doWork9(2)).isEqualTo("TestInterceptor_TestInterceptor_TestInterceptor_depth3");
+    Truth.assertThat(InvocationContext.current().get(TestInterceptor.DEPTH)).isNull();
+    verify(some, times(1)).doWork9(2);
+  }
+
+  @Test
+  public void testInterceptionTimed() throws Exception {
+    // some.doWork10() returns the parameter.
+    // when intercepted, each call is recorded in the histogram named by the class and method, also registered in JMX
+    final String name = SomeImpl.class.getName() + ".doWork10";
+    for (long i = 0; i < 3; i++) {
+      Truth.assertThat(some.doWork10(i)).isEqualTo(i);
+    }
+    final LatencyHistogram histogram = TimedRegistry.getDefault().getHistograms().get(name);
+    Truth.assertThat(histogram.getCount()).isEqualTo(3L);
+    Truth.assertThat(histogram.getMax()).isGreaterThan(0L);
+    Truth.assertThat(ManagementFactory.getPlatformMBeanServer()
+        .getAttribute(new ObjectName("com.github.x3333.dagger.aop:type=Timed,name=" + ObjectName.quote(name)), "Count"))
+        .isEqualTo(3L);
+  }
+
+  @Test
+  public void testInterceptionCached() {
+    // some.doWork11() returns the name, id and the number of calls.
+    // when intercepted, calls with the same arguments return the cached value, and a hot key stays cached among cold ones
+    Truth.assertThat(some.doWork11(1, "a")).isEqualTo("a1#1");
+    Truth.assertThat(some.doWork11(1, "a")).isEqualTo("a1#1");
+    Truth.assertThat(some.doWork11(1, "b")).isEqualTo("b1#2");
+    Truth.assertThat(some.doWork11(2, "a")).isEqualTo("a2#3");
+    for (long i = 0; i < 1000; i++) {
+      Truth.assertThat(some.doWork11(1, "a")).isEqualTo("a1#1");
+      Truth.assertThat(some.doWork11(100 + i, "cold")).isEqualTo("cold" + (100 + i) + "#" + (4 + i));
+    }
+    // The maximum weight is 10, so the first cold key has been evicted
+    Truth.assertThat(some.doWork11(100, "cold")).isEqualTo("cold100#1004");
+  }
+
+  @Test
+  public void testInterceptionCachedStampede() throws Exception {
+    // some.doWork12() waits for the latch and returns the number of calls.
+    // when intercepted, concurrent calls with the same key wait for the first one to load it
+    final CountDownLatch loading = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<Integer>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(executor.submit(() -> some.doWork12(loading)));
+      }
+      Thread.sleep(100);
+      loading.countDown();
+      for (final Future<Integer> result : results) {
+        Truth.assertThat(result.get()).isEqualTo(1);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testInterceptionCachedExpiration() throws Exception {
+    // some.doWork13() returns the number of calls.
+    // when intercepted, the value expires 50ms after loaded
+    Truth.assertThat(some.doWork13()).isEqualTo(1);
+    Truth.assertThat(some.doWork13()).isEqualTo(1);
+    Thread.sleep(100);
+    Truth.assertThat(some.doWork13()).isEqualTo(2);
+  }
+
+  @Test
+  public void testInterceptionPersistentMemo() throws IOException {
+    // some.doWork14() returns the parameter and the number of calls.
+    // when intercepted, results are stored by the arguments in the memo file, in a directory created only accessible by its owner
+    final Path directory = folder.getRoot().toPath().resolve("memo");
+    System.setProperty(PersistentMemo.DIRECTORY_PROPERTY, directory.toString());
+    Truth.assertThat(some.doWork14("a")).isEqualTo("a#1");
+    Truth.assertThat(some.doWork14("a")).isEqualTo("a#1");
+    Truth.assertThat(some.doWork14("b")).isEqualTo("b#2");
+    Truth.assertThat(Files.exists(directory.resolve("doWork14.memo"))).isTrue();
+    Truth.assertThat(Files.getPosixFilePermissions(directory)).isEqualTo(PosixFilePermissions.fromString("rwx------"));
+  }
+
+  @Test
+  public void testInterceptionRateLimited() {
+    // some.doWork15() returns 15.
+    // when intercepted, the bucket allows a burst of 2 calls, and fails fast when empty
+    Truth.assertThat(some.doWork15()).isEqualTo(15);
+    Truth.assertThat(some.doWork15()).isEqualTo(15);
+    try {
+      some.doWork15();
+      fail("Expected RateLimitExceededException");
+    } catch (final RateLimitExceededException expected) {
+      Truth.assertThat(expected.getMessage()).contains("doWork15");
+    }
+  }
+
+  @Test
+  public void testInterceptionRateLimitedByKey() {
+    // some.doWork16() returns the key.
+    // when intercepted, each key has its own bucket of a single permit
+    Truth.assertThat(some.doWork16("a")).isEqualTo("a");
+    Truth.assertThat(some.doWork16("b")).isEqualTo("b");
+    try {
+      some.doWork16("a");
+      fail("Expected RateLimitExceededException");
+    } catch (final RateLimitExceededException expected) {
+      Truth.assertThat(expected.getMessage()).contains("doWork16");
+    }
+  }
+
+  @Test
+  public void testInterceptionRateLimitedWait() {
+    // some.doWork17() returns the nano time.
+    // when intercepted, the second call waits for the permit refilled at 10 per second
+    final long first = some.doWork17();
+    final long second = some.doWork17();
+    Truth.assertThat(second - first).isAtLeast(TimeUnit.MILLISECONDS.toNanos(90));
+  }
+
+  @Test
+  public void testInterceptionBatched() throws Exception {
+    // some.doWork18() is loaded by doWork18All(), which returns the id and the batch size, loading -1 until released.
+    // when intercepted, a call alone is loaded at once, and calls concurrent with others in flight are collapsed in a batch, called
+    // when full as the delay is 1s
+    final SomeImpl impl = (SomeImpl) realSome;
+    final ExecutorService executor = Executors.newFixedThreadPool(5);
+    try {
+      final Future<String> alone = executor.submit(() -> some.doWork18(-1));
+      impl.loading18.await();
+
+      final List<Future<String>> results = new ArrayList<>();
+      for (long i = 0; i < 4; i++) {
+        final long id = i;
+        results.add(executor.submit(() -> some.doWork18(id)));
+      }
+      for (int i = 0; i < 4; i++) {
+        Truth.assertThat(results.get(i).get()).isEqualTo(i + "/4");
+      }
+      impl.release18.countDown();
+      Truth.assertThat(alone.get()).isEqualTo("-1/1");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testInterceptionSingleFlight() throws Exception {
+    // some.doWork19() waits for the latch and returns the number of calls.
+    // when intercepted, concurrent calls with the same arguments share the call in flight, but its result is not retained
+    final CountDownLatch loading = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<Integer>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(executor.submit(() -> some.doWork19(loading)));
+      }
+      Thread.sleep(100);
+      loading.countDown();
+      for (final Future<Integer> result : results) {
+        Truth.assertThat(result.get()).isEqualTo(1);
+      }
+    } finally {
+      executor.shutdown();
+    }
+    Truth.assertThat(some.doWork19(loading)).isEqualTo(2);
+  }
+
+  @Test(timeout = 10_000)
+  public void testInterceptionSingleFlightReentrant() throws Exception {
+    // some.doWork25() calls itself with the same argument until the depth is 0, returning the depth.
+    // when intercepted, a reentrant call proceeds instead of waiting for the call in flight of its own thread
+    Truth.assertThat(some.doWork25(new AtomicInteger(2))).isEqualTo(2);
+  }
+
+  @Test(timeout = 10_000)
+  public void testInterceptionSingleFlightInterrupted() throws Exception {
+    // some.doWork19() waits for the latch and returns the number of calls.
+    // when intercepted, a call waiting for the call in flight can be interrupted, keeping its interrupt status
+    final SomeImpl impl = (SomeImpl) realSome;
+    final CountDownLatch loading = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Future<Integer> result = executor.submit(() -> some.doWork19(loading));
+      while (impl.calls19.get() == 0) {
+        Thread.yield();
+      }
+      Thread.currentThread().interrupt();
+      try {
+        some.doWork19(loading);
+        fail("Call should be interrupted!");
+      } catch (final RuntimeException expected) {
+        Truth.assertThat(expected.getCause()).isInstanceOf(InterruptedException.class);
+        Truth.assertThat(Thread.interrupted()).isTrue();
+      }
+      loading.countDown();
+      Truth.assertThat(result.get()).isEqualTo(1);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testInterceptionSingleFlightStage() throws Exception {
+    // some.doWork26() returns the stage passed.
+    // when intercepted, each caller gets its own copy of the stage in flight, so cancelling one doesn't affect the others
+    final CompletableFuture<String> stage = new CompletableFuture<>();
+    final CompletableFuture<String> first = some.doWork26(stage).toCompletableFuture();
+    final CompletableFuture<String> second = some.doWork26(stage).toCompletableFuture();
+    Truth.assertThat(second).isNotSameAs(first);
+    first.cancel(true);
+    stage.complete("done");
+    Truth.assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+  }
+
+  @Test
+  public void testInterceptionCircuitBreaker() throws Exception {
+    // some.doWork20() returns the number of calls, or throws if asked to fail.
+    // when intercepted, the circuit opens after half of 4 calls failed, rejecting calls without proceeding until a probe succeeds
+    Truth.assertThat(some.doWork20(false)).isEqualTo(1);
+    Truth.assertThat(some.doWork20(false)).isEqualTo(2);
+    for (int i = 0; i < 2; i++) {
+      try {
+        some.doWork20(true);
+        fail("Call should fail!");
+      } catch (final IllegalStateException expected) {
+        // Failure recorded
+      }
+    }
+    try {
+      some.doWork20(false);
+      fail("Circuit should be open!");
+    } catch (final CircuitBreakerOpenException expected) {
+      // Rejected without proceeding
+    }
+    Thread.sleep(300);
+    // Half-open, the probe succeeds and closes the circuit
+    Truth.assertThat(some.doWork20(false)).isEqualTo(5);
+    Truth.assertThat(some.doWork20(false)).isEqualTo(6);
+  }
+
+  @Test
+  public void testInterceptionRetry() throws Exception {
+    // some.doWork21() throws IOException while there are failures left, then returns the failures left.
+    // when intercepted, it is called up to 3 times, and the IOException of the last attempt is thrown
+    Truth.assertThat(some.doWork21(new AtomicInteger(2))).isEqualTo(-1);
+    final AtomicInteger failures = new AtomicInteger(5);
+    try {
+      some.doWork21(failures);
+      fail("Call should fail!");
+    } catch (final IOException expected) {
+      Truth.assertThat(failures.get()).isEqualTo(2);
+    }
+    // some.doWork22() returns a failed stage while there are failures left.
+    // when intercepted, the stage is retried up to 3 times, in the context of the call
+    final CompletionStage<Integer> stage =
+        InvocationContext.current().with(SomeImpl.CALLER, "test").call(() -> some.doWork22(new AtomicInteger(2)));
+    Truth.assertThat(stage.toCompletableFuture().get(5, TimeUnit.SECONDS)).isEqualTo(-1);
+    Truth.assertThat(((SomeImpl) realSome).callers22).containsExactly("test", "test", "test");
+  }
+
+  @Test
+  public void testInterceptionTimeout() throws Exception {
+    // some.doWork23() sleeps, counting down the latch if it was interrupted, and returns the name of its thread.
+    // when intercepted, it runs in another thread and is abandoned and interrupted after 200ms
+    final CountDownLatch interrupted = new CountDownLatch(1);
+    Truth.assertThat(some.doWork23(0, interrupted)).isNotEqualTo(Thread.currentThread().getName());
+    final long start = System.nanoTime();
+    try {
+      some.doWork23(10_000, interrupted);
+      fail("Call should time out!");
+    } catch (final TimeoutExceededException expected) {
+      Truth.assertThat(System.nanoTime() - start).isAtLeast(TimeUnit.MILLISECONDS.toNanos(200));
+    }
+    Truth.assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    // Checked exceptions keep their type
+    try {
+      some.doWork23(-1, interrupted);
+      fail("Call should fail!");
+    } catch (final IOException expected) {
+      // Thrown by the method
+    }
+    // An interrupted caller abandons the call, throwing InterruptedException, wrapped as doWork23() doesn't declare it, and keeps its
+    // interrupt status
+    Thread.currentThread().interrupt();
+    try {
+      some.doWork23(10_000, new CountDownLatch(1));
+      fail("Call should be interrupted!");
+    } catch (final RuntimeException expected) {
+      Truth.assertThat(expected.getCause()).isInstanceOf(InterruptedException.class);
+      Truth.assertThat(Thread.interrupted()).isTrue();
+    }
+    // Calls run in the executor bound to the context
+    final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "bound-executor"));
+    try {
+      Truth.assertThat(InvocationContext.current().with(TimeoutInterceptor.EXECUTOR, executor)
+          .call(() -> some.doWork23(0, interrupted))).isEqualTo("bound-executor");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testInterceptionTimeoutStage() throws Exception {
+    // some.doWork24() returns the stage passed.
+    // when intercepted, the stage returned fails if the stage passed doesn't complete in 100ms, cancelling it
+    final CompletableFuture<String> completed = CompletableFuture.completedFuture("done");
+    Truth.assertThat(some.doWork24(completed).toCompletableFuture().get(5, TimeUnit.SECONDS)).isEqualTo("done");
+    final CompletableFuture<String> stuck = new CompletableFuture<>();
+    final CountDownLatch cancelled = new CountDownLatch(1);
+    stuck.whenComplete((value, e) -> cancelled.countDown());
+    try {
+      some.doWork24(stuck).toCompletableFuture().get(5, TimeUnit.SECONDS);
+      fail("Stage should time out!");
+    } catch (final ExecutionException expected) {
+      Truth.assertThat(expected.getCause()).isInstanceOf(TimeoutExceededException.class);
+    }
+    Truth.assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+    Truth.assertThat(stuck.isCancelled()).isTrue();
+  }
+
+  @Test
+  public void testInterceptionInline() {
+    // some.doWork27() returns the value passed, or null if it is empty.
+    // when intercepted, inlined templates reject null values and results, counting calls and failures. The null result is rejected by
+    // the template nested in the one counting, which counts it as a failure
+    final long calls = InlineHandler.CALLS.get();
+    final long failures = InlineHandler.FAILURES.get();
+    Truth.assertThat(some.doWork27("value")).isEqualTo("value");
+    Truth.assertThat(InlineHandler.CALLS.get()).isEqualTo(calls + 1);
+    Truth.assertThat(InlineHandler.FAILURES.get()).isEqualTo(failures);
+    try {
+      some.doWork27("");
+      fail("Null result should be rejected!");
+    } catch (final NullPointerException expected) {
+      Truth.assertThat(expected.getMessage()).isEqualTo("result");
+    }
+    Truth.assertThat(InlineHandler.CALLS.get()).isEqualTo(calls + 1);
+    Truth.assertThat(InlineHandler.FAILURES.get()).isEqualTo(failures + 1);
+  }
+
 }
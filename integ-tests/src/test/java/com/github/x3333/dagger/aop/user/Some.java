@@ -13,6 +13,12 @@
 
 package com.github.x3333.dagger.aop.user;
 
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
  */
@@ -24,4 +30,52 @@ public interface Some {
 
   int doWork3(double param);
 
+  long doWork4(int param1, long param2);
+
+  int doWork5();
+
+  long doWork6(long depth);
+
+  int doWork7();
+
+  CompletionStage<String> doWork8(CompletableFuture<String> result);
+
+  String doWork9(int depth);
+
+  long doWork10(long param);
+
+  String doWork11(long id, String name);
+
+  int doWork12(CountDownLatch loading);
+
+  int doWork13();
+
+  String doWork14(String param);
+
+  int doWork15();
+
+  String doWork16(String key);
+
+  long doWork17();
+
+  String doWork18(long id);
+
+  int doWork19(CountDownLatch loading);
+
+  int doWork20(boolean fail);
+
+  int doWork21(AtomicInteger failures) throws IOException;
+
+  CompletionStage<Integer> doWork22(AtomicInteger failures);
+
+  String doWork23(long sleepMillis, CountDownLatch interrupted) throws IOException;
+
+  CompletionStage<String> doWork24(CompletableFuture<String> stage);
+
+  int doWork25(AtomicInteger depth);
+
+  CompletionStage<String> doWork26(CompletableFuture<String> stage);
+
+  String doWork27(String value);
+
 }
@@ -13,14 +13,58 @@
 
 package com.github.x3333.dagger.aop.user.impl;
 
+import com.github.x3333.dagger.aop.InvocationContext;
+import com.github.x3333.dagger.aop.interceptors.batched.Batched;
+import com.github.x3333.dagger.aop.interceptors.cached.Cached;
+import com.github.x3333.dagger.aop.interceptors.circuitbreaker.CircuitBreaker;
+import com.github.x3333.dagger.aop.interceptors.memo.PersistentMemo;
+import com.github.x3333.dagger.aop.interceptors.ratelimited.RateLimited;
+import com.github.x3333.dagger.aop.interceptors.retry.Retry;
+import com.github.x3333.dagger.aop.interceptors.singleflight.SingleFlight;
+import com.github.x3333.dagger.aop.interceptors.timeout.Timeout;
+import com.github.x3333.dagger.aop.interceptors.timed.Timed;
+import com.github.x3333.dagger.aop.test.Inline;
 import com.github.x3333.dagger.aop.test.Interceptor;
+import com.github.x3333.dagger.aop.test.NonNullResult;
+import com.github.x3333.dagger.aop.test.TestInterceptor;
+import com.github.x3333.dagger.aop.test.Twice;
 import com.github.x3333.dagger.aop.user.Some;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
  */
 public abstract class SomeImpl implements Some {
 
+  public static final InvocationContext.Key<String> CALLER = InvocationContext.key("caller");
+
+  private int calls;
+  private int calls7;
+  private int calls8;
+  private int calls11;
+  private final AtomicInteger calls12 = new AtomicInteger();
+  private int calls13;
+  private int calls14;
+  // Number of calls of doWork19() proceeded
+  public final AtomicInteger calls19 = new AtomicInteger();
+  private final AtomicInteger calls20 = new AtomicInteger();
+  // Value of CALLER seen by each attempt of doWork22()
+  public final Queue<String> callers22 = new ConcurrentLinkedQueue<>();
+  // Loading the id -1, doWork18All() counts down loading18 and waits for release18
+  public final CountDownLatch loading18 = new CountDownLatch(1);
+  public final CountDownLatch release18 = new CountDownLatch(1);
+
   @Override
   @Interceptor
   public String doWork1() {
@@ -39,4 +83,208 @@ public abstract class SomeImpl implements Some {
     return Double.valueOf(param).intValue();
   }
 
+  @Override
+  @Interceptor
+  public long doWork4(final int param1, final long param2) {
+    return param1 + param2;
+  }
+
+  @Override
+  @Interceptor
+  @Twice
+  public int doWork5() {
+    return ++calls;
+  }
+
+  @Override
+  @Interceptor
+  public long doWork6(final long depth) {
+    return depth == 0 ? 0 : doWork6(depth - 1);
+  }
+
+  @Override
+  @Twice(times = 3)
+  public int doWork7() {
+    return ++calls7;
+  }
+
+  @Override
+  @Interceptor
+  public CompletionStage<String> doWork8(final CompletableFuture<String> result) {
+    // The first call fails when the result completes, the next ones return it.
+    if (++calls8 == 1) {
+      return result.thenApply(value -> {
+        throw new IllegalStateException(value);
+      });
+    }
+    return result;
+  }
+
+  @Override
+  @Interceptor
+  public String doWork9(final int depth) {
+    return depth == 0 ? "depth" + InvocationContext.current().get(TestInterceptor.DEPTH) : doWork9(depth - 1);
+  }
+
+  @Override
+  @Timed
+  public long doWork10(final long param) {
+    return param;
+  }
+
+  @Override
+  @Cached(maximumWeight = 10)
+  public String doWork11(final long id, final String name) {
+    return name + id + "#" + ++calls11;
+  }
+
+  @Override
+  @Cached
+  public int doWork12(final CountDownLatch loading) {
+    final int calls = calls12.incrementAndGet();
+    try {
+      loading.await();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return calls;
+  }
+
+  @Override
+  @Cached(expireAfterWrite = 50, expireUnit = TimeUnit.MILLISECONDS)
+  public int doWork13() {
+    return ++calls13;
+  }
+
+  @Override
+  @PersistentMemo(value = "doWork14", maximumSize = 64 * 1024)
+  public String doWork14(final String param) {
+    return param + "#" + ++calls14;
+  }
+
+  @Override
+  @RateLimited(permitsPerSecond = 1, burst = 2)
+  public int doWork15() {
+    return 15;
+  }
+
+  @Override
+  @RateLimited(permitsPerSecond = 1, key = 0)
+  public String doWork16(final String key) {
+    return key;
+  }
+
+  @Override
+  @RateLimited(permitsPerSecond = 10, timeout = 1, timeoutUnit = TimeUnit.SECONDS)
+  public long doWork17() {
+    return System.nanoTime();
+  }
+
+  @Override
+  @Batched(bulkMethod = "doWork18All", maxBatch = 4, maxDelayMicros = 1_000_000)
+  public String doWork18(final long id) {
+    throw new UnsupportedOperationException("Loaded by doWork18All");
+  }
+
+  public Map<Long, String> doWork18All(final Collection<Long> ids) {
+    if (ids.contains(-1L)) {
+      loading18.countDown();
+      try {
+        release18.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    // Results have the id and the batch size
+    final Map<Long, String> results = new HashMap<>();
+    ids.forEach(id -> results.put(id, id + "/" + ids.size()));
+    return results;
+  }
+
+  @Override
+  @SingleFlight
+  public int doWork19(final CountDownLatch loading) {
+    final int calls = calls19.incrementAndGet();
+    try {
+      loading.await();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return calls;
+  }
+
+  @Override
+  @CircuitBreaker(slidingWindowSize = 4, minimumNumberOfCalls = 4, waitDurationOpen = 200,
+      waitDurationUnit = TimeUnit.MILLISECONDS, permittedCallsInHalfOpen = 1,
+      ignoreExceptions = IllegalArgumentException.class)
+  public int doWork20(final boolean fail) {
+    final int calls = calls20.incrementAndGet();
+    if (fail) {
+      throw new IllegalStateException("Failed call " + calls);
+    }
+    return calls;
+  }
+
+  @Override
+  @Retry(maxAttempts = 3, backoff = 1, maxBackoff = 10, retryOn = IOException.class)
+  public int doWork21(final AtomicInteger failures) throws IOException {
+    if (failures.getAndDecrement() > 0) {
+      throw new IOException("Transient failure");
+    }
+    return failures.get();
+  }
+
+  @Override
+  @Retry(maxAttempts = 3, backoff = 1, maxBackoff = 10)
+  public CompletionStage<Integer> doWork22(final AtomicInteger failures) {
+    callers22.add(String.valueOf(InvocationContext.current().get(CALLER)));
+    final CompletableFuture<Integer> result = new CompletableFuture<>();
+    if (failures.getAndDecrement() > 0) {
+      result.completeExceptionally(new IllegalStateException("Transient failure"));
+    } else {
+      result.complete(failures.get());
+    }
+    return result;
+  }
+
+  @Override
+  @Timeout(200)
+  public String doWork23(final long sleepMillis, final CountDownLatch interrupted) throws IOException {
+    if (sleepMillis < 0) {
+      throw new IOException("Negative sleep");
+    }
+    try {
+      Thread.sleep(sleepMillis);
+    } catch (final InterruptedException e) {
+      interrupted.countDown();
+    }
+    return Thread.currentThread().getName();
+  }
+
+  @Override
+  @Timeout(100)
+  public CompletionStage<String> doWork24(final CompletableFuture<String> stage) {
+    return stage;
+  }
+
+  @Override
+  @SingleFlight
+  public int doWork25(final AtomicInteger depth) {
+    // Calls itself, intercepted, with the same argument
+    return depth.getAndDecrement() > 0 ? doWork25(depth) + 1 : 0;
+  }
+
+  @Override
+  @SingleFlight
+  public CompletionStage<String> doWork26(final CompletableFuture<String> stage) {
+    return stage;
+  }
+
+  @Override
+  @Inline
+  @NonNullResult
+  public String doWork27(final String value) {
+    return value.isEmpty() ? null : value;
+  }
+
 }
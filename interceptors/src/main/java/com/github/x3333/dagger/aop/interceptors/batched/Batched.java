@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.batched;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Collapse concurrent calls of a single key method into calls of its bulk method.
+ * 
+ * <p>
+ * The first call starts a batch and waits up to {@link #maxDelayMicros()}, or until the batch has {@link #maxBatch()} calls, then calls
+ * the bulk method of the same instance with the distinct keys of the batch, and hands each result back to its caller. Keys missing in
+ * the bulk result return <code>null</code>, and exceptions of the bulk method are thrown by all calls of the batch.
+ * 
+ * <p>
+ * The method must have a single parameter, the key, and the bulk method must be declared in the same class as
+ * <code>Map&lt;Key, Result&gt; bulkMethod(Collection&lt;Key&gt; keys)</code>, the parameter can also be a <code>List</code> or
+ * <code>Iterable</code>, primitive keys and results are boxed.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Batched {
+
+  /**
+   * @return Name of the bulk method.
+   */
+  String bulkMethod();
+
+  /**
+   * @return Maximum calls in a batch.
+   */
+  int maxBatch() default 100;
+
+  /**
+   * @return Maximum time the first call of a batch waits for others, in microseconds.
+   */
+  long maxDelayMicros() default 1_000;
+
+}
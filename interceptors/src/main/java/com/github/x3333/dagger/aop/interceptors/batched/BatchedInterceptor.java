@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.batched;
+
+import com.github.x3333.dagger.aop.MethodInterceptor;
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+/**
+ * Load the results of {@link Batched} methods in batches.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class BatchedInterceptor implements MethodInterceptor {
+
+  @Inject
+  public BatchedInterceptor() {}
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T invoke(final MethodInvocation invocation) throws Throwable {
+    return (T) invocation.methodState(BatchedInterceptor::batcher).load(invocation.getInstance(), invocation.getArgument(0));
+  }
+
+  private static Batcher batcher(final MethodInvocation invocation) {
+    final Batched batched = invocation.annotation(Batched.class);
+    return new Batcher(BulkMethods.forMethod(invocation.getMethod(), batched.bulkMethod()), batched.maxBatch(),
+        TimeUnit.MICROSECONDS.toNanos(batched.maxDelayMicros()));
+  }
+
+}
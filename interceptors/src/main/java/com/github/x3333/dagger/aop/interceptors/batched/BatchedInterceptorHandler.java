@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.batched;
+
+import com.github.x3333.dagger.aop.InterceptorHandler;
+import com.github.x3333.dagger.aop.MethodInterceptor;
+
+import java.lang.annotation.Annotation;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import com.google.auto.service.AutoService;
+import com.squareup.javapoet.ClassName;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@AutoService(InterceptorHandler.class)
+public class BatchedInterceptorHandler implements InterceptorHandler {
+
+  @Override
+  public Class<? extends Annotation> annotation() {
+    return Batched.class;
+  }
+
+  @Override
+  public Class<? extends MethodInterceptor> methodInterceptorClass() {
+    return BatchedInterceptor.class;
+  }
+
+  @Override
+  public boolean invocationEscapes() {
+    return false;
+  }
+
+  @Override
+  public String validateMethod(final ProcessingEnvironment processingEnv, final ExecutableElement methodElement) {
+    final Batched batched = methodElement.getAnnotation(Batched.class);
+    if (methodElement.getParameters().size() != 1) {
+      return "Batched methods must have a single parameter, the key!";
+    }
+    final TypeMirror returnType = methodElement.getReturnType();
+    if (returnType.getKind() == TypeKind.VOID || returnType.getKind().isPrimitive()) {
+      return "Batched methods must return a reference type!";
+    }
+    if (batched.maxBatch() < 1) {
+      return "Batched maxBatch must be at least 1!";
+    }
+    if (batched.maxDelayMicros() < 0) {
+      return "Batched maxDelayMicros must not be negative!";
+    }
+    if (bulkMethod(processingEnv, methodElement) == null) {
+      final TypeMirror key = keyType(processingEnv, methodElement);
+      return String.format("Batched bulkMethod must be declared in the same class as 'Map<%s, %s> %s(Collection<%s>)'!", key,
+          returnType, batched.bulkMethod(), key);
+    }
+    return null;
+  }
+
+  /**
+   * Generate the {@link BulkMethod} of the batched methods of each class.
+   */
+  @Override
+  public void postProcess(final ProcessingEnvironment processingEnv, final Set<TypeElement> processedClasses) {
+    final BulkMethodsGenerator generator = new BulkMethodsGenerator(processingEnv);
+    for (final TypeElement classElement : processedClasses) {
+      generator.generate(classElement);
+    }
+  }
+
+  /**
+   * The generated {@link BulkMethod} classes, found by {@link BulkMethods}.
+   */
+  @Override
+  public Set<String> reflectiveClasses(final ProcessingEnvironment processingEnv, final Set<TypeElement> processedClasses) {
+    final Set<String> classes = new LinkedHashSet<>();
+    for (final TypeElement classElement : processedClasses) {
+      final ClassName batchesClassName = BulkMethodsGenerator.batchesClassName(classElement);
+      classes.add(batchesClassName.packageName().isEmpty() ? batchesClassName.simpleName()
+          : batchesClassName.packageName() + "." + batchesClassName.simpleName());
+    }
+    return classes;
+  }
+
+  /**
+   * Find the bulk method of a batched method, declared in the same class, not private or static, accepting a <code>List</code> of
+   * keys and returning a <code>Map</code> of results by key. If it is overloaded, the overload with the most specific parameter type is
+   * the one called with a <code>List</code>.
+   * 
+   * @param processingEnv ProcessingEnvironment associated to the Processor.
+   * @param methodElement Batched method.
+   * @return The bulk method, <code>null</code> if not found.
+   */
+  static ExecutableElement bulkMethod(final ProcessingEnvironment processingEnv, final ExecutableElement methodElement) {
+    final Types types = processingEnv.getTypeUtils();
+    final Elements elements = processingEnv.getElementUtils();
+    final TypeMirror key = keyType(processingEnv, methodElement);
+    final DeclaredType keys = types.getDeclaredType(elements.getTypeElement(List.class.getName()), key);
+    final DeclaredType results = types.getDeclaredType(elements.getTypeElement(Map.class.getName()), //
+        types.getWildcardType(key, null), types.getWildcardType(methodElement.getReturnType(), null));
+    final String bulkMethodName = methodElement.getAnnotation(Batched.class).bulkMethod();
+
+    ExecutableElement found = null;
+    final TypeElement classElement = (TypeElement) methodElement.getEnclosingElement();
+    for (final ExecutableElement bulkElement : ElementFilter.methodsIn(classElement.getEnclosedElements())) {
+      if (!bulkElement.getSimpleName().contentEquals(bulkMethodName) || bulkElement.getModifiers().contains(Modifier.PRIVATE)
+          || bulkElement.getModifiers().contains(Modifier.STATIC) || bulkElement.getParameters().size() != 1) {
+        continue;
+      }
+      final TypeMirror keysType = bulkElement.getParameters().get(0).asType();
+      if (types.isAssignable(keys, keysType) && types.isAssignable(bulkElement.getReturnType(), results)
+          && (found == null || types.isSubtype(types.erasure(keysType), types.erasure(found.getParameters().get(0).asType())))) {
+        found = bulkElement;
+      }
+    }
+    return found;
+  }
+
+  //
+
+  private static TypeMirror keyType(final ProcessingEnvironment processingEnv, final ExecutableElement methodElement) {
+    final TypeMirror type = methodElement.getParameters().get(0).asType();
+    if (type.getKind().isPrimitive()) {
+      return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).asType();
+    }
+    return type;
+  }
+
+}
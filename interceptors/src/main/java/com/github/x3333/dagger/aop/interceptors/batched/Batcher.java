@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.batched;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Collect concurrent calls of a {@link Batched} method in batches.
+ * 
+ * <p>
+ * Calls claim a slot in the current batch with an atomic increment, so collecting is lock-free. The call creating a batch is its
+ * leader, in the first slot: it waits for the batch to fill or its delay to pass, closes it, so later calls start a new one, and calls
+ * the bulk method on behalf of all calls, grouped by instance. The other calls wait for their result.
+ * 
+ * <p>
+ * The leader only waits while other calls are in flight, which may call again, so a call alone, like in a single thread, is loaded at
+ * once. All waits park the thread.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class Batcher {
+
+  // Size of closed batches, so late calls find them full.
+  private static final int CLOSED = Integer.MAX_VALUE / 2;
+
+  private final BulkMethod bulkMethod;
+  private final int maxBatch;
+  private final long maxDelayNanos;
+  private final AtomicReference<Batch> current = new AtomicReference<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  Batcher(final BulkMethod bulkMethod, final int maxBatch, final long maxDelayNanos) {
+    this.bulkMethod = bulkMethod;
+    this.maxBatch = maxBatch;
+    this.maxDelayNanos = maxDelayNanos;
+  }
+
+  /**
+   * Result of the key, loaded in a batch with concurrent calls.
+   */
+  Object load(final Object instance, final Object key) throws Throwable {
+    inFlight.incrementAndGet();
+    try {
+      return collect(new Call(instance, key));
+    } finally {
+      if (inFlight.decrementAndGet() == 1) {
+        // The call left may be a leader waiting for others
+        final Batch batch = current.get();
+        if (batch != null) {
+          LockSupport.unpark(batch.leader);
+        }
+      }
+    }
+  }
+
+  //
+
+  private Object collect(final Call call) throws Throwable {
+    for (;;) {
+      final Batch batch = current.get();
+      if (batch == null) {
+        final Batch created = new Batch(maxBatch, call);
+        if (current.compareAndSet(null, created)) {
+          execute(created);
+          return await(call);
+        }
+        continue;
+      }
+      final int index = batch.size.getAndIncrement();
+      if (index >= maxBatch) {
+        current.compareAndSet(batch, null);
+        continue;
+      }
+      batch.calls.set(index, call);
+      if (index == maxBatch - 1 || batch.size.get() >= CLOSED) {
+        // Full, or closed while setting the slot
+        LockSupport.unpark(batch.leader);
+      }
+      return await(call);
+    }
+  }
+
+  private void execute(final Batch batch) {
+    final long deadline = System.nanoTime() + maxDelayNanos;
+    long remaining = maxDelayNanos;
+    while (batch.size.get() < maxBatch && remaining > 0 && inFlight.get() > 1) {
+      LockSupport.parkNanos(this, remaining);
+      remaining = deadline - System.nanoTime();
+    }
+    final int size = Math.min(batch.size.getAndSet(CLOSED), maxBatch);
+    current.compareAndSet(batch, null);
+
+    // Group by instance, usually a single one
+    final Map<Object, List<Call>> groups = new IdentityHashMap<>();
+    for (int i = 0; i < size; i++) {
+      Call call;
+      while ((call = batch.calls.get(i)) == null) {
+        // Slot claimed, but not set yet, its call unparks the leader once set
+        LockSupport.park(this);
+      }
+      groups.computeIfAbsent(call.instance, k -> new ArrayList<>()).add(call);
+    }
+    for (final Entry<Object, List<Call>> group : groups.entrySet()) {
+      final Set<Object> keys = new LinkedHashSet<>();
+      group.getValue().forEach(c -> keys.add(c.key));
+      try {
+        final Map<?, ?> results = bulkMethod.call(group.getKey(), new ArrayList<>(keys));
+        group.getValue().forEach(c -> c.result.complete(results == null ? null : results.get(c.key)));
+      } catch (final Throwable e) {
+        group.getValue().forEach(c -> c.result.completeExceptionally(e));
+      }
+    }
+  }
+
+  private static Object await(final Call call) throws Throwable {
+    try {
+      return call.result.join();
+    } catch (final CompletionException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static final class Call {
+
+    final Object instance;
+    final Object key;
+    final CompletableFuture<Object> result = new CompletableFuture<>();
+
+    Call(final Object instance, final Object key) {
+      this.instance = instance;
+      this.key = key;
+    }
+
+  }
+
+  private static final class Batch {
+
+    final Thread leader = Thread.currentThread();
+    final AtomicInteger size = new AtomicInteger(1);
+    final AtomicReferenceArray<Call> calls;
+
+    Batch(final int maxBatch, final Call leaderCall) {
+      this.calls = new AtomicReferenceArray<>(maxBatch);
+      this.calls.set(0, leaderCall);
+    }
+
+  }
+
+}
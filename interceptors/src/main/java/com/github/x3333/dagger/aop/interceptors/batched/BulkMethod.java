@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.batched;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Call of the bulk method of a {@link Batched} method.
+ * 
+ * <p>
+ * Implemented by the classes generated by {@link BatchedInterceptorHandler}.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@FunctionalInterface
+public interface BulkMethod {
+
+  /**
+   * @param instance Instance to call the bulk method on.
+   * @param keys Distinct keys of the batch.
+   * @return Results by key.
+   * @throws Throwable Exception thrown by the bulk method.
+   */
+  Map<?, ?> call(Object instance, List<Object> keys) throws Throwable;
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.batched;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Find the {@link BulkMethod} generated for a {@link Batched} method.
+ * 
+ * <p>
+ * For each class with batched methods the Processor generates a class named {@value #CLASS_PREFIX} followed by the class simple names,
+ * with a static <code>bulkMethod(String, Class[])</code> method returning the bulk method of a method, called without reflection. If
+ * the class is not found, like when the Processor has not run or native-image was not configured with the <code>aop.native.image</code>
+ * option, a warning is logged and the bulk method is called by reflection.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class BulkMethods {
+
+  static final String CLASS_PREFIX = "Batches_";
+  static final String FACTORY_METHOD = "bulkMethod";
+
+  private static final Logger LOGGER = Logger.getLogger(BulkMethods.class.getName());
+
+  private BulkMethods() {}
+
+  static BulkMethod forMethod(final Method method, final String bulkMethodName) {
+    final Class<?> declaringClass = method.getDeclaringClass();
+    final String name = declaringClass.getName();
+    final int packageEnd = name.lastIndexOf('.') + 1;
+    final String batchesName = name.substring(0, packageEnd) + CLASS_PREFIX + name.substring(packageEnd).replace('$', '_');
+    try {
+      final Class<?> batchesClass = Class.forName(batchesName, true, declaringClass.getClassLoader());
+      final Method factory = batchesClass.getMethod(FACTORY_METHOD, String.class, Class[].class);
+      final BulkMethod bulkMethod = (BulkMethod) factory.invoke(null, method.getName(), method.getParameterTypes());
+      if (bulkMethod != null) {
+        return bulkMethod;
+      }
+    } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+      LOGGER.log(Level.WARNING, "Bulk method of " + method + " not generated, calling " + bulkMethodName + " by reflection", e);
+    } catch (final InvocationTargetException e) {
+      throw new IllegalStateException("Could not create the bulk method of " + method, e.getCause());
+    }
+    return reflective(declaringClass, bulkMethodName);
+  }
+
+  //
+
+  /**
+   * Find the bulk method as {@link BatchedInterceptorHandler#bulkMethod(javax.annotation.processing.ProcessingEnvironment,
+   * javax.lang.model.element.ExecutableElement) validated}, the overload with the most specific parameter type accepting a
+   * <code>List</code> and returning a <code>Map</code>.
+   */
+  private static BulkMethod reflective(final Class<?> declaringClass, final String bulkMethodName) {
+    Method found = null;
+    for (final Method candidate : declaringClass.getDeclaredMethods()) {
+      if (!candidate.getName().equals(bulkMethodName) || Modifier.isPrivate(candidate.getModifiers())
+          || Modifier.isStatic(candidate.getModifiers()) || candidate.getParameterCount() != 1 || candidate.isBridge()) {
+        continue;
+      }
+      final Class<?> keysType = candidate.getParameterTypes()[0];
+      if (keysType.isAssignableFrom(List.class) && Map.class.isAssignableFrom(candidate.getReturnType())
+          && (found == null || found.getParameterTypes()[0].isAssignableFrom(keysType))) {
+        found = candidate;
+      }
+    }
+    if (found == null) {
+      throw new IllegalStateException("Bulk method " + bulkMethodName + " not found in " + declaringClass.getName());
+    }
+    final Method bulkMethod = found;
+    bulkMethod.setAccessible(true);
+    return (instance, keys) -> {
+      try {
+        return (Map<?, ?>) bulkMethod.invoke(instance, keys);
+      } catch (final InvocationTargetException e) {
+        throw e.getCause();
+      }
+    };
+  }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.batched;
+
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+import com.github.x3333.dagger.aop.Sources;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+/**
+ * Generate the {@link BulkMethod}s of {@link Batched} methods, calling the bulk method of the class directly.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class BulkMethodsGenerator {
+
+  private final ProcessingEnvironment processingEnv;
+
+  BulkMethodsGenerator(final ProcessingEnvironment processingEnv) {
+    this.processingEnv = processingEnv;
+  }
+
+  void generate(final TypeElement classElement) {
+    final ClassName className = ClassName.get(classElement);
+    final MethodSpec.Builder factoryBuilder = MethodSpec.methodBuilder(BulkMethods.FACTORY_METHOD)//
+        .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)//
+            .addMember("value", "{$S, $S}", "unchecked", "rawtypes").build())//
+        .addModifiers(PUBLIC, STATIC)//
+        .returns(BulkMethod.class)//
+        .addParameter(String.class, "name", FINAL)//
+        .addParameter(ArrayTypeName.of(ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class))),
+            "parameterTypes", FINAL);
+
+    final List<ExecutableElement> methods = ElementFilter.methodsIn(classElement.getEnclosedElements());
+    for (final ExecutableElement methodElement : methods) {
+      final Batched batched = methodElement.getAnnotation(Batched.class);
+      if (batched == null) {
+        continue;
+      }
+      final TypeName parameterType =
+          TypeName.get(processingEnv.getTypeUtils().erasure(methodElement.getParameters().get(0).asType()));
+      final ExecutableElement bulkElement = BatchedInterceptorHandler.bulkMethod(processingEnv, methodElement);
+      if (bulkElement == null) {
+        continue;
+      }
+      final TypeName keysType = TypeName.get(processingEnv.getTypeUtils().erasure(bulkElement.getParameters().get(0).asType()));
+      factoryBuilder.beginControlFlow("if (name.equals($S) && $T.equals(parameterTypes, new $T<?>[] {$T.class}))", //
+          methodElement.getSimpleName(), Arrays.class, Class.class, parameterType)//
+          .addStatement("return (instance, keys) -> (($T) instance).$N(($T) keys)", //
+              processingEnv.getTypeUtils().erasure(classElement.asType()), bulkElement.getSimpleName(), keysType)//
+          .endControlFlow();
+    }
+    factoryBuilder.addStatement("return null");
+
+    Sources.writeClass(processingEnv, className.packageName(),
+        TypeSpec.classBuilder(batchesClassName(classElement).simpleName())//
+            .addOriginatingElement(classElement)//
+            .addAnnotation(Sources.generatedAnnotation(BatchedInterceptorHandler.class))//
+            .addModifiers(PUBLIC, FINAL)//
+            .addMethod(MethodSpec.constructorBuilder().addModifiers(PRIVATE).build())//
+            .addMethod(factoryBuilder.build())//
+            .build());
+  }
+
+  /**
+   * @return Name of the batches class generated for the <code>classElement</code>.
+   */
+  static ClassName batchesClassName(final TypeElement classElement) {
+    final ClassName className = ClassName.get(classElement);
+    return ClassName.get(className.packageName(), BulkMethods.CLASS_PREFIX + String.join("_", className.simpleNames()));
+  }
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.cached;
+
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+/**
+ * Create the cache key of a {@link Cached} method call from its arguments.
+ * 
+ * <p>
+ * Implemented by the classes generated by {@link CachedInterceptorHandler}.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@FunctionalInterface
+public interface CacheKeyFactory {
+
+  /**
+   * @param invocation Invocation of the method.
+   * @return Key of the invocation arguments.
+   */
+  Object key(MethodInvocation invocation);
+
+}
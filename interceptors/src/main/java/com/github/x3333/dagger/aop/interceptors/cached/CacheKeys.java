@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.cached;
+
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Find the {@link CacheKeyFactory} generated for a {@link Cached} method.
+ * 
+ * <p>
+ * For each class with cached methods the Processor generates a class named {@value #CLASS_PREFIX} followed by the class simple names,
+ * with a static <code>factory(String, Class[])</code> method returning the factory of a method. Keys include the instance, so calls of
+ * different instances never share a value. If the class is not found, like when the Processor has not run or native-image was not
+ * configured with the <code>aop.native.image</code> option, a warning is logged and a list of the instance and the arguments is used as
+ * key.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class CacheKeys {
+
+  static final String CLASS_PREFIX = "CacheKeys_";
+  static final String FACTORY_METHOD = "factory";
+
+  private static final Logger LOGGER = Logger.getLogger(CacheKeys.class.getName());
+  private static final CacheKeyFactory ARGUMENTS = CacheKeys::arguments;
+
+  private CacheKeys() {}
+
+  static CacheKeyFactory forMethod(final Method method) {
+    final Class<?> declaringClass = method.getDeclaringClass();
+    final String name = declaringClass.getName();
+    final int packageEnd = name.lastIndexOf('.') + 1;
+    final String keysName = name.substring(0, packageEnd) + CLASS_PREFIX + name.substring(packageEnd).replace('$', '_');
+    try {
+      final Class<?> keysClass = Class.forName(keysName, true, declaringClass.getClassLoader());
+      final Method factory = keysClass.getMethod(FACTORY_METHOD, String.class, Class[].class);
+      final CacheKeyFactory keys = (CacheKeyFactory) factory.invoke(null, method.getName(), method.getParameterTypes());
+      return keys == null ? ARGUMENTS : keys;
+    } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+      LOGGER.log(Level.WARNING, "Cache keys of " + method + " not generated, keying by the boxed arguments", e);
+      return ARGUMENTS;
+    } catch (final InvocationTargetException e) {
+      throw new IllegalStateException("Could not create the cache keys of " + method, e.getCause());
+    }
+  }
+
+  //
+
+  private static Object arguments(final MethodInvocation invocation) {
+    final Object[] arguments = invocation.getArguments();
+    final Object[] key = new Object[arguments.length + 1];
+    key[0] = invocation.getInstance();
+    System.arraycopy(arguments, 0, key, 1, arguments.length);
+    return Arrays.asList(key);
+  }
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.cached;
+
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+import com.github.x3333.dagger.aop.MethodInvocation;
+import com.github.x3333.dagger.aop.Sources;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+/**
+ * Generate the key classes of {@link Cached} methods.
+ * 
+ * <p>
+ * Each method has a key class with a final field of the instance and of the erased type of each parameter, primitives read from the
+ * invocation with their typed accessors without boxing, and the hash code computed once in the constructor. Methods without parameters
+ * are keyed by the instance. The factories are returned by the generated {@value CacheKeys#FACTORY_METHOD} method, looked up by
+ * {@link CacheKeys}.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class CacheKeysGenerator {
+
+  private static final String KEY_CLASS_PREFIX = "Key";
+
+  private final ProcessingEnvironment processingEnv;
+
+  CacheKeysGenerator(final ProcessingEnvironment processingEnv) {
+    this.processingEnv = processingEnv;
+  }
+
+  void generate(final TypeElement classElement) {
+    final ClassName className = ClassName.get(classElement);
+    final TypeSpec.Builder keysBuilder = TypeSpec.classBuilder(keysClassName(classElement).simpleName())//
+        .addOriginatingElement(classElement)//
+        .addAnnotation(Sources.generatedAnnotation(CachedInterceptorHandler.class))//
+        .addModifiers(PUBLIC, FINAL)//
+        .addMethod(MethodSpec.constructorBuilder().addModifiers(PRIVATE).build());
+
+    final MethodSpec.Builder factoryBuilder = MethodSpec.methodBuilder(CacheKeys.FACTORY_METHOD)//
+        .addModifiers(PUBLIC, STATIC)//
+        .returns(CacheKeyFactory.class)//
+        .addParameter(String.class, "name", FINAL)//
+        .addParameter(ArrayTypeName.of(ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class))),
+            "parameterTypes", FINAL);
+
+    int keyIndex = 0;
+    for (final ExecutableElement methodElement : ElementFilter.methodsIn(classElement.getEnclosedElements())) {
+      if (methodElement.getAnnotation(Cached.class) == null) {
+        continue;
+      }
+      final List<? extends VariableElement> parameters = methodElement.getParameters();
+      final List<CodeBlock> parameterTypes = new ArrayList<>();
+      final List<CodeBlock> arguments = new ArrayList<>();
+      arguments.add(CodeBlock.of("invocation.getInstance()"));
+      for (int i = 0; i < parameters.size(); i++) {
+        final TypeMirror type = erasure(parameters.get(i));
+        parameterTypes.add(CodeBlock.of("$T.class", TypeName.get(type)));
+        arguments.add(argument(type, i));
+      }
+
+      factoryBuilder.beginControlFlow("if (name.equals($S) && $T.equals(parameterTypes, new $T<?>[] {$L}))", //
+          methodElement.getSimpleName(), Arrays.class, Class.class, join(parameterTypes));
+      if (parameters.isEmpty()) {
+        factoryBuilder.addStatement("return $T::getInstance", MethodInvocation.class);
+      } else {
+        final String keyName = KEY_CLASS_PREFIX + keyIndex++;
+        keysBuilder.addType(createKey(keyName, parameters));
+        factoryBuilder.addStatement("return invocation -> new $N($L)", keyName, join(arguments));
+      }
+      factoryBuilder.endControlFlow();
+    }
+    factoryBuilder.addStatement("return null");
+
+    keysBuilder.addMethod(factoryBuilder.build());
+
+    Sources.writeClass(processingEnv, className.packageName(), keysBuilder.build());
+  }
+
+  /**
+   * @return Name of the keys class generated for the <code>classElement</code>.
+   */
+  static ClassName keysClassName(final TypeElement classElement) {
+    final ClassName className = ClassName.get(classElement);
+    return ClassName.get(className.packageName(), CacheKeys.CLASS_PREFIX + String.join("_", className.simpleNames()));
+  }
+
+  //
+
+  private TypeSpec createKey(final String keyName, final List<? extends VariableElement> parameters) {
+    final Set<String> names = new HashSet<>();
+    parameters.forEach(p -> names.add(p.getSimpleName().toString()));
+    final String instanceName = uniqueName(names, "instance");
+    final String hashName = uniqueName(names, "hash");
+
+    final TypeSpec.Builder keyBuilder = TypeSpec.classBuilder(keyName)//
+        .addModifiers(PRIVATE, STATIC, FINAL)//
+        .addField(Object.class, instanceName, PRIVATE, FINAL);
+    final MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder()//
+        .addParameter(Object.class, instanceName, FINAL)//
+        .addStatement("this.$N = $N", instanceName, instanceName);
+    final List<CodeBlock> equalities = new ArrayList<>();
+    equalities.add(CodeBlock.of("$N.equals(that.$N)", instanceName, instanceName));
+    CodeBlock hash = CodeBlock.of("$N.hashCode()", instanceName);
+    for (final VariableElement parameter : parameters) {
+      final TypeMirror type = erasure(parameter);
+      final String name = parameter.getSimpleName().toString();
+      keyBuilder.addField(TypeName.get(type), name, PRIVATE, FINAL);
+      constructorBuilder.addParameter(TypeName.get(type), name, FINAL)//
+          .addStatement("this.$N = $N", name, name);
+      equalities.add(equality(type, CodeBlock.of("$N", name), CodeBlock.of("that.$N", name)));
+      hash = CodeBlock.of("31 * ($L) + $L", hash, hash(type, CodeBlock.of("$N", name)));
+    }
+    constructorBuilder.addStatement("this.$N = $L", hashName, hash);
+    keyBuilder.addField(int.class, hashName, PRIVATE, FINAL);
+
+    return keyBuilder//
+        .addMethod(constructorBuilder.build())//
+        .addMethod(MethodSpec.methodBuilder("hashCode")//
+            .addAnnotation(Override.class)//
+            .addModifiers(PUBLIC)//
+            .returns(int.class)//
+            .addStatement("return $N", hashName)//
+            .build())//
+        .addMethod(MethodSpec.methodBuilder("equals")//
+            .addAnnotation(Override.class)//
+            .addModifiers(PUBLIC)//
+            .returns(boolean.class)//
+            .addParameter(Object.class, "object", FINAL)//
+            .beginControlFlow("if (this == object)")//
+            .addStatement("return true")//
+            .endControlFlow()//
+            .beginControlFlow("if (!(object instanceof $N))", keyName)//
+            .addStatement("return false")//
+            .endControlFlow()//
+            .addStatement("final $N that = ($N) object", keyName, keyName)//
+            .addStatement("return $N == that.$N && $L", hashName, hashName, join(equalities, " && "))//
+            .build())//
+        .build();
+  }
+
+  private static String uniqueName(final Set<String> names, final String name) {
+    String unique = name;
+    while (!names.add(unique)) {
+      unique += "_";
+    }
+    return unique;
+  }
+
+  private TypeMirror erasure(final VariableElement parameter) {
+    return processingEnv.getTypeUtils().erasure(parameter.asType());
+  }
+
+  private static CodeBlock argument(final TypeMirror type, final int index) {
+    switch (type.getKind()) {
+      case INT:
+        return CodeBlock.of("invocation.getIntArgument($L)", index);
+      case LONG:
+        return CodeBlock.of("invocation.getLongArgument($L)", index);
+      case DOUBLE:
+        return CodeBlock.of("invocation.getDoubleArgument($L)", index);
+      case BOOLEAN:
+        return CodeBlock.of("invocation.getBooleanArgument($L)", index);
+      case FLOAT:
+        return CodeBlock.of("invocation.getFloatArgument($L)", index);
+      case SHORT:
+        return CodeBlock.of("invocation.getShortArgument($L)", index);
+      case BYTE:
+        return CodeBlock.of("invocation.getByteArgument($L)", index);
+      case CHAR:
+        return CodeBlock.of("invocation.getCharArgument($L)", index);
+      default:
+        return CodeBlock.of("($T) invocation.getArgument($L)", TypeName.get(type), index);
+    }
+  }
+
+  private static CodeBlock hash(final TypeMirror type, final CodeBlock value) {
+    switch (type.getKind()) {
+      case INT:
+      case SHORT:
+      case BYTE:
+      case CHAR:
+        return value;
+      case LONG:
+      case DOUBLE:
+      case FLOAT:
+      case BOOLEAN:
+        return CodeBlock.of("$T.hashCode($L)", TypeName.get(type).box(), value);
+      case ARRAY:
+        return CodeBlock.of("$T.$L($L)", Arrays.class, isObjectArray(type) ? "deepHashCode" : "hashCode", value);
+      default:
+        return CodeBlock.of("$T.hashCode($L)", Objects.class, value);
+    }
+  }
+
+  private static CodeBlock equality(final TypeMirror type, final CodeBlock value, final CodeBlock other) {
+    switch (type.getKind()) {
+      case DOUBLE:
+        return CodeBlock.of("$T.doubleToLongBits($L) == $T.doubleToLongBits($L)", Double.class, value, Double.class, other);
+      case FLOAT:
+        return CodeBlock.of("$T.floatToIntBits($L) == $T.floatToIntBits($L)", Float.class, value, Float.class, other);
+      case ARRAY:
+        return CodeBlock.of("$T.$L($L, $L)", Arrays.class, isObjectArray(type) ? "deepEquals" : "equals", value, other);
+      case DECLARED:
+      case TYPEVAR:
+        return CodeBlock.of("$T.equals($L, $L)", Objects.class, value, other);
+      default:
+        return CodeBlock.of("$L == $L", value, other);
+    }
+  }
+
+  private static boolean isObjectArray(final TypeMirror type) {
+    return !((ArrayType) type).getComponentType().getKind().isPrimitive();
+  }
+
+  private static CodeBlock join(final List<CodeBlock> blocks) {
+    return join(blocks, ", ");
+  }
+
+  private static CodeBlock join(final List<CodeBlock> blocks, final String separator) {
+    final CodeBlock.Builder builder = CodeBlock.builder();
+    for (int i = 0; i < blocks.size(); i++) {
+      builder.add(i == 0 ? "$L" : separator + "$L", blocks.get(i));
+    }
+    return builder.build();
+  }
+
+}
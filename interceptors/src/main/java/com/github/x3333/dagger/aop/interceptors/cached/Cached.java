@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.cached;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memoize the method results by its arguments, in a bounded cache of the method.
+ * 
+ * <p>
+ * Entries are admitted and evicted by W-TinyLFU: new entries enter a small LRU window, and when the cache exceeds
+ * {@link #maximumWeight()} the window overflow is admitted to the main space only if it has been requested more often than the entry
+ * it would evict. Concurrent calls with a key being loaded wait for that load instead of proceeding themselves.
+ * 
+ * <p>
+ * The Processor generates a key class for each cached method, with a field of the type of each parameter, so no array is created nor
+ * primitive boxed to look up. Methods returning a {@link java.util.concurrent.CompletionStage CompletionStage} cache the stage, and
+ * discard it if it completes exceptionally.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cached {
+
+  /**
+   * @return Maximum sum of the entries weights, the maximum number of entries with the default {@link #weigher()}.
+   */
+  long maximumWeight() default 10_000;
+
+  /**
+   * @return Weigher of the entries, must have a public no-args constructor.
+   */
+  Class<? extends Weigher> weigher() default Weigher.Unit.class;
+
+  /**
+   * @return Time after the entry has been loaded to expire it, in {@link #expireUnit()}, 0 to never expire.
+   */
+  long expireAfterWrite() default 0;
+
+  /**
+   * @return Unit of {@link #expireAfterWrite()}.
+   */
+  TimeUnit expireUnit() default TimeUnit.SECONDS;
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.cached;
+
+import com.github.x3333.dagger.aop.MethodInvocation;
+import com.github.x3333.dagger.aop.MethodInterceptor;
+
+import javax.inject.Inject;
+
+/**
+ * Return the cached values of {@link Cached} methods.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class CachedInterceptor implements MethodInterceptor {
+
+  @Inject
+  public CachedInterceptor() {}
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T invoke(final MethodInvocation invocation) throws Throwable {
+    return (T) invocation.methodState(CachedInterceptor::cache).get(invocation);
+  }
+
+  private static MethodCache cache(final MethodInvocation invocation) {
+    final Cached cached = invocation.annotation(Cached.class);
+    final Weigher weigher;
+    try {
+      weigher = cached.weigher().newInstance();
+    } catch (InstantiationException | IllegalAccessException e) {
+      throw new IllegalStateException("Could not create the weigher " + cached.weigher().getName(), e);
+    }
+    return new MethodCache(CacheKeys.forMethod(invocation.getMethod()), weigher, cached.maximumWeight(),
+        cached.expireUnit().toNanos(cached.expireAfterWrite()));
+  }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.cached;
+
+import com.github.x3333.dagger.aop.InterceptorHandler;
+import com.github.x3333.dagger.aop.MethodInterceptor;
+
+import java.lang.annotation.Annotation;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+
+import com.google.auto.service.AutoService;
+import com.squareup.javapoet.ClassName;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@AutoService(InterceptorHandler.class)
+public class CachedInterceptorHandler implements InterceptorHandler {
+
+  @Override
+  public Class<? extends Annotation> annotation() {
+    return Cached.class;
+  }
+
+  @Override
+  public Class<? extends MethodInterceptor> methodInterceptorClass() {
+    return CachedInterceptor.class;
+  }
+
+  @Override
+  public boolean invocationEscapes() {
+    return false;
+  }
+
+  @Override
+  public String validateMethod(final ExecutableElement methodElement) {
+    if (methodElement.getReturnType().getKind() == TypeKind.VOID) {
+      return "Cached methods must return a value!";
+    }
+    final Cached cached = methodElement.getAnnotation(Cached.class);
+    if (cached.maximumWeight() <= 0) {
+      return "Cached maximumWeight must be positive!";
+    }
+    if (cached.expireAfterWrite() < 0) {
+      return "Cached expireAfterWrite must not be negative!";
+    }
+    return null;
+  }
+
+  /**
+   * Generate the {@link CacheKeyFactory} of the cached methods of each class.
+   */
+  @Override
+  public void postProcess(final ProcessingEnvironment processingEnv, final Set<TypeElement> processedClasses) {
+    final CacheKeysGenerator generator = new CacheKeysGenerator(processingEnv);
+    for (final TypeElement classElement : processedClasses) {
+      generator.generate(classElement);
+    }
+  }
+
+  /**
+   * The generated {@link CacheKeyFactory} classes, found by {@link CacheKeys}.
+   */
+  @Override
+  public Set<String> reflectiveClasses(final ProcessingEnvironment processingEnv, final Set<TypeElement> processedClasses) {
+    final Set<String> classes = new LinkedHashSet<>();
+    for (final TypeElement classElement : processedClasses) {
+      final ClassName keysClassName = CacheKeysGenerator.keysClassName(classElement);
+      classes.add(keysClassName.packageName().isEmpty() ? keysClassName.simpleName()
+          : keysClassName.packageName() + "." + keysClassName.simpleName());
+    }
+    return classes;
+  }
+
+}
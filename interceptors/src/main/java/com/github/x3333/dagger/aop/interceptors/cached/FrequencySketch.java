@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.cached;
+
+/**
+ * Count-Min sketch of the popularity of keys, the TinyLFU of {@link MethodCache}.
+ * 
+ * <p>
+ * Each key has four 4-bit counters in a single <code>long</code> of the table, up to 15, and its frequency is the minimum of them.
+ * When the number of increments reaches ten times the table size all counters are halved, so the frequencies of past popular keys
+ * decay. The table is sized by the number of entries of the cache, growing with it.
+ * 
+ * <p>
+ * Not thread safe, guarded by the cache eviction lock.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+/*
+ * Copyright (C) 2015 Ben Manes - caffeine - https://github.com/ben-manes/caffeine
+ *
+ * Licensed under the Apache License, Version 2.0, adapted from com.github.benmanes.caffeine.cache.FrequencySketch.
+ */
+final class FrequencySketch {
+
+  private static final long[] SEED = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final long ONE_MASK = 0x1111111111111111L;
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  private long[] table = new long[0];
+  private int tableMask;
+  private int sampleSize;
+  private int size;
+
+  /**
+   * @param initialSize Number of keys to size the table for.
+   */
+  FrequencySketch(final long initialSize) {
+    ensureCapacity(initialSize);
+  }
+
+  /**
+   * Grow the table to hold <code>maximumSize</code> keys, discarding the counters.
+   */
+  void ensureCapacity(final long maximumSize) {
+    final int capacity = (int) Math.min(Math.max(maximumSize, 8), MAXIMUM_CAPACITY);
+    if (table.length >= capacity) {
+      return;
+    }
+    table = new long[Integer.highestOneBit(capacity - 1) << 1];
+    tableMask = table.length - 1;
+    sampleSize = 10 * Math.min(capacity, MAXIMUM_CAPACITY / 10);
+    size = 0;
+  }
+
+  int frequency(final Object key) {
+    final int hash = spread(key.hashCode());
+    final int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      final int count = (int) ((table[indexOf(hash, i)] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  void increment(final Object key) {
+    final int hash = spread(key.hashCode());
+    final int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++size == sampleSize) {
+      reset();
+    }
+  }
+
+  //
+
+  private boolean incrementAt(final int index, final int counter) {
+    final int offset = counter << 2;
+    final long mask = 0xfL << offset;
+    if ((table[index] & mask) != mask) {
+      table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  private void reset() {
+    int odd = 0;
+    for (int i = 0; i < table.length; i++) {
+      odd += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size = (size >>> 1) - (odd >>> 2);
+  }
+
+  private int indexOf(final int hash, final int i) {
+    long index = (hash + SEED[i]) * SEED[i];
+    index += index >>> 32;
+    return (int) index & tableMask;
+  }
+
+  private static int spread(final int hashCode) {
+    int x = ((hashCode >>> 16) ^ hashCode) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+
+}
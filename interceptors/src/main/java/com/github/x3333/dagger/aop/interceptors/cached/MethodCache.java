@@ -0,0 +1,435 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.cached;
+
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of a {@link Cached} method, evicting by W-TinyLFU.
+ * 
+ * <p>
+ * Entries live in a {@link ConcurrentHashMap}, so reads are lock-free. The eviction policy is kept in three LRU queues, a window of 1%
+ * of the maximum weight, and the main space split in probation and protected, 80% of it. New entries enter the window, its overflow
+ * moves to probation, and entries read in probation are promoted to protected. When the cache is over its maximum weight, the
+ * candidates from the window compete with the probation LRU entry, and the one less frequent in the {@link FrequencySketch} is evicted.
+ * 
+ * <p>
+ * The policy is guarded by a lock, taken on writes. Reads are recorded in striped lossy buffers, drained by the thread that fills one
+ * if the lock is free, so reads don't wait for the lock. Expired entries are removed when read, or evicted by weight.
+ * 
+ * <p>
+ * Missing keys are loaded by the first caller, while the following ones wait for its result, or exception. Recursive loads of a key by
+ * the loading thread proceed without the cache.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class MethodCache {
+
+  private static final Object NULL = new Object();
+  private static final int STRIPES =
+      Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+  private static final int INITIAL_SKETCH_SIZE = 64;
+  // Random admission of warm candidates, so an attacker can't keep the victim by colliding its hash.
+  private static final int WARM_FREQUENCY = 5;
+
+  private static final int NONE = 0;
+  private static final int WINDOW = 1;
+  private static final int PROBATION = 2;
+  private static final int PROTECTED = 3;
+
+  private final CacheKeyFactory keys;
+  private final Weigher weigher;
+  private final long maximumWeight;
+  private final long windowMaximum;
+  private final long protectedMaximum;
+  private final long expireAfterWriteNanos;
+  private final ConcurrentHashMap<Object, Node> data = new ConcurrentHashMap<>();
+  private final AtomicReferenceArray<ReadBuffer> readBuffers = new AtomicReferenceArray<>(STRIPES);
+
+  // Guarded by evictionLock
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final FrequencySketch sketch;
+  private final AccessQueue window = new AccessQueue();
+  private final AccessQueue probation = new AccessQueue();
+  private final AccessQueue protectedQueue = new AccessQueue();
+  private long windowWeight;
+  private long protectedWeight;
+  private long weight;
+
+  /**
+   * @param keys Factory of the invocations keys.
+   * @param weigher Weigher of the values.
+   * @param maximumWeight Maximum sum of the entries weights.
+   * @param expireAfterWriteNanos Time to expire entries after loaded, 0 to never expire.
+   */
+  MethodCache(final CacheKeyFactory keys, final Weigher weigher, final long maximumWeight, final long expireAfterWriteNanos) {
+    this.keys = keys;
+    this.weigher = weigher;
+    this.maximumWeight = maximumWeight;
+    this.windowMaximum = Math.max(1, maximumWeight / 100);
+    this.protectedMaximum = (maximumWeight - windowMaximum) / 5 * 4;
+    this.expireAfterWriteNanos = expireAfterWriteNanos;
+    this.sketch = new FrequencySketch(Math.min(maximumWeight, INITIAL_SKETCH_SIZE));
+  }
+
+  /**
+   * Value of the invocation, proceeding it if not cached.
+   */
+  Object get(final MethodInvocation invocation) throws Throwable {
+    final Object key = keys.key(invocation);
+    for (;;) {
+      Node node = data.get(key);
+      if (node == null) {
+        final Node loading = new Node(key);
+        node = data.putIfAbsent(key, loading);
+        if (node == null) {
+          return load(loading, invocation);
+        }
+      }
+      final CompletableFuture<Object> future = node.future;
+      if (future != null) {
+        if (node.loader == Thread.currentThread()) {
+          return invocation.proceed();
+        }
+        try {
+          return future.join();
+        } catch (final CompletionException e) {
+          throw e.getCause();
+        }
+      }
+      if (expireAfterWriteNanos > 0 && System.nanoTime() - node.writeNanos >= expireAfterWriteNanos) {
+        remove(node);
+        continue;
+      }
+      afterRead(node);
+      final Object value = node.value;
+      return value == NULL ? null : value;
+    }
+  }
+
+  /**
+   * @return Number of entries, including the ones being loaded.
+   */
+  int size() {
+    return data.size();
+  }
+
+  /**
+   * @return If the key is cached or being loaded, without recording a read.
+   */
+  boolean containsKey(final Object key) {
+    return data.containsKey(key);
+  }
+
+  //
+
+  private Object load(final Node node, final MethodInvocation invocation) throws Throwable {
+    final CompletableFuture<Object> future = node.future;
+    final Object value;
+    try {
+      value = invocation.proceed();
+    } catch (final Throwable e) {
+      data.remove(node.key, node);
+      future.completeExceptionally(e);
+      throw e;
+    }
+    node.value = value == null ? NULL : value;
+    node.weight = Math.max(0, weigher.weigh(value));
+    node.writeNanos = expireAfterWriteNanos > 0 ? System.nanoTime() : 0;
+    node.loader = null;
+    node.future = null;
+    future.complete(value);
+    if (value instanceof CompletionStage) {
+      ((CompletionStage<?>) value).whenComplete((result, e) -> {
+        if (e != null) {
+          remove(node);
+        }
+      });
+    }
+    afterWrite(node);
+    return value;
+  }
+
+  private void remove(final Node node) {
+    if (data.remove(node.key, node)) {
+      evictionLock.lock();
+      try {
+        unlink(node);
+        node.queue = NONE;
+        node.removed = true;
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+
+  private void afterRead(final Node node) {
+    // Fibonacci hashing, so consecutive thread ids are spread.
+    final int index = (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+    ReadBuffer buffer = readBuffers.get(index);
+    if (buffer == null) {
+      readBuffers.compareAndSet(index, null, new ReadBuffer());
+      buffer = readBuffers.get(index);
+    }
+    if (buffer.offer(node) && evictionLock.tryLock()) {
+      try {
+        drainReadBuffers();
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+
+  private void afterWrite(final Node node) {
+    evictionLock.lock();
+    try {
+      drainReadBuffers();
+      if (node.removed) {
+        return;
+      }
+      sketch.ensureCapacity(Math.min(maximumWeight, data.size()));
+      sketch.increment(node.key);
+      node.queue = WINDOW;
+      window.addLast(node);
+      windowWeight += node.weight;
+      weight += node.weight;
+      evict();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void drainReadBuffers() {
+    for (int i = 0; i < STRIPES; i++) {
+      final ReadBuffer buffer = readBuffers.get(i);
+      if (buffer != null) {
+        buffer.drain(this);
+      }
+    }
+  }
+
+  private void onAccess(final Node node) {
+    if (node.queue == NONE) {
+      return;
+    }
+    sketch.increment(node.key);
+    if (node.queue == WINDOW) {
+      window.moveToLast(node);
+    } else if (node.queue == PROBATION) {
+      probation.remove(node);
+      node.queue = PROTECTED;
+      protectedQueue.addLast(node);
+      protectedWeight += node.weight;
+      while (protectedWeight > protectedMaximum && protectedQueue.first != node) {
+        final Node demoted = protectedQueue.first;
+        protectedQueue.remove(demoted);
+        protectedWeight -= demoted.weight;
+        demoted.queue = PROBATION;
+        probation.addLast(demoted);
+      }
+    } else {
+      protectedQueue.moveToLast(node);
+    }
+  }
+
+  private void evict() {
+    // Window overflow becomes candidates at the probation end
+    int candidates = 0;
+    while (windowWeight > windowMaximum && window.first != null) {
+      final Node node = window.first;
+      window.remove(node);
+      windowWeight -= node.weight;
+      node.queue = PROBATION;
+      probation.addLast(node);
+      candidates++;
+    }
+    while (weight > maximumWeight) {
+      final Node victim = probation.first;
+      if (victim == null) {
+        evict(protectedQueue.first != null ? protectedQueue.first : window.first);
+      } else if (candidates == 0 || victim == probation.last) {
+        if (victim == probation.last) {
+          candidates = 0;
+        }
+        evict(victim);
+      } else if (admit(probation.last.key, victim.key)) {
+        evict(victim);
+      } else {
+        evict(probation.last);
+        candidates--;
+      }
+    }
+  }
+
+  private boolean admit(final Object candidateKey, final Object victimKey) {
+    final int candidateFrequency = sketch.frequency(candidateKey);
+    final int victimFrequency = sketch.frequency(victimKey);
+    if (candidateFrequency > victimFrequency) {
+      return true;
+    }
+    if (candidateFrequency <= WARM_FREQUENCY) {
+      return false;
+    }
+    return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+  }
+
+  private void evict(final Node node) {
+    unlink(node);
+    node.queue = NONE;
+    node.removed = true;
+    data.remove(node.key, node);
+  }
+
+  private void unlink(final Node node) {
+    switch (node.queue) {
+      case WINDOW:
+        window.remove(node);
+        windowWeight -= node.weight;
+        break;
+      case PROBATION:
+        probation.remove(node);
+        break;
+      case PROTECTED:
+        protectedQueue.remove(node);
+        protectedWeight -= node.weight;
+        break;
+      default:
+        return;
+    }
+    weight -= node.weight;
+  }
+
+  //
+
+  private static final class Node {
+
+    final Object key;
+    volatile CompletableFuture<Object> future = new CompletableFuture<>();
+    Thread loader = Thread.currentThread();
+    // Published by the future write
+    Object value;
+    long writeNanos;
+
+    // Guarded by evictionLock
+    int weight;
+    int queue;
+    boolean removed;
+    Node previous;
+    Node next;
+
+    Node(final Object key) {
+      this.key = key;
+    }
+
+  }
+
+  /**
+   * Doubly linked queue of {@link Node}s, from the least recently used.
+   */
+  private static final class AccessQueue {
+
+    Node first;
+    Node last;
+
+    void addLast(final Node node) {
+      node.previous = last;
+      node.next = null;
+      if (last == null) {
+        first = node;
+      } else {
+        last.next = node;
+      }
+      last = node;
+    }
+
+    void remove(final Node node) {
+      if (node.previous == null) {
+        first = node.next;
+      } else {
+        node.previous.next = node.next;
+      }
+      if (node.next == null) {
+        last = node.previous;
+      } else {
+        node.next.previous = node.previous;
+      }
+      node.previous = null;
+      node.next = null;
+    }
+
+    void moveToLast(final Node node) {
+      if (node != last) {
+        remove(node);
+        addLast(node);
+      }
+    }
+
+  }
+
+  /**
+   * Lossy ring buffer of reads: when full, or contended, reads are dropped, only losing some frequency.
+   */
+  private static final class ReadBuffer {
+
+    private static final int SIZE = 16;
+    private static final int MASK = SIZE - 1;
+
+    private final AtomicReferenceArray<Node> slots = new AtomicReferenceArray<>(SIZE);
+    private final AtomicLong writes = new AtomicLong();
+    // Written by the drain, guarded by evictionLock
+    private volatile long reads;
+
+    /**
+     * @return <code>true</code> if the buffer is full and should be drained.
+     */
+    boolean offer(final Node node) {
+      final long tail = writes.get();
+      final long size = tail - reads;
+      if (size >= SIZE) {
+        return true;
+      }
+      if (writes.compareAndSet(tail, tail + 1)) {
+        slots.lazySet((int) tail & MASK, node);
+        return size + 1 == SIZE;
+      }
+      return false;
+    }
+
+    void drain(final MethodCache cache) {
+      final long tail = writes.get();
+      long head = reads;
+      for (; head < tail; head++) {
+        final int index = (int) head & MASK;
+        final Node node = slots.get(index);
+        if (node == null) {
+          break;
+        }
+        slots.lazySet(index, null);
+        cache.onAccess(node);
+      }
+      reads = head;
+    }
+
+  }
+
+}
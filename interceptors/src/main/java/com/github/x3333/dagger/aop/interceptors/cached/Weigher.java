@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.cached;
+
+/**
+ * Weight of a {@link Cached} entry, weighed once when the value is loaded.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@FunctionalInterface
+public interface Weigher {
+
+  /**
+   * @param value Value returned by the method, may be <code>null</code>.
+   * @return Weight of the entry, not negative.
+   */
+  int weigh(Object value);
+
+  /**
+   * Weigh every entry as 1, so the maximum weight is the maximum number of entries.
+   */
+  final class Unit implements Weigher {
+
+    @Override
+    public int weigh(final Object value) {
+      return 1;
+    }
+
+  }
+
+}
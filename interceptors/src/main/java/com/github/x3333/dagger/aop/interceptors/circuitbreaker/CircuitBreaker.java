@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.circuitbreaker;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stop calling the method while its failure rate is above a threshold.
+ * 
+ * <p>
+ * Outcomes of calls are kept in a sliding window, of the last {@link #slidingWindowSize()} calls, or seconds. When the window has at
+ * least {@link #minimumNumberOfCalls()} and the failure rate reaches {@link #failureRateThreshold()}, the circuit opens and calls fail
+ * with {@link CircuitBreakerOpenException} without proceeding. After {@link #waitDurationOpen()} it is half-open, admitting
+ * {@link #permittedCallsInHalfOpen()} probe calls, and closes again if their failure rate is below the threshold, or opens otherwise.
+ * 
+ * <p>
+ * Calls failing with an exception are failures, unless it is one of {@link #ignoreExceptions()}. Methods returning a
+ * {@link java.util.concurrent.CompletionStage CompletionStage} record the outcome of the stage, and return a failed stage while open.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CircuitBreaker {
+
+  /**
+   * Type of the sliding window of outcomes.
+   */
+  enum SlidingWindowType {
+    /** Window of the last calls. */
+    COUNT_BASED,
+    /** Window of the last seconds. */
+    TIME_BASED
+  }
+
+  /**
+   * @return Failure rate, in percentage, which opens the circuit.
+   */
+  int failureRateThreshold() default 50;
+
+  /**
+   * @return Size of the sliding window, in calls or seconds.
+   */
+  int slidingWindowSize() default 100;
+
+  /**
+   * @return Type of the sliding window.
+   */
+  SlidingWindowType slidingWindowType() default SlidingWindowType.COUNT_BASED;
+
+  /**
+   * @return Minimum calls in the window to calculate the failure rate.
+   */
+  int minimumNumberOfCalls() default 10;
+
+  /**
+   * @return Time the circuit stays open, in {@link #waitDurationUnit()}.
+   */
+  long waitDurationOpen() default 60;
+
+  /**
+   * @return Unit of {@link #waitDurationOpen()}.
+   */
+  TimeUnit waitDurationUnit() default TimeUnit.SECONDS;
+
+  /**
+   * @return Probe calls admitted while half-open.
+   */
+  int permittedCallsInHalfOpen() default 10;
+
+  /**
+   * @return Exceptions, and their subclasses, which are not failures.
+   */
+  Class<? extends Throwable>[] ignoreExceptions() default {};
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.circuitbreaker;
+
+import com.github.x3333.dagger.aop.AsyncMethodInterceptor;
+import com.github.x3333.dagger.aop.AsyncMethodInvocation;
+import com.github.x3333.dagger.aop.DoubleMethodInterceptor;
+import com.github.x3333.dagger.aop.DoubleMethodInvocation;
+import com.github.x3333.dagger.aop.IntMethodInterceptor;
+import com.github.x3333.dagger.aop.IntMethodInvocation;
+import com.github.x3333.dagger.aop.LongMethodInterceptor;
+import com.github.x3333.dagger.aop.LongMethodInvocation;
+import com.github.x3333.dagger.aop.MethodInvocation;
+import com.github.x3333.dagger.aop.interceptors.circuitbreaker.MethodCircuitBreaker.State;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import javax.inject.Inject;
+
+/**
+ * Admit calls of {@link CircuitBreaker} methods and record their outcomes.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class CircuitBreakerInterceptor
+    implements IntMethodInterceptor, LongMethodInterceptor, DoubleMethodInterceptor, AsyncMethodInterceptor {
+
+  @Inject
+  public CircuitBreakerInterceptor() {}
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T invoke(final MethodInvocation invocation) throws Throwable {
+    final MethodCircuitBreaker breaker = invocation.methodState(CircuitBreakerInterceptor::breaker);
+    final State admitted = breaker.acquire();
+    try {
+      final T value = (T) invocation.proceed();
+      breaker.record(admitted, null);
+      return value;
+    } catch (final Throwable e) {
+      throw failed(breaker, admitted, e);
+    }
+  }
+
+  @Override
+  public int invokeInt(final IntMethodInvocation invocation) throws Throwable {
+    final MethodCircuitBreaker breaker = invocation.methodState(CircuitBreakerInterceptor::breaker);
+    final State admitted = breaker.acquire();
+    try {
+      final int value = invocation.proceedInt();
+      breaker.record(admitted, null);
+      return value;
+    } catch (final Throwable e) {
+      throw failed(breaker, admitted, e);
+    }
+  }
+
+  @Override
+  public long invokeLong(final LongMethodInvocation invocation) throws Throwable {
+    final MethodCircuitBreaker breaker = invocation.methodState(CircuitBreakerInterceptor::breaker);
+    final State admitted = breaker.acquire();
+    try {
+      final long value = invocation.proceedLong();
+      breaker.record(admitted, null);
+      return value;
+    } catch (final Throwable e) {
+      throw failed(breaker, admitted, e);
+    }
+  }
+
+  @Override
+  public double invokeDouble(final DoubleMethodInvocation invocation) throws Throwable {
+    final MethodCircuitBreaker breaker = invocation.methodState(CircuitBreakerInterceptor::breaker);
+    final State admitted = breaker.acquire();
+    try {
+      final double value = invocation.proceedDouble();
+      breaker.record(admitted, null);
+      return value;
+    } catch (final Throwable e) {
+      throw failed(breaker, admitted, e);
+    }
+  }
+
+  @Override
+  public <T> CompletionStage<T> invokeAsync(final AsyncMethodInvocation invocation) throws Throwable {
+    final MethodCircuitBreaker breaker = invocation.methodState(CircuitBreakerInterceptor::breaker);
+    final State admitted;
+    try {
+      admitted = breaker.acquire();
+    } catch (final CircuitBreakerOpenException e) {
+      final CompletableFuture<T> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+    return invocation.<T>proceedAsync().whenComplete((value, e) -> breaker.record(admitted,
+        e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
+  }
+
+  /**
+   * Record the failure of <code>admitted</code>, returning <code>error</code> to be thrown.
+   */
+  private static Throwable failed(final MethodCircuitBreaker breaker, final State admitted, final Throwable error) {
+    breaker.record(admitted, error);
+    return error;
+  }
+
+  private static MethodCircuitBreaker breaker(final MethodInvocation invocation) {
+    final Method method = invocation.getMethod();
+    return new MethodCircuitBreaker(method.getDeclaringClass().getName() + "." + method.getName(),
+        invocation.annotation(CircuitBreaker.class));
+  }
+
+}
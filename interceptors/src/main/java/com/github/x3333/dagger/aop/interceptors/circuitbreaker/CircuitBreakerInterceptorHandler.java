@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.circuitbreaker;
+
+import com.github.x3333.dagger.aop.InterceptorHandler;
+import com.github.x3333.dagger.aop.MethodInterceptor;
+
+import java.lang.annotation.Annotation;
+
+import javax.lang.model.element.ExecutableElement;
+
+import com.google.auto.service.AutoService;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@AutoService(InterceptorHandler.class)
+public class CircuitBreakerInterceptorHandler implements InterceptorHandler {
+
+  @Override
+  public Class<? extends Annotation> annotation() {
+    return CircuitBreaker.class;
+  }
+
+  @Override
+  public Class<? extends MethodInterceptor> methodInterceptorClass() {
+    return CircuitBreakerInterceptor.class;
+  }
+
+  @Override
+  public boolean invocationEscapes() {
+    return false;
+  }
+
+  @Override
+  public String validateMethod(final ExecutableElement methodElement) {
+    final CircuitBreaker circuitBreaker = methodElement.getAnnotation(CircuitBreaker.class);
+    if (circuitBreaker.failureRateThreshold() < 1 || circuitBreaker.failureRateThreshold() > 100) {
+      return "CircuitBreaker failureRateThreshold must be from 1 to 100!";
+    }
+    if (circuitBreaker.slidingWindowSize() < 1) {
+      return "CircuitBreaker slidingWindowSize must be at least 1!";
+    }
+    if (circuitBreaker.minimumNumberOfCalls() < 1) {
+      return "CircuitBreaker minimumNumberOfCalls must be at least 1!";
+    }
+    if (circuitBreaker.permittedCallsInHalfOpen() < 1) {
+      return "CircuitBreaker permittedCallsInHalfOpen must be at least 1!";
+    }
+    if (circuitBreaker.waitDurationOpen() < 0) {
+      return "CircuitBreaker waitDurationOpen must not be negative!";
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.circuitbreaker;
+
+import com.github.x3333.dagger.aop.interceptors.circuitbreaker.CircuitBreaker.SlidingWindowType;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker of a {@link CircuitBreaker} method.
+ * 
+ * <p>
+ * The state is an immutable {@link State} swapped by CAS, so calls record their outcome in the state which admitted them, and only
+ * transitions allocate. A closed state has its own {@link OutcomeWindow}, so closing again starts with an empty window.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class MethodCircuitBreaker {
+
+  private final String name;
+  private final int failureRateThreshold;
+  private final int slidingWindowSize;
+  private final SlidingWindowType slidingWindowType;
+  private final int minimumNumberOfCalls;
+  private final long waitDurationNanos;
+  private final int permittedCallsInHalfOpen;
+  private final Class<? extends Throwable>[] ignoreExceptions;
+  private final AtomicReference<State> state;
+
+  MethodCircuitBreaker(final String name, final CircuitBreaker circuitBreaker) {
+    this.name = name;
+    this.failureRateThreshold = circuitBreaker.failureRateThreshold();
+    this.slidingWindowSize = circuitBreaker.slidingWindowSize();
+    this.slidingWindowType = circuitBreaker.slidingWindowType();
+    this.minimumNumberOfCalls = slidingWindowType == SlidingWindowType.COUNT_BASED
+        ? Math.min(circuitBreaker.minimumNumberOfCalls(), slidingWindowSize) : circuitBreaker.minimumNumberOfCalls();
+    this.waitDurationNanos = circuitBreaker.waitDurationUnit().toNanos(circuitBreaker.waitDurationOpen());
+    this.permittedCallsInHalfOpen = circuitBreaker.permittedCallsInHalfOpen();
+    this.ignoreExceptions = circuitBreaker.ignoreExceptions();
+    this.state = new AtomicReference<>(new Closed(newWindow()));
+  }
+
+  /**
+   * Admit a call.
+   * 
+   * @return State admitting the call, to record its outcome.
+   * @throws CircuitBreakerOpenException If the circuit is open, or half-open without permits left.
+   */
+  State acquire() {
+    for (;;) {
+      final State current = state.get();
+      if (current.admit()) {
+        return current;
+      }
+      if (current instanceof Open && System.nanoTime() - ((Open) current).openedAt >= waitDurationNanos) {
+        state.compareAndSet(current, new HalfOpen(permittedCallsInHalfOpen));
+        continue;
+      }
+      throw new CircuitBreakerOpenException("Circuit breaker of " + name + " is " + current);
+    }
+  }
+
+  /**
+   * Record the outcome of a call.
+   * 
+   * @param admitted State which admitted the call.
+   * @param error Exception thrown by the call, <code>null</code> if succeeded.
+   */
+  void record(final State admitted, final Throwable error) {
+    final boolean failure = error != null && !isIgnored(error);
+    final State next = admitted.record(failure);
+    if (next != null) {
+      state.compareAndSet(admitted, next);
+    }
+  }
+
+  //
+
+  private boolean isIgnored(final Throwable error) {
+    for (final Class<? extends Throwable> ignored : ignoreExceptions) {
+      if (ignored.isInstance(error)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private OutcomeWindow newWindow() {
+    return slidingWindowType == SlidingWindowType.COUNT_BASED ? new OutcomeWindow.CountBased(slidingWindowSize)
+        : new OutcomeWindow.TimeBased(slidingWindowSize);
+  }
+
+  private boolean isAboveThreshold(final long counts) {
+    return (long) OutcomeWindow.failures(counts) * 100 >= (long) OutcomeWindow.calls(counts) * failureRateThreshold;
+  }
+
+  abstract static class State {
+
+    abstract boolean admit();
+
+    /**
+     * @return State to transition to, <code>null</code> to stay.
+     */
+    abstract State record(boolean failure);
+
+  }
+
+  private final class Closed extends State {
+
+    private final OutcomeWindow window;
+
+    Closed(final OutcomeWindow window) {
+      this.window = window;
+    }
+
+    @Override
+    boolean admit() {
+      return true;
+    }
+
+    @Override
+    State record(final boolean failure) {
+      final long counts = window.record(failure, System.nanoTime());
+      if (failure && OutcomeWindow.calls(counts) >= minimumNumberOfCalls && isAboveThreshold(counts)) {
+        return new Open(System.nanoTime());
+      }
+      return null;
+    }
+
+    @Override
+    public String toString() {
+      return "CLOSED";
+    }
+
+  }
+
+  private final class Open extends State {
+
+    final long openedAt;
+
+    Open(final long openedAt) {
+      this.openedAt = openedAt;
+    }
+
+    @Override
+    boolean admit() {
+      return false;
+    }
+
+    @Override
+    State record(final boolean failure) {
+      return null;
+    }
+
+    @Override
+    public String toString() {
+      return "OPEN";
+    }
+
+  }
+
+  private final class HalfOpen extends State {
+
+    private final AtomicInteger permits;
+    private final AtomicLong counts = new AtomicLong();
+
+    HalfOpen(final int permits) {
+      this.permits = new AtomicInteger(permits);
+    }
+
+    @Override
+    boolean admit() {
+      int available;
+      do {
+        available = permits.get();
+        if (available <= 0) {
+          return false;
+        }
+      } while (!permits.compareAndSet(available, available - 1));
+      return true;
+    }
+
+    @Override
+    State record(final boolean failure) {
+      final long current = counts.addAndGet((1L << 32) + (failure ? 1 : 0));
+      if (OutcomeWindow.calls(current) < permittedCallsInHalfOpen) {
+        return null;
+      }
+      return isAboveThreshold(current) ? new Open(System.nanoTime()) : new Closed(newWindow());
+    }
+
+    @Override
+    public String toString() {
+      return "HALF_OPEN";
+    }
+
+  }
+
+}
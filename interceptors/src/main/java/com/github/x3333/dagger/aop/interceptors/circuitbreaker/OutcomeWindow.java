@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding window of call outcomes.
+ * 
+ * <p>
+ * Counts are packed in a <code>long</code>, the calls in the high 32 bits and the failures in the low ones, so a snapshot of both is
+ * read atomically.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+abstract class OutcomeWindow {
+
+  /**
+   * Record an outcome.
+   * 
+   * @param failure If the call failed.
+   * @param now Current {@link System#nanoTime()}.
+   * @return Calls and failures in the window, packed.
+   */
+  abstract long record(boolean failure, long now);
+
+  static int calls(final long counts) {
+    return (int) (counts >>> 32);
+  }
+
+  static int failures(final long counts) {
+    return (int) counts;
+  }
+
+  /**
+   * Window of the last calls, a ring buffer of outcomes, with the counts updated by the difference to the outcome replaced.
+   */
+  static final class CountBased extends OutcomeWindow {
+
+    private static final int NONE = 0;
+    private static final int SUCCESS = 1;
+    private static final int FAILURE = 2;
+
+    private final AtomicIntegerArray outcomes;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicLong counts = new AtomicLong();
+
+    CountBased(final int size) {
+      this.outcomes = new AtomicIntegerArray(size);
+    }
+
+    @Override
+    long record(final boolean failure, final long now) {
+      final int outcome = failure ? FAILURE : SUCCESS;
+      final int slot = (cursor.getAndIncrement() & Integer.MAX_VALUE) % outcomes.length();
+      final int replaced = outcomes.getAndSet(slot, outcome);
+      final long delta = (replaced == NONE ? 1L << 32 : 0) + (outcome == FAILURE ? 1 : 0) - (replaced == FAILURE ? 1 : 0);
+      return counts.addAndGet(delta);
+    }
+
+  }
+
+  /**
+   * Window of the last seconds, a bucket per second with its epoch and counts packed in a <code>long</code>, so a bucket is updated,
+   * and reset when its second has passed, with a single CAS.
+   * 
+   * <p>
+   * The epoch is the second truncated to 32 bits, so a stale bucket is only mistaken for a current one after 136 years, and a bucket
+   * stops counting at 65535 calls in its second.
+   */
+  static final class TimeBased extends OutcomeWindow {
+
+    // Bucket: EPOCH(32 bits) CALLS(16 bits) FAILURES(16 bits)
+    private static final int COUNT_BITS = 16;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int EPOCH_SHIFT = 2 * COUNT_BITS;
+    private static final long EPOCH_MASK = 0xFFFF_FFFFL;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final AtomicLongArray buckets;
+
+    TimeBased(final int seconds) {
+      this.buckets = new AtomicLongArray(seconds);
+    }
+
+    @Override
+    long record(final boolean failure, final long now) {
+      final long second = now / NANOS_PER_SECOND;
+      final long epoch = second & EPOCH_MASK;
+      final int index = (int) Math.floorMod(second, (long) buckets.length());
+      final long delta = (1L << COUNT_BITS) + (failure ? 1 : 0);
+      for (;;) {
+        final long bucket = buckets.get(index);
+        final long base = bucket >>> EPOCH_SHIFT == epoch ? bucket : epoch << EPOCH_SHIFT;
+        // Saturated buckets stop counting
+        final long updated = (base >>> COUNT_BITS & COUNT_MASK) == COUNT_MASK ? base : base + delta;
+        if (buckets.compareAndSet(index, bucket, updated)) {
+          break;
+        }
+      }
+      long calls = 0;
+      long failures = 0;
+      for (int i = 0; i < buckets.length(); i++) {
+        final long bucket = buckets.get(i);
+        if (((epoch - (bucket >>> EPOCH_SHIFT)) & EPOCH_MASK) < buckets.length()) {
+          calls += bucket >>> COUNT_BITS & COUNT_MASK;
+          failures += bucket & COUNT_MASK;
+        }
+      }
+      return Math.min(calls, Integer.MAX_VALUE) << 32 | Math.min(failures, Integer.MAX_VALUE);
+    }
+
+  }
+
+}
@@ -0,0 +1,530 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.memo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Memory-mapped file of serialized values indexed by serialized keys.
+ * 
+ * <p>
+ * The file is split in {@value #SEGMENTS} segments, where records are appended. Each segment has the clock of its last access, and when
+ * the segment being written is full, the least recently used one is cleared and written next, so whole segments are evicted. Records are
+ * found by the 64-bit hash of their key in an index, rebuilt on open by scanning the segments in the order they were written, and their
+ * keys compared on reads.
+ * 
+ * <p>
+ * Values are only deserialized as classes derived from the type of the values, given on open: its subclasses, the subclasses of its type
+ * arguments and of the declared types of the fields of the classes read. Values of other classes fail to be read.
+ * 
+ * <p>
+ * Writes are visible in the file as soon as they are done, so the file survives restarts of the process, but not of the system, as
+ * pages are written to disk by the operating system. The file is locked while open, opening it again, in this or other processes, returns a
+ * file that doesn't store anything.
+ * 
+ * <pre>
+ * File:    MAGIC(int) VERSION(int) SEGMENTS(int) SEGMENT_SIZE(int) Segment...
+ * Segment: ACCESS_CLOCK(long) WRITE_SEQUENCE(long) USED(int) RESERVED(int) Record...
+ * Record:  LENGTH(int) HASH(long) KEY_LENGTH(int) KEY(byte[]) VALUE(byte[])
+ * </pre>
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public final class MemoFile implements Closeable {
+
+  /**
+   * Returned by {@link #get(byte[])} when the key is not found, as values may be <code>null</code>.
+   */
+  public static final Object MISS = new Object();
+
+  static final int SEGMENTS = 16;
+  private static final int MAGIC = 0xDA0A3E30;
+  private static final int VERSION = 2;
+  private static final int FILE_HEADER = 16;
+  private static final int SEGMENT_HEADER = 24;
+  private static final int RECORD_HEADER = 16;
+  private static final int SEQUENCE_OFFSET = 8;
+  private static final int USED_OFFSET = 16;
+
+  /**
+   * Minimum size of a file, where each segment fits a record.
+   */
+  public static final long MINIMUM_SIZE = FILE_HEADER + SEGMENTS * (SEGMENT_HEADER + RECORD_HEADER + 1);
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final RandomAccessFile file;
+  private final FileLock lock;
+  private final MappedByteBuffer buffer;
+  private final int segmentSize;
+  private final ValueClasses valueClasses;
+  private final AtomicLong clock = new AtomicLong();
+
+  // Guarded by readWriteLock, the index, segments and sequence for writes, the index for reads.
+  private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+  private final Map<Long, Integer> index = new HashMap<>();
+  private int active;
+  private long sequence;
+  private boolean closed;
+
+  private MemoFile(final RandomAccessFile file, final FileLock lock, final MappedByteBuffer buffer, final int segmentSize,
+      final ValueClasses valueClasses) {
+    this.file = file;
+    this.lock = lock;
+    this.buffer = buffer;
+    this.segmentSize = segmentSize;
+    this.valueClasses = valueClasses;
+  }
+
+  /**
+   * Open a file, creating it if not exists. Files with another size are cleared.
+   * 
+   * @param path Path of the file.
+   * @param size Size of the file in bytes, from {@value #MINIMUM_SIZE} up to {@link Integer#MAX_VALUE}.
+   * @param valueType Type of the values, deriving the classes they can be deserialized as.
+   * @param classLoader ClassLoader to deserialize values.
+   * @return File opened, not storing anything if locked by another process.
+   * @throws IOException If the file cannot be opened.
+   */
+  public static MemoFile open(final Path path, final long size, final Type valueType, final ClassLoader classLoader)
+      throws IOException {
+    if (size < MINIMUM_SIZE || size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Size must be from " + MINIMUM_SIZE + " up to " + Integer.MAX_VALUE + ": " + size);
+    }
+    final int segmentSize = (int) ((size - FILE_HEADER) / SEGMENTS);
+    final ValueClasses valueClasses = new ValueClasses(valueType, classLoader);
+    final RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw");
+    try {
+      FileLock lock;
+      try {
+        lock = file.getChannel().tryLock();
+      } catch (final OverlappingFileLockException e) {
+        lock = null;
+      }
+      if (lock == null) {
+        file.close();
+        return new MemoFile(null, null, null, 0, valueClasses);
+      }
+      final long fileSize = FILE_HEADER + (long) SEGMENTS * segmentSize;
+      file.setLength(fileSize);
+      final MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+      final MemoFile memoFile = new MemoFile(file, lock, buffer, segmentSize, valueClasses);
+      memoFile.load();
+      return memoFile;
+    } catch (final IOException | RuntimeException e) {
+      file.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Serialize the arguments of a call as a key.
+   * 
+   * @param arguments Arguments of the call.
+   * @return Serialized key.
+   * @throws IOException If an argument is not serializable.
+   */
+  public static byte[] key(final Object... arguments) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+      for (final Object argument : arguments) {
+        output.writeObject(argument);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * @param key Key, created by {@link #key(Object...)}.
+   * @return Value of the key, or {@link #MISS} if not found or the file is closed.
+   * @throws IOException If the value cannot be deserialized, like when its classes are not derived from the type of the values.
+   * @throws ClassNotFoundException If the value class is not found.
+   */
+  public Object get(final byte[] key) throws IOException, ClassNotFoundException {
+    if (buffer == null) {
+      return MISS;
+    }
+    final byte[] value;
+    readWriteLock.readLock().lock();
+    try {
+      if (closed) {
+        return MISS;
+      }
+      final Integer position = index.get(hash(key));
+      if (position == null || !keyEquals(position, key)) {
+        return MISS;
+      }
+      final int valueOffset = position + RECORD_HEADER + key.length;
+      value = new byte[position + buffer.getInt(position) - valueOffset];
+      for (int i = 0; i < value.length; i++) {
+        value[i] = buffer.get(valueOffset + i);
+      }
+      // Benign race with concurrent readers, the segment is recently used anyway.
+      buffer.putLong(segmentStart(segmentOf(position)), clock.incrementAndGet());
+    } finally {
+      readWriteLock.readLock().unlock();
+    }
+    try (ObjectInputStream input = new ValueObjectInputStream(new ByteArrayInputStream(value), valueClasses)) {
+      return input.readObject();
+    }
+  }
+
+  /**
+   * Store a value, replacing the previous one of the key. Values larger than a segment are not stored.
+   * 
+   * @param key Key, created by {@link #key(Object...)}.
+   * @param value Value to store, may be <code>null</code>.
+   * @return <code>true</code> if stored, <code>false</code> if too large or the file is closed.
+   * @throws IOException If the value is not serializable.
+   */
+  public boolean put(final byte[] key, final Object value) throws IOException {
+    if (buffer == null) {
+      return false;
+    }
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+      output.writeObject(value);
+    }
+    final int length = RECORD_HEADER + key.length + bytes.size();
+    if (length > segmentSize - SEGMENT_HEADER) {
+      return false;
+    }
+    final long hash = hash(key);
+    final byte[] serialized = bytes.toByteArray();
+    readWriteLock.writeLock().lock();
+    try {
+      if (closed) {
+        return false;
+      }
+      int used = buffer.getInt(segmentStart(active) + USED_OFFSET);
+      if (used + length > segmentSize - SEGMENT_HEADER) {
+        active = leastRecentlyUsed();
+        clear(active);
+        used = 0;
+      }
+      final int position = segmentStart(active) + SEGMENT_HEADER + used;
+      buffer.putInt(position, length);
+      buffer.putLong(position + 4, hash);
+      buffer.putInt(position + 12, key.length);
+      for (int i = 0; i < key.length; i++) {
+        buffer.put(position + RECORD_HEADER + i, key[i]);
+      }
+      for (int i = 0; i < serialized.length; i++) {
+        buffer.put(position + RECORD_HEADER + key.length + i, serialized[i]);
+      }
+      // The record is committed by the used bytes of the segment
+      buffer.putInt(segmentStart(active) + USED_OFFSET, used + length);
+      buffer.putLong(segmentStart(active), clock.incrementAndGet());
+      buffer.putLong(segmentStart(active) + SEQUENCE_OFFSET, ++sequence);
+      index.put(hash, position);
+      return true;
+    } finally {
+      readWriteLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return Number of keys in the index.
+   */
+  public int size() {
+    readWriteLock.readLock().lock();
+    try {
+      return index.size();
+    } finally {
+      readWriteLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Close the file, which doesn't store anything afterwards.
+   */
+  @Override
+  public void close() throws IOException {
+    if (buffer == null) {
+      return;
+    }
+    readWriteLock.writeLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      index.clear();
+      buffer.force();
+      lock.release();
+      file.close();
+    } finally {
+      readWriteLock.writeLock().unlock();
+    }
+  }
+
+  //
+
+  private void load() {
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != SEGMENTS
+        || buffer.getInt(12) != segmentSize) {
+      buffer.putInt(0, MAGIC);
+      buffer.putInt(4, VERSION);
+      buffer.putInt(8, SEGMENTS);
+      buffer.putInt(12, segmentSize);
+      for (int segment = 0; segment < SEGMENTS; segment++) {
+        buffer.putLong(segmentStart(segment), 0);
+        buffer.putLong(segmentStart(segment) + SEQUENCE_OFFSET, 0);
+        buffer.putInt(segmentStart(segment) + USED_OFFSET, 0);
+      }
+    }
+    // Index from the segment written first, so the latest record of a key wins. Reads bump the access clock, not the sequence.
+    final boolean[] loaded = new boolean[SEGMENTS];
+    for (int i = 0; i < SEGMENTS; i++) {
+      int segment = -1;
+      for (int candidate = 0; candidate < SEGMENTS; candidate++) {
+        if (!loaded[candidate] && (segment == -1 || writeSequence(candidate) < writeSequence(segment))) {
+          segment = candidate;
+        }
+      }
+      loaded[segment] = true;
+      final int start = segmentStart(segment) + SEGMENT_HEADER;
+      final int used = usedBytes(segment);
+      int position = start;
+      while (position + RECORD_HEADER <= start + used) {
+        final int length = buffer.getInt(position);
+        if (length < RECORD_HEADER || length > start + used - position) {
+          // Corrupted, drop the rest of the segment
+          buffer.putInt(segmentStart(segment) + USED_OFFSET, position - start);
+          break;
+        }
+        index.put(buffer.getLong(position + 4), position);
+        position += length;
+      }
+      clock.set(Math.max(clock.get(), accessClock(segment)));
+      sequence = writeSequence(segment);
+      active = segment;
+    }
+  }
+
+  private int leastRecentlyUsed() {
+    int segment = 0;
+    for (int candidate = 1; candidate < SEGMENTS; candidate++) {
+      if (accessClock(candidate) < accessClock(segment)) {
+        segment = candidate;
+      }
+    }
+    return segment;
+  }
+
+  private void clear(final int segment) {
+    final int start = segmentStart(segment) + SEGMENT_HEADER;
+    final int end = start + usedBytes(segment);
+    for (int position = start; position < end; position += buffer.getInt(position)) {
+      index.remove(buffer.getLong(position + 4), position);
+    }
+    buffer.putInt(segmentStart(segment) + USED_OFFSET, 0);
+  }
+
+  private boolean keyEquals(final int position, final byte[] key) {
+    if (buffer.getInt(position + 12) != key.length) {
+      return false;
+    }
+    for (int i = 0; i < key.length; i++) {
+      if (buffer.get(position + RECORD_HEADER + i) != key[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int segmentStart(final int segment) {
+    return FILE_HEADER + segment * segmentSize;
+  }
+
+  private int segmentOf(final int position) {
+    return (position - FILE_HEADER) / segmentSize;
+  }
+
+  private long accessClock(final int segment) {
+    return buffer.getLong(segmentStart(segment));
+  }
+
+  private long writeSequence(final int segment) {
+    return buffer.getLong(segmentStart(segment) + SEQUENCE_OFFSET);
+  }
+
+  private int usedBytes(final int segment) {
+    return buffer.getInt(segmentStart(segment) + USED_OFFSET);
+  }
+
+  /**
+   * 64-bit FNV-1a, stable across processes unlike the keys hash codes.
+   */
+  private static long hash(final byte[] key) {
+    long hash = FNV_OFFSET;
+    for (final byte b : key) {
+      hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+    }
+    return hash;
+  }
+
+  /**
+   * Input stream resolving only the {@link ValueClasses} of the file.
+   */
+  private static final class ValueObjectInputStream extends ObjectInputStream {
+
+    private final ValueClasses valueClasses;
+
+    ValueObjectInputStream(final InputStream input, final ValueClasses valueClasses) throws IOException {
+      super(input);
+      this.valueClasses = valueClasses;
+    }
+
+    @Override
+    protected Class<?> resolveClass(final ObjectStreamClass description) throws IOException, ClassNotFoundException {
+      Class<?> type;
+      try {
+        type = Class.forName(description.getName(), false, valueClasses.classLoader);
+      } catch (final ClassNotFoundException e) {
+        type = super.resolveClass(description);
+      }
+      if (!valueClasses.allows(type)) {
+        throw new InvalidClassException(description.getName(), "Not derived from the type of the values");
+      }
+      return type;
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(final String[] interfaces) throws IOException {
+      throw new InvalidClassException("Proxy classes are not allowed");
+    }
+
+  }
+
+  /**
+   * Classes values can be deserialized as, starting from the subclasses of the type of the values and its type arguments, and growing
+   * with the declared types of the serializable fields of each class allowed, and its serializable superclasses. Arrays are allowed by
+   * their component type. Types too broad, like {@link Object}, don't allow any class, and interfaces only allow the collections of the
+   * JDK implementing them, as any class could implement them, like maps whose fields let a stream reach gadget classes.
+   */
+  static final class ValueClasses {
+
+    final ClassLoader classLoader;
+    private final Set<Class<?>> roots = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Set<Class<?>> allowed = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    ValueClasses(final Type valueType, final ClassLoader classLoader) {
+      this.classLoader = classLoader;
+      addRoots(valueType);
+    }
+
+    boolean allows(final Class<?> type) {
+      if (allowed.contains(type)) {
+        return true;
+      }
+      Class<?> component = type;
+      while (component.isArray()) {
+        component = component.getComponentType();
+      }
+      if (!component.isPrimitive() && !isRootSubclass(component)) {
+        return false;
+      }
+      for (Class<?> current = component; current != null && Serializable.class.isAssignableFrom(current);
+          current = current.getSuperclass()) {
+        if (allowed.add(current)) {
+          for (final Field field : current.getDeclaredFields()) {
+            if ((field.getModifiers() & (Modifier.STATIC | Modifier.TRANSIENT)) == 0) {
+              addRoots(field.getGenericType());
+            }
+          }
+        }
+      }
+      allowed.add(type);
+      return true;
+    }
+
+    private boolean isRootSubclass(final Class<?> type) {
+      for (final Class<?> root : roots) {
+        if (root.isAssignableFrom(type) && (!root.isInterface() || isJdkCollection(type))) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static boolean isJdkCollection(final Class<?> type) {
+      return type.getClassLoader() == null && type.getName().startsWith("java.util.");
+    }
+
+    private void addRoots(final Type type) {
+      if (type instanceof Class) {
+        Class<?> root = (Class<?>) type;
+        while (root.isArray()) {
+          root = root.getComponentType();
+        }
+        if (root.isPrimitive()) {
+          root = MethodType.methodType(root).wrap().returnType();
+        }
+        if (root != Object.class && root != Serializable.class) {
+          roots.add(root);
+        }
+      } else if (type instanceof ParameterizedType) {
+        addRoots(((ParameterizedType) type).getRawType());
+        for (final Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+          addRoots(argument);
+        }
+      } else if (type instanceof GenericArrayType) {
+        addRoots(((GenericArrayType) type).getGenericComponentType());
+      } else if (type instanceof WildcardType) {
+        for (final Type bound : ((WildcardType) type).getUpperBounds()) {
+          addRoots(bound);
+        }
+      } else if (type instanceof TypeVariable) {
+        // Only the erasure, bounds may refer to the variable itself
+        for (final Type bound : ((TypeVariable<?>) type).getBounds()) {
+          addRoots(bound instanceof ParameterizedType ? ((ParameterizedType) bound).getRawType() : bound);
+        }
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.memo;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Memoize the method results by its arguments in a {@link MemoFile}, a memory-mapped file which survives restarts.
+ * 
+ * <p>
+ * Arguments and results are stored serialized, off-heap, so they must be {@link java.io.Serializable}, and results not serializable are
+ * not stored. Results are deserialized on each call, so the method must be pure and its results not mutated.
+ * 
+ * <p>
+ * Files are created in the directory set by the {@value #DIRECTORY_PROPERTY} system property, by default
+ * <code>dagger-aop-memo-&lt;user&gt;</code> in the temporary directory, either only accessible by its owner. A file can be used by a
+ * single process, other processes proceed the method without memoizing. Stored values are only read as classes derived from the
+ * return type, where interfaces only admit the collections of the JDK.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(ElementType.METHOD)
+public @interface PersistentMemo {
+
+  /**
+   * System property with the directory of the files.
+   */
+  String DIRECTORY_PROPERTY = "aop.memo.directory";
+
+  /**
+   * @return Name of the file, without extension, the class and method names and a hash of the signature if empty.
+   */
+  String value() default "";
+
+  /**
+   * @return Size of the file in bytes, from {@value MemoFile#MINIMUM_SIZE} up to {@link Integer#MAX_VALUE}.
+   */
+  long maximumSize() default 64 * 1024 * 1024;
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.memo;
+
+import com.github.x3333.dagger.aop.MethodInterceptor;
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Inject;
+
+/**
+ * Return the values stored in the {@link MemoFile} of {@link PersistentMemo} methods.
+ * 
+ * <p>
+ * The file of each method is opened on its first call. Calls with arguments or results not serializable, or whose stored value cannot
+ * be read, proceed without memoizing.
+ * 
+ * <p>
+ * Files are created in the directory set by the {@value PersistentMemo#DIRECTORY_PROPERTY} system property, or by default in a directory
+ * of the user in the temporary directory, created only accessible by its owner. Either directory is refused if it exists and is a link,
+ * of another user, or accessible by others. On file systems without POSIX permissions only the configured directory can be used, and
+ * only its owner is checked. Files are closed when the JVM shuts down.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class PersistentMemoInterceptor implements MethodInterceptor {
+
+  private static final String EXTENSION = ".memo";
+  private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+  private static final Set<MemoFile> FILES = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+  static {
+    Runtime.getRuntime().addShutdownHook(new Thread(PersistentMemoInterceptor::closeFiles, "aop-memo-close"));
+  }
+
+  @Inject
+  public PersistentMemoInterceptor() {}
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T invoke(final MethodInvocation invocation) throws Throwable {
+    final MemoFile file = invocation.methodState(PersistentMemoInterceptor::file);
+    final byte[] key;
+    try {
+      key = MemoFile.key(invocation.getArguments());
+    } catch (final IOException e) {
+      return (T) invocation.proceed();
+    }
+    Object stored;
+    try {
+      stored = file.get(key);
+    } catch (final IOException | ClassNotFoundException e) {
+      // Not readable as the return type anymore, replaced below
+      stored = MemoFile.MISS;
+    }
+    if (stored != MemoFile.MISS) {
+      return (T) stored;
+    }
+    final Object value = invocation.proceed();
+    try {
+      file.put(key, value);
+    } catch (final IOException e) {
+      // Not serializable, just not stored
+    }
+    return (T) value;
+  }
+
+  //
+
+  private static void closeFiles() {
+    for (final MemoFile file : FILES) {
+      try {
+        file.close();
+      } catch (final IOException e) {
+        // Shutting down, the file is unmapped anyway
+      }
+    }
+  }
+
+  private static MemoFile file(final MethodInvocation invocation) {
+    final PersistentMemo memo = invocation.annotation(PersistentMemo.class);
+    final Method method = invocation.getMethod();
+    String name = memo.value();
+    if (name.isEmpty()) {
+      name = method.getDeclaringClass().getName() + "." + method.getName() + "-"
+          + Integer.toHexString(method.toGenericString().hashCode());
+    }
+    try {
+      final MemoFile file = MemoFile.open(directory().resolve(name + EXTENSION), memo.maximumSize(),
+          method.getGenericReturnType(), method.getDeclaringClass().getClassLoader());
+      FILES.add(file);
+      return file;
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Could not open the memo file of " + method, e);
+    }
+  }
+
+  private static Path directory() throws IOException {
+    final String user = System.getProperty("user.name");
+    final String configured = System.getProperty(PersistentMemo.DIRECTORY_PROPERTY);
+    final Path directory = configured != null ? Paths.get(configured).toAbsolutePath()
+        : Paths.get(System.getProperty("java.io.tmpdir"), "dagger-aop-memo-" + user);
+    final FileSystem fileSystem = directory.getFileSystem();
+    final UserPrincipal owner = fileSystem.getUserPrincipalLookupService().lookupPrincipalByName(user);
+    if (!fileSystem.supportedFileAttributeViews().contains("posix")) {
+      if (configured == null) {
+        throw new IOException("Owner only directories are not supported, set the " + PersistentMemo.DIRECTORY_PROPERTY + " property");
+      }
+      Files.createDirectories(directory);
+      if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)
+          || !Files.getOwner(directory, LinkOption.NOFOLLOW_LINKS).equals(owner)) {
+        throw new IOException("Refusing the memo directory " + directory + ", it must be a directory of " + user);
+      }
+      return directory;
+    }
+    if (directory.getParent() != null) {
+      Files.createDirectories(directory.getParent());
+    }
+    try {
+      Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+    } catch (final FileAlreadyExistsException e) {
+      // Checked below
+    }
+    final PosixFileAttributes attributes = Files.readAttributes(directory, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    if (!attributes.isDirectory() || !attributes.owner().equals(owner) || !attributes.permissions().equals(OWNER_ONLY)) {
+      throw new IOException("Refusing the memo directory " + directory + ", it must be a directory of " + user
+          + " only accessible by its owner");
+    }
+    return directory;
+  }
+
+}
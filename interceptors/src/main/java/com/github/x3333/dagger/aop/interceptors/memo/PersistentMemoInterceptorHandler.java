@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.memo;
+
+import com.github.x3333.dagger.aop.InterceptorHandler;
+import com.github.x3333.dagger.aop.MethodInterceptor;
+
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+import com.google.auto.service.AutoService;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@AutoService(InterceptorHandler.class)
+public class PersistentMemoInterceptorHandler implements InterceptorHandler {
+
+  @Override
+  public Class<? extends Annotation> annotation() {
+    return PersistentMemo.class;
+  }
+
+  @Override
+  public Class<? extends MethodInterceptor> methodInterceptorClass() {
+    return PersistentMemoInterceptor.class;
+  }
+
+  @Override
+  public boolean invocationEscapes() {
+    return false;
+  }
+
+  /**
+   * Methods must return a value, and final classes of the parameters and return type must be {@link Serializable}. Other classes and
+   * interfaces may have serializable subclasses, so they are checked on each call.
+   */
+  @Override
+  public String validateMethod(final ExecutableElement methodElement) {
+    if (methodElement.getReturnType().getKind() == TypeKind.VOID) {
+      return "PersistentMemo methods must return a value!";
+    }
+    final long maximumSize = methodElement.getAnnotation(PersistentMemo.class).maximumSize();
+    if (maximumSize < MemoFile.MINIMUM_SIZE || maximumSize > Integer.MAX_VALUE) {
+      return "PersistentMemo maximumSize must be from " + MemoFile.MINIMUM_SIZE + " up to " + Integer.MAX_VALUE + "!";
+    }
+    if (!isSerializable(methodElement.getReturnType())) {
+      return "PersistentMemo methods must return a Serializable type!";
+    }
+    for (final VariableElement parameter : methodElement.getParameters()) {
+      if (!isSerializable(parameter.asType())) {
+        return "PersistentMemo parameter '" + parameter.getSimpleName() + "' must be Serializable!";
+      }
+    }
+    return null;
+  }
+
+  //
+
+  private static boolean isSerializable(final TypeMirror type) {
+    if (type.getKind() != TypeKind.DECLARED) {
+      return true;
+    }
+    final TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+    if (element.getKind() != ElementKind.CLASS || !element.getModifiers().contains(Modifier.FINAL)) {
+      return true;
+    }
+    return implementsSerializable(element);
+  }
+
+  private static boolean implementsSerializable(final TypeElement element) {
+    if (element.getQualifiedName().contentEquals(Serializable.class.getName())) {
+      return true;
+    }
+    for (final TypeMirror type : element.getInterfaces()) {
+      if (implementsSerializable((TypeElement) ((DeclaredType) type).asElement())) {
+        return true;
+      }
+    }
+    final TypeMirror superclass = element.getSuperclass();
+    return superclass.getKind() == TypeKind.DECLARED
+        && implementsSerializable((TypeElement) ((DeclaredType) superclass).asElement());
+  }
+
+}
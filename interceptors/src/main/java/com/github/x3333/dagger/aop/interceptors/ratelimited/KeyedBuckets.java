@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.ratelimited;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded table of {@link TokenBucket}s by key.
+ * 
+ * <p>
+ * Keys are spread in {@value #STRIPES} stripes, each one an open addressing table limited to its share of the maximum keys, the
+ * remainder of the division given one to each of the first stripes, so their capacities add up to the maximum keys. There must be at
+ * least one key per stripe. Existing buckets are found without locks nor allocation, and primitive keys are compared as
+ * <code>long</code>, without boxing. New keys are added holding the lock of their stripe.
+ * 
+ * <p>
+ * When a stripe is full, a clock hand samples up to {@value #EVICTION_SAMPLES} buckets from where it stopped the last time. The first
+ * idle one is evicted, which doesn't change the limits as it is full, and if there are none the one with the oldest arrival time, so
+ * adding a key doesn't scan the stripe.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class KeyedBuckets {
+
+  static final int EVICTION_SAMPLES = 8;
+  static final int STRIPES = 16;
+  private static final Object NULL_KEY = new Object();
+  private static final Object PRIMITIVE_KEY = new Object();
+  private static final int INITIAL_SLOTS = 8;
+
+  private final Stripe[] stripes = new Stripe[STRIPES];
+
+  KeyedBuckets(final int maximumKeys) {
+    if (maximumKeys < STRIPES) {
+      throw new IllegalArgumentException("maximumKeys must be at least " + STRIPES + ": " + maximumKeys);
+    }
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe(maximumKeys / STRIPES + (i < maximumKeys % STRIPES ? 1 : 0));
+    }
+  }
+
+  TokenBucket bucket(final Object key, final long now) {
+    final Object mapKey = key == null ? NULL_KEY : key;
+    return bucket(spread(mapKey.hashCode()), mapKey, 0, now);
+  }
+
+  /**
+   * Bucket of a primitive key, <code>int</code> and smaller types widened and floating point types as their bits.
+   */
+  TokenBucket bucket(final long key, final long now) {
+    return bucket(spread(Long.hashCode(key)), PRIMITIVE_KEY, key, now);
+  }
+
+  int size() {
+    int size = 0;
+    for (final Stripe stripe : stripes) {
+      size += stripe.size();
+    }
+    return size;
+  }
+
+  //
+
+  private TokenBucket bucket(final int hash, final Object key, final long primitiveKey, final long now) {
+    final Stripe stripe = stripes[(hash >>> 28) & (STRIPES - 1)];
+    final TokenBucket bucket = stripe.find(hash, key, primitiveKey);
+    return bucket != null ? bucket : stripe.add(hash, key, primitiveKey, now);
+  }
+
+  private static int spread(final int hashCode) {
+    return hashCode * 0x9E3779B9;
+  }
+
+  /**
+   * Immutable entry, so readers racing with writers see it whole.
+   */
+  private static final class Entry {
+
+    final int hash;
+    final Object key;
+    final long primitiveKey;
+    final TokenBucket bucket;
+
+    Entry(final int hash, final Object key, final long primitiveKey, final TokenBucket bucket) {
+      this.hash = hash;
+      this.key = key;
+      this.primitiveKey = primitiveKey;
+      this.bucket = bucket;
+    }
+
+    boolean matches(final int hash, final Object key, final long primitiveKey) {
+      if (this.hash != hash) {
+        return false;
+      }
+      return key == PRIMITIVE_KEY ? this.key == PRIMITIVE_KEY && this.primitiveKey == primitiveKey : key.equals(this.key);
+    }
+
+  }
+
+  /**
+   * Linear probing table, up to half full. Readers may miss an entry being moved, finding it again holding the lock.
+   */
+  private static final class Stripe extends ReentrantLock {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int capacity;
+    private final int maximumSlots;
+    private volatile Entry[] table = new Entry[INITIAL_SLOTS];
+
+    // Guarded by the lock
+    private int size;
+    private int hand;
+
+    Stripe(final int capacity) {
+      this.capacity = capacity;
+      this.maximumSlots = Math.max(INITIAL_SLOTS, Integer.highestOneBit(capacity * 2 - 1) << 1);
+    }
+
+    TokenBucket find(final int hash, final Object key, final long primitiveKey) {
+      final Entry[] entries = table;
+      final int mask = entries.length - 1;
+      for (int i = hash & mask, probes = 0; probes < entries.length; i = (i + 1) & mask, probes++) {
+        final Entry entry = entries[i];
+        if (entry == null) {
+          return null;
+        }
+        if (entry.matches(hash, key, primitiveKey)) {
+          return entry.bucket;
+        }
+      }
+      return null;
+    }
+
+    TokenBucket add(final int hash, final Object key, final long primitiveKey, final long now) {
+      lock();
+      try {
+        final TokenBucket existing = find(hash, key, primitiveKey);
+        if (existing != null) {
+          return existing;
+        }
+        if (size >= capacity) {
+          evict(now);
+        }
+        if ((size + 1) * 2 > table.length && table.length < maximumSlots) {
+          resize();
+        }
+        final TokenBucket bucket = new TokenBucket(now);
+        insert(table, new Entry(hash, key, primitiveKey, bucket));
+        size++;
+        return bucket;
+      } finally {
+        unlock();
+      }
+    }
+
+    int size() {
+      lock();
+      try {
+        return size;
+      } finally {
+        unlock();
+      }
+    }
+
+    //
+
+    private void evict(final long now) {
+      final Entry[] entries = table;
+      final int mask = entries.length - 1;
+      int victim = -1;
+      int sampled = 0;
+      int i = hand & mask;
+      for (int scanned = 0; scanned < entries.length && sampled < EVICTION_SAMPLES; scanned++, i = (i + 1) & mask) {
+        final Entry entry = entries[i];
+        if (entry == null) {
+          continue;
+        }
+        sampled++;
+        if (entry.bucket.isIdle(now)) {
+          victim = i;
+          i = (i + 1) & mask;
+          break;
+        }
+        if (victim == -1 || entry.bucket.arrival() - entries[victim].bucket.arrival() < 0) {
+          victim = i;
+        }
+      }
+      hand = i;
+      remove(entries, victim);
+      size--;
+    }
+
+    private void resize() {
+      final Entry[] resized = new Entry[table.length * 2];
+      for (final Entry entry : table) {
+        if (entry != null) {
+          insert(resized, entry);
+        }
+      }
+      table = resized;
+    }
+
+    private static void insert(final Entry[] entries, final Entry entry) {
+      final int mask = entries.length - 1;
+      int i = entry.hash & mask;
+      while (entries[i] != null) {
+        i = (i + 1) & mask;
+      }
+      entries[i] = entry;
+    }
+
+    /**
+     * Remove by shifting back the following entries of the cluster, so probing doesn't need tombstones.
+     */
+    private static void remove(final Entry[] entries, final int index) {
+      final int mask = entries.length - 1;
+      int gap = index;
+      for (int i = (index + 1) & mask; entries[i] != null; i = (i + 1) & mask) {
+        final int ideal = entries[i].hash & mask;
+        if (((i - ideal) & mask) >= ((i - gap) & mask)) {
+          entries[gap] = entries[i];
+          gap = i;
+        }
+      }
+      entries[gap] = null;
+    }
+
+  }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.ratelimited;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limit the rate of calls to the method with a token bucket, global or by the value of an argument.
+ * 
+ * <p>
+ * Calls take a permit from the bucket, which holds up to {@link #burst()} permits and is refilled at {@link #permitsPerSecond()}. When
+ * the bucket is empty, calls wait up to {@link #timeout()} for a permit, and fail with {@link RateLimitExceededException} if it would
+ * take longer.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RateLimited {
+
+  /**
+   * @return Permits added to the bucket per second.
+   */
+  double permitsPerSecond();
+
+  /**
+   * @return Maximum permits in the bucket, the calls allowed at once after being idle.
+   */
+  int burst() default 1;
+
+  /**
+   * @return Index of the argument whose value has its own bucket, -1 to share a bucket for all calls.
+   */
+  int key() default -1;
+
+  /**
+   * @return Maximum number of keys with a bucket, at least 16, idle buckets are evicted first.
+   */
+  int maximumKeys() default 10_000;
+
+  /**
+   * @return Maximum time to wait for a permit, in {@link #timeoutUnit()}, 0 to fail fast.
+   */
+  long timeout() default 0;
+
+  /**
+   * @return Unit of {@link #timeout()}.
+   */
+  TimeUnit timeoutUnit() default TimeUnit.MILLISECONDS;
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.ratelimited;
+
+import com.github.x3333.dagger.aop.DoubleMethodInterceptor;
+import com.github.x3333.dagger.aop.DoubleMethodInvocation;
+import com.github.x3333.dagger.aop.IntMethodInterceptor;
+import com.github.x3333.dagger.aop.IntMethodInvocation;
+import com.github.x3333.dagger.aop.LongMethodInterceptor;
+import com.github.x3333.dagger.aop.LongMethodInvocation;
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import java.lang.reflect.Method;
+
+import javax.inject.Inject;
+
+/**
+ * Take a permit before proceeding {@link RateLimited} methods.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class RateLimitedInterceptor implements IntMethodInterceptor, LongMethodInterceptor, DoubleMethodInterceptor {
+
+  @Inject
+  public RateLimitedInterceptor() {}
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T invoke(final MethodInvocation invocation) throws Throwable {
+    acquire(invocation);
+    return (T) invocation.proceed();
+  }
+
+  @Override
+  public int invokeInt(final IntMethodInvocation invocation) throws Throwable {
+    acquire(invocation);
+    return invocation.proceedInt();
+  }
+
+  @Override
+  public long invokeLong(final LongMethodInvocation invocation) throws Throwable {
+    acquire(invocation);
+    return invocation.proceedLong();
+  }
+
+  @Override
+  public double invokeDouble(final DoubleMethodInvocation invocation) throws Throwable {
+    acquire(invocation);
+    return invocation.proceedDouble();
+  }
+
+  private static void acquire(final MethodInvocation invocation) {
+    invocation.methodState(RateLimitedInterceptor::limiter).acquire(invocation);
+  }
+
+  private static RateLimiter limiter(final MethodInvocation invocation) {
+    final Method method = invocation.getMethod();
+    final RateLimited rateLimited = invocation.annotation(RateLimited.class);
+    return new RateLimiter(method.getDeclaringClass().getName() + "." + method.getName(), rateLimited,
+        rateLimited.key() < 0 ? null : method.getParameterTypes()[rateLimited.key()]);
+  }
+
+}
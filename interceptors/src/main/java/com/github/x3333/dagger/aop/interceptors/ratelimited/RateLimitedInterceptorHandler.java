@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.ratelimited;
+
+import com.github.x3333.dagger.aop.InterceptorHandler;
+import com.github.x3333.dagger.aop.MethodInterceptor;
+
+import java.lang.annotation.Annotation;
+
+import javax.lang.model.element.ExecutableElement;
+
+import com.google.auto.service.AutoService;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@AutoService(InterceptorHandler.class)
+public class RateLimitedInterceptorHandler implements InterceptorHandler {
+
+  @Override
+  public Class<? extends Annotation> annotation() {
+    return RateLimited.class;
+  }
+
+  @Override
+  public Class<? extends MethodInterceptor> methodInterceptorClass() {
+    return RateLimitedInterceptor.class;
+  }
+
+  @Override
+  public boolean invocationEscapes() {
+    return false;
+  }
+
+  @Override
+  public String validateMethod(final ExecutableElement methodElement) {
+    final RateLimited rateLimited = methodElement.getAnnotation(RateLimited.class);
+    if (!(rateLimited.permitsPerSecond() > 0)) {
+      return "RateLimited permitsPerSecond must be positive!";
+    }
+    if (rateLimited.burst() < 1) {
+      return "RateLimited burst must be at least 1!";
+    }
+    final int parameters = methodElement.getParameters().size();
+    if (rateLimited.key() < -1 || rateLimited.key() >= parameters) {
+      return parameters == 0 ? "RateLimited key must be -1, the method has no arguments!"
+          : String.format("RateLimited key must be -1 or an argument index, from 0 to %d!", parameters - 1);
+    }
+    if (rateLimited.maximumKeys() < KeyedBuckets.STRIPES) {
+      return "RateLimited maximumKeys must be at least " + KeyedBuckets.STRIPES + "!";
+    }
+    if (rateLimited.timeout() < 0) {
+      return "RateLimited timeout must not be negative!";
+    }
+    return null;
+  }
+
+}
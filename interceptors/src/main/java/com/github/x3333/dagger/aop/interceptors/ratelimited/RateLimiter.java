@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.ratelimited;
+
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Rate limiter of a {@link RateLimited} method, with a global {@link TokenBucket} or {@link KeyedBuckets}.
+ * 
+ * <p>
+ * Primitive keys are read with the typed accessors of the invocation, without boxing.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class RateLimiter {
+
+  private final String name;
+  private final long interval;
+  private final long tolerance;
+  private final long maximumWait;
+  private final int key;
+  private final KeyKind keyKind;
+  private final TokenBucket bucket;
+  private final KeyedBuckets buckets;
+
+  /**
+   * @param name Name of the method.
+   * @param rateLimited Annotation of the method.
+   * @param keyType Type of the key argument, ignored for a global bucket.
+   */
+  RateLimiter(final String name, final RateLimited rateLimited, final Class<?> keyType) {
+    this.name = name;
+    this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rateLimited.permitsPerSecond()));
+    this.tolerance = interval * rateLimited.burst();
+    this.maximumWait = rateLimited.timeoutUnit().toNanos(rateLimited.timeout());
+    this.key = rateLimited.key();
+    this.keyKind = KeyKind.of(keyType);
+    if (key < 0) {
+      this.bucket = new TokenBucket(System.nanoTime());
+      this.buckets = null;
+    } else {
+      this.bucket = null;
+      this.buckets = new KeyedBuckets(rateLimited.maximumKeys());
+    }
+  }
+
+  /**
+   * Take a permit for the invocation, waiting for it if needed.
+   * 
+   * @throws RateLimitExceededException If a permit is not available in time, or the thread is interrupted while waiting.
+   */
+  void acquire(final MethodInvocation invocation) {
+    final long now = System.nanoTime();
+    final TokenBucket target = bucket != null ? bucket : keyedBucket(invocation, now);
+    final long wait = target.reserve(now, interval, tolerance, maximumWait);
+    if (wait < 0) {
+      throw new RateLimitExceededException("Rate limit exceeded for " + name);
+    }
+    if (wait > 0) {
+      final long deadline = now + wait;
+      long remaining = wait;
+      while (remaining > 0) {
+        LockSupport.parkNanos(this, remaining);
+        if (Thread.currentThread().isInterrupted()) {
+          throw new RateLimitExceededException("Interrupted waiting for a permit of " + name);
+        }
+        remaining = deadline - System.nanoTime();
+      }
+    }
+  }
+
+  //
+
+  private TokenBucket keyedBucket(final MethodInvocation invocation, final long now) {
+    switch (keyKind) {
+      case INT:
+        return buckets.bucket(invocation.getIntArgument(key), now);
+      case LONG:
+        return buckets.bucket(invocation.getLongArgument(key), now);
+      case DOUBLE:
+        return buckets.bucket(Double.doubleToLongBits(invocation.getDoubleArgument(key)), now);
+      case BOOLEAN:
+        return buckets.bucket(invocation.getBooleanArgument(key) ? 1 : 0, now);
+      case FLOAT:
+        return buckets.bucket(Float.floatToIntBits(invocation.getFloatArgument(key)), now);
+      case SHORT:
+        return buckets.bucket(invocation.getShortArgument(key), now);
+      case BYTE:
+        return buckets.bucket(invocation.getByteArgument(key), now);
+      case CHAR:
+        return buckets.bucket(invocation.getCharArgument(key), now);
+      default:
+        return buckets.bucket(invocation.getArgument(key), now);
+    }
+  }
+
+  /**
+   * How the key argument is read.
+   */
+  private enum KeyKind {
+
+    OBJECT, INT, LONG, DOUBLE, BOOLEAN, FLOAT, SHORT, BYTE, CHAR;
+
+    static KeyKind of(final Class<?> type) {
+      if (type == null || !type.isPrimitive()) {
+        return OBJECT;
+      }
+      return valueOf(type.getName().toUpperCase(Locale.ROOT));
+    }
+
+  }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.ratelimited;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Token bucket packed in a single <code>long</code>, the theoretical arrival time of the next permit.
+ * 
+ * <p>
+ * Each permit moves the arrival time by the refill interval, starting from now when the bucket has been idle. The bucket is empty when
+ * the arrival time is more than burst intervals ahead of now, and full when it is not ahead of now. A permit is taken with a single CAS,
+ * without locks nor allocation. Permits may be reserved ahead of time, so callers can wait for them.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class TokenBucket {
+
+  private static final AtomicLongFieldUpdater<TokenBucket> ARRIVAL =
+      AtomicLongFieldUpdater.newUpdater(TokenBucket.class, "arrival");
+
+  private volatile long arrival;
+
+  /**
+   * @param now Current {@link System#nanoTime()}, the bucket is created full.
+   */
+  TokenBucket(final long now) {
+    this.arrival = now;
+  }
+
+  /**
+   * Reserve a permit.
+   * 
+   * @param now Current {@link System#nanoTime()}.
+   * @param interval Nanoseconds to refill a permit.
+   * @param tolerance Nanoseconds to refill the burst.
+   * @param maximumWait Maximum nanoseconds to wait for the permit.
+   * @return Nanoseconds to wait for the reserved permit, or -1 if it would take more than <code>maximumWait</code>.
+   */
+  long reserve(final long now, final long interval, final long tolerance, final long maximumWait) {
+    for (;;) {
+      final long current = arrival;
+      final long next = (current - now > 0 ? current : now) + interval;
+      final long wait = next - now - tolerance;
+      if (wait > maximumWait) {
+        return -1;
+      }
+      if (ARRIVAL.compareAndSet(this, current, next)) {
+        return Math.max(wait, 0);
+      }
+    }
+  }
+
+  /**
+   * @param now Current {@link System#nanoTime()}.
+   * @return <code>true</code> if the bucket is full, so it doesn't differ from a new one.
+   */
+  boolean isIdle(final long now) {
+    return arrival - now <= 0;
+  }
+
+  long arrival() {
+    return arrival;
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.retry;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Call the method again when it fails, waiting a jittered backoff between attempts.
+ * 
+ * <p>
+ * The wait is a decorrelated jitter: a random time between {@link #backoff()} and three times the previous wait, capped at
+ * {@link #maxBackoff()}, so retrying callers spread instead of retrying in waves.
+ * 
+ * <p>
+ * Retries are also limited by the process wide {@link RetryBudget}, which allows a percentage of the calls to be retried. When it is
+ * exhausted, failures are thrown right away, so retries can't amplify the load of a failing dependency. The exception of the last
+ * attempt is thrown, keeping its type.
+ * 
+ * <p>
+ * Methods returning a {@link java.util.concurrent.CompletionStage CompletionStage} are retried when the stage fails, without blocking
+ * while waiting the backoff.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Retry {
+
+  /**
+   * @return Maximum attempts, including the first call.
+   */
+  int maxAttempts() default 3;
+
+  /**
+   * @return Minimum wait before a retry, in {@link #backoffUnit()}.
+   */
+  long backoff() default 100;
+
+  /**
+   * @return Maximum wait before a retry, in {@link #backoffUnit()}.
+   */
+  long maxBackoff() default 10_000;
+
+  /**
+   * @return Unit of {@link #backoff()} and {@link #maxBackoff()}.
+   */
+  TimeUnit backoffUnit() default TimeUnit.MILLISECONDS;
+
+  /**
+   * @return Exceptions, and their subclasses, which are retried.
+   */
+  Class<? extends Throwable>[] retryOn() default Exception.class;
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Budget of retries, allowing retries up to a percentage of the calls.
+ * 
+ * <p>
+ * The budget is a bucket of credits in a single {@link AtomicLong}: each call deposits <code>percent</code> credits and each retry
+ * withdraws 100, so retries are at most <code>percent</code> of the calls, plus the <code>maximum</code> retries the bucket holds when
+ * full. It starts full, and while it is full calls only read it, so healthy methods don't contend on it.
+ * 
+ * <p>
+ * {@link RetryInterceptor} uses the {@link #global() global} budget, shared by all {@link Retry} methods, configured with the
+ * {@value #PERCENT_PROPERTY} and {@value #MAXIMUM_PROPERTY} system properties, by default 10% of the calls and 100 retries.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public final class RetryBudget {
+
+  /**
+   * System property with the percentage of calls retried by the global budget.
+   */
+  public static final String PERCENT_PROPERTY = "aop.retry.budget.percent";
+
+  /**
+   * System property with the retries held by the global budget when full.
+   */
+  public static final String MAXIMUM_PROPERTY = "aop.retry.budget.maximum";
+
+  private static final long RETRY_CREDITS = 100;
+
+  private static final RetryBudget GLOBAL =
+      new RetryBudget(Integer.getInteger(PERCENT_PROPERTY, 10), Integer.getInteger(MAXIMUM_PROPERTY, 100));
+
+  private final long deposit;
+  private final long capacity;
+  private final AtomicLong credits;
+
+  /**
+   * Create a full budget.
+   * 
+   * @param percent Percentage of the calls which can be retried.
+   * @param maximum Retries held when full.
+   */
+  public RetryBudget(final int percent, final int maximum) {
+    if (percent < 0 || maximum < 0) {
+      throw new IllegalArgumentException("Retry budget percent and maximum must not be negative!");
+    }
+    this.deposit = percent;
+    this.capacity = maximum * RETRY_CREDITS;
+    this.credits = new AtomicLong(capacity);
+  }
+
+  /**
+   * @return Budget shared by all {@link Retry} methods.
+   */
+  public static RetryBudget global() {
+    return GLOBAL;
+  }
+
+  /**
+   * Deposit the credits of a call.
+   */
+  public void deposit() {
+    // Reading first keeps a full bucket shared, the cap may be exceeded by concurrent deposits, bounded by the callers
+    if (credits.get() < capacity) {
+      credits.addAndGet(deposit);
+    }
+  }
+
+  /**
+   * Withdraw the credits of a retry.
+   * 
+   * @return <code>true</code> if the retry is allowed, <code>false</code> if the budget is exhausted.
+   */
+  public boolean tryWithdraw() {
+    long current;
+    do {
+      current = credits.get();
+      if (current < RETRY_CREDITS) {
+        return false;
+      }
+    } while (!credits.compareAndSet(current, current - RETRY_CREDITS));
+    return true;
+  }
+
+  /**
+   * @return Retries allowed by the credits left.
+   */
+  public long available() {
+    return credits.get() / RETRY_CREDITS;
+  }
+
+}
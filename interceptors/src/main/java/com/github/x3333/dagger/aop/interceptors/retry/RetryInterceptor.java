@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.retry;
+
+import com.github.x3333.dagger.aop.AsyncMethodInterceptor;
+import com.github.x3333.dagger.aop.AsyncMethodInvocation;
+import com.github.x3333.dagger.aop.DoubleMethodInterceptor;
+import com.github.x3333.dagger.aop.DoubleMethodInvocation;
+import com.github.x3333.dagger.aop.IntMethodInterceptor;
+import com.github.x3333.dagger.aop.IntMethodInvocation;
+import com.github.x3333.dagger.aop.InvocationContext;
+import com.github.x3333.dagger.aop.LongMethodInterceptor;
+import com.github.x3333.dagger.aop.LongMethodInvocation;
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+/**
+ * Retry failed calls of {@link Retry} methods.
+ * 
+ * <p>
+ * Calls proceed again in the same thread, waiting the backoff, and the exception of the last attempt is thrown as is, so the generated
+ * class propagates it with its declared type. Stages are retried by a scheduled task, proceeding again in the
+ * {@link ForkJoinPool#commonPool() common pool} with the {@link InvocationContext} of the call.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class RetryInterceptor
+    implements IntMethodInterceptor, LongMethodInterceptor, DoubleMethodInterceptor, AsyncMethodInterceptor {
+
+  @Inject
+  public RetryInterceptor() {}
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T invoke(final MethodInvocation invocation) throws Throwable {
+    final RetryPolicy policy = start(invocation);
+    long backoff = policy.initialBackoff();
+    for (int attempt = 1;; attempt++) {
+      try {
+        return (T) invocation.proceed();
+      } catch (final Throwable e) {
+        backoff = retryOrThrow(policy, attempt, backoff, e);
+      }
+    }
+  }
+
+  @Override
+  public int invokeInt(final IntMethodInvocation invocation) throws Throwable {
+    final RetryPolicy policy = start(invocation);
+    long backoff = policy.initialBackoff();
+    for (int attempt = 1;; attempt++) {
+      try {
+        return invocation.proceedInt();
+      } catch (final Throwable e) {
+        backoff = retryOrThrow(policy, attempt, backoff, e);
+      }
+    }
+  }
+
+  @Override
+  public long invokeLong(final LongMethodInvocation invocation) throws Throwable {
+    final RetryPolicy policy = start(invocation);
+    long backoff = policy.initialBackoff();
+    for (int attempt = 1;; attempt++) {
+      try {
+        return invocation.proceedLong();
+      } catch (final Throwable e) {
+        backoff = retryOrThrow(policy, attempt, backoff, e);
+      }
+    }
+  }
+
+  @Override
+  public double invokeDouble(final DoubleMethodInvocation invocation) throws Throwable {
+    final RetryPolicy policy = start(invocation);
+    long backoff = policy.initialBackoff();
+    for (int attempt = 1;; attempt++) {
+      try {
+        return invocation.proceedDouble();
+      } catch (final Throwable e) {
+        backoff = retryOrThrow(policy, attempt, backoff, e);
+      }
+    }
+  }
+
+  @Override
+  public <T> CompletionStage<T> invokeAsync(final AsyncMethodInvocation invocation) throws Throwable {
+    final RetryPolicy policy = start(invocation);
+    final RetryBudget budget = RetryBudget.global();
+    final InvocationContext context = InvocationContext.current();
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    attempt(invocation, policy, budget, context, result, 1, policy.initialBackoff());
+    return result;
+  }
+
+  //
+
+  private static RetryPolicy policy(final MethodInvocation invocation) {
+    return new RetryPolicy(invocation.annotation(Retry.class));
+  }
+
+  /**
+   * Policy of the invoked method, depositing the call in the {@link RetryBudget#global() budget}.
+   */
+  private static RetryPolicy start(final MethodInvocation invocation) {
+    final RetryPolicy policy = invocation.methodState(RetryInterceptor::policy);
+    RetryBudget.global().deposit();
+    return policy;
+  }
+
+  /**
+   * Wait the next backoff after the failed <code>attempt</code>, returning it, or throw <code>error</code> if it shouldn't be retried.
+   */
+  private static long retryOrThrow(final RetryPolicy policy, final int attempt, final long backoff, final Throwable error)
+      throws Throwable {
+    if (!policy.shouldRetry(attempt, error, RetryBudget.global())) {
+      throw error;
+    }
+    final long next = policy.nextBackoff(backoff);
+    pause(next, error);
+    return next;
+  }
+
+  /**
+   * Wait the backoff, throwing <code>error</code> if interrupted.
+   */
+  private static void pause(final long nanos, final Throwable error) throws Throwable {
+    try {
+      TimeUnit.NANOSECONDS.sleep(nanos);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw error;
+    }
+  }
+
+  private static <T> void attempt(final AsyncMethodInvocation invocation, final RetryPolicy policy, final RetryBudget budget,
+      final InvocationContext context, final CompletableFuture<T> result, final int attempt, final long backoff) {
+    invocation.<T>proceedAsync().whenComplete((value, e) -> {
+      if (e == null) {
+        result.complete(value);
+        return;
+      }
+      final Throwable error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+      if (!policy.shouldRetry(attempt, error, budget)) {
+        result.completeExceptionally(error);
+        return;
+      }
+      final long next = policy.nextBackoff(backoff);
+      Scheduler.INSTANCE.schedule(() -> ForkJoinPool.commonPool()
+          .execute(() -> retry(invocation, policy, budget, context, result, attempt + 1, next)), next, TimeUnit.NANOSECONDS);
+    });
+  }
+
+  /**
+   * Make the next <code>attempt</code> in the context of the call.
+   */
+  private static <T> void retry(final AsyncMethodInvocation invocation, final RetryPolicy policy, final RetryBudget budget,
+      final InvocationContext context, final CompletableFuture<T> result, final int attempt, final long backoff) {
+    try {
+      context.call(() -> {
+        attempt(invocation, policy, budget, context, result, attempt, backoff);
+        return null;
+      });
+    } catch (final Exception e) {
+      result.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Daemon thread waiting the backoff of stages, created on the first stage retried.
+   */
+  private static final class Scheduler {
+
+    static final ScheduledExecutorService INSTANCE = new ScheduledThreadPoolExecutor(1, runnable -> {
+      final Thread thread = new Thread(runnable, "aop-retry-scheduler");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+  }
+
+}
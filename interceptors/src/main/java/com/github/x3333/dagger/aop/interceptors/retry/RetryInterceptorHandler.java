@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.retry;
+
+import com.github.x3333.dagger.aop.InterceptorHandler;
+import com.github.x3333.dagger.aop.MethodInterceptor;
+
+import java.lang.annotation.Annotation;
+
+import javax.lang.model.element.ExecutableElement;
+
+import com.google.auto.service.AutoService;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@AutoService(InterceptorHandler.class)
+public class RetryInterceptorHandler implements InterceptorHandler {
+
+  @Override
+  public Class<? extends Annotation> annotation() {
+    return Retry.class;
+  }
+
+  @Override
+  public Class<? extends MethodInterceptor> methodInterceptorClass() {
+    return RetryInterceptor.class;
+  }
+
+  @Override
+  public boolean invocationEscapes() {
+    return false;
+  }
+
+  @Override
+  public String validateMethod(final ExecutableElement methodElement) {
+    final Retry retry = methodElement.getAnnotation(Retry.class);
+    if (retry.maxAttempts() < 1) {
+      return "Retry maxAttempts must be at least 1!";
+    }
+    if (retry.backoff() < 0) {
+      return "Retry backoff must not be negative!";
+    }
+    if (retry.maxBackoff() < retry.backoff()) {
+      return "Retry maxBackoff must not be less than backoff!";
+    }
+    return null;
+  }
+
+}
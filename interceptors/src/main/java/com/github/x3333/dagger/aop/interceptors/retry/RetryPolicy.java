@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.retry;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Settings of a {@link Retry} method, read once from its annotation.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class RetryPolicy {
+
+  private final int maxAttempts;
+  private final long backoffNanos;
+  private final long maxBackoffNanos;
+  private final Class<? extends Throwable>[] retryOn;
+
+  RetryPolicy(final Retry retry) {
+    this.maxAttempts = retry.maxAttempts();
+    this.backoffNanos = retry.backoffUnit().toNanos(retry.backoff());
+    this.maxBackoffNanos = retry.backoffUnit().toNanos(retry.maxBackoff());
+    this.retryOn = retry.retryOn();
+  }
+
+  /**
+   * @return Wait before the first retry, to be passed to {@link #nextBackoff(long)}.
+   */
+  long initialBackoff() {
+    return backoffNanos;
+  }
+
+  /**
+   * Check if the <code>attempt</code> which failed with <code>error</code> should be retried, withdrawing it from the
+   * <code>budget</code>. Interruptions are never retried.
+   * 
+   * @param attempt Attempt which failed, starting at 1.
+   * @param error Exception thrown by the attempt.
+   * @param budget Budget of retries.
+   * @return <code>true</code> to retry.
+   */
+  boolean shouldRetry(final int attempt, final Throwable error, final RetryBudget budget) {
+    return attempt < maxAttempts && !(error instanceof InterruptedException || error instanceof InterruptedIOException)
+        && isRetried(error) && budget.tryWithdraw();
+  }
+
+  /**
+   * Decorrelated jitter, a random wait between the backoff and three times the <code>previous</code> wait, capped at the maximum
+   * backoff.
+   * 
+   * @param previous Previous wait, in nanoseconds.
+   * @return Next wait, in nanoseconds.
+   */
+  long nextBackoff(final long previous) {
+    final long upper = previous > maxBackoffNanos / 3 ? maxBackoffNanos : previous * 3;
+    if (upper <= backoffNanos) {
+      return backoffNanos;
+    }
+    return ThreadLocalRandom.current().nextLong(backoffNanos, upper + 1);
+  }
+
+  //
+
+  private boolean isRetried(final Throwable error) {
+    for (final Class<? extends Throwable> retried : retryOn) {
+      if (retried.isInstance(error)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
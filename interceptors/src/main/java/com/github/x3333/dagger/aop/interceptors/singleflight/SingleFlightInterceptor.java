@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.singleflight;
+
+import com.github.x3333.dagger.aop.AsyncMethodInterceptor;
+import com.github.x3333.dagger.aop.AsyncMethodInvocation;
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import javax.inject.Inject;
+
+/**
+ * Share the calls in flight of {@link SingleFlight} methods.
+ * 
+ * <p>
+ * Calls in flight are kept in a {@link ConcurrentHashMap} of each method, in its
+ * {@link MethodInvocation#methodState(java.util.function.Function) state}, keyed by the instance and the arguments, so calls of different
+ * instances never share a result. The call proceeding removes its entry before completing it, so the map only has calls in flight and
+ * no result is retained. Reentrant calls, made by the thread proceeding the call in flight, proceed on their own instead of waiting for
+ * themselves.
+ * 
+ * <p>
+ * Waiting calls can be interrupted, throwing {@link InterruptedException} and keeping the interrupt status, as the generated class
+ * wraps it in methods not declaring it. Each stage returned is a copy of the call in flight, so completing or cancelling it doesn't
+ * affect the other callers.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class SingleFlightInterceptor implements AsyncMethodInterceptor {
+
+  @Inject
+  public SingleFlightInterceptor() {}
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T invoke(final MethodInvocation invocation) throws Throwable {
+    final ConcurrentHashMap<Object, Flight> flights = invocation.methodState(m -> new ConcurrentHashMap<>());
+    final Object key = key(invocation);
+    final Flight flight = new Flight();
+    final Flight existing = flights.putIfAbsent(key, flight);
+    if (existing != null) {
+      if (existing.owner == Thread.currentThread()) {
+        return (T) invocation.proceed();
+      }
+      try {
+        return (T) existing.get();
+      } catch (final ExecutionException e) {
+        throw e.getCause();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw e;
+      }
+    }
+    try {
+      final Object value = invocation.proceed();
+      flights.remove(key, flight);
+      flight.complete(value);
+      return (T) value;
+    } catch (final Throwable e) {
+      flights.remove(key, flight);
+      flight.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> CompletionStage<T> invokeAsync(final AsyncMethodInvocation invocation) throws Throwable {
+    final ConcurrentHashMap<Object, Flight> flights = invocation.methodState(m -> new ConcurrentHashMap<>());
+    final Object key = key(invocation);
+    final Flight flight = new Flight();
+    final Flight existing = flights.putIfAbsent(key, flight);
+    if (existing != null) {
+      return existing.owner == Thread.currentThread() ? invocation.proceedAsync() : (CompletionStage<T>) existing.share();
+    }
+    final CompletionStage<Object> stage;
+    try {
+      stage = invocation.proceedAsync();
+    } finally {
+      flight.owner = null;
+    }
+    stage.whenComplete((value, e) -> {
+      flights.remove(key, flight);
+      if (e != null) {
+        flight.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+      } else {
+        flight.complete(value);
+      }
+    });
+    return (CompletionStage<T>) flight.share();
+  }
+
+  //
+
+  private static Object key(final MethodInvocation invocation) {
+    final Object[] arguments = invocation.getArguments();
+    final Object[] key = new Object[arguments.length + 1];
+    key[0] = invocation.getInstance();
+    System.arraycopy(arguments, 0, key, 1, arguments.length);
+    return Arrays.asList(key);
+  }
+
+  /**
+   * Call in flight, with the thread proceeding it until it returns.
+   */
+  private static final class Flight extends CompletableFuture<Object> {
+
+    volatile Thread owner = Thread.currentThread();
+
+    /**
+     * @return Copy of this call for a caller, completed with it.
+     */
+    CompletableFuture<Object> share() {
+      return thenApply(Function.identity());
+    }
+
+  }
+
+}
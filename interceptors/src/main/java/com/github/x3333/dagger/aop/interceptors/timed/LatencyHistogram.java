@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.timed;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Log-linear histogram of latencies in nanoseconds.
+ * 
+ * <p>
+ * Each power of two is split in {@value #SUB_BUCKETS} linear buckets, so values are recorded with a relative error under 3.2%. Values
+ * from 2<sup>41</sup> nanoseconds, about 36 minutes, are recorded in the last bucket.
+ * 
+ * <p>
+ * Recording is lock-free and doesn't allocate. Threads record in one of the stripes, chosen by the thread id, each one with its own
+ * counters, so concurrent threads rarely update the same memory. Stripes are created on first use, up to the next power of two of
+ * available processors, so memory is bounded and used only by the concurrency seen. Readings merge all stripes, concurrent
+ * recordings may be partially seen.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public final class LatencyHistogram implements LatencyHistogramMBean {
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_EXPONENT = 40;
+  static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+  // The maximum is kept after the buckets of each stripe.
+  private static final int MAX_SLOT = BUCKETS;
+  private static final int STRIPES =
+      Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+  private final String name;
+  private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+  /**
+   * @param name Name of the histogram.
+   */
+  public LatencyHistogram(final String name) {
+    this.name = name;
+  }
+
+  /**
+   * Record a latency.
+   * 
+   * @param nanos Latency in nanoseconds, negative values are recorded as 0.
+   */
+  public void record(final long nanos) {
+    final long value = Math.max(nanos, 0);
+    final AtomicLongArray stripe = stripe();
+    stripe.getAndIncrement(index(value));
+    long max = stripe.get(MAX_SLOT);
+    while (value > max && !stripe.compareAndSet(MAX_SLOT, max, value)) {
+      max = stripe.get(MAX_SLOT);
+    }
+  }
+
+  /**
+   * @return Name of the histogram.
+   */
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public long getCount() {
+    long count = 0;
+    for (final long bucket : merge()) {
+      count += bucket;
+    }
+    return count;
+  }
+
+  @Override
+  public long getP50() {
+    return getValueAtPercentile(50);
+  }
+
+  @Override
+  public long getP99() {
+    return getValueAtPercentile(99);
+  }
+
+  @Override
+  public long getP999() {
+    return getValueAtPercentile(99.9);
+  }
+
+  @Override
+  public long getMax() {
+    long max = 0;
+    for (int i = 0; i < STRIPES; i++) {
+      final AtomicLongArray stripe = stripes.get(i);
+      if (stripe != null) {
+        max = Math.max(max, stripe.get(MAX_SLOT));
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Latency at <code>percentile</code>, the highest value of its bucket, limited by the maximum.
+   * 
+   * @param percentile Percentile, from 0 to 100.
+   * @return Latency in nanoseconds, 0 if nothing has been recorded.
+   */
+  public long getValueAtPercentile(final double percentile) {
+    final long[] buckets = merge();
+    long count = 0;
+    for (final long bucket : buckets) {
+      count += bucket;
+    }
+    if (count == 0) {
+      return 0;
+    }
+    final long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+    long seen = 0;
+    int index = 0;
+    while (index < BUCKETS - 1 && (seen += buckets[index]) < rank) {
+      index++;
+    }
+    return Math.min(highestValue(index), getMax());
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[count=%d, p50=%d, p99=%d, p999=%d, max=%d]", //
+        name, getCount(), getP50(), getP99(), getP999(), getMax());
+  }
+
+  //
+
+  private AtomicLongArray stripe() {
+    // Fibonacci hashing, so consecutive thread ids are spread.
+    final int index = (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+    final AtomicLongArray stripe = stripes.get(index);
+    if (stripe != null) {
+      return stripe;
+    }
+    stripes.compareAndSet(index, null, new AtomicLongArray(BUCKETS + 1));
+    return stripes.get(index);
+  }
+
+  private long[] merge() {
+    final long[] buckets = new long[BUCKETS];
+    for (int i = 0; i < STRIPES; i++) {
+      final AtomicLongArray stripe = stripes.get(i);
+      if (stripe != null) {
+        for (int j = 0; j < BUCKETS; j++) {
+          buckets[j] += stripe.get(j);
+        }
+      }
+    }
+    return buckets;
+  }
+
+  /**
+   * Bucket of a value: values under {@link #SUB_BUCKETS} have their own bucket, larger ones are indexed by their exponent and the
+   * {@link #SUB_BUCKET_BITS} bits following the highest one.
+   */
+  static int index(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    final int exponent = 63 - Long.numberOfLeadingZeros(value);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS
+        + (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+  }
+
+  /**
+   * Highest value recorded in the bucket at <code>index</code>.
+   */
+  static long highestValue(final int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    final int shift = index / SUB_BUCKETS - 1;
+    final long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+
+}
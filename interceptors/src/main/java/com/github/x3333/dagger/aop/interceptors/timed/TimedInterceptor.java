@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.timed;
+
+import com.github.x3333.dagger.aop.AsyncMethodInterceptor;
+import com.github.x3333.dagger.aop.AsyncMethodInvocation;
+import com.github.x3333.dagger.aop.DoubleMethodInterceptor;
+import com.github.x3333.dagger.aop.DoubleMethodInvocation;
+import com.github.x3333.dagger.aop.IntMethodInterceptor;
+import com.github.x3333.dagger.aop.IntMethodInvocation;
+import com.github.x3333.dagger.aop.LongMethodInterceptor;
+import com.github.x3333.dagger.aop.LongMethodInvocation;
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+
+import javax.inject.Inject;
+
+/**
+ * Record the latency of {@link Timed} methods.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class TimedInterceptor
+    implements IntMethodInterceptor, LongMethodInterceptor, DoubleMethodInterceptor, AsyncMethodInterceptor {
+
+  @Inject
+  public TimedInterceptor() {}
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T invoke(final MethodInvocation invocation) throws Throwable {
+    final long start = System.nanoTime();
+    try {
+      return (T) invocation.proceed();
+    } finally {
+      record(invocation, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public int invokeInt(final IntMethodInvocation invocation) throws Throwable {
+    final long start = System.nanoTime();
+    try {
+      return invocation.proceedInt();
+    } finally {
+      record(invocation, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public long invokeLong(final LongMethodInvocation invocation) throws Throwable {
+    final long start = System.nanoTime();
+    try {
+      return invocation.proceedLong();
+    } finally {
+      record(invocation, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public double invokeDouble(final DoubleMethodInvocation invocation) throws Throwable {
+    final long start = System.nanoTime();
+    try {
+      return invocation.proceedDouble();
+    } finally {
+      record(invocation, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public <T> CompletionStage<T> invokeAsync(final AsyncMethodInvocation invocation) throws Throwable {
+    final LatencyHistogram histogram = invocation.methodState(TimedInterceptor::histogram);
+    final long start = System.nanoTime();
+    return invocation.<T>proceedAsync().whenComplete((value, e) -> histogram.record(System.nanoTime() - start));
+  }
+
+  private static void record(final MethodInvocation invocation, final long nanos) {
+    invocation.methodState(TimedInterceptor::histogram).record(nanos);
+  }
+
+  private static LatencyHistogram histogram(final MethodInvocation invocation) {
+    String name = invocation.annotation(Timed.class).value();
+    if (name.isEmpty()) {
+      final Method method = invocation.getMethod();
+      name = method.getDeclaringClass().getName() + "." + method.getName();
+    }
+    return TimedRegistry.getDefault().histogram(name);
+  }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.timed;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of {@link LatencyHistogram LatencyHistograms} by name.
+ * 
+ * <p>
+ * Histograms of the {@link #getDefault() default registry}, used by {@link TimedInterceptor}, are registered in the platform
+ * MBeanServer as <code>com.github.x3333.dagger.aop:type=Timed,name=&lt;name&gt;</code>.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public final class TimedRegistry {
+
+  private static final String DOMAIN = "com.github.x3333.dagger.aop";
+
+  private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+  private final MBeanServer mbeanServer;
+
+  /**
+   * Create a registry whose histograms are not registered in JMX.
+   */
+  public TimedRegistry() {
+    this(null);
+  }
+
+  /**
+   * @param mbeanServer MBeanServer to register the histograms, <code>null</code> to not register them.
+   */
+  public TimedRegistry(final MBeanServer mbeanServer) {
+    this.mbeanServer = mbeanServer;
+  }
+
+  /**
+   * @return Registry used by {@link TimedInterceptor}.
+   */
+  public static TimedRegistry getDefault() {
+    return Default.INSTANCE;
+  }
+
+  /**
+   * Return the histogram named <code>name</code>, creating it if needed.
+   * 
+   * @param name Name of the histogram.
+   * @return Histogram.
+   */
+  public LatencyHistogram histogram(final String name) {
+    final LatencyHistogram histogram = histograms.get(name);
+    if (histogram != null) {
+      return histogram;
+    }
+    final LatencyHistogram created = new LatencyHistogram(name);
+    final LatencyHistogram previous = histograms.putIfAbsent(name, created);
+    if (previous != null) {
+      return previous;
+    }
+    if (mbeanServer != null) {
+      try {
+        mbeanServer.registerMBean(created, new ObjectName(DOMAIN + ":type=Timed,name=" + ObjectName.quote(name)));
+      } catch (final JMException e) {
+        // Histogram is still available using the registry.
+      }
+    }
+    return created;
+  }
+
+  /**
+   * @return Histograms by name, in name order.
+   */
+  public Map<String, LatencyHistogram> getHistograms() {
+    return Collections.unmodifiableMap(new TreeMap<>(histograms));
+  }
+
+  /**
+   * Holder of the default registry, created when first used.
+   */
+  private static final class Default {
+
+    static final TimedRegistry INSTANCE = new TimedRegistry(ManagementFactory.getPlatformMBeanServer());
+
+  }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.timeout;
+
+import com.github.x3333.dagger.aop.InvocationContext;
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Call of a {@link Timeout} method, proceeding in a worker thread while the caller waits.
+ * 
+ * <p>
+ * The caller parks until the worker completes the call or the deadline passes, so no timer is needed. Completing and abandoning the
+ * call race on a single CAS: the worker only unparks the caller if it completed first, and the caller only interrupts the worker if
+ * it abandoned the running call first. The worker then parks until the interrupt is sent, and clears it before returning to its
+ * executor.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class TimedCall implements Runnable, Callable<Object> {
+
+  private static final int NEW = 0;
+  private static final int RUNNING = 1;
+  private static final int COMPLETED = 2;
+  private static final int ABANDONED = 3;
+  private static final AtomicIntegerFieldUpdater<TimedCall> STATE =
+      AtomicIntegerFieldUpdater.newUpdater(TimedCall.class, "state");
+
+  private final MethodInvocation invocation;
+  private final InvocationContext context;
+  private final Thread caller;
+  private Object value;
+  private Throwable error;
+  private volatile int state;
+  private volatile Thread worker;
+  private volatile boolean interruptSent;
+
+  /**
+   * @param invocation Invocation to proceed.
+   * @param context Context of the caller, current while the invocation proceeds.
+   */
+  TimedCall(final MethodInvocation invocation, final InvocationContext context) {
+    this.invocation = invocation;
+    this.context = context;
+    this.caller = Thread.currentThread();
+  }
+
+  @Override
+  public void run() {
+    worker = Thread.currentThread();
+    if (!STATE.compareAndSet(this, NEW, RUNNING)) {
+      // Abandoned before running, not interrupted.
+      return;
+    }
+    try {
+      context.call(this);
+    } catch (final Exception e) {
+      error = e;
+    }
+    if (STATE.compareAndSet(this, RUNNING, COMPLETED)) {
+      LockSupport.unpark(caller);
+      return;
+    }
+    // Abandoned while running, the caller is interrupting this thread.
+    while (!interruptSent) {
+      Thread.interrupted();
+      LockSupport.park(this);
+    }
+    Thread.interrupted();
+  }
+
+  @Override
+  public Object call() {
+    try {
+      value = invocation.proceed();
+    } catch (final Throwable e) {
+      error = e;
+    }
+    return null;
+  }
+
+  /**
+   * Wait the call to complete.
+   * 
+   * <p>
+   * If the caller is interrupted, the call is abandoned and the interrupt status is kept, as the generated class wraps the
+   * {@link InterruptedException} of methods not declaring it.
+   * 
+   * @param timeoutNanos Timeout in nanoseconds.
+   * @return Value returned by the call.
+   * @throws TimeoutExceededException If the call didn't complete in time.
+   * @throws InterruptedException If the caller was interrupted.
+   * @throws Throwable Exception thrown by the call.
+   */
+  Object await(final long timeoutNanos) throws Throwable {
+    final long deadline = System.nanoTime() + timeoutNanos;
+    while (state != COMPLETED) {
+      if (caller.isInterrupted()) {
+        if (abandon()) {
+          throw new InterruptedException("Call of " + invocation.getMethod().getName() + " interrupted");
+        }
+        break;
+      }
+      final long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        if (abandon()) {
+          throw new TimeoutExceededException("Call of " + invocation.getMethod().getName() + " timed out");
+        }
+        break;
+      }
+      LockSupport.parkNanos(this, remaining);
+    }
+    if (error != null) {
+      throw error;
+    }
+    return value;
+  }
+
+  //
+
+  /**
+   * Abandon the call, interrupting the worker if it is running.
+   * 
+   * @return <code>false</code> if the call has completed meanwhile.
+   */
+  private boolean abandon() {
+    if (STATE.compareAndSet(this, NEW, ABANDONED)) {
+      return true;
+    }
+    if (!STATE.compareAndSet(this, RUNNING, ABANDONED)) {
+      return false;
+    }
+    final Thread thread = worker;
+    try {
+      thread.interrupt();
+    } finally {
+      interruptSent = true;
+      LockSupport.unpark(thread);
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.timeout;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fail calls of the method taking longer than a timeout with {@link TimeoutExceededException}.
+ * 
+ * <p>
+ * The call proceeds in another thread, a virtual thread in Java 21 or later, or the executor bound to
+ * {@link TimeoutInterceptor#EXECUTOR} in the {@link com.github.x3333.dagger.aop.InvocationContext InvocationContext}, while the caller
+ * waits up to the timeout. When the timeout passes the call is abandoned and interrupted, and the caller fails right away. Exceptions
+ * thrown by the method are thrown to the caller as is.
+ * 
+ * <p>
+ * Methods returning a {@link java.util.concurrent.CompletionStage CompletionStage} are called by the caller, and the stage returned
+ * fails if the stage of the method doesn't complete in time.
+ * 
+ * <p>
+ * Interceptors are nested in the order their handlers are registered, and this one is called before
+ * {@link com.github.x3333.dagger.aop.interceptors.retry.Retry Retry}, so combined the timeout bounds all the attempts and their
+ * backoffs. At the deadline the abandoned call is interrupted, which stops the retries.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Timeout {
+
+  /**
+   * @return Maximum duration of a call, in {@link #unit()}.
+   */
+  long value();
+
+  /**
+   * @return Unit of {@link #value()}.
+   */
+  TimeUnit unit() default TimeUnit.MILLISECONDS;
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.timeout;
+
+import com.github.x3333.dagger.aop.AsyncMethodInterceptor;
+import com.github.x3333.dagger.aop.AsyncMethodInvocation;
+import com.github.x3333.dagger.aop.InvocationContext;
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+
+/**
+ * Time the calls of {@link Timeout} methods.
+ * 
+ * <p>
+ * Calls proceed in a {@link TimedCall}, run by the executor bound to {@link #EXECUTOR}, or the default one, which creates a virtual
+ * thread per call in Java 21 or later, and reuses daemon threads in older versions. Stages are timed by the shared
+ * {@link TimerWheel}, failing the stage returned at the deadline and cancelling the stage of the method.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class TimeoutInterceptor implements AsyncMethodInterceptor {
+
+  /**
+   * Key of the {@link Executor} running the calls of {@link Timeout} methods, when bound in the {@link InvocationContext} of the
+   * caller.
+   */
+  public static final InvocationContext.Key<Executor> EXECUTOR = InvocationContext.key("aop.timeout.executor");
+
+  @Inject
+  public TimeoutInterceptor() {}
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T invoke(final MethodInvocation invocation) throws Throwable {
+    final long timeoutNanos = invocation.methodState(TimeoutInterceptor::timeoutNanos);
+    final InvocationContext context = InvocationContext.current();
+    final Executor executor = context.get(EXECUTOR);
+    final TimedCall call = new TimedCall(invocation, context);
+    (executor == null ? DefaultExecutor.INSTANCE : executor).execute(call);
+    return (T) call.await(timeoutNanos);
+  }
+
+  @Override
+  public <T> CompletionStage<T> invokeAsync(final AsyncMethodInvocation invocation) throws Throwable {
+    final long timeoutNanos = invocation.methodState(TimeoutInterceptor::timeoutNanos);
+    final CompletionStage<T> stage = invocation.proceedAsync();
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    final TimerWheel.Timer timer = TimerWheel.shared().schedule(() -> {
+      if (result.completeExceptionally(
+          new TimeoutExceededException("Stage of " + invocation.getMethod().getName() + " timed out"))) {
+        try {
+          stage.toCompletableFuture().cancel(true);
+        } catch (final UnsupportedOperationException e) {
+          // Stage can't be cancelled.
+        }
+      }
+    }, timeoutNanos);
+    stage.whenComplete((value, e) -> {
+      timer.cancel();
+      if (e != null) {
+        result.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+      } else {
+        result.complete(value);
+      }
+    });
+    return result;
+  }
+
+  //
+
+  private static Long timeoutNanos(final MethodInvocation invocation) {
+    final Timeout timeout = invocation.annotation(Timeout.class);
+    return timeout.unit().toNanos(timeout.value());
+  }
+
+  /**
+   * Executor of calls without an executor bound.
+   */
+  private static final class DefaultExecutor {
+
+    static final Executor INSTANCE = create();
+
+    private static Executor create() {
+      try {
+        // Java 21 or later, found using reflection as the library targets Java 8.
+        return (ExecutorService) MethodHandles.publicLookup()
+            .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+            .invoke();
+      } catch (final Throwable e) {
+        final AtomicInteger threads = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+          final Thread thread = new Thread(runnable, "aop-timeout-" + threads.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+      }
+    }
+
+  }
+
+}
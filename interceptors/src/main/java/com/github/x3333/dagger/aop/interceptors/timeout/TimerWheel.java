@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.timeout;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timer wheel, running the tasks of all timers in a single daemon thread.
+ * 
+ * <p>
+ * Timers are added to a lock-free queue and moved by the timer thread to the bucket of their deadline tick, with the number of
+ * rounds of the wheel left. Each tick the thread expires its bucket, so scheduling and cancelling are constant time and don't
+ * contend, unlike a {@link java.util.concurrent.ScheduledThreadPoolExecutor} which keeps its tasks in a locked heap. Cancelled timers
+ * are unlinked when their bucket is reached. The thread parks while there are no timers, without ticking.
+ * 
+ * <p>
+ * Timers expire at the first tick after their deadline, so tasks run at most a tick late, never early. Tasks run in the timer thread
+ * and must be short.
+ * 
+ * <p>
+ * Time is read from the clock of the wheel, so a wheel not {@link #start(String) started} can be driven by a test, calling
+ * {@link #advance()} after moving its clock.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+final class TimerWheel implements Runnable {
+
+  private final long tickNanos;
+  private final Timer[] buckets;
+  private final int mask;
+  private final LongSupplier clock;
+  private final long origin;
+  private final Queue<Timer> pending = new ConcurrentLinkedQueue<>();
+  private volatile Thread thread;
+  private volatile boolean idle;
+
+  // Owned by the thread advancing the wheel.
+  private long tick;
+  private int count;
+
+  /**
+   * Create a wheel, not started.
+   * 
+   * @param tickNanos Duration of a tick, in nanoseconds.
+   * @param size Buckets of the wheel, a power of two.
+   * @param clock Source of the time, in nanoseconds, like {@link System#nanoTime()}.
+   */
+  TimerWheel(final long tickNanos, final int size, final LongSupplier clock) {
+    this.tickNanos = tickNanos;
+    this.buckets = new Timer[size];
+    this.mask = buckets.length - 1;
+    this.clock = clock;
+    this.origin = clock.getAsLong();
+  }
+
+  /**
+   * Wheel of 1ms ticks, shared by all {@link Timeout} methods, created on the first stage timed.
+   */
+  static TimerWheel shared() {
+    return Shared.INSTANCE;
+  }
+
+  /**
+   * Start the thread advancing the wheel.
+   * 
+   * @param name Name of the timer thread.
+   * @return This wheel.
+   */
+  TimerWheel start(final String name) {
+    final Thread started = new Thread(this, name);
+    started.setDaemon(true);
+    thread = started;
+    started.start();
+    return this;
+  }
+
+  /**
+   * Schedule <code>task</code> to run after <code>delayNanos</code>.
+   * 
+   * @param task Task to run.
+   * @param delayNanos Delay in nanoseconds.
+   * @return Timer, to be cancelled.
+   */
+  Timer schedule(final Runnable task, final long delayNanos) {
+    final Timer timer = new Timer(task, clock.getAsLong() + delayNanos);
+    pending.add(timer);
+    if (idle) {
+      LockSupport.unpark(thread);
+    }
+    return timer;
+  }
+
+  /**
+   * Expire the timers of the ticks elapsed until now. Called by the timer thread, or by a single thread if the wheel is not started.
+   */
+  void advance() {
+    final long now = (clock.getAsLong() - origin) / tickNanos;
+    if (count == 0) {
+      // No timers in the buckets, skip the idle ticks.
+      tick = Math.max(tick, now);
+    }
+    transferPending();
+    while (tick <= now) {
+      expire((int) tick & mask);
+      tick++;
+    }
+  }
+
+  @Override
+  public void run() {
+    for (;;) {
+      advance();
+      if (count == 0) {
+        // A timer added before idle is set is found by the check, one added after unparks the thread.
+        idle = true;
+        if (pending.isEmpty()) {
+          LockSupport.park(this);
+        }
+        idle = false;
+        continue;
+      }
+      final long wait = origin + tick * tickNanos - clock.getAsLong();
+      if (wait > 0) {
+        LockSupport.parkNanos(this, wait);
+      }
+    }
+  }
+
+  //
+
+  private void transferPending() {
+    Timer timer;
+    while ((timer = pending.poll()) != null) {
+      if (timer.isCancelled()) {
+        continue;
+      }
+      // Deadline tick rounded up, so the timer never expires early.
+      final long ticks = Math.max((timer.deadline - origin + tickNanos - 1) / tickNanos, tick);
+      final int index = (int) ticks & mask;
+      timer.rounds = (ticks - tick) / buckets.length;
+      timer.next = buckets[index];
+      buckets[index] = timer;
+      count++;
+    }
+  }
+
+  private void expire(final int index) {
+    Timer previous = null;
+    Timer timer = buckets[index];
+    while (timer != null) {
+      final Timer next = timer.next;
+      if (timer.rounds <= 0 || timer.isCancelled()) {
+        if (previous == null) {
+          buckets[index] = next;
+        } else {
+          previous.next = next;
+        }
+        timer.next = null;
+        count--;
+        timer.expire();
+      } else {
+        timer.rounds--;
+        previous = timer;
+      }
+      timer = next;
+    }
+  }
+
+  /**
+   * Timer of a task.
+   */
+  static final class Timer {
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+    private static final AtomicIntegerFieldUpdater<Timer> STATE = AtomicIntegerFieldUpdater.newUpdater(Timer.class, "state");
+
+    private final Runnable task;
+    final long deadline;
+    long rounds;
+    Timer next;
+    private volatile int state;
+
+    Timer(final Runnable task, final long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Cancel the timer.
+     * 
+     * @return <code>true</code> if cancelled, <code>false</code> if it has already expired.
+     */
+    boolean cancel() {
+      return STATE.compareAndSet(this, PENDING, CANCELLED);
+    }
+
+    boolean isCancelled() {
+      return state == CANCELLED;
+    }
+
+    void expire() {
+      if (STATE.compareAndSet(this, PENDING, EXPIRED)) {
+        try {
+          task.run();
+        } catch (final Throwable e) {
+          final Thread thread = Thread.currentThread();
+          thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+      }
+    }
+
+  }
+
+  private static final class Shared {
+
+    static final TimerWheel INSTANCE =
+        new TimerWheel(TimeUnit.MILLISECONDS.toNanos(1), 512, System::nanoTime).start("aop-timeout-timer");
+
+  }
+
+}
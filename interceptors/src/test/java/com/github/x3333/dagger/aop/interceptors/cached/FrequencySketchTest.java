@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.cached;
+
+import org.junit.Test;
+
+import com.google.common.truth.Truth;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class FrequencySketchTest {
+
+  @Test
+  public void frequencyIsCapped() {
+    final FrequencySketch sketch = new FrequencySketch(8);
+    for (int i = 1; i <= 20; i++) {
+      sketch.increment("key");
+      Truth.assertThat(sketch.frequency("key")).isEqualTo(Math.min(i, 15));
+    }
+  }
+
+  @Test
+  public void resetHalvesFrequencies() {
+    // A table sized for 8 keys is reset after 80 increments
+    final FrequencySketch sketch = new FrequencySketch(8);
+    for (int i = 0; i < 15; i++) {
+      sketch.increment("hot");
+    }
+    for (int i = 0; i < 64; i++) {
+      sketch.increment(i);
+    }
+    Truth.assertThat(sketch.frequency("hot")).isEqualTo(15);
+    sketch.increment(64);
+    Truth.assertThat(sketch.frequency("hot")).isEqualTo(7);
+  }
+
+  @Test
+  public void growingDiscardsFrequencies() {
+    final FrequencySketch sketch = new FrequencySketch(8);
+    sketch.increment("key");
+    sketch.ensureCapacity(8);
+    Truth.assertThat(sketch.frequency("key")).isEqualTo(1);
+    sketch.ensureCapacity(1024);
+    Truth.assertThat(sketch.frequency("key")).isEqualTo(0);
+  }
+
+}
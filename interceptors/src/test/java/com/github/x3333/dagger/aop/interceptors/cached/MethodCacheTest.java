@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.cached;
+
+import com.github.x3333.dagger.aop.MethodInvocation;
+
+import java.lang.reflect.Proxy;
+
+import org.junit.Test;
+
+import com.google.common.truth.Truth;
+
+/**
+ * W-TinyLFU policy of {@link MethodCache}, single threaded so every read is recorded before the next load. Caches are up to 64
+ * entries, so the sketch doesn't grow, discarding the frequencies.
+ * 
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class MethodCacheTest {
+
+  private Object key;
+  private int loads;
+  private final MethodInvocation invocation = (MethodInvocation) Proxy.newProxyInstance(getClass().getClassLoader(),
+      new Class<?>[] {MethodInvocation.class}, (proxy, method, args) -> {
+        if (!method.getName().equals("proceed")) {
+          throw new UnsupportedOperationException(method.getName());
+        }
+        loads++;
+        return key;
+      });
+
+  @Test
+  public void loadsOnce() throws Throwable {
+    final MethodCache cache = cache(10);
+    Truth.assertThat(get(cache, 1)).isEqualTo(1);
+    Truth.assertThat(get(cache, 1)).isEqualTo(1);
+    Truth.assertThat(loads).isEqualTo(1);
+  }
+
+  @Test
+  public void coldCandidateIsRejected() throws Throwable {
+    // Window of 1 entry, probation holds 0 to 48 when 49 leaves the window, as frequent as the probation LRU entry
+    final MethodCache cache = cache(50);
+    for (int i = 0; i <= 50; i++) {
+      get(cache, i);
+    }
+    Truth.assertThat(cache.size()).isEqualTo(50);
+    Truth.assertThat(cache.containsKey(0)).isTrue();
+    Truth.assertThat(cache.containsKey(49)).isFalse();
+    Truth.assertThat(cache.containsKey(50)).isTrue();
+  }
+
+  @Test
+  public void frequentCandidateEvictsVictim() throws Throwable {
+    final MethodCache cache = cache(50);
+    for (int i = 0; i <= 50; i++) {
+      get(cache, i);
+    }
+    // 50 is read in the window, then moved to probation by 51, more frequent than the probation LRU entry
+    for (int i = 0; i < 3; i++) {
+      get(cache, 50);
+    }
+    get(cache, 51);
+    Truth.assertThat(cache.containsKey(0)).isFalse();
+    Truth.assertThat(cache.containsKey(1)).isTrue();
+    Truth.assertThat(cache.containsKey(50)).isTrue();
+  }
+
+  @Test
+  public void protectedOverflowIsDemoted() throws Throwable {
+    // Window of 1 entry and protected of 4, reading 0 to 4 in probation promotes them, demoting 0 back to probation
+    final MethodCache cache = cache(10);
+    for (int i = 0; i <= 8; i++) {
+      get(cache, i);
+    }
+    for (int i = 0; i <= 4; i++) {
+      get(cache, i);
+    }
+    // Each new entry is read twice, evicting the probation LRU entry when it leaves the window: 5, 6, 7 and the demoted 0
+    for (int i = 9; i <= 13; i++) {
+      get(cache, i);
+      get(cache, i);
+      get(cache, i);
+    }
+    Truth.assertThat(cache.containsKey(0)).isFalse();
+    for (int i = 1; i <= 4; i++) {
+      Truth.assertThat(cache.containsKey(i)).isTrue();
+    }
+    for (int i = 5; i <= 7; i++) {
+      Truth.assertThat(cache.containsKey(i)).isFalse();
+    }
+    Truth.assertThat(cache.containsKey(8)).isTrue();
+    Truth.assertThat(cache.size()).isEqualTo(10);
+  }
+
+  //
+
+  private MethodCache cache(final long maximumWeight) {
+    return new MethodCache(invocation -> key, new Weigher.Unit(), maximumWeight, 0);
+  }
+
+  private Object get(final MethodCache cache, final Object key) throws Throwable {
+    this.key = key;
+    return cache.get(invocation);
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package com.github.x3333.dagger.aop.interceptors.circuitbreaker;
+
+import static org.junit.Assert.fail;
+
+import com.github.x3333.dagger.aop.interceptors.circuitbreaker.MethodCircuitBreaker.State;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.truth.Truth;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class MethodCircuitBreakerTest {
+
+  private static final long WAIT_MILLIS = 50;
+
+  @Test
+  public void halfOpenClosesAfterSucceededProbes() throws Exception {
+    final MethodCircuitBreaker breaker = newBreaker();
+    trip(breaker);
+    Thread.sleep(WAIT_MILLIS * 2);
+    final State first = breaker.acquire();
+    final State second = breaker.acquire();
+    Truth.assertThat(first.toString()).isEqualTo("HALF_OPEN");
+    assertRejected(breaker, "HALF_OPEN");
+    breaker.record(first, null);
+    breaker.record(second, null);
+    Truth.assertThat(breaker.acquire().toString()).isEqualTo("CLOSED");
+  }
+
+  @Test
+  public void halfOpenOpensAgainAfterFailedProbes() throws Exception {
+    final MethodCircuitBreaker breaker = newBreaker();
+    trip(breaker);
+    Thread.sleep(WAIT_MILLIS * 2);
+    final State first = breaker.acquire();
+    final State second = breaker.acquire();
+    Truth.assertThat(first.toString()).isEqualTo("HALF_OPEN");
+    breaker.record(first, new IllegalStateException());
+    breaker.record(second, new IllegalStateException());
+    assertRejected(breaker, "OPEN");
+    // And waits again before probing
+    Thread.sleep(WAIT_MILLIS * 2);
+    Truth.assertThat(breaker.acquire().toString()).isEqualTo("HALF_OPEN");
+  }
+
+  //
+
+  @CircuitBreaker(slidingWindowSize = 2, minimumNumberOfCalls = 2, waitDurationOpen = WAIT_MILLIS,
+      waitDurationUnit = TimeUnit.MILLISECONDS, permittedCallsInHalfOpen = 2)
+  private static void breaking() {}
+
+  private static MethodCircuitBreaker newBreaker() throws NoSuchMethodException {
+    return new MethodCircuitBreaker("breaking",
+        MethodCircuitBreakerTest.class.getDeclaredMethod("breaking").getAnnotation(CircuitBreaker.class));
+  }
+
+  private static void trip(final MethodCircuitBreaker breaker) {
+    for (int i = 0; i < 2; i++) {
+      breaker.record(breaker.acquire(), new IllegalStateException());
+    }
+    assertRejected(breaker, "OPEN");
+  }
+
+  private static void assertRejected(final MethodCircuitBreaker breaker, final String state) {
+    try {
+      breaker.acquire();
+      fail("Expected CircuitBreakerOpenException");
+    } catch (final CircuitBreakerOpenException e) {
+      Truth.assertThat(e.getMessage()).endsWith(" is " + state);
+    }
+  }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package com.github.x3333.dagger.aop.interceptors.circuitbreaker;
+
+import org.junit.Test;
+
+import com.google.common.truth.Truth;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class OutcomeWindowTest {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  @Test
+  public void timeBasedCountsLastSeconds() {
+    final OutcomeWindow window = new OutcomeWindow.TimeBased(3);
+    assertCounts(window.record(true, 0), 1, 1);
+    assertCounts(window.record(false, SECOND), 2, 1);
+    assertCounts(window.record(false, 2 * SECOND + SECOND / 2), 3, 1);
+    // Bucket of the first second is reset
+    assertCounts(window.record(false, 3 * SECOND), 3, 0);
+    // Buckets of seconds out of the window are not counted
+    assertCounts(window.record(false, 10 * SECOND), 1, 0);
+  }
+
+  @Test
+  public void timeBasedIgnoresStaleBucketsOfWrappedEpochs() {
+    final OutcomeWindow window = new OutcomeWindow.TimeBased(3);
+    window.record(true, 5 * SECOND);
+    // A 16 bit epoch would take the failure as recorded in this second
+    assertCounts(window.record(false, (5 + 65_536) * SECOND), 1, 0);
+    assertCounts(window.record(false, (5 + 65_536 * 3) * SECOND), 1, 0);
+  }
+
+  @Test
+  public void timeBasedSaturates() {
+    final OutcomeWindow window = new OutcomeWindow.TimeBased(1);
+    for (int i = 0; i < 70_000; i++) {
+      window.record(true, 0);
+    }
+    assertCounts(window.record(true, 0), 65_535, 65_535);
+  }
+
+  @Test
+  public void countBasedCountsLastCalls() {
+    final OutcomeWindow window = new OutcomeWindow.CountBased(2);
+    assertCounts(window.record(true, 0), 1, 1);
+    assertCounts(window.record(false, 0), 2, 1);
+    assertCounts(window.record(false, 0), 2, 0);
+  }
+
+  //
+
+  private static void assertCounts(final long counts, final int calls, final int failures) {
+    Truth.assertThat(OutcomeWindow.calls(counts)).isEqualTo(calls);
+    Truth.assertThat(OutcomeWindow.failures(counts)).isEqualTo(failures);
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.memo;
+
+import static org.junit.Assert.fail;
+
+import java.io.InvalidClassException;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.truth.Truth;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class MemoFileTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void restart() throws Exception {
+    // Segments of 512 bytes hold a few records, the first key is read after each put, so its segment is never evicted
+    final Path path = folder.getRoot().toPath().resolve("restart.memo");
+    final ClassLoader classLoader = getClass().getClassLoader();
+    try (MemoFile file = MemoFile.open(path, 16 + 16 * 512, String.class, classLoader)) {
+      file.put(MemoFile.key(0), "value0");
+      for (int i = 1; i <= 200; i++) {
+        file.put(MemoFile.key(i), "value" + i);
+        Truth.assertThat(file.get(MemoFile.key(0))).isEqualTo("value0");
+      }
+      Truth.assertThat(file.get(MemoFile.key(100))).isSameAs(MemoFile.MISS);
+    }
+    try (MemoFile file = MemoFile.open(path, 16 + 16 * 512, String.class, classLoader)) {
+      Truth.assertThat(file.get(MemoFile.key(0))).isEqualTo("value0");
+      Truth.assertThat(file.get(MemoFile.key(200))).isEqualTo("value200");
+      Truth.assertThat(file.get(MemoFile.key(100))).isSameAs(MemoFile.MISS);
+    }
+  }
+
+  @Test
+  public void latestWriteWinsOnRestart() throws Exception {
+    // The first segment is read after the key is written again in a later one, so it is the most recently used
+    final Path path = folder.getRoot().toPath().resolve("latest.memo");
+    final ClassLoader classLoader = getClass().getClassLoader();
+    try (MemoFile file = MemoFile.open(path, 16 + 16 * 512, String.class, classLoader)) {
+      file.put(MemoFile.key("key"), "old");
+      for (int i = 0; i < 12; i++) {
+        file.put(MemoFile.key(i), "value" + i);
+      }
+      file.put(MemoFile.key("key"), "new");
+      for (int i = 0; i < 10; i++) {
+        Truth.assertThat(file.get(MemoFile.key(0))).isEqualTo("value0");
+      }
+    }
+    try (MemoFile file = MemoFile.open(path, 16 + 16 * 512, String.class, classLoader)) {
+      Truth.assertThat(file.get(MemoFile.key("key"))).isEqualTo("new");
+    }
+  }
+
+  @Test
+  public void valueClasses() throws Exception {
+    final Path path = folder.getRoot().toPath().resolve("classes.memo");
+    final Type valueType = getClass().getDeclaredMethod("values").getGenericReturnType();
+    try (MemoFile file = MemoFile.open(path, 64 * 1024, valueType, getClass().getClassLoader())) {
+      final ArrayList<Integer> values = new ArrayList<>(Arrays.asList(1, 2));
+      file.put(MemoFile.key(0), values);
+      Truth.assertThat(file.get(MemoFile.key(0))).isEqualTo(values);
+      file.put(MemoFile.key(1), new Date());
+      try {
+        file.get(MemoFile.key(1));
+        fail("Expected InvalidClassException");
+      } catch (final InvalidClassException expected) {
+        Truth.assertThat(expected.getMessage()).contains("java.util.Date");
+      }
+    }
+  }
+
+  @Test
+  public void interfaceValueClasses() throws Exception {
+    // Map only allows the maps of the JDK, not any serializable class implementing it
+    final Path path = folder.getRoot().toPath().resolve("interface.memo");
+    final Type valueType = getClass().getDeclaredMethod("map").getGenericReturnType();
+    try (MemoFile file = MemoFile.open(path, 64 * 1024, valueType, getClass().getClassLoader())) {
+      final HashMap<String, Integer> values = new HashMap<>();
+      values.put("a", 1);
+      file.put(MemoFile.key(0), values);
+      Truth.assertThat(file.get(MemoFile.key(0))).isEqualTo(values);
+      file.put(MemoFile.key(1), new UserMap());
+      try {
+        file.get(MemoFile.key(1));
+        fail("Expected InvalidClassException");
+      } catch (final InvalidClassException expected) {
+        Truth.assertThat(expected.getMessage()).contains(UserMap.class.getName());
+      }
+    }
+  }
+
+  @Test
+  public void close() throws Exception {
+    final MemoFile file = MemoFile.open(folder.getRoot().toPath().resolve("close.memo"), MemoFile.MINIMUM_SIZE, String.class,
+        getClass().getClassLoader());
+    file.put(MemoFile.key(0), "value");
+    file.close();
+    Truth.assertThat(file.get(MemoFile.key(0))).isSameAs(MemoFile.MISS);
+    Truth.assertThat(file.put(MemoFile.key(0), "value")).isFalse();
+  }
+
+  @SuppressWarnings("unused")
+  private static List<? extends Number> values() {
+    return null;
+  }
+
+  @SuppressWarnings("unused")
+  private static Map<String, Integer> map() {
+    return null;
+  }
+
+  private static final class UserMap extends HashMap<String, Integer> {
+
+    private static final long serialVersionUID = 1L;
+
+  }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.ratelimited;
+
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.google.common.truth.Truth;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class KeyedBucketsTest {
+
+  private static final long NOW = 1_000_000L;
+
+  @Test
+  public void bucketByKey() {
+    final KeyedBuckets buckets = new KeyedBuckets(1024);
+    Truth.assertThat(buckets.bucket("a", NOW)).isSameAs(buckets.bucket("a", NOW));
+    Truth.assertThat(buckets.bucket(null, NOW)).isSameAs(buckets.bucket(null, NOW));
+    Truth.assertThat(buckets.bucket(7L, NOW)).isSameAs(buckets.bucket(7L, NOW));
+    Truth.assertThat(buckets.bucket("a", NOW)).isNotSameAs(buckets.bucket("b", NOW));
+    Truth.assertThat(buckets.bucket(7L, NOW)).isNotSameAs(buckets.bucket(8L, NOW));
+    Truth.assertThat(buckets.size()).isEqualTo(5);
+  }
+
+  @Test
+  public void boundedByMaximumKeys() {
+    final KeyedBuckets buckets = new KeyedBuckets(64);
+    for (long key = 0; key < 10_000; key++) {
+      final TokenBucket bucket = buckets.bucket(key, NOW);
+      busy(bucket);
+      Truth.assertThat(buckets.bucket(key, NOW)).isSameAs(bucket);
+      Truth.assertThat(buckets.size()).isAtMost(64);
+    }
+  }
+
+  @Test
+  public void stripesAddUpToMaximumKeys() {
+    // 6 keys per stripe, and one more in the first 4
+    final KeyedBuckets buckets = new KeyedBuckets(100);
+    for (long key = 0; key < 10_000; key++) {
+      buckets.bucket(key, NOW);
+    }
+    Truth.assertThat(buckets.size()).isEqualTo(100);
+  }
+
+  @Test
+  public void lessMaximumKeysThanStripes() {
+    try {
+      new KeyedBuckets(KeyedBuckets.STRIPES - 1);
+      fail("Expected IllegalArgumentException");
+    } catch (final IllegalArgumentException expected) {
+      Truth.assertThat(expected.getMessage()).contains("at least 16");
+    }
+  }
+
+  @Test
+  public void idleBucketsAreEvictedFirst() {
+    // Stripes of 64 keys, each sample of the clock hand finds an idle bucket before the few busy ones
+    final KeyedBuckets buckets = new KeyedBuckets(16 * 64);
+    final TokenBucket[] busy = new TokenBucket[4];
+    for (int i = 0; i < busy.length; i++) {
+      busy[i] = buckets.bucket("busy" + i, NOW);
+      busy(busy[i]);
+    }
+    for (long key = 0; key < 10_000; key++) {
+      buckets.bucket(key, NOW);
+    }
+    Truth.assertThat(buckets.size()).isAtMost(16 * 64);
+    for (int i = 0; i < busy.length; i++) {
+      Truth.assertThat(buckets.bucket("busy" + i, NOW)).isSameAs(busy[i]);
+    }
+  }
+
+  //
+
+  private static void busy(final TokenBucket bucket) {
+    Truth.assertThat(bucket.reserve(NOW, 1_000, 1_000, 0)).isEqualTo(0);
+    Truth.assertThat(bucket.isIdle(NOW)).isFalse();
+  }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.retry;
+
+import org.junit.Test;
+
+import com.google.common.truth.Truth;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class RetryBudgetTest {
+
+  @Test
+  public void withdrawAndDeposit() {
+    // Budget with 10% of the calls and 2 retries when full
+    final RetryBudget budget = new RetryBudget(10, 2);
+    Truth.assertThat(budget.tryWithdraw()).isTrue();
+    Truth.assertThat(budget.tryWithdraw()).isTrue();
+    Truth.assertThat(budget.tryWithdraw()).isFalse();
+    for (int i = 0; i < 10; i++) {
+      budget.deposit();
+    }
+    Truth.assertThat(budget.available()).isEqualTo(1L);
+    Truth.assertThat(budget.tryWithdraw()).isTrue();
+    Truth.assertThat(budget.tryWithdraw()).isFalse();
+  }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.timed;
+
+import org.junit.Test;
+
+import com.google.common.collect.Range;
+import com.google.common.truth.Truth;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class LatencyHistogramTest {
+
+  @Test
+  public void percentiles() {
+    // Values 1 to 10000 ns, percentiles are the highest value of their bucket, within the relative error of 1/32.
+    final LatencyHistogram histogram = new LatencyHistogram("test");
+    for (long i = 1; i <= 10000; i++) {
+      histogram.record(i);
+    }
+    Truth.assertThat(histogram.getCount()).isEqualTo(10000L);
+    Truth.assertThat(histogram.getMax()).isEqualTo(10000L);
+    Truth.assertThat(histogram.getP50()).isIn(Range.closed(5000L, 5000L + 5000 / 32));
+    Truth.assertThat(histogram.getP99()).isIn(Range.closed(9900L, 9900L + 9900 / 32));
+    Truth.assertThat(histogram.getP999()).isIn(Range.closed(9990L, 9990L + 9990 / 32));
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2016 Tercio Gaudencio Filho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.github.x3333.dagger.aop.interceptors.timeout;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.google.common.truth.Truth;
+
+/**
+ * @author Tercio Gaudencio Filho (terciofilho [at] gmail.com)
+ */
+public class TimerWheelTest {
+
+  private static final long TICK = 1_000;
+
+  private final AtomicLong now = new AtomicLong(1_000_000);
+  // Wheel of 8 buckets, driven by the test
+  private final TimerWheel wheel = new TimerWheel(TICK, 8, now::get);
+
+  @Test
+  public void expiresAtDeadline() {
+    final AtomicInteger runs = new AtomicInteger();
+    wheel.schedule(runs::incrementAndGet, 5 * TICK - 1);
+    advanceTo(4 * TICK);
+    Truth.assertThat(runs.get()).isEqualTo(0);
+    // Deadline rounded up to the next tick, never early
+    advanceTo(5 * TICK - 1);
+    Truth.assertThat(runs.get()).isEqualTo(0);
+    advanceTo(5 * TICK);
+    Truth.assertThat(runs.get()).isEqualTo(1);
+    advanceTo(20 * TICK);
+    Truth.assertThat(runs.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void expiresAfterRounds() {
+    // Beyond the wheel, its bucket is reached twice before the deadline
+    final AtomicInteger runs = new AtomicInteger();
+    wheel.schedule(runs::incrementAndGet, 20 * TICK);
+    for (long tick = 1; tick < 20; tick++) {
+      advanceTo(tick * TICK);
+      Truth.assertThat(runs.get()).isEqualTo(0);
+    }
+    advanceTo(20 * TICK);
+    Truth.assertThat(runs.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void elapsedTicksExpireInOrder() {
+    // Ticks missed by the timer thread are expired at once, by deadline
+    final StringBuilder order = new StringBuilder();
+    wheel.schedule(() -> order.append('c'), 30 * TICK);
+    wheel.schedule(() -> order.append('a'), 3 * TICK);
+    wheel.schedule(() -> order.append('b'), 7 * TICK);
+    advanceTo(0);
+    advanceTo(100 * TICK);
+    Truth.assertThat(order.toString()).isEqualTo("abc");
+  }
+
+  @Test
+  public void cancel() {
+    final AtomicInteger runs = new AtomicInteger();
+    final TimerWheel.Timer cancelled = wheel.schedule(runs::incrementAndGet, 2 * TICK);
+    final TimerWheel.Timer expired = wheel.schedule(runs::incrementAndGet, 2 * TICK);
+    advanceTo(TICK);
+    Truth.assertThat(cancelled.cancel()).isTrue();
+    advanceTo(2 * TICK);
+    Truth.assertThat(runs.get()).isEqualTo(1);
+    Truth.assertThat(expired.cancel()).isFalse();
+  }
+
+  @Test
+  public void idleTicksSkipped() {
+    // After a long idle period, timers expire by their own deadline
+    advanceTo(1_000_000 * TICK);
+    final AtomicInteger runs = new AtomicInteger();
+    wheel.schedule(runs::incrementAndGet, 3 * TICK);
+    advanceTo(1_000_002 * TICK);
+    Truth.assertThat(runs.get()).isEqualTo(0);
+    advanceTo(1_000_003 * TICK);
+    Truth.assertThat(runs.get()).isEqualTo(1);
+  }
+
+  //
+
+  private void advanceTo(final long elapsed) {
+    now.set(1_000_000 + elapsed);
+    wheel.advance();
+  }
+
+}